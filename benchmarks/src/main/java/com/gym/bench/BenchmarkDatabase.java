@@ -0,0 +1,169 @@
+package com.gym.bench;
+
+import com.gym.AppConfig;
+import com.gym.SyntheticDataGenerator;
+import com.gym.repository.sqlite.SqliteBookingRepository;
+import com.gym.repository.sqlite.SqliteClassRepository;
+import com.gym.repository.sqlite.SqliteDatabaseManager;
+import com.gym.repository.sqlite.SqliteOutboxRepository;
+import com.gym.repository.sqlite.SqliteProgressRepository;
+import com.gym.repository.sqlite.SqliteRequestKeyRepository;
+import com.gym.repository.sqlite.SqliteUserRepository;
+import com.gym.repository.sqlite.SqliteWaitlistRepository;
+import com.gym.service.AuthService;
+import com.gym.service.BookingService;
+import com.gym.service.ClassService;
+import com.gym.service.ProgressService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shared JMH state: a temp-file SQLite database seeded with a dataset whose
+ * size is driven by the number of members, plus plain SQLite repositories
+ * for the repository benchmarks and the app's services.
+ *
+ * The services come from AppConfig.init on this database, as in the load
+ * simulator, so they run the app's path: booking changes in transactions
+ * with outbox events (XP awarded by the dispatcher), waitlist promotion,
+ * request keys, the cached user repository on login, and the metrics
+ * proxies (-Dgym.metrics=false in the forked JVM leaves them out).
+ *
+ * Derived sizes: classes = members / 100 (min 10), 20 schedules per class,
+ * 10 bookings and 7 progress rows per member. Rows come from
+ * SyntheticDataGenerator, so member ids are 1..members and schedule /
+ * booking ids are 1..schedules / 1..bookings.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    static final String[] CATEGORIES = {"CARDIO", "STRENGTH", "FLEXIBILITY", "ENDURANCE", "LEGS", "ARMS", "CORE"};
+
+    @Param({"1000", "10000"})
+    public int members;
+
+    public int classes;
+    public int schedules;
+    public int bookings;
+
+    public SqliteDatabaseManager dbManager;
+    public SqliteUserRepository userRepository;
+    public SqliteClassRepository classRepository;
+    public SqliteBookingRepository bookingRepository;
+    public SqliteProgressRepository progressRepository;
+    public SqliteOutboxRepository outboxRepository;
+    public SqliteWaitlistRepository waitlistRepository;
+    public SqliteRequestKeyRepository requestKeyRepository;
+
+    public AuthService authService;
+    public ClassService classService;
+    public ProgressService progressService;
+    public BookingService bookingService;
+
+    private Path dbFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        classes = Math.max(10, members / 100);
+        schedules = classes * 20;
+        bookings = members * 10;
+
+        dbFile = Files.createTempFile("gym-bench-", ".db");
+        dbManager = new SqliteDatabaseManager("jdbc:sqlite:" + dbFile.toAbsolutePath());
+        dbManager.initializeDatabase();
+        seed();
+
+        userRepository = new SqliteUserRepository(dbManager);
+        classRepository = new SqliteClassRepository(dbManager);
+        bookingRepository = new SqliteBookingRepository(dbManager);
+        progressRepository = new SqliteProgressRepository(dbManager);
+        outboxRepository = new SqliteOutboxRepository(dbManager);
+        waitlistRepository = new SqliteWaitlistRepository(dbManager);
+        requestKeyRepository = new SqliteRequestKeyRepository(dbManager);
+
+        AppConfig.init(dbManager);   // demo seeding is skipped: the dataset already has classes
+        authService = AppConfig.getAuthService();
+        classService = AppConfig.getClassService();
+        progressService = AppConfig.getProgressService();
+        bookingService = AppConfig.getBookingService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        AppConfig.getOutboxDispatcher().close();
+        dbManager.shutdown();
+        Files.deleteIfExists(dbFile);
+    }
+
+    /**
+     * Drops bookings created by write benchmarks and refills every schedule.
+     * Also clears what those writes left behind (waitlist entries, request
+     * keys, delivered outbox events), so later iterations see the same tables.
+     */
+    public void resetBookings() throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM bookings WHERE booking_id > " + bookings);
+            stmt.executeUpdate("UPDATE class_schedule SET available_spots = 1000");
+            stmt.executeUpdate("DELETE FROM waitlist");
+            stmt.executeUpdate("DELETE FROM request_keys");
+            stmt.executeUpdate("DELETE FROM outbox_handled WHERE event_id IN " +
+                    "(SELECT event_id FROM outbox WHERE dispatched_at IS NOT NULL)");
+            stmt.executeUpdate("DELETE FROM outbox WHERE dispatched_at IS NOT NULL");
+        }
+    }
+
+    /** Empties the outbox, for benchmarks that measure it with the dispatcher stopped. */
+    public void resetOutbox() throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM outbox_handled");
+            stmt.executeUpdate("DELETE FROM outbox");
+        }
+    }
+
+    public int randomUserId() {
+        return ThreadLocalRandom.current().nextInt(1, members + 1);
+    }
+
+    public int randomClassId() {
+        return ThreadLocalRandom.current().nextInt(1, classes + 1);
+    }
+
+    public int randomScheduleId() {
+        return ThreadLocalRandom.current().nextInt(1, schedules + 1);
+    }
+
+    public int randomBookingId() {
+        return ThreadLocalRandom.current().nextInt(1, bookings + 1);
+    }
+
+    public String randomCategory() {
+        return CATEGORIES[ThreadLocalRandom.current().nextInt(CATEGORIES.length)];
+    }
+
+    // Fixed seed so every run (and every release) benchmarks the same data
+    private void seed() throws SQLException {
+        SyntheticDataGenerator.Config config = new SyntheticDataGenerator.Config();
+        config.seed = 42;
+        config.members = members;
+        config.trainers = Math.max(1, classes / 5);
+        config.classes = classes;
+        config.schedules = schedules;
+        config.bookings = bookings;
+        config.daysBack = 90;
+        config.daysAhead = 14;
+        new SyntheticDataGenerator(dbManager, config).generate();
+    }
+}
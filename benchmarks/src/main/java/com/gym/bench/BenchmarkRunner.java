@@ -0,0 +1,43 @@
+package com.gym.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the normal JMH command line, but
+ * unless -rf/-rff are given it always writes JSON results to
+ * results/&lt;label&gt;.json, where the label is -Dgym.bench.label (for example a
+ * release version) or the current timestamp. Keep those files to compare
+ * runs across releases.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            String label = System.getProperty("gym.bench.label",
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+            new File("results").mkdirs();
+            options.result("results/" + label + ".json");
+        }
+        if (cli.getIncludes().isEmpty()) {
+            options.include("com\\.gym\\.bench\\..*");
+        }
+
+        new Runner(options.build()).run();
+    }
+}
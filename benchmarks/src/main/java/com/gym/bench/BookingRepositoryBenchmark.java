@@ -0,0 +1,100 @@
+package com.gym.bench;
+
+import com.gym.domain.Booking;
+import com.gym.utils.IntIntMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingRepositoryBenchmark {
+
+    @Setup(Level.Iteration)
+    public void reset(BenchmarkDatabase db) throws SQLException {
+        db.resetBookings();
+    }
+
+    @Benchmark
+    public Booking findById(BenchmarkDatabase db) {
+        return db.bookingRepository.findById(db.randomBookingId());
+    }
+
+    @Benchmark
+    public List<Booking> findByUserId(BenchmarkDatabase db) {
+        return db.bookingRepository.findByUserId(db.randomUserId());
+    }
+
+    @Benchmark
+    public List<Booking> findByScheduleId(BenchmarkDatabase db) {
+        return db.bookingRepository.findByScheduleId(db.randomScheduleId());
+    }
+
+    @Benchmark
+    public List<Booking> findAll(BenchmarkDatabase db) {
+        return db.bookingRepository.findAll();
+    }
+
+    @Benchmark
+    public int countByScheduleIdAndStatus(BenchmarkDatabase db) {
+        return db.bookingRepository.countByScheduleIdAndStatus(db.randomScheduleId(), "CONFIRMED");
+    }
+
+    @Benchmark
+    public boolean existsActiveBooking(BenchmarkDatabase db) {
+        return db.bookingRepository.existsActiveBooking(db.randomUserId(), db.randomScheduleId());
+    }
+
+    @Benchmark
+    public Map<String, Integer> countByStatus(BenchmarkDatabase db) {
+        return db.bookingRepository.countByStatus();
+    }
+
+    @Benchmark
+    public IntIntMap countActiveByClassId(BenchmarkDatabase db) {
+        return db.bookingRepository.countActiveByClassId();
+    }
+
+    @Benchmark
+    public boolean save(BenchmarkDatabase db) {
+        return db.bookingRepository.save(new Booking(db.randomUserId(), db.randomScheduleId(), "CONFIRMED"));
+    }
+
+    @Benchmark
+    public boolean update(BenchmarkDatabase db) {
+        Booking booking = db.bookingRepository.findById(db.randomBookingId());
+        return db.bookingRepository.update(booking);
+    }
+
+    /** A cancelled booking never conflicts with an active one, so the insert always succeeds. */
+    @Benchmark
+    public boolean saveThenUpdateStatus(BenchmarkDatabase db) {
+        Booking booking = new Booking(db.randomUserId(), db.randomScheduleId(), "CANCELLED");
+        db.bookingRepository.save(booking);
+        return db.bookingRepository.updateStatus(booking.getBookingId(), "CANCELLED", "ATTENDED");
+    }
+
+    @Benchmark
+    public boolean saveThenDelete(BenchmarkDatabase db) {
+        Booking booking = new Booking(db.randomUserId(), db.randomScheduleId(), "CONFIRMED");
+        db.bookingRepository.save(booking);
+        return db.bookingRepository.delete(booking.getBookingId());
+    }
+}
@@ -0,0 +1,110 @@
+package com.gym.bench;
+
+import com.gym.domain.ClassSchedule;
+import com.gym.domain.GymClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassRepositoryBenchmark {
+
+    // Classes
+    @Benchmark
+    public GymClass findClassById(BenchmarkDatabase db) {
+        return db.classRepository.findClassById(db.randomClassId());
+    }
+
+    @Benchmark
+    public List<GymClass> findAllClasses(BenchmarkDatabase db) {
+        return db.classRepository.findAllClasses();
+    }
+
+    @Benchmark
+    public boolean updateClass(BenchmarkDatabase db) {
+        GymClass gymClass = db.classRepository.findClassById(db.randomClassId());
+        return db.classRepository.updateClass(gymClass);
+    }
+
+    @Benchmark
+    public boolean saveThenDeleteClass(BenchmarkDatabase db) {
+        GymClass gymClass = new GymClass("Tmp", "Trainer", "Temporary class", 20, 60, "YOGA");
+        db.classRepository.saveClass(gymClass);
+        return db.classRepository.deleteClass(gymClass.getClassId());
+    }
+
+    // Schedules
+    @Benchmark
+    public ClassSchedule findScheduleById(BenchmarkDatabase db) {
+        return db.classRepository.findScheduleById(db.randomScheduleId());
+    }
+
+    @Benchmark
+    public List<ClassSchedule> findSchedulesByClassId(BenchmarkDatabase db) {
+        return db.classRepository.findSchedulesByClassId(db.randomClassId());
+    }
+
+    @Benchmark
+    public List<ClassSchedule> findSchedulesByDate(BenchmarkDatabase db) {
+        return db.classRepository.findSchedulesByDate(LocalDate.now().plusDays(1));
+    }
+
+    @Benchmark
+    public List<ClassSchedule> findSchedulesBetween(BenchmarkDatabase db) {
+        LocalDate today = LocalDate.now();
+        return db.classRepository.findSchedulesBetween(today, today.plusDays(6));
+    }
+
+    @Benchmark
+    public List<ClassSchedule> findAllSchedules(BenchmarkDatabase db) {
+        return db.classRepository.findAllSchedules();
+    }
+
+    @Benchmark
+    public boolean updateSchedule(BenchmarkDatabase db) {
+        ClassSchedule schedule = db.classRepository.findScheduleById(db.randomScheduleId());
+        return db.classRepository.updateSchedule(schedule);
+    }
+
+    /** Book and give back one spot, as a booking and its cancellation do. */
+    @Benchmark
+    public boolean reserveThenReleaseSpot(BenchmarkDatabase db) {
+        int scheduleId = db.randomScheduleId();
+        return db.classRepository.reserveSpot(scheduleId) && db.classRepository.releaseSpot(scheduleId);
+    }
+
+    @Benchmark
+    public boolean saveThenDeleteSchedule(BenchmarkDatabase db) {
+        ClassSchedule schedule = new ClassSchedule(db.randomClassId(), LocalDate.now(),
+                LocalTime.of(6, 0), LocalTime.of(7, 0), 20);
+        db.classRepository.saveSchedule(schedule);
+        return db.classRepository.deleteSchedule(schedule.getScheduleId());
+    }
+
+    /** One class, one year of weekly sessions in a single batch. */
+    @Benchmark
+    public boolean saveSchedulesWeeklyYear(BenchmarkDatabase db) {
+        int classId = db.randomClassId();
+        LocalDate first = LocalDate.now().plusYears(5);
+        List<ClassSchedule> batch = new ArrayList<>(52);
+        for (int week = 0; week < 52; week++) {
+            batch.add(new ClassSchedule(classId, first.plusWeeks(week),
+                    LocalTime.of(6, 0), LocalTime.of(7, 0), 20));
+        }
+        return db.classRepository.saveSchedules(batch);
+    }
+}
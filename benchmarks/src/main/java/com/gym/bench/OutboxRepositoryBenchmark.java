@@ -0,0 +1,103 @@
+package com.gym.bench;
+
+import com.gym.AppConfig;
+import com.gym.domain.OutboxEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The outbox table on its own. The app's dispatcher is stopped for these
+ * runs, so it does not consume the events being measured; each iteration
+ * starts from PENDING_EVENTS undelivered events.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OutboxRepositoryBenchmark {
+    private static final int PENDING_EVENTS = 1000;
+
+    private final AtomicLong handledIds = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void stopDispatcher(BenchmarkDatabase db) {
+        AppConfig.getOutboxDispatcher().close();
+    }
+
+    @Setup(Level.Iteration)
+    public void reset(BenchmarkDatabase db) throws SQLException {
+        db.resetOutbox();
+        for (int i = 0; i < PENDING_EVENTS; i++) {
+            db.outboxRepository.append(newEvent(db));
+        }
+    }
+
+    private static OutboxEvent newEvent(BenchmarkDatabase db) {
+        return new OutboxEvent(OutboxEvent.BOOKED, db.randomBookingId(), db.randomUserId(), db.randomScheduleId());
+    }
+
+    @Benchmark
+    public boolean append(BenchmarkDatabase db) {
+        return db.outboxRepository.append(newEvent(db));
+    }
+
+    @Benchmark
+    public List<OutboxEvent> findPending(BenchmarkDatabase db) {
+        return db.outboxRepository.findPending(100);
+    }
+
+    @Benchmark
+    public boolean appendThenMarkDispatched(BenchmarkDatabase db) {
+        OutboxEvent event = newEvent(db);
+        db.outboxRepository.append(event);
+        return db.outboxRepository.markDispatched(List.of(event.getEventId()));
+    }
+
+    @Benchmark
+    public boolean appendThenRecordFailure(BenchmarkDatabase db) {
+        OutboxEvent event = newEvent(db);
+        db.outboxRepository.append(event);
+        return db.outboxRepository.recordFailure(event.getEventId(), "benchmark", true);
+    }
+
+    @Benchmark
+    public int countPending(BenchmarkDatabase db) {
+        return db.outboxRepository.countPending();
+    }
+
+    @Benchmark
+    public long oldestPendingMillis(BenchmarkDatabase db) {
+        return db.outboxRepository.oldestPendingMillis();
+    }
+
+    @Benchmark
+    public boolean markHandled(BenchmarkDatabase db) {
+        return db.outboxRepository.markHandled("bench", handledIds.incrementAndGet());
+    }
+
+    @Benchmark
+    public boolean isHandled(BenchmarkDatabase db) {
+        return db.outboxRepository.isHandled("bench", db.randomBookingId());
+    }
+
+    @Benchmark
+    public int deleteDispatchedBefore(BenchmarkDatabase db) {
+        return db.outboxRepository.deleteDispatchedBefore(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,88 @@
+package com.gym.bench;
+
+import com.gym.utils.PasswordUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of PasswordUtil at several PBKDF2 iteration counts. Run main() to
+ * calibrate -Dgym.password.iterations for a target login latency on this
+ * machine (run it on the kiosk/server hardware, not a developer laptop):
+ *
+ *   java -cp benchmarks/target/benchmarks.jar com.gym.bench.PasswordHashBenchmark 100
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "correct horse battery";
+
+    @Param({"100000", "210000", "310000", "600000"})
+    public int iterations;
+
+    private String stored;
+
+    @Setup
+    public void setUp() {
+        stored = PasswordUtil.hash(PASSWORD, iterations);
+    }
+
+    @Benchmark
+    public String hash() {
+        return PasswordUtil.hash(PASSWORD, iterations);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return PasswordUtil.verify(PASSWORD, stored);
+    }
+
+    /** Measures verify() and prints the largest iteration count that stays under the target (ms, default 100). */
+    public static void main(String[] args) throws RunnerException {
+        double targetMs = args.length > 0 ? Double.parseDouble(args[0]) : 100;
+
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(PasswordHashBenchmark.class.getName() + ".verify")
+                .build()).run();
+
+        // PBKDF2 cost is linear in the iteration count: fit ms per iteration over all measured points
+        double totalMs = 0;
+        long totalIterations = 0;
+        System.out.println();
+        for (RunResult result : results) {
+            int count = Integer.parseInt(result.getParams().getParam("iterations"));
+            double ms = result.getPrimaryResult().getScore();
+            totalMs += ms;
+            totalIterations += count;
+            System.out.printf(Locale.ROOT, "%,10d iterations  %8.1f ms per login%n", count, ms);
+        }
+        double msPerIteration = totalMs / totalIterations;
+        int recommended = (int) (targetMs / msPerIteration / 10_000) * 10_000;
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        System.out.printf(Locale.ROOT, "%nTarget %.0f ms -> -Dgym.password.iterations=%d%n", targetMs, recommended);
+        System.out.printf(Locale.ROOT, "At that cost the default %d hashing thread(s) handle about %.0f logins/s%n",
+                threads, threads * 1000 / targetMs);
+    }
+}
@@ -0,0 +1,131 @@
+package com.gym.bench;
+
+import com.gym.utils.IntIntMap;
+import com.gym.utils.IntObjectMap;
+import com.gym.utils.IntSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The id collections in com.gym.utils against the boxed JDK ones, on the
+ * shapes the app uses them for: counting bookings per class (admin
+ * analytics), building and probing a class-by-id lookup, and an id index.
+ * The time matters less than the allocation; run with the GC profiler and
+ * compare gc.alloc.rate.norm (bytes per operation):
+ *
+ *   java -jar benchmarks/target/benchmarks.jar PrimitiveCollectionsBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveCollectionsBenchmark {
+
+    // Rows aggregated per call, e.g. bookings
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    // Distinct ids among them, e.g. classes
+    @Param({"500"})
+    public int distinct;
+
+    private int[] ids;
+    private Object[] values;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ids = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = 1 + random.nextInt(distinct);   // ids start at 1, as AUTOINCREMENT keys
+        }
+        values = new Object[distinct + 1];
+        for (int id = 1; id <= distinct; id++) {
+            values[id] = "class-" + id;
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> countBoxed() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int id : ids) {
+            counts.merge(id, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public IntIntMap countPrimitive() {
+        IntIntMap counts = new IntIntMap();
+        for (int id : ids) {
+            counts.addTo(id, 1);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public int lookupBoxed() {
+        Map<Integer, Object> byId = new HashMap<>();
+        for (int id = 1; id <= distinct; id++) {
+            byId.put(id, values[id]);
+        }
+        int found = 0;
+        for (int id : ids) {
+            if (byId.get(id) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int lookupPrimitive() {
+        IntObjectMap<Object> byId = new IntObjectMap<>(distinct);
+        for (int id = 1; id <= distinct; id++) {
+            byId.put(id, values[id]);
+        }
+        int found = 0;
+        for (int id : ids) {
+            if (byId.get(id) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public Set<Integer> indexBoxed() {
+        Set<Integer> index = new HashSet<>();
+        for (int i = 0; i < ids.length; i++) {
+            index.add(i);   // row ids: every one distinct, as a booking index
+        }
+        return index;
+    }
+
+    @Benchmark
+    public IntSet indexPrimitive() {
+        IntSet index = new IntSet();
+        for (int i = 0; i < ids.length; i++) {
+            index.add(i);
+        }
+        return index;
+    }
+}
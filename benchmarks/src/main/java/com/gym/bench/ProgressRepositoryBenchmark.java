@@ -0,0 +1,59 @@
+package com.gym.bench;
+
+import com.gym.domain.FitnessProgress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProgressRepositoryBenchmark {
+
+    private static final AtomicInteger NEXT = new AtomicInteger();
+
+    @Benchmark
+    public FitnessProgress findById(BenchmarkDatabase db) {
+        return db.progressRepository.findById(db.randomUserId() * BenchmarkDatabase.CATEGORIES.length);
+    }
+
+    @Benchmark
+    public FitnessProgress findByUserIdAndCategory(BenchmarkDatabase db) {
+        return db.progressRepository.findByUserIdAndCategory(db.randomUserId(), db.randomCategory());
+    }
+
+    @Benchmark
+    public List<FitnessProgress> findByUserId(BenchmarkDatabase db) {
+        return db.progressRepository.findByUserId(db.randomUserId());
+    }
+
+    @Benchmark
+    public List<FitnessProgress> findAll(BenchmarkDatabase db) {
+        return db.progressRepository.findAll();
+    }
+
+    @Benchmark
+    public boolean update(BenchmarkDatabase db) {
+        FitnessProgress progress = db.progressRepository.findByUserIdAndCategory(db.randomUserId(), db.randomCategory());
+        progress.addPoints(10);
+        return db.progressRepository.update(progress);
+    }
+
+    /** (user_id, category) is unique, so each save uses a fresh category. */
+    @Benchmark
+    public boolean saveThenDelete(BenchmarkDatabase db) {
+        FitnessProgress progress = new FitnessProgress(db.randomUserId(), "BENCH" + NEXT.incrementAndGet(), 0);
+        db.progressRepository.save(progress);
+        return db.progressRepository.delete(progress.getProgressId());
+    }
+}
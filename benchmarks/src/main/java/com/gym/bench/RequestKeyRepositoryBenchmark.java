@@ -0,0 +1,70 @@
+package com.gym.bench;
+
+import com.gym.domain.RequestKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** The request_keys table, starting each iteration with KEYS stored keys (one day old). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestKeyRepositoryBenchmark {
+    private static final int KEYS = 10_000;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private long seededAt;
+
+    @Setup(Level.Iteration)
+    public void reset(BenchmarkDatabase db) throws SQLException {
+        db.resetBookings();   // also empties request_keys
+        seededAt = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+        for (int i = 0; i < KEYS; i++) {
+            db.requestKeyRepository.save(new RequestKey(userOf(db, i), "seed-" + i, RequestKey.BOOK,
+                    db.randomScheduleId(), seededAt));
+        }
+    }
+
+    private static int userOf(BenchmarkDatabase db, int i) {
+        return i % db.members + 1;
+    }
+
+    @Benchmark
+    public boolean save(BenchmarkDatabase db) {
+        return db.requestKeyRepository.save(new RequestKey(db.randomUserId(), "bench-" + sequence.incrementAndGet(),
+                RequestKey.BOOK, db.randomScheduleId()));
+    }
+
+    @Benchmark
+    public RequestKey find(BenchmarkDatabase db) {
+        int i = ThreadLocalRandom.current().nextInt(KEYS);
+        return db.requestKeyRepository.find(userOf(db, i), "seed-" + i);
+    }
+
+    @Benchmark
+    public RequestKey findMissing(BenchmarkDatabase db) {
+        return db.requestKeyRepository.find(db.randomUserId(), "missing");
+    }
+
+    /** The periodic purge when nothing has expired: an index probe on created_at. */
+    @Benchmark
+    public int deleteBeforeNothingExpired(BenchmarkDatabase db) {
+        return db.requestKeyRepository.deleteBefore(seededAt - 1);
+    }
+}
@@ -0,0 +1,94 @@
+package com.gym.bench;
+
+import com.gym.domain.Booking;
+import com.gym.domain.ClassSchedule;
+import com.gym.domain.User;
+import com.gym.service.TooManyRequestsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level operations, on the services as AppConfig wires them (see
+ * BenchmarkDatabase). Bookings made during an iteration are removed and
+ * every schedule refilled before the next one, so bookClass keeps
+ * measuring the success path instead of "class is full".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    @Setup(Level.Iteration)
+    public void reset(BenchmarkDatabase db) throws SQLException {
+        db.resetBookings();
+    }
+
+    @Benchmark
+    public boolean bookClass(BenchmarkDatabase db) {
+        return db.bookingService.bookClass(db.randomUserId(), db.randomScheduleId());
+    }
+
+    /** A new key each call: the key is stored with the booking in its transaction. */
+    @Benchmark
+    public boolean bookClassWithRequestKey(BenchmarkDatabase db) {
+        return db.bookingService.bookClass(db.randomUserId(), db.randomScheduleId(), UUID.randomUUID().toString());
+    }
+
+    @Benchmark
+    public boolean bookThenCancel(BenchmarkDatabase db) {
+        int userId = db.randomUserId();
+        int scheduleId = db.randomScheduleId();
+        Booking booking = new Booking(userId, scheduleId, "CONFIRMED");
+        db.bookingRepository.save(booking);
+        return db.bookingService.cancelBooking(booking.getBookingId(), userId);
+    }
+
+    @Benchmark
+    public boolean markAttended(BenchmarkDatabase db) {
+        Booking booking = new Booking(db.randomUserId(), db.randomScheduleId(), "CONFIRMED");
+        db.bookingRepository.save(booking);
+        return db.bookingService.markAttended(booking.getBookingId());
+    }
+
+    @Benchmark
+    public boolean hasUserBooked(BenchmarkDatabase db) {
+        return db.bookingService.hasUserBooked(db.randomUserId(), db.randomScheduleId());
+    }
+
+    @Benchmark
+    public boolean awardPointsForClass(BenchmarkDatabase db) {
+        return db.progressService.awardPointsForClass(db.randomUserId(), "HIIT");
+    }
+
+    @Benchmark
+    public List<ClassSchedule> getAvailableSchedules(BenchmarkDatabase db) {
+        return db.classService.getAvailableSchedules();
+    }
+
+    @Benchmark
+    public User login(BenchmarkDatabase db) {
+        int id = db.randomUserId();
+        try {
+            return db.authService.login("member" + id, "password" + id);
+        } catch (TooManyRequestsException e) {
+            return null;   // throttled: the same user drawn too often
+        }
+    }
+}
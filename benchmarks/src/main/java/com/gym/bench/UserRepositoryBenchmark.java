@@ -0,0 +1,66 @@
+package com.gym.bench;
+
+import com.gym.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRepositoryBenchmark {
+
+    private static final AtomicInteger NEXT = new AtomicInteger();
+
+    @Benchmark
+    public User findById(BenchmarkDatabase db) {
+        return db.userRepository.findById(db.randomUserId());
+    }
+
+    @Benchmark
+    public User findByUsername(BenchmarkDatabase db) {
+        return db.userRepository.findByUsername("member" + db.randomUserId());
+    }
+
+    @Benchmark
+    public List<User> findAll(BenchmarkDatabase db) {
+        return db.userRepository.findAll();
+    }
+
+    @Benchmark
+    public User validateLogin(BenchmarkDatabase db) {
+        int id = db.randomUserId();
+        return db.userRepository.validateLogin("member" + id, "password" + id);
+    }
+
+    @Benchmark
+    public boolean save(BenchmarkDatabase db) {
+        int n = NEXT.incrementAndGet();
+        return db.userRepository.save(new User("bench" + n, "password", "bench" + n + "@gym.com", "MEMBER"));
+    }
+
+    @Benchmark
+    public boolean update(BenchmarkDatabase db) {
+        int id = db.randomUserId();
+        User user = new User(id, "member" + id, null, "member" + id + "@gym.com", "MEMBER", null);
+        return db.userRepository.update(user);
+    }
+
+    @Benchmark
+    public boolean saveThenDelete(BenchmarkDatabase db) {
+        int n = NEXT.incrementAndGet();
+        User user = new User("tmp" + n, "password", "tmp" + n + "@gym.com", "MEMBER");
+        db.userRepository.save(user);
+        return db.userRepository.delete(user.getUserId());
+    }
+}
@@ -0,0 +1,58 @@
+package com.gym.bench;
+
+import com.gym.domain.WaitlistEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** The waitlist table, starting each iteration with ENTRIES members waiting across the schedules. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WaitlistRepositoryBenchmark {
+    private static final int ENTRIES = 5000;
+
+    @Setup(Level.Iteration)
+    public void reset(BenchmarkDatabase db) throws SQLException {
+        db.resetBookings();   // also empties the waitlist
+        for (int i = 0; i < ENTRIES; i++) {
+            db.waitlistRepository.save(new WaitlistEntry(db.randomScheduleId(), db.randomUserId(),
+                    i % 10 == 0 ? WaitlistEntry.TIER_PRIORITY : WaitlistEntry.TIER_STANDARD));
+        }
+    }
+
+    @Benchmark
+    public List<WaitlistEntry> findWaiting(BenchmarkDatabase db) {
+        return db.waitlistRepository.findWaiting(db.randomScheduleId());
+    }
+
+    @Benchmark
+    public List<WaitlistEntry> findWaitingByUser(BenchmarkDatabase db) {
+        return db.waitlistRepository.findWaitingByUser(db.randomUserId());
+    }
+
+    /** Join and leave again, so the waiting set keeps its size. */
+    @Benchmark
+    public boolean saveThenUpdateStatus(BenchmarkDatabase db) {
+        WaitlistEntry entry = new WaitlistEntry(db.randomScheduleId(), db.randomUserId(), WaitlistEntry.TIER_STANDARD);
+        if (!db.waitlistRepository.save(entry)) {
+            return false;   // already waiting for that schedule
+        }
+        return db.waitlistRepository.updateStatus(entry.getEntryId(), WaitlistEntry.WAITING, WaitlistEntry.LEFT);
+    }
+}
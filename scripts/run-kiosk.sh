@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Starts the packaged app (mvn -Pcds package), using the AppCDS archive when it exists.
+#   scripts/run-kiosk.sh            with target/gym-app.jsa if present
+#   scripts/run-kiosk.sh --no-cds   default JDK archive only
+# Extra JVM options can be passed in JAVA_OPTS.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+JAR=$(ls target/Gym_Project-*.jar 2>/dev/null | head -1)
+ARCHIVE=target/gym-app.jsa
+
+if [[ -z "$JAR" || ! -d target/lib ]]; then
+    echo "No packaged app found, run: mvn -Pcds package" >&2
+    exit 1
+fi
+
+CDS_OPTS=()
+if [[ "${1:-}" == "--no-cds" ]]; then
+    shift
+elif [[ -f "$ARCHIVE" ]]; then
+    # -Xshare:auto falls back to normal class loading if the archive does not match this JDK or jar
+    CDS_OPTS=(-XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto)
+fi
+
+exec "$JAVA" "${CDS_OPTS[@]}" ${JAVA_OPTS:-} -jar "$JAR" "$@"
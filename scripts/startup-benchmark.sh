@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Compares start-up time with and without the AppCDS archive.
+# Each run starts the app with -Dgym.startup.exitWhenReady=true, which prints
+#   startup login-shown-ms=<n> ready-ms=<n>
+# (both measured from JVM launch) and exits. Prints the median of each.
+#   scripts/startup-benchmark.sh [runs]      default 10 runs per mode
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS="${1:-10}"
+
+if [[ ! -f target/gym-app.jsa ]]; then
+    echo "No CDS archive found, run: mvn -Pcds package" >&2
+    exit 1
+fi
+
+# No display (build server): run under a virtual X server if one is available
+XVFB=()
+if [[ -z "${DISPLAY:-}" ]] && command -v xvfb-run >/dev/null; then
+    XVFB=(xvfb-run -a)
+fi
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+measure() {
+    local mode="$1" shown=() ready=() line
+    for ((i = 1; i <= RUNS; i++)); do
+        line=$(JAVA_OPTS="-Dgym.startup.exitWhenReady=true -Dgym.log.level=WARN" \
+               "${XVFB[@]}" scripts/run-kiosk.sh $mode | grep '^startup ')
+        shown+=("$(sed 's/.*login-shown-ms=\([0-9]*\).*/\1/' <<< "$line")")
+        ready+=("$(sed 's/.*ready-ms=\([0-9]*\).*/\1/' <<< "$line")")
+    done
+    printf '%-10s login shown: %5s ms   ready: %5s ms   (median of %d)\n' "${2}" \
+        "$(printf '%s\n' "${shown[@]}" | median)" "$(printf '%s\n' "${ready[@]}" | median)" "$RUNS"
+}
+
+measure --no-cds "no AppCDS"
+measure ""       "AppCDS"
@@ -1,54 +1,270 @@
 package com.gym;
 
+import com.gym.domain.OutboxEvent;
+import com.gym.metrics.MetricsProxy;
+import com.gym.metrics.MetricsRegistry;
+import com.gym.metrics.QueryDiagnostics;
 import com.gym.repository.*;
+import com.gym.repository.cache.CachingUserRepository;
+import com.gym.repository.memory.MemoryDatabaseManager;
 import com.gym.repository.sqlite.*;
 import com.gym.service.*;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Static wiring of DB manager, repositories and services.
+ *
+ * configure() is free: repositories and services are built on first use, and
+ * connections wait until the schema is ready (markSchemaReady), so the UI can
+ * come up while StartupPipeline initializes the database in the background.
+ * init() does everything synchronously, for tools and scripts.
+ *
+ * -Dgym.backend=memory selects the in-memory repositories instead of SQLite
+ * (see MemoryDatabaseManager); nothing is persisted then.
+ */
 public class AppConfig {
 
-    private static DatabaseManager databaseManager;
+    private static volatile DatabaseManager databaseManager;
+    private static final MetricsRegistry metricsRegistry = new MetricsRegistry();
+    // Instrumentation is on by default; -Dgym.metrics=false wires the plain objects
+    private static final boolean METRICS_ENABLED = !"false".equalsIgnoreCase(System.getProperty("gym.metrics"));
+    private static final int USER_CACHE_SIZE = Integer.getInteger("gym.auth.cacheSize", 10_000);
+    private static final String BACKEND = System.getProperty("gym.backend", "sqlite");
+
+    // Readiness gates: schema created (DB usable), and startup (schema + seed data) finished
+    private static volatile CompletableFuture<Void> schemaReady = new CompletableFuture<>();
+    private static volatile CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    private static volatile Wiring wiring;
+
+    /** Repositories and services, built together on first use. */
+    private static final class Wiring {
+        final UserRepository userRepository;
+        final ClassRepository classRepository;
+        final BookingRepository bookingRepository;
+        final ProgressRepository progressRepository;
+
+        final AuthService authService;
+        final ClassService classService;
+        final BookingService bookingService;
+        final ProgressService progressService;
+        final SeatAvailabilityBus seatBus;
+        final OutboxDispatcher outboxDispatcher;
+        final Waitlist waitlist;
+
+        Wiring(DatabaseManager dbManager) {
+            DatabaseManager connections = instrument(DatabaseManager.class, gated(dbManager));
+            if (dbManager instanceof SqliteDatabaseManager sqlite) {
+                if (METRICS_ENABLED) {
+                    sqlite.addStatementListener(metricsRegistry::recordStatement);
+                }
+                sqlite.addStatementListener(QueryDiagnostics.LISTENER);   // idle unless diagnostics are switched on
+            }
+
+            // 1) Create repositories with that DB manager
+            UserRepository users;
+            ClassRepository classes;
+            BookingRepository bookings;
+            ProgressRepository progress;
+            OutboxRepository outbox;
+            WaitlistRepository waitlists;
+            RequestKeyRepository requestKeys;
+            if (dbManager instanceof MemoryDatabaseManager memory) {
+                users = memory.getUserRepository();
+                classes = memory.getClassRepository();
+                bookings = memory.getBookingRepository();
+                progress = memory.getProgressRepository();
+                outbox = memory.getOutboxRepository();
+                waitlists = memory.getWaitlistRepository();
+                requestKeys = memory.getRequestKeyRepository();
+            } else {
+                users = new SqliteUserRepository(connections);
+                classes = new SqliteClassRepository(connections);
+                bookings = new SqliteBookingRepository(connections);
+                progress = new SqliteProgressRepository(connections);
+                outbox = new SqliteOutboxRepository(connections);
+                waitlists = new SqliteWaitlistRepository(connections);
+                requestKeys = new SqliteRequestKeyRepository(connections);
+            }
+            CachingUserRepository userCache = new CachingUserRepository(users, USER_CACHE_SIZE);
+            userRepository = instrument(UserRepository.class, userCache);
+            classRepository = instrument(ClassRepository.class, classes);
+            bookingRepository = instrument(BookingRepository.class, bookings);
+            progressRepository = instrument(ProgressRepository.class, progress);
+            OutboxRepository outboxRepository = instrument(OutboxRepository.class, outbox);
+            WaitlistRepository waitlistRepository = instrument(WaitlistRepository.class, waitlists);
+            RequestKeyRepository requestKeyRepository = instrument(RequestKeyRepository.class, requestKeys);
 
-    private static UserRepository userRepository;
-    private static ClassRepository classRepository;
-    private static BookingRepository bookingRepository;
-    private static ProgressRepository progressRepository;
+            // 2) Create services using the repositories (ORDER MATTERS)
+            LoginThrottle throttle = new LoginThrottle();
+            SessionRegistry sessions = new SessionRegistry();
+            authService = instrument(AuthService.class, new AuthServiceImpl(userRepository, throttle, sessions));
+            classService = instrument(ClassService.class, new ClassServiceImpl(classRepository));
+            progressService = instrument(ProgressService.class, new ProgressServiceImpl(progressRepository));
+            seatBus = new SeatAvailabilityBus();
+            outboxDispatcher = new OutboxDispatcher(outboxRepository, connections);
+            waitlist = new Waitlist(waitlistRepository);
+            IdempotentRequests requests = new IdempotentRequests(requestKeyRepository);
+            bookingService = instrument(BookingService.class,
+                    BookingServiceImpl.builder(bookingRepository, classRepository, progressService)
+                            .seatBus(seatBus)
+                            .transactions(connections)
+                            .outbox(outboxDispatcher)
+                            .waitlist(waitlist)
+                            .requestKeys(requests)
+                            .build());
 
-    private static AuthService authService;
-    private static ClassService classService;
-    private static BookingService bookingService;
-    private static ProgressService progressService;
+            // Booking side effects, delivered from the outbox after the booking committed
+            BookingStatistics bookingStats = new BookingStatistics();
+            outboxDispatcher.register("xp-award", Set.of(OutboxEvent.ATTENDED),
+                    new XpAwardHandler(classRepository, progressService));
+            outboxDispatcher.register("booking-stats",
+                    Set.of(OutboxEvent.BOOKED, OutboxEvent.CANCELLED, OutboxEvent.ATTENDED), bookingStats);
+            WaitlistNotifier waitlistNotifier = new WaitlistNotifier();
+            outboxDispatcher.register("waitlist-notify", Set.of(OutboxEvent.WAITLIST_PROMOTED), waitlistNotifier);
+            outboxDispatcher.start();
+
+            // 3) Counters of the login path, shown next to the method metrics
+            metricsRegistry.registerCounter("auth.userCache.hits", () -> userCache.getStats().getHits());
+            metricsRegistry.registerCounter("auth.userCache.misses", () -> userCache.getStats().getMisses());
+            metricsRegistry.registerCounter("auth.throttle.rejectedByUsername", () -> throttle.getStats().getRejectedByUsername());
+            metricsRegistry.registerCounter("auth.throttle.rejectedBySource", () -> throttle.getStats().getRejectedBySource());
+            metricsRegistry.registerCounter("sessions.active", sessions::size);
+            metricsRegistry.registerCounter("sessions.expired", () -> sessions.getStats().getExpired());
+            metricsRegistry.registerCounter("seats.changesPublished", () -> seatBus.getStats().getPublished());
+            metricsRegistry.registerCounter("seats.subscribers", seatBus::getSubscriberCount);
+            metricsRegistry.registerCounter("outbox.pending", outboxDispatcher::getPendingCount);
+            metricsRegistry.registerCounter("outbox.lagMillis", outboxDispatcher::getLagMillis);
+            metricsRegistry.registerCounter("outbox.dispatched", () -> outboxDispatcher.getStats().getDispatched());
+            metricsRegistry.registerCounter("outbox.handlerFailures", () -> outboxDispatcher.getStats().getHandlerFailures());
+            metricsRegistry.registerCounter("outbox.givenUp", () -> outboxDispatcher.getStats().getGivenUp());
+            metricsRegistry.registerCounter("outbox.deliveryLagP99Millis",
+                    () -> outboxDispatcher.getStats().getDeliveryLag().getPercentileNanos(99) / 1_000_000);
+            metricsRegistry.registerCounter("bookings.booked", bookingStats::getBooked);
+            metricsRegistry.registerCounter("bookings.cancelled", bookingStats::getCancelled);
+            metricsRegistry.registerCounter("bookings.attended", bookingStats::getAttended);
+            metricsRegistry.registerCounter("waitlist.joined", () -> waitlist.getStats().getJoined());
+            metricsRegistry.registerCounter("waitlist.promoted", () -> waitlist.getStats().getPromoted());
+            metricsRegistry.registerCounter("waitlist.left", () -> waitlist.getStats().getLeft());
+            metricsRegistry.registerCounter("waitlist.loads", () -> waitlist.getStats().getLoads());
+            metricsRegistry.registerCounter("waitlist.notified", waitlistNotifier::getNotified);
+            metricsRegistry.registerCounter("requestKeys.executed", () -> requests.getStats().getExecuted());
+            metricsRegistry.registerCounter("requestKeys.replayed", () -> requests.getStats().getReplayed());
+            metricsRegistry.registerCounter("requestKeys.conflicts", () -> requests.getStats().getConflicts());
+            metricsRegistry.registerCounter("requestKeys.cacheMisses", () -> requests.getStats().getCacheMisses());
+        }
+    }
 
     public static void init() {
-        // 1) Create DB manager and initialize DB
-        databaseManager = new SqliteDatabaseManager();
-        databaseManager.initializeDatabase();
-
-        // 2) Create repositories with that DB manager
-        userRepository = new SqliteUserRepository(databaseManager);
-        classRepository = new SqliteClassRepository(databaseManager);
-        bookingRepository = new SqliteBookingRepository(databaseManager);
-        progressRepository = new SqliteProgressRepository(databaseManager);
-
-        // 3) Create services using the repositories (ORDER MATTERS)
-        authService = new AuthServiceImpl(userRepository);
-        classService = new ClassServiceImpl(classRepository);
-        progressService = new ProgressServiceImpl(progressRepository);
-        bookingService = new BookingServiceImpl(bookingRepository, classRepository, progressService);
+        init(createDatabaseManager());
+    }
 
+    /** The backend selected by gym.backend: "sqlite" (default, the default database file) or "memory". */
+    public static DatabaseManager createDatabaseManager() {
+        return switch (BACKEND) {
+            case "memory" -> new MemoryDatabaseManager();
+            case "sqlite" -> new SqliteDatabaseManager();
+            default -> throw new IllegalArgumentException("Unknown gym.backend: " + BACKEND + " (expected sqlite or memory)");
+        };
+    }
+
+    // Lets headless tools (load simulator, benchmarks) wire the app against another database
+    public static void init(DatabaseManager dbManager) {
+        configure(dbManager);
+        dbManager.initializeDatabase();
+        markSchemaReady();
         DemoDataSeeder.seed();
+        markReady();
+    }
 
+    /** Selects the database without touching it; nothing is built until first use. */
+    public static synchronized void configure(DatabaseManager dbManager) {
+        if (wiring != null) {
+            wiring.outboxDispatcher.close();   // its connections belong to the previous database
+        }
+        databaseManager = dbManager;
+        wiring = null;
+        schemaReady = new CompletableFuture<>();
+        ready = new CompletableFuture<>();
+    }
+
+    static void markSchemaReady() { schemaReady.complete(null); }
+    static void markReady() { ready.complete(null); }
+
+    static void markFailed(Throwable error) {
+        schemaReady.completeExceptionally(error);
+        ready.completeExceptionally(error);
+    }
+
+    /** Completes once schema and seed data are in place (or fails with the startup error). */
+    public static CompletableFuture<Void> readiness() { return ready; }
+    public static boolean isReady() { return ready.isDone() && !ready.isCompletedExceptionally(); }
+
+    private static Wiring wiring() {
+        Wiring w = wiring;
+        if (w == null) {
+            synchronized (AppConfig.class) {
+                w = wiring;
+                if (w == null) {
+                    if (databaseManager == null) {
+                        databaseManager = createDatabaseManager();
+                    }
+                    w = new Wiring(databaseManager);
+                    wiring = w;
+                }
+            }
+        }
+        return w;
+    }
+
+    // Connections wait for the schema, so early callers never see missing tables
+    private static DatabaseManager gated(DatabaseManager dbManager) {
+        return new DatabaseManager() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                try {
+                    schemaReady.join();
+                } catch (RuntimeException e) {
+                    throw new SQLException("Database initialization failed", e);
+                }
+                return dbManager.getConnection();
+            }
+
+            @Override
+            public void initializeDatabase() {
+                dbManager.initializeDatabase();
+            }
+
+            @Override
+            public boolean inTransaction(Transaction work) {
+                schemaReady.join();
+                return dbManager.inTransaction(work);
+            }
+        };
+    }
+
+    private static <T> T instrument(Class<T> type, T target) {
+        return METRICS_ENABLED ? MetricsProxy.wrap(type, target, metricsRegistry) : target;
     }
 
     public static DatabaseManager getDatabaseManager() {
         return databaseManager;
     }
 
-    public static AuthService getAuthService() { return authService; }
-    public static ClassService getClassService() { return classService; }
-    public static BookingService getBookingService() { return bookingService; }
-    public static ProgressService getProgressService() { return progressService; }
-    public static UserRepository getUserRepository() { return userRepository; }
-    public static BookingRepository getBookingRepository() { return bookingRepository; }
-    public static ClassRepository getClassRepository() { return classRepository; }
+    public static MetricsRegistry getMetricsRegistry() { return metricsRegistry; }
+
+    public static AuthService getAuthService() { return wiring().authService; }
+    public static ClassService getClassService() { return wiring().classService; }
+    public static BookingService getBookingService() { return wiring().bookingService; }
+    public static ProgressService getProgressService() { return wiring().progressService; }
+    public static OutboxDispatcher getOutboxDispatcher() { return wiring().outboxDispatcher; }
+    public static SeatAvailabilityBus getSeatAvailabilityBus() { return wiring().seatBus; }
+    public static UserRepository getUserRepository() { return wiring().userRepository; }
+    public static BookingRepository getBookingRepository() { return wiring().bookingRepository; }
+    public static ClassRepository getClassRepository() { return wiring().classRepository; }
 
 }
@@ -1,128 +1,81 @@
 package com.gym;
 
-import com.gym.domain.User;
-import com.gym.domain.GymClass;
-import com.gym.domain.ClassSchedule;
-import com.gym.repository.UserRepository;
-import com.gym.service.ClassService;
+import com.gym.http.ApiServer;
 import com.gym.utils.SceneManager;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
-import java.time.LocalDate;
-import java.time.LocalTime;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 public class AppMain extends Application {
 
+    private ApiServer apiServer;
+
     @Override
     public void start(Stage stage) throws Exception {
-        // 1) DB + services
-        AppConfig.init();
-        seedDefaultUsers();
-        seedDemoClassesAndSchedules();
+        StartupPipeline.logJvmStartup();
+        StartupPipeline startup = new StartupPipeline();
 
-        // 2) Save principal stage
-        SceneManager.setPrimaryStage(stage);
+        // 1) Wire DB + services lazily (no I/O yet)
+        AppConfig.configure(AppConfig.createDatabaseManager());
 
-        // 3) Show login
+        // 2) Save principal stage and show login right away
+        SceneManager.setPrimaryStage(stage);
         SceneManager.switchTo("/views/login.fxml", "Gym Class Booking - Login");
-    }
-
-    private void seedDefaultUsers() {
-        UserRepository userRepo = AppConfig.getUserRepository();
+        startup.markLoginShown();
+        long loginShownMs = StartupPipeline.msSinceJvmStart();
 
-        seedUserIfMissing(userRepo, "admin",  "admin123",  "ADMIN");
-        seedUserIfMissing(userRepo, "member", "member123", "MEMBER");
-        seedUserIfMissing(userRepo, "trainer","trainer123","TRAINER");
-    }
+        // 3) Schema + seed data in the background; login waits on AppConfig.readiness()
+        CompletableFuture<Void> ready = startup.start();
 
-    private void seedUserIfMissing(UserRepository repo,
-                                   String username,
-                                   String rawPassword,
-                                   String role) {
-        User existing = repo.findByUsername(username);
-        if (existing != null) return;
+        // -Dgym.api.port=8080: also serve the HTTP API from this process once the database is ready
+        Integer apiPort = Integer.getInteger("gym.api.port");
+        if (apiPort != null) {
+            ready.thenRun(() -> startApi(apiPort));
+        }
 
-        User u = new User(username, rawPassword, username + "@gym.com", role);
-        boolean ok = repo.save(u);
-        if (ok) System.out.println("Seeded " + role + " user: " + username + " / " + rawPassword);
+        // -Dgym.startup.exitWhenReady=true: print startup times and quit (scripts/startup-benchmark.sh)
+        if (Boolean.getBoolean("gym.startup.exitWhenReady")) {
+            ready.whenComplete((ignored, error) -> Platform.runLater(() -> {
+                System.out.println("startup login-shown-ms=" + loginShownMs
+                        + " ready-ms=" + StartupPipeline.msSinceJvmStart() + (error == null ? "" : " failed"));
+                Platform.exit();
+            }));
+        }
     }
 
-    private void seedDemoClassesAndSchedules() {
-        ClassService classService = AppConfig.getClassService();
-
-        // If there are already classes in the DB, don't reseed
-        if (!classService.getAllClasses().isEmpty()) {
-            System.out.println("Classes already exist, skipping demo seed.");
-            return;
+    private synchronized void startApi(int port) {
+        try {
+            apiServer = ApiServer.fromAppConfig();
+            apiServer.start(port);
+        } catch (IOException e) {
+            apiServer = null;
+            System.err.println("Could not start the API server on port " + port + ": " + e.getMessage());
         }
-
-        System.out.println("Seeding demo classes and schedules...");
-
-        // --- Create some demo classes ---
-        GymClass hiit = new GymClass(
-                "Bootcamp Blast",
-                "Mike Thunder",
-                "High intensity HIIT workout",
-                10,
-                45,
-                "HIIT"
-        );
-        classService.createClass(hiit);
-
-        GymClass yoga = new GymClass(
-                "Zen Flow Yoga",
-                "Luna Peace",
-                "Relaxing yoga session",
-                15,
-                60,
-                "YOGA"
-        );
-        classService.createClass(yoga);
-
-        GymClass strength = new GymClass(
-                "Iron Warrior",
-                "Max Steel",
-                "Full body strength training",
-                8,
-                60,
-                "STRENGTH"
-        );
-        classService.createClass(strength);
-
-        LocalDate today = LocalDate.now();
-
-        // --- Schedule them (for TODAY so they appear immediately in Book a class) ---
-        ClassSchedule hiitToday = new ClassSchedule(
-                hiit.getClassId(),
-                today,
-                LocalTime.of(9, 0),
-                LocalTime.of(9, 45),
-                hiit.getCapacity()
-        );
-        classService.createSchedule(hiitToday);
-
-        ClassSchedule yogaToday = new ClassSchedule(
-                yoga.getClassId(),
-                today,
-                LocalTime.of(18, 0),
-                LocalTime.of(19, 0),
-                yoga.getCapacity()
-        );
-        classService.createSchedule(yogaToday);
-
-        ClassSchedule strengthToday = new ClassSchedule(
-                strength.getClassId(),
-                today,
-                LocalTime.of(19, 30),
-                LocalTime.of(20, 30),
-                strength.getCapacity()
-        );
-        classService.createSchedule(strengthToday);
-
-        System.out.println("Demo classes + schedules seeded.");
     }
 
+    @Override
+    public void stop() {
+        synchronized (this) {
+            if (apiServer != null) {
+                apiServer.stop();
+            }
+        }
+        // -Dgym.metrics.dump=metrics.json writes the repository/service metrics on exit
+        String dumpFile = System.getProperty("gym.metrics.dump");
+        if (dumpFile != null) {
+            try {
+                Files.writeString(Path.of(dumpFile), AppConfig.getMetricsRegistry().dumpJson());
+                System.out.println("Metrics written to " + dumpFile);
+            } catch (IOException e) {
+                System.err.println("Could not write metrics: " + e.getMessage());
+            }
+        }
+    }
 
     public static void main(String[] args) {
         launch();
@@ -0,0 +1,116 @@
+package com.gym;
+
+import com.gym.domain.User;
+import com.gym.logging.Log;
+import com.gym.repository.sqlite.SqliteDatabaseManager;
+import com.gym.utils.SceneManager;
+import com.gym.utils.SessionManager;
+import javafx.animation.PauseTransition;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Training run for the application class-data-sharing archive (mvn -Pcds package).
+ * Starts like AppMain against a throwaway database, then opens every FXML view
+ * under /views as a user with the matching role and exits, so the JVM started
+ * with -XX:ArchiveClassesAtExit records every class a real session loads.
+ * Started with: java -jar Gym_Project.jar --cds-training
+ */
+public class CdsTraining extends Application {
+
+    // Time between views, so each one is laid out and rendered at least once
+    private static final Duration VIEW_DWELL = Duration.millis(150);
+
+    private final Map<String, User> users = new HashMap<>();
+    private Path dbFile;
+
+    @Override
+    public void start(Stage stage) throws Exception {
+        dbFile = Files.createTempFile("gym-cds-", ".db");
+        AppConfig.configure(new SqliteDatabaseManager("jdbc:sqlite:" + dbFile));
+
+        SceneManager.setPrimaryStage(stage);
+        SceneManager.switchTo("/views/login.fxml", "Gym Class Booking - Login");
+
+        List<String> views = listViews();
+        new StartupPipeline().start().whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("CDS training: startup failed - " + error.getMessage());
+                Platform.exit();
+                return;
+            }
+            showNext(views.iterator());
+        }));
+    }
+
+    private void showNext(Iterator<String> views) {
+        if (!views.hasNext()) {
+            System.out.println("CDS training: all views loaded");
+            Platform.exit();
+            return;
+        }
+        String view = views.next();
+        // One login per account: repeated logins would trip the login throttle
+        User user = users.computeIfAbsent(userFor(view), name -> AppConfig.getAuthService().login(name, passwordFor(view)));
+        SessionManager.start(user);
+        SceneManager.switchTo(view, view);
+
+        PauseTransition dwell = new PauseTransition(VIEW_DWELL);
+        dwell.setOnFinished(e -> showNext(views));
+        dwell.play();
+    }
+
+    // Default accounts seeded by StartupPipeline
+    private static String userFor(String view) {
+        String name = view.substring(view.lastIndexOf('/') + 1);
+        if (name.startsWith("admin-")) return "admin";
+        if (name.startsWith("trainer-")) return "trainer";
+        return "member";
+    }
+
+    private static String passwordFor(String view) {
+        return userFor(view) + "123";
+    }
+
+    @Override
+    public void stop() throws IOException {
+        Log.flush();
+        Files.deleteIfExists(dbFile);
+    }
+
+    /** Every /views/*.fxml, read from the jar (or target/classes when run from the IDE). */
+    static List<String> listViews() throws IOException, URISyntaxException {
+        URI login = CdsTraining.class.getResource("/views/login.fxml").toURI();
+        if ("jar".equals(login.getScheme())) {
+            try (FileSystem jar = FileSystems.newFileSystem(login, Map.of())) {
+                return listViews(jar.getPath("/views"));
+            }
+        }
+        return listViews(Path.of(login).getParent());
+    }
+
+    private static List<String> listViews(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(".fxml"))
+                    .sorted()
+                    .map(name -> "/views/" + name)
+                    .toList();
+        }
+    }
+}
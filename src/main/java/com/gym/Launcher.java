@@ -0,0 +1,25 @@
+package com.gym;
+
+import javafx.application.Application;
+
+import java.util.Arrays;
+
+/**
+ * Main class of the packaged jar. JavaFX refuses to start an Application
+ * main class from the class path, so the jar starts here instead; running
+ * from the class path is what lets the JVM put the app, JavaFX and
+ * sqlite-jdbc classes into one CDS archive.
+ *
+ *   java -jar Gym_Project.jar                  normal start
+ *   java -jar Gym_Project.jar --cds-training   CDS training run (see CdsTraining)
+ */
+public class Launcher {
+
+    public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--cds-training")) {
+            Application.launch(CdsTraining.class, args);
+        } else {
+            Application.launch(AppMain.class, args);
+        }
+    }
+}
@@ -0,0 +1,607 @@
+package com.gym;
+
+import com.gym.domain.Booking;
+import com.gym.domain.ClassSchedule;
+import com.gym.domain.GymClass;
+import com.gym.http.ApiClient;
+import com.gym.http.ApiServer;
+import com.gym.logging.Level;
+import com.gym.logging.Log;
+import com.gym.metrics.QueryDiagnostics;
+import com.gym.repository.DatabaseManager;
+import com.gym.repository.memory.MemoryDatabaseManager;
+import com.gym.repository.sqlite.SqliteBookingRepository;
+import com.gym.repository.sqlite.SqliteClassRepository;
+import com.gym.repository.sqlite.SqliteDatabaseManager;
+import com.gym.repository.sqlite.SqliteProgressRepository;
+import com.gym.repository.sqlite.SqliteUserRepository;
+import com.gym.service.BookingService;
+import com.gym.service.ClassService;
+import com.gym.service.OutboxDispatcher;
+import com.gym.service.ProgressService;
+import com.gym.utils.LatencyHistogram;
+import com.gym.utils.PasswordUtil;
+import com.gym.utils.IntIntMap;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless load test for the service layer: every simulated member and trainer
+ * is a virtual thread that thinks (exponential think time), then runs one
+ * operation picked from a weighted mix. At the end it prints throughput,
+ * latency percentiles per operation and checks the booking invariants:
+ *  - no schedule has more active (CONFIRMED + ATTENDED) bookings than capacity;
+ *  - available_spots == capacity - active bookings for every schedule.
+ *
+ * Without --db it first generates a fresh dataset with SyntheticDataGenerator.
+ * With --http=true the same users go through the HTTP API instead (an
+ * in-process ApiServer on a free port, one session per user, kept-alive
+ * connections), which measures the JSON/HTTP layer on top of the services.
+ * With --backend=memory the dataset (generated, or the --db file) is copied
+ * into the in-memory backend and the run never touches SQLite, which shows
+ * how much of each operation's time is the database.
+ *
+ * CLI: java com.gym.LoadSimulator --members=2000 --trainers=20 --duration=30 --think-ms=100
+ *      --mix=browse:50,book:25,cancel:15,progress:10 --concurrency=8 [--http=true] [--backend=memory]
+ */
+public class LoadSimulator {
+
+    enum Operation { BROWSE, BOOK, CANCEL, PROGRESS, ATTEND }
+
+    public static class Config {
+        public String db;                  // null = generate a temporary database
+        public long seed = 7;
+        public int members = 2000;
+        public int trainers = 20;
+        public int durationSeconds = 30;
+        public int thinkTimeMs = 100;      // mean, exponentially distributed
+        public int concurrency = Runtime.getRuntime().availableProcessors(); // operations in flight
+        public Map<Operation, Integer> memberMix = new EnumMap<>(Map.of(
+                Operation.BROWSE, 50, Operation.BOOK, 25, Operation.CANCEL, 15, Operation.PROGRESS, 10));
+        public boolean quiet = true;       // silence the services' per-call console output
+        public boolean http;               // go through the HTTP API instead of calling the services
+        public String backend = "sqlite";  // "memory": run against a copy of the dataset in memory
+    }
+
+    /** What the simulated users do, against the services directly or over the HTTP API. */
+    private interface Client {
+        List<Integer> availableScheduleIds(int userId) throws Exception;
+        boolean book(int userId, int scheduleId) throws Exception;
+        List<Integer> confirmedBookingIds(int userId) throws Exception;
+        boolean cancel(int userId, int bookingId) throws Exception;
+        boolean hasProgress(int userId) throws Exception;
+        List<Integer> confirmedScheduleBookingIds(int userId, int scheduleId) throws Exception;
+        boolean markAttended(int userId, int bookingId) throws Exception;
+    }
+
+    private static class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder rejected = new LongAdder();   // service returned false / nothing to do
+        final LongAdder failed = new LongAdder();     // exception
+    }
+
+    private final Config config;
+    private final DatabaseManager dbManager;
+    private final Semaphore inFlight;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private volatile boolean running = true;
+
+    private Client client;
+
+    public LoadSimulator(Config config, DatabaseManager dbManager) {
+        this.config = config;
+        this.dbManager = dbManager;
+        this.inFlight = new Semaphore(config.concurrency);
+        for (Operation op : Operation.values()) {
+            stats.put(op, new OperationStats());
+        }
+    }
+
+    /** Runs the simulation and returns the number of invariant violations found afterwards. */
+    public int run() throws InterruptedException {
+        if (config.http) {
+            prepareHttpLogins();
+        }
+        AppConfig.init(dbManager);
+        ApiServer server = null;
+        if (config.http) {
+            server = ApiServer.fromAppConfig();
+            try {
+                server.start(0);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not start the API server", e);
+            }
+            client = new HttpClientAdapter(new ApiClient("http://localhost:" + server.getPort()));
+        } else {
+            client = new ServiceClient(AppConfig.getClassService(), AppConfig.getBookingService(),
+                    AppConfig.getProgressService());
+        }
+
+        int before = checkInvariants("before run");
+
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        Level logLevel = Log.getLevel();
+        if (config.quiet) {
+            PrintStream sink = new PrintStream(OutputStream.nullOutputStream());
+            System.setOut(sink);
+            System.setErr(sink);
+            Log.setLevel(Level.ERROR);
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i <= config.members; i++) {
+                int userId = i;
+                executor.submit(() -> memberLoop(userId));
+            }
+            for (int i = 0; i < config.trainers; i++) {
+                int trainerId = config.members + 1 + i;   // trainers follow the members (SyntheticDataGenerator)
+                long trainerSeed = config.seed * 31 + i;
+                executor.submit(() -> trainerLoop(trainerId, trainerSeed));
+            }
+            TimeUnit.SECONDS.sleep(config.durationSeconds);
+            running = false;
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+            Log.flush();
+            Log.setLevel(logLevel);
+            System.setOut(out);
+            System.setErr(err);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        drainOutbox();
+
+        printReport(elapsedNanos);
+        int after = checkInvariants("after run");
+        return Math.max(0, after - before);
+    }
+
+    private void memberLoop(int userId) {
+        Random random = new Random(config.seed * 1_000_003 + userId);
+        int totalWeight = config.memberMix.values().stream().mapToInt(Integer::intValue).sum();
+        List<Integer> lastBrowse = new ArrayList<>();
+
+        while (running && think(random)) {
+            Operation op = pick(random, totalWeight);
+            if (op == Operation.BOOK && lastBrowse.isEmpty()) {
+                op = Operation.BROWSE;   // members look before they book
+            }
+            Operation current = op;
+            timed(op, () -> switch (current) {
+                case BROWSE -> {
+                    lastBrowse.clear();
+                    lastBrowse.addAll(client.availableScheduleIds(userId));
+                    yield true;
+                }
+                case BOOK -> {
+                    // Popular slots are booked far more often: bias towards the head of the list
+                    double r = random.nextDouble();
+                    yield client.book(userId, lastBrowse.get((int) (r * r * lastBrowse.size())));
+                }
+                case CANCEL -> {
+                    List<Integer> confirmed = client.confirmedBookingIds(userId);
+                    yield !confirmed.isEmpty() && client.cancel(userId, confirmed.get(random.nextInt(confirmed.size())));
+                }
+                case PROGRESS -> client.hasProgress(userId);
+                case ATTEND -> false;
+            });
+        }
+    }
+
+    private void trainerLoop(int trainerId, long seed) {
+        Random random = new Random(seed);
+        List<Integer> schedules = new ArrayList<>();
+
+        while (running && think(random)) {
+            timed(Operation.ATTEND, () -> {
+                if (schedules.isEmpty() || random.nextInt(20) == 0) {
+                    schedules.clear();
+                    schedules.addAll(client.availableScheduleIds(trainerId));
+                    if (schedules.isEmpty()) {
+                        return false;
+                    }
+                }
+                int scheduleId = schedules.get(random.nextInt(schedules.size()));
+                List<Integer> confirmed = client.confirmedScheduleBookingIds(trainerId, scheduleId);
+                return !confirmed.isEmpty() && client.markAttended(trainerId, confirmed.get(0));
+            });
+        }
+    }
+
+    // Every simulated user logs in once from 127.0.0.1 with the generated passwords
+    private void prepareHttpLogins() {
+        int users = config.members + config.trainers;
+        List<String> adjusted = new ArrayList<>();
+        if (System.getProperty("gym.password.iterations") == null) {
+            // Plaintext seed passwords are hashed on first login; keep that from dominating the run
+            PasswordUtil.setIterations(1_000);
+            adjusted.add("gym.password.iterations=1000");
+        }
+        for (String property : List.of("gym.auth.sourceBurst", "gym.auth.sourcePerMinute")) {
+            if (System.getProperty(property) == null) {
+                System.setProperty(property, String.valueOf(Math.max(60, users)));
+                adjusted.add(property + "=" + System.getProperty(property));
+            }
+        }
+        if (!adjusted.isEmpty()) {
+            System.out.println("HTTP mode: " + String.join(", ", adjusted) + " (set them explicitly to override)");
+        }
+    }
+
+    // Lets the outbox dispatcher deliver what the run left behind, so its metrics cover every event
+    private void drainOutbox() throws InterruptedException {
+        OutboxDispatcher outbox = AppConfig.getOutboxDispatcher();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        int pending = outbox.getPendingCount();
+        while (pending > 0 && System.nanoTime() < deadline) {
+            outbox.wakeUp();
+            TimeUnit.MILLISECONDS.sleep(50);
+            pending = outbox.getPendingCount();
+        }
+        if (pending > 0) {
+            System.out.println("Outbox: " + pending + " events still pending after 30s");
+        }
+    }
+
+    private interface Action {
+        boolean call() throws Exception;
+    }
+
+    private void timed(Operation op, Action action) {
+        OperationStats s = stats.get(op);
+        long start = System.nanoTime();   // includes the wait for a free slot, like a request queue
+        try {
+            inFlight.acquire();
+            try {
+                if (action.call()) {
+                    s.succeeded.increment();
+                } else {
+                    s.rejected.increment();
+                }
+            } finally {
+                inFlight.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            s.failed.increment();
+        }
+        s.latency.record(System.nanoTime() - start);
+    }
+
+    private boolean think(Random random) {
+        long pause = (long) (-Math.log(1 - random.nextDouble()) * config.thinkTimeMs);
+        try {
+            Thread.sleep(pause);
+            return running;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class ServiceClient implements Client {
+        private final ClassService classService;
+        private final BookingService bookingService;
+        private final ProgressService progressService;
+
+        ServiceClient(ClassService classService, BookingService bookingService, ProgressService progressService) {
+            this.classService = classService;
+            this.bookingService = bookingService;
+            this.progressService = progressService;
+        }
+
+        public List<Integer> availableScheduleIds(int userId) {
+            return classService.getAvailableSchedules().stream().map(ClassSchedule::getScheduleId).toList();
+        }
+
+        public boolean book(int userId, int scheduleId) {
+            return bookingService.bookClass(userId, scheduleId);
+        }
+
+        public List<Integer> confirmedBookingIds(int userId) {
+            return bookingService.getUserBookings(userId).stream()
+                    .filter(Booking::isConfirmed).map(Booking::getBookingId).toList();
+        }
+
+        public boolean cancel(int userId, int bookingId) {
+            return bookingService.cancelBooking(bookingId, userId);
+        }
+
+        public boolean hasProgress(int userId) {
+            return !progressService.getAllUserProgress(userId).isEmpty();
+        }
+
+        public List<Integer> confirmedScheduleBookingIds(int userId, int scheduleId) {
+            return bookingService.getScheduleBookings(scheduleId).stream()
+                    .filter(Booking::isConfirmed).map(Booking::getBookingId).toList();
+        }
+
+        public boolean markAttended(int userId, int bookingId) {
+            return bookingService.markAttended(bookingId);
+        }
+    }
+
+    /** Calls the API as each simulated user, logging in on first use. 409 counts as rejected, other errors as failed. */
+    private class HttpClientAdapter implements Client {
+        private final ApiClient api;
+        private final Map<Integer, String> tokens = new ConcurrentHashMap<>();
+
+        HttpClientAdapter(ApiClient api) {
+            this.api = api;
+        }
+
+        public List<Integer> availableScheduleIds(int userId) throws Exception {
+            return ids(get(userId, "/api/schedules"), "scheduleId", null);
+        }
+
+        public boolean book(int userId, int scheduleId) throws Exception {
+            return outcome(api.call("POST", "/api/bookings", token(userId), "{\"scheduleId\":" + scheduleId + "}"));
+        }
+
+        public List<Integer> confirmedBookingIds(int userId) throws Exception {
+            return ids(get(userId, "/api/bookings"), "bookingId", "CONFIRMED");
+        }
+
+        public boolean cancel(int userId, int bookingId) throws Exception {
+            return outcome(api.call("DELETE", "/api/bookings/" + bookingId, token(userId), null));
+        }
+
+        public boolean hasProgress(int userId) throws Exception {
+            return !((List<?>) get(userId, "/api/progress")).isEmpty();
+        }
+
+        public List<Integer> confirmedScheduleBookingIds(int userId, int scheduleId) throws Exception {
+            return ids(get(userId, "/api/schedules/" + scheduleId + "/bookings"), "bookingId", "CONFIRMED");
+        }
+
+        public boolean markAttended(int userId, int bookingId) throws Exception {
+            return outcome(api.call("POST", "/api/bookings/" + bookingId + "/attended", token(userId), null));
+        }
+
+        private Object get(int userId, String path) throws Exception {
+            ApiClient.Response response = api.call("GET", path, token(userId), null);
+            if (!response.ok()) {
+                throw new IOException("GET " + path + " -> " + response.status());
+            }
+            return response.body();
+        }
+
+        private boolean outcome(ApiClient.Response response) throws IOException {
+            if (response.status() == 409) {
+                return false;
+            }
+            if (!response.ok()) {
+                throw new IOException("HTTP " + response.status());
+            }
+            return true;
+        }
+
+        // Each user runs on its own virtual thread, so a plain get/put cannot race for the same user
+        private String token(int userId) throws Exception {
+            String token = tokens.get(userId);
+            if (token == null) {
+                String username = userId <= config.members ? "member" + userId : "trainer" + (userId - config.members);
+                token = api.login(username, "password" + userId);
+                if (token == null) {
+                    throw new IOException("Login refused for " + username);
+                }
+                tokens.put(userId, token);
+            }
+            return token;
+        }
+
+        private static List<Integer> ids(Object list, String idField, String status) {
+            List<Integer> ids = new ArrayList<>();
+            for (Object item : (List<?>) list) {
+                Map<?, ?> row = (Map<?, ?>) item;
+                if (status == null || status.equals(row.get("status"))) {
+                    ids.add(((Number) row.get(idField)).intValue());
+                }
+            }
+            return ids;
+        }
+    }
+
+    private Operation pick(Random random, int totalWeight) {
+        int r = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : config.memberMix.entrySet()) {
+            r -= entry.getValue();
+            if (r < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.BROWSE;
+    }
+
+    private void printReport(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long total = 0;
+        System.out.printf("%n=== Load simulation%s: %d members, %d trainers, %.1fs, concurrency %d ===%n",
+                config.http ? " over HTTP" : "", config.members, config.trainers, seconds, config.concurrency);
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats s = entry.getValue();
+            long count = s.latency.getCount();
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            System.out.printf("%-9s %8.1f ops/s  ok=%d rejected=%d failed=%d  %s%n",
+                    entry.getKey(), count / seconds, s.succeeded.sum(), s.rejected.sum(), s.failed.sum(),
+                    s.latency.summary());
+        }
+        System.out.printf("TOTAL     %8.1f ops/s%n", total / seconds);
+        if (QueryDiagnostics.isEnabled()) {
+            System.out.println("Diagnostics: slow queries=" + QueryDiagnostics.getSlowQueryCount() +
+                    ", repeated-query reports=" + QueryDiagnostics.getRepeatedQueryReportCount() +
+                    (config.quiet ? " (details with --verbose=true)" : ""));
+        }
+        System.out.println();
+        System.out.print(AppConfig.getMetricsRegistry().dumpText());
+    }
+
+    /** Prints and returns the number of schedules that break the capacity invariants. */
+    private int checkInvariants(String label) {
+        if (dbManager instanceof MemoryDatabaseManager memory) {
+            return checkInvariants(label, memory);
+        }
+        String sql = """
+            SELECT
+                SUM(CASE WHEN cs.available_spots < 0 OR COALESCE(b.active, 0) > c.capacity THEN 1 ELSE 0 END),
+                SUM(CASE WHEN cs.available_spots <> c.capacity - COALESCE(b.active, 0) THEN 1 ELSE 0 END)
+            FROM class_schedule cs
+            JOIN classes c ON c.class_id = cs.class_id
+            LEFT JOIN (SELECT schedule_id, COUNT(*) AS active FROM bookings
+                       WHERE status IN ('CONFIRMED', 'ATTENDED') GROUP BY schedule_id) b
+                ON b.schedule_id = cs.schedule_id
+            """;
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            int oversold = 0;
+            int mismatched = 0;
+            if (rs.next()) {
+                oversold = rs.getInt(1);
+                mismatched = rs.getInt(2);
+            }
+            System.out.println("Invariants " + label + ": oversold schedules=" + oversold +
+                    ", spots != capacity - active bookings=" + mismatched);
+            return oversold + mismatched;
+        } catch (SQLException e) {
+            System.err.println("Error checking invariants: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    // The same checks as the SQL above, from the in-memory repositories
+    private static int checkInvariants(String label, MemoryDatabaseManager memory) {
+        IntIntMap active = new IntIntMap();
+        for (Booking booking : memory.getBookingRepository().findAll()) {
+            if (booking.isConfirmed() || booking.isAttended()) {
+                active.addTo(booking.getScheduleId(), 1);
+            }
+        }
+        int oversold = 0;
+        int mismatched = 0;
+        for (ClassSchedule schedule : memory.getClassRepository().findAllSchedules()) {
+            GymClass gymClass = memory.getClassRepository().findClassById(schedule.getClassId());
+            if (gymClass == null) {
+                continue;   // the join drops schedules of missing classes
+            }
+            int booked = active.get(schedule.getScheduleId());
+            if (schedule.getAvailableSpots() < 0 || booked > gymClass.getCapacity()) {
+                oversold++;
+            }
+            if (schedule.getAvailableSpots() != gymClass.getCapacity() - booked) {
+                mismatched++;
+            }
+        }
+        System.out.println("Invariants " + label + ": oversold schedules=" + oversold +
+                ", spots != capacity - active bookings=" + mismatched);
+        return oversold + mismatched;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = new Config();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) {
+                System.err.println("Ignoring argument: " + arg);
+                continue;
+            }
+            switch (kv[0]) {
+                case "db" -> config.db = kv[1];
+                case "seed" -> config.seed = Long.parseLong(kv[1]);
+                case "members" -> config.members = Integer.parseInt(kv[1]);
+                case "trainers" -> config.trainers = Integer.parseInt(kv[1]);
+                case "duration" -> config.durationSeconds = Integer.parseInt(kv[1]);
+                case "think-ms" -> config.thinkTimeMs = Integer.parseInt(kv[1]);
+                case "concurrency" -> config.concurrency = Integer.parseInt(kv[1]);
+                case "http" -> config.http = Boolean.parseBoolean(kv[1]);
+                case "backend" -> config.backend = kv[1];
+                case "verbose" -> config.quiet = !Boolean.parseBoolean(kv[1]);
+                case "diagnostics" -> QueryDiagnostics.setEnabled(Boolean.parseBoolean(kv[1]));
+                case "mix" -> {
+                    config.memberMix.clear();
+                    for (String part : kv[1].split(",")) {
+                        String[] w = part.split(":");
+                        config.memberMix.put(Operation.valueOf(w[0].trim().toUpperCase()), Integer.parseInt(w[1].trim()));
+                    }
+                }
+                default -> System.err.println("Unknown option: " + kv[0]);
+            }
+        }
+
+        Path tempDb = null;
+        String db = config.db;
+        if (db == null) {
+            tempDb = Files.createTempFile("gym-load-", ".db");
+            db = tempDb.toString();
+        }
+        SqliteDatabaseManager dbManager = new SqliteDatabaseManager("jdbc:sqlite:" + db);
+
+        if (tempDb != null) {
+            dbManager.initializeDatabase();
+            SyntheticDataGenerator.Config data = new SyntheticDataGenerator.Config();
+            data.seed = config.seed;
+            data.members = config.members;
+            data.trainers = Math.max(1, config.trainers);
+            data.classes = Math.max(10, config.members / 50);
+            data.schedules = data.classes * 20;
+            data.bookings = config.members * 10L;
+            data.daysBack = 30;
+            data.daysAhead = 14;
+            new SyntheticDataGenerator(dbManager, data).generate();
+        }
+
+        DatabaseManager target = dbManager;
+        if ("memory".equals(config.backend)) {
+            MemoryDatabaseManager memory = new MemoryDatabaseManager();
+            memory.importFrom(new SqliteUserRepository(dbManager), new SqliteClassRepository(dbManager),
+                    new SqliteBookingRepository(dbManager), new SqliteProgressRepository(dbManager));
+            target = memory;
+        } else if (!"sqlite".equals(config.backend)) {
+            System.err.println("Unknown backend: " + config.backend + " (expected sqlite or memory)");
+            System.exit(2);
+        }
+
+        int violations = new LoadSimulator(config, target).run();
+        dbManager.shutdown();
+        if (tempDb != null) {
+            deleteQuietly(tempDb);
+        }
+        System.exit(violations == 0 ? 0 : 1);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Could not delete " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.gym;
+
+import com.gym.domain.User;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.UserRepository;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Background part of application startup. The login view is shown first;
+ * then this creates the schema (which opens the connection gate in AppConfig)
+ * and seeds default users and demo classes in parallel. AppConfig.readiness()
+ * completes when everything is done. Each phase is logged with its duration.
+ */
+public final class StartupPipeline {
+    private static final Logger log = Log.get(StartupPipeline.class);
+
+    private final long startNanos = System.nanoTime();
+
+    /** Logs how long the JVM took to reach Application.start(). */
+    public static void logJvmStartup() {
+        log.info("Startup phase", "phase", "jvm-to-start", "ms", msSinceJvmStart());
+    }
+
+    /** Wall-clock time since the JVM was launched. */
+    public static long msSinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    /** Call once the first view is on screen. */
+    public void markLoginShown() {
+        log.info("Startup phase", "phase", "login-shown", "ms", elapsedMs(startNanos));
+    }
+
+    /** Runs schema creation and seeding on daemon threads; returns AppConfig.readiness(). */
+    public CompletableFuture<Void> start() {
+        ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "gym-startup");
+            t.setDaemon(true);
+            return t;
+        });
+
+        CompletableFuture<Void> schema = CompletableFuture.runAsync(
+                () -> timed("schema", () -> AppConfig.getDatabaseManager().initializeDatabase()), executor);
+
+        schema.thenRun(AppConfig::markSchemaReady)
+                .thenCompose(ignored -> CompletableFuture.allOf(
+                        CompletableFuture.runAsync(() -> timed("seed-users", StartupPipeline::seedDefaultUsers), executor),
+                        CompletableFuture.runAsync(() -> timed("seed-demo-classes", DemoDataSeeder::seed), executor)))
+                .whenComplete((ignored, error) -> {
+                    executor.shutdown();
+                    if (error != null) {
+                        log.error("Startup failed", error);
+                        AppConfig.markFailed(error);
+                    } else {
+                        log.info("Startup phase", "phase", "ready", "ms", elapsedMs(startNanos));
+                        AppConfig.markReady();
+                    }
+                });
+        return AppConfig.readiness();
+    }
+
+    private static void timed(String phase, Runnable task) {
+        long t0 = System.nanoTime();
+        task.run();
+        log.info("Startup phase", "phase", phase, "ms", elapsedMs(t0));
+    }
+
+    private static long elapsedMs(long fromNanos) {
+        return (System.nanoTime() - fromNanos) / 1_000_000;
+    }
+
+    private static void seedDefaultUsers() {
+        UserRepository userRepo = AppConfig.getUserRepository();
+
+        seedUserIfMissing(userRepo, "admin",  "admin123",  "ADMIN");
+        seedUserIfMissing(userRepo, "member", "member123", "MEMBER");
+        seedUserIfMissing(userRepo, "trainer","trainer123","TRAINER");
+    }
+
+    private static void seedUserIfMissing(UserRepository repo,
+                                          String username,
+                                          String rawPassword,
+                                          String role) {
+        User existing = repo.findByUsername(username);
+        if (existing != null) return;
+
+        User u = new User(username, rawPassword, username + "@gym.com", role);
+        boolean ok = repo.save(u);
+        if (ok) log.info("Seeded user", "role", role, "username", username);
+    }
+}
@@ -0,0 +1,415 @@
+package com.gym;
+
+import com.gym.repository.DatabaseManager;
+import com.gym.repository.sqlite.SqliteDatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Deterministic generator for production-sized datasets (DemoDataSeeder only
+ * creates a handful of rows). The same Config (including seed and today)
+ * always produces the same rows: every date derives from config.today.
+ *
+ * Ids are assigned explicitly, so the target database must be empty:
+ *  - members have user ids 1..members (username "member{i}", password "password{i}"),
+ *    trainers follow them, then one admin; passwords are written in plaintext
+ *    (hashing millions would dominate generation) and are upgraded to PBKDF2
+ *    hashes on each user's first login;
+ *  - classes 1..classes, schedules 1..schedules, bookings 1..bookings.
+ *
+ * Class popularity follows a Zipf distribution and member activity a
+ * log-normal one. Bookings on past schedules are ATTENDED, future ones
+ * CONFIRMED, with a configurable cancellation rate; a booking that would
+ * overfill a schedule is stored as CANCELLED, so available_spots always equals
+ * capacity minus active (CONFIRMED + ATTENDED) bookings.
+ *
+ * CLI: java com.gym.SyntheticDataGenerator --db=fixtures.db --members=100000 --bookings=10000000 ...
+ */
+public class SyntheticDataGenerator {
+
+    public static class Config {
+        public long seed = 42;
+        public LocalDate today = LocalDate.now();   // anchor of every generated date
+        public int members = 100_000;
+        public int trainers = 100;
+        public int classes = 500;
+        public int schedules = 200_000;
+        public long bookings = 10_000_000;
+        public int daysBack = 365;         // schedules from today - daysBack ...
+        public int daysAhead = 14;         // ... to today + daysAhead
+        public double classPopularitySkew = 1.1;  // Zipf exponent, 0 = uniform
+        public double memberActivitySigma = 1.0;  // log-normal sigma, 0 = everyone equally active
+        public double cancelRate = 0.15;
+        public int minCapacity = 10;
+        public int maxCapacity = 40;
+        public int batchSize = 10_000;      // rows per executeBatch
+        public int commitEvery = 200_000;   // rows per transaction
+
+        @Override
+        public String toString() {
+            return "Config{seed=" + seed + ", today=" + today + ", members=" + members + ", trainers=" + trainers +
+                    ", classes=" + classes + ", schedules=" + schedules + ", bookings=" + bookings +
+                    ", days=-" + daysBack + "..+" + daysAhead + '}';
+        }
+    }
+
+    public static class Summary {
+        public int users;
+        public int classes;
+        public int schedules;
+        public long bookings;
+        public long progressRows;
+        public long elapsedMs;
+
+        public long totalRows() {
+            return users + classes + schedules + bookings + progressRows;
+        }
+
+        @Override
+        public String toString() {
+            long rowsPerSecond = totalRows() * 1000 / Math.max(1, elapsedMs);
+            return "Generated " + users + " users, " + classes + " classes, " + schedules + " schedules, " +
+                    bookings + " bookings, " + progressRows + " progress rows in " + elapsedMs + " ms (" +
+                    rowsPerSecond + " rows/s)";
+        }
+    }
+
+    private static final String[] CLASS_TYPES = {"HIIT", "YOGA", "STRENGTH", "CARDIO"};
+    private static final String[] CLASS_NAMES = {"Bootcamp Blast", "Zen Flow Yoga", "Iron Warrior", "Cardio Burn"};
+    private static final String[] CATEGORIES = {"CARDIO", "STRENGTH", "FLEXIBILITY", "ENDURANCE", "LEGS", "ARMS", "CORE"};
+
+    private final DatabaseManager dbManager;
+    private final Config config;
+    private final Random random;
+
+    // Per-schedule data kept in memory while bookings are generated
+    private int[] scheduleClass;
+    private long[] scheduleDay;
+    private int[] scheduleCapacity;
+    private int[] scheduleActive;
+    private int[][] schedulesByClass;
+    private int[] classCapacity;
+
+    private Connection conn;
+    private long pendingRows;
+
+    public SyntheticDataGenerator(DatabaseManager dbManager, Config config) {
+        this.dbManager = dbManager;
+        this.config = config;
+        this.random = new Random(config.seed);
+    }
+
+    public Summary generate() throws SQLException {
+        long start = System.nanoTime();
+        Summary summary = new Summary();
+
+        try (Connection c = dbManager.getConnection()) {
+            conn = c;
+            requireEmpty();
+            try (Statement stmt = conn.createStatement()) {
+                // Bulk load: skip fsync per commit, restored below
+                stmt.execute("PRAGMA synchronous = OFF");
+            }
+            conn.setAutoCommit(false);
+            try {
+                summary.users = insertUsers();
+                summary.classes = insertClasses();
+                planSchedules();
+                insertBookingsAndProgress(summary);
+                summary.schedules = insertSchedules();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA synchronous = FULL");
+                }
+            }
+        }
+
+        summary.elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println(summary);
+        return summary;
+    }
+
+    private void requireEmpty() throws SQLException {
+        for (String table : new String[]{"users", "classes", "class_schedule", "bookings", "fitness_progress"}) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM " + table + ")")) {
+                if (rs.next() && rs.getInt(1) == 1) {
+                    throw new SQLException("Table " + table + " is not empty; generate into a fresh database");
+                }
+            }
+        }
+    }
+
+    private int insertUsers() throws SQLException {
+        int total = config.members + config.trainers + 1;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO users (user_id, username, password, email, role) VALUES (?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= total; id++) {
+                String username;
+                String role;
+                if (id <= config.members) {
+                    username = "member" + id;
+                    role = "MEMBER";
+                } else if (id <= config.members + config.trainers) {
+                    username = "trainer" + (id - config.members);
+                    role = "TRAINER";
+                } else {
+                    username = "admin";
+                    role = "ADMIN";
+                }
+                ps.setInt(1, id);
+                ps.setString(2, username);
+                ps.setString(3, "password" + id);
+                ps.setString(4, username + "@gym.com");
+                ps.setString(5, role);
+                addRow(ps);
+            }
+            ps.executeBatch();
+        }
+        return total;
+    }
+
+    private int insertClasses() throws SQLException {
+        classCapacity = new int[config.classes + 1];
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO classes (class_id, class_name, instructor_name, description, capacity, duration_minutes, class_type) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= config.classes; id++) {
+                int type = random.nextInt(CLASS_TYPES.length);
+                int capacity = config.minCapacity + random.nextInt(config.maxCapacity - config.minCapacity + 1);
+                classCapacity[id] = capacity;
+
+                ps.setInt(1, id);
+                ps.setString(2, CLASS_NAMES[type] + " " + id);
+                ps.setString(3, "trainer" + (1 + random.nextInt(Math.max(1, config.trainers))));
+                ps.setString(4, "Generated " + CLASS_TYPES[type].toLowerCase() + " class");
+                ps.setInt(5, capacity);
+                ps.setInt(6, 30 + 15 * random.nextInt(4));
+                ps.setString(7, CLASS_TYPES[type]);
+                addRow(ps);
+            }
+            ps.executeBatch();
+        }
+        return config.classes;
+    }
+
+    /** Decides class, day and capacity of every schedule; rows are written after bookings. */
+    private void planSchedules() {
+        int n = config.schedules;
+        scheduleClass = new int[n + 1];
+        scheduleDay = new long[n + 1];
+        scheduleCapacity = new int[n + 1];
+        scheduleActive = new int[n + 1];
+
+        long firstDay = config.today.toEpochDay() - config.daysBack;
+        int days = config.daysBack + config.daysAhead + 1;
+        int[] perClass = new int[config.classes + 1];
+
+        for (int id = 1; id <= n; id++) {
+            int classId = 1 + (id - 1) % config.classes;
+            scheduleClass[id] = classId;
+            scheduleDay[id] = firstDay + random.nextInt(days);
+            scheduleCapacity[id] = classCapacity[classId];
+            perClass[classId]++;
+        }
+
+        schedulesByClass = new int[config.classes + 1][];
+        for (int c = 1; c <= config.classes; c++) {
+            schedulesByClass[c] = new int[perClass[c]];
+            perClass[c] = 0;
+        }
+        for (int id = 1; id <= n; id++) {
+            int c = scheduleClass[id];
+            schedulesByClass[c][perClass[c]++] = id;
+        }
+    }
+
+    private void insertBookingsAndProgress(Summary summary) throws SQLException {
+        double[] classCdf = zipfCdf(config.classes, config.classPopularitySkew);
+        double[] activity = new double[config.members + 1];
+        double activitySum = 0;
+        for (int u = 1; u <= config.members; u++) {
+            activity[u] = Math.exp(config.memberActivitySigma * random.nextGaussian());
+            activitySum += activity[u];
+        }
+
+        long today = config.today.toEpochDay();
+        long bookingId = 0;
+        int[] chosen = new int[64];
+
+        try (PreparedStatement bookingPs = conn.prepareStatement(
+                "INSERT INTO bookings (booking_id, user_id, schedule_id, booked_at, status) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement progressPs = conn.prepareStatement(
+                     "INSERT INTO fitness_progress (user_id, category, total_points, last_updated) VALUES (?, ?, ?, ?)")) {
+
+            String lastUpdated = config.today.toString();
+            double carry = 0;
+
+            for (int userId = 1; userId <= config.members; userId++) {
+                // Fractional carry keeps the total equal to config.bookings
+                double exact = config.bookings * activity[userId] / activitySum + carry;
+                int count = (int) exact;
+                carry = exact - count;
+                if (userId == config.members) {
+                    count = (int) Math.max(0, config.bookings - bookingId);
+                }
+
+                if (chosen.length < count) {
+                    chosen = new int[Math.max(count, chosen.length * 2)];
+                }
+                int chosenCount = 0;
+                int attended = 0;
+
+                for (int b = 0; b < count; b++) {
+                    int scheduleId = pickSchedule(classCdf);
+                    boolean duplicate = contains(chosen, chosenCount, scheduleId);
+                    chosen[chosenCount++] = scheduleId;
+
+                    boolean past = scheduleDay[scheduleId] < today;
+                    String status;
+                    if (duplicate || random.nextDouble() < config.cancelRate
+                            || scheduleActive[scheduleId] >= scheduleCapacity[scheduleId]) {
+                        status = "CANCELLED";
+                    } else {
+                        scheduleActive[scheduleId]++;
+                        status = past ? "ATTENDED" : "CONFIRMED";
+                        if (past) attended++;
+                    }
+
+                    long bookedAt = scheduleDay[scheduleId] * 86_400 - random.nextInt(7 * 86_400);
+                    bookingPs.setLong(1, ++bookingId);
+                    bookingPs.setInt(2, userId);
+                    bookingPs.setInt(3, scheduleId);
+                    bookingPs.setLong(4, bookedAt);
+                    bookingPs.setString(5, status);
+                    addRow(bookingPs);
+                }
+
+                for (String category : CATEGORIES) {
+                    progressPs.setInt(1, userId);
+                    progressPs.setString(2, category);
+                    progressPs.setInt(3, 10 * random.nextInt(attended + 1));
+                    progressPs.setString(4, lastUpdated);
+                    addRow(progressPs);
+                    summary.progressRows++;
+                }
+            }
+            bookingPs.executeBatch();
+            progressPs.executeBatch();
+        }
+        summary.bookings = bookingId;
+    }
+
+    private int insertSchedules() throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO class_schedule (schedule_id, class_id, scheduled_day, start_second, end_second, available_spots) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= config.schedules; id++) {
+                int start = 6 * 3600 + 1800 * random.nextInt(30);   // 06:00 .. 20:30
+                ps.setInt(1, id);
+                ps.setInt(2, scheduleClass[id]);
+                ps.setLong(3, scheduleDay[id]);
+                ps.setInt(4, start);
+                ps.setInt(5, start + 3600);
+                ps.setInt(6, scheduleCapacity[id] - scheduleActive[id]);
+                addRow(ps);
+            }
+            ps.executeBatch();
+        }
+        return config.schedules;
+    }
+
+    private int pickSchedule(double[] classCdf) {
+        int classId;
+        int[] candidates;
+        do {
+            classId = 1 + lowerBound(classCdf, random.nextDouble());
+            candidates = schedulesByClass[classId];
+        } while (candidates.length == 0);
+        return candidates[random.nextInt(candidates.length)];
+    }
+
+    /** Adds the current parameters to the batch, flushing and committing periodically. */
+    private void addRow(PreparedStatement ps) throws SQLException {
+        ps.addBatch();
+        pendingRows++;
+        if (pendingRows % config.batchSize == 0) {
+            ps.executeBatch();
+        }
+        if (pendingRows % config.commitEvery == 0) {
+            ps.executeBatch();
+            conn.commit();
+        }
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int lowerBound(double[] cdf, double value) {
+        int idx = Arrays.binarySearch(cdf, value);
+        idx = idx >= 0 ? idx : -idx - 1;
+        return Math.min(idx, cdf.length - 1);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Config config = new Config();
+        String db = "gym_fixture.db";
+
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) {
+                System.err.println("Ignoring argument: " + arg);
+                continue;
+            }
+            switch (kv[0]) {
+                case "db" -> db = kv[1];
+                case "seed" -> config.seed = Long.parseLong(kv[1]);
+                case "today" -> config.today = LocalDate.parse(kv[1]);
+                case "members" -> config.members = Integer.parseInt(kv[1]);
+                case "trainers" -> config.trainers = Integer.parseInt(kv[1]);
+                case "classes" -> config.classes = Integer.parseInt(kv[1]);
+                case "schedules" -> config.schedules = Integer.parseInt(kv[1]);
+                case "bookings" -> config.bookings = Long.parseLong(kv[1]);
+                case "days-back" -> config.daysBack = Integer.parseInt(kv[1]);
+                case "days-ahead" -> config.daysAhead = Integer.parseInt(kv[1]);
+                case "class-skew" -> config.classPopularitySkew = Double.parseDouble(kv[1]);
+                case "activity-sigma" -> config.memberActivitySigma = Double.parseDouble(kv[1]);
+                case "cancel-rate" -> config.cancelRate = Double.parseDouble(kv[1]);
+                default -> System.err.println("Unknown option: " + kv[0]);
+            }
+        }
+
+        System.out.println("Generating into " + db + " with " + config);
+        SqliteDatabaseManager dbManager = new SqliteDatabaseManager("jdbc:sqlite:" + db);
+        dbManager.initializeDatabase();
+        new SyntheticDataGenerator(dbManager, config).generate();
+        dbManager.shutdown();
+    }
+}
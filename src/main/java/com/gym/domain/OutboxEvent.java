@@ -0,0 +1,61 @@
+package com.gym.domain;
+
+/**
+ * A booking domain event stored in the outbox table in the same transaction
+ * as the booking change, and delivered to handlers afterwards
+ * (see OutboxDispatcher).
+ */
+public class OutboxEvent {
+    public static final String BOOKED = "BOOKED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String ATTENDED = "ATTENDED";
+    public static final String WAITLIST_PROMOTED = "WAITLIST_PROMOTED";   // booking made for the next member in line
+
+    private long eventId;
+    private final String eventType;
+    private final int bookingId;
+    private final int userId;
+    private final int scheduleId;
+    private final long createdMillis;
+    private int attempts;
+
+    // Constructor for a new event
+    public OutboxEvent(String eventType, int bookingId, int userId, int scheduleId) {
+        this(0, eventType, bookingId, userId, scheduleId, System.currentTimeMillis(), 0);
+    }
+
+    // Constructor for an event read from the database
+    public OutboxEvent(long eventId, String eventType, int bookingId, int userId, int scheduleId,
+                       long createdMillis, int attempts) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.bookingId = bookingId;
+        this.userId = userId;
+        this.scheduleId = scheduleId;
+        this.createdMillis = createdMillis;
+        this.attempts = attempts;
+    }
+
+    public long getEventId() { return eventId; }
+    public String getEventType() { return eventType; }
+    public int getBookingId() { return bookingId; }
+    public int getUserId() { return userId; }
+    public int getScheduleId() { return scheduleId; }
+    public long getCreatedMillis() { return createdMillis; }
+    public int getAttempts() { return attempts; }
+
+    public void setEventId(long eventId) { this.eventId = eventId; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "eventId=" + eventId +
+                ", eventType='" + eventType + '\'' +
+                ", bookingId=" + bookingId +
+                ", userId=" + userId +
+                ", scheduleId=" + scheduleId +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
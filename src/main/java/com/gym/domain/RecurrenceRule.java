@@ -0,0 +1,72 @@
+package com.gym.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Weekly recurrence for one class: which weekdays it runs, at what time,
+ * between which term dates, and which dates to skip (holidays, closures).
+ */
+public class RecurrenceRule {
+    private final int classId;
+    private final Set<DayOfWeek> daysOfWeek;
+    private final LocalTime startTime;
+    private final LocalDate termStart;
+    private final LocalDate termEnd;
+    private final Set<LocalDate> exceptions = new HashSet<>();
+
+    public RecurrenceRule(int classId, Set<DayOfWeek> daysOfWeek, LocalTime startTime,
+                          LocalDate termStart, LocalDate termEnd) {
+        this.classId = classId;
+        this.daysOfWeek = daysOfWeek.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(daysOfWeek);
+        this.startTime = startTime;
+        this.termStart = termStart;
+        this.termEnd = termEnd;
+    }
+
+    // Getters
+    public int getClassId() { return classId; }
+    public Set<DayOfWeek> getDaysOfWeek() { return daysOfWeek; }
+    public LocalTime getStartTime() { return startTime; }
+    public LocalDate getTermStart() { return termStart; }
+    public LocalDate getTermEnd() { return termEnd; }
+    public Set<LocalDate> getExceptions() { return exceptions; }
+
+    public void addException(LocalDate date) {
+        exceptions.add(date);
+    }
+
+    /**
+     * All dates inside [termStart, termEnd] that fall on one of the rule's
+     * weekdays and are not listed as exceptions, in ascending order.
+     */
+    public List<LocalDate> occurrences() {
+        List<LocalDate> dates = new ArrayList<>();
+        if (termStart == null || termEnd == null || termEnd.isBefore(termStart)) {
+            return dates;
+        }
+        for (LocalDate d = termStart; !d.isAfter(termEnd); d = d.plusDays(1)) {
+            if (daysOfWeek.contains(d.getDayOfWeek()) && !exceptions.contains(d)) {
+                dates.add(d);
+            }
+        }
+        return dates;
+    }
+
+    @Override
+    public String toString() {
+        return "RecurrenceRule{" +
+                "classId=" + classId +
+                ", days=" + daysOfWeek +
+                ", start=" + startTime +
+                ", term=" + termStart + ".." + termEnd +
+                ", exceptions=" + exceptions.size() +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.gym.domain;
+
+/**
+ * A client-supplied idempotency key and the request it was first used for.
+ * Stored with the booking change it produced, so a retry of that request
+ * (kiosk double tap, network retry) gets the original result instead of
+ * running again. Keys are scoped per user.
+ */
+public class RequestKey {
+    public static final String BOOK = "BOOK";
+    public static final String CANCEL = "CANCEL";
+
+    private final int userId;
+    private final String key;
+    private final String operation;
+    private final int targetId;         // scheduleId for BOOK, bookingId for CANCEL
+    private final long createdMillis;
+
+    // Constructor for a new key
+    public RequestKey(int userId, String key, String operation, int targetId) {
+        this(userId, key, operation, targetId, System.currentTimeMillis());
+    }
+
+    // Constructor for a key read from the database
+    public RequestKey(int userId, String key, String operation, int targetId, long createdMillis) {
+        this.userId = userId;
+        this.key = key;
+        this.operation = operation;
+        this.targetId = targetId;
+        this.createdMillis = createdMillis;
+    }
+
+    public int getUserId() { return userId; }
+    public String getKey() { return key; }
+    public String getOperation() { return operation; }
+    public int getTargetId() { return targetId; }
+    public long getCreatedMillis() { return createdMillis; }
+
+    /** True if this key was used for the same operation on the same target. */
+    public boolean matches(String operation, int targetId) {
+        return this.operation.equals(operation) && this.targetId == targetId;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestKey{" +
+                "userId=" + userId +
+                ", key='" + key + '\'' +
+                ", operation='" + operation + '\'' +
+                ", targetId=" + targetId +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package com.gym.domain;
+
+/**
+ * A member waiting for a spot in a full class. Entries are served by tier
+ * (lower first), then in order of arrival.
+ */
+public class WaitlistEntry {
+    public static final int TIER_PRIORITY = 0;
+    public static final int TIER_STANDARD = 1;
+    public static final int TIERS = 2;
+
+    public static final String WAITING = "WAITING";
+    public static final String PROMOTED = "PROMOTED";   // got a booking when a spot freed up
+    public static final String LEFT = "LEFT";           // left the list, or booked another way
+
+    private long entryId;
+    private final int scheduleId;
+    private final int userId;
+    private final int tier;
+    private final long joinedMillis;
+    private String status;
+
+    // Constructor for a new entry
+    public WaitlistEntry(int scheduleId, int userId, int tier) {
+        this(0, scheduleId, userId, tier, System.currentTimeMillis(), WAITING);
+    }
+
+    // Constructor for an entry read from the database
+    public WaitlistEntry(long entryId, int scheduleId, int userId, int tier, long joinedMillis, String status) {
+        if (tier < 0 || tier >= TIERS) {
+            throw new IllegalArgumentException("Unknown waitlist tier: " + tier);
+        }
+        this.entryId = entryId;
+        this.scheduleId = scheduleId;
+        this.userId = userId;
+        this.tier = tier;
+        this.joinedMillis = joinedMillis;
+        this.status = status;
+    }
+
+    public long getEntryId() { return entryId; }
+    public int getScheduleId() { return scheduleId; }
+    public int getUserId() { return userId; }
+    public int getTier() { return tier; }
+    public long getJoinedMillis() { return joinedMillis; }
+    public String getStatus() { return status; }
+
+    public void setEntryId(long entryId) { this.entryId = entryId; }
+    public void setStatus(String status) { this.status = status; }
+
+    public boolean isWaiting() { return WAITING.equals(status); }
+
+    @Override
+    public String toString() {
+        return "WaitlistEntry{" +
+                "entryId=" + entryId +
+                ", scheduleId=" + scheduleId +
+                ", userId=" + userId +
+                ", tier=" + tier +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
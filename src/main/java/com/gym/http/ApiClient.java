@@ -0,0 +1,69 @@
+package com.gym.http;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Small JSON client for the API (used by LoadSimulator --http). One
+ * java.net.http.HttpClient is shared by all callers, so HTTP/1.1 connections
+ * are pooled and kept alive between requests.
+ */
+public class ApiClient {
+
+    /** Status and parsed JSON body (Map, List, String, Long... or null when empty). */
+    public record Response(int status, Object body) {
+        public boolean ok() { return status >= 200 && status < 300; }
+    }
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+
+    /** baseUrl such as http://localhost:8080 (without /api). */
+    public ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /** Logs in and returns the session token, or null when the credentials were refused. */
+    public String login(String username, String password) throws IOException, InterruptedException {
+        StringWriter body = new StringWriter();
+        JsonWriter json = new JsonWriter(body);
+        json.beginObject().field("username", username).field("password", password).endObject().flush();
+
+        Response response = call("POST", "/api/login", null, body.toString());
+        if (!response.ok()) {
+            return null;
+        }
+        return (String) ((Map<?, ?>) response.body()).get("token");
+    }
+
+    /** Sends one request; token and jsonBody may be null. */
+    public Response call(String method, String path, String token, String jsonBody)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .method(method, jsonBody == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(jsonBody, StandardCharsets.UTF_8));
+        if (jsonBody != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        String text = response.body();
+        return new Response(response.statusCode(), text == null || text.isBlank() ? null : Json.parse(text));
+    }
+}
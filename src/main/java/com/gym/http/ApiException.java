@@ -0,0 +1,15 @@
+package com.gym.http;
+
+/** Ends a request with an HTTP status and a {"error": message} body. */
+public class ApiException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() { return status; }
+}
@@ -0,0 +1,202 @@
+package com.gym.http;
+
+import com.gym.service.Session;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One API call: request accessors (path parameters, query, JSON body,
+ * caller's session) and the JSON response. Single objects are sent with a
+ * Content-Length; lists are streamed with chunked encoding as they are written.
+ */
+public class ApiExchange {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    /** Writes one JSON value (object, list element...). */
+    public interface Body {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    /** Writes one list element as JSON. */
+    public interface ItemWriter<T> {
+        void write(JsonWriter json, T item) throws IOException;
+    }
+
+    private final HttpExchange exchange;
+    private final String[] pathParams;
+    private Session session;
+    private Map<String, String> query;
+    private int status;
+    private long rows;
+
+    ApiExchange(HttpExchange exchange, String[] pathParams) {
+        this.exchange = exchange;
+        this.pathParams = pathParams;
+    }
+
+    public String method() { return exchange.getRequestMethod(); }
+    public Session session() { return session; }
+    void setSession(Session session) { this.session = session; }
+    int status() { return status; }
+    long rows() { return rows; }
+
+    public String remoteAddress() {
+        return exchange.getRemoteAddress().getAddress().getHostAddress();
+    }
+
+    public String header(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    /** The n-th {placeholder} of the route, as an int. */
+    public int pathInt(int index) {
+        try {
+            return Integer.parseInt(pathParams[index]);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Not a number: " + pathParams[index]);
+        }
+    }
+
+    public String query(String name) {
+        if (query == null) {
+            query = new HashMap<>();
+            String raw = exchange.getRequestURI().getRawQuery();
+            if (raw != null) {
+                for (String pair : raw.split("&")) {
+                    String[] kv = pair.split("=", 2);
+                    query.put(URLDecoder.decode(kv[0], StandardCharsets.UTF_8),
+                            kv.length > 1 ? URLDecoder.decode(kv[1], StandardCharsets.UTF_8) : "");
+                }
+            }
+        }
+        return query.get(name);
+    }
+
+    public Map<String, Object> body() throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body too large");
+            }
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, e.getMessage());
+        }
+    }
+
+    public static String string(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof String s) || s.isEmpty()) {
+            throw new ApiException(400, "Missing field: " + field);
+        }
+        return s;
+    }
+
+    public static int integer(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof Long n) || n < Integer.MIN_VALUE || n > Integer.MAX_VALUE) {
+            throw new ApiException(400, "Missing or invalid number: " + field);
+        }
+        return n.intValue();
+    }
+
+    /** Sends one JSON value with a Content-Length (keeps the connection reusable cheaply). */
+    public void send(int status, Body body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        body.write(new JsonWriter(writer));
+        writer.flush();
+
+        this.status = status;
+        this.rows = 1;
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, buffer.size() == 0 ? -1 : buffer.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            buffer.writeTo(out);
+        }
+    }
+
+    /** Streams a JSON array, writing each element as it goes (chunked encoding). */
+    public <T> void sendList(List<T> items, ItemWriter<T> itemWriter) throws IOException {
+        this.status = 200;
+        this.rows = items.size();
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 8192)) {
+            JsonWriter json = new JsonWriter(writer);
+            json.beginArray();
+            for (T item : items) {
+                itemWriter.write(json, item);
+            }
+            json.endArray();
+        }
+    }
+
+    /** Starts a server-sent event stream (text/event-stream); events are written through the returned writer. */
+    public EventStream startEvents() throws IOException {
+        this.status = 200;
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        return new EventStream(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 1024));
+    }
+
+    /** Server-sent events; every event or comment is flushed straight to the client. */
+    public final class EventStream {
+        private final Writer out;
+
+        private EventStream(Writer out) {
+            this.out = out;
+        }
+
+        public void event(String name, long id, Body data) throws IOException {
+            out.write("event: " + name + "\nid: " + id + "\ndata: ");
+            data.write(new JsonWriter(out));
+            out.write("\n\n");
+            out.flush();
+            rows++;
+        }
+
+        /** A comment line, ignored by clients; keeps idle connections from timing out. */
+        public void comment(String text) throws IOException {
+            out.write(": " + text + "\n\n");
+            out.flush();
+        }
+    }
+
+    public void sendError(int status, String message) throws IOException {
+        send(status, json -> json.beginObject().field("error", message).endObject());
+    }
+
+    /** Raw text response (e.g. metrics dumps). */
+    public void sendText(int status, String contentType, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        this.status = status;
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    boolean responded() {
+        return status != 0;
+    }
+
+    HttpExchange raw() {
+        return exchange;
+    }
+}
@@ -0,0 +1,341 @@
+package com.gym.http;
+
+import com.gym.AppConfig;
+import com.gym.StartupPipeline;
+import com.gym.domain.Booking;
+import com.gym.domain.ClassSchedule;
+import com.gym.domain.FitnessProgress;
+import com.gym.domain.GymClass;
+import com.gym.domain.User;
+import com.gym.domain.WaitlistEntry;
+import com.gym.http.Router.Access;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.metrics.MetricsRegistry;
+import com.gym.repository.sqlite.SqliteDatabaseManager;
+import com.gym.service.AuthService;
+import com.gym.service.BookingService;
+import com.gym.service.ClassService;
+import com.gym.service.ProgressService;
+import com.gym.service.SeatAvailabilityBus;
+import com.gym.service.Session;
+import com.gym.service.TooManyRequestsException;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP/JSON API over the service layer (JDK HttpServer, one virtual
+ * thread per request), so member apps and several kiosks can share one
+ * backend process. Connections are kept alive between requests; lists are
+ * streamed. Authenticated calls carry "Authorization: Bearer &lt;token&gt;" from
+ * POST /api/login.
+ *
+ *   POST   /api/login                    {username, password} -> {token, userId, username, role}
+ *   POST   /api/logout
+ *   GET    /api/classes                  GET /api/classes/{id}
+ *   GET    /api/schedules[?date=yyyy-mm-dd]   (bookable schedules of the next 14 days)
+ *   GET    /api/schedules/{id}           GET /api/schedules/{id}/bookings (trainer/admin)
+ *   GET    /api/schedules/{id}/waitlist  the caller's place in line -> {scheduleId, position, waiting}
+ *   POST   /api/schedules/{id}/waitlist  join the waitlist of a full class
+ *   DELETE /api/schedules/{id}/waitlist  leave it
+ *   POST   /api/schedules/{id}/waitlist/priority   {userId} (trainer/admin) add a member ahead of the standard tier
+ *   GET    /api/waitlist                 the caller's waitlist entries
+ *   GET    /api/bookings                 the caller's bookings
+ *   POST   /api/bookings                 {scheduleId}
+ *   DELETE /api/bookings/{id}
+ *          (both take an optional "Idempotency-Key" header: a retry with the same key gets the first result)
+ *   POST   /api/bookings/{id}/attended   (trainer/admin)
+ *   GET    /api/progress                 the caller's fitness progress
+ *   GET    /api/metrics                  (admin) metrics dump as JSON
+ *   GET    /api/seats/events             live seat counts (server-sent events, see SeatEventStream)
+ *
+ * Standalone: java com.gym.http.ApiServer --port=8080 [--db=gym_database.db]
+ * Next to the desktop UI: -Dgym.api.port=8080
+ */
+public class ApiServer {
+    private static final Logger log = Log.get(ApiServer.class);
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    static {
+        // Keep-alive for many kiosks/clients (JDK defaults: 200 idle connections) and no Nagle delay
+        setDefault("sun.net.httpserver.maxIdleConnections", "2000");
+        setDefault("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final AuthService authService;
+    private final ClassService classService;
+    private final BookingService bookingService;
+    private final ProgressService progressService;
+    private final Router router;
+    private final SeatEventStream seatEvents;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ApiServer(AuthService authService, ClassService classService, BookingService bookingService,
+                     ProgressService progressService, SeatAvailabilityBus seatBus, MetricsRegistry metrics) {
+        this.authService = authService;
+        this.classService = classService;
+        this.bookingService = bookingService;
+        this.progressService = progressService;
+        this.router = new Router(authService, metrics);
+        this.seatEvents = new SeatEventStream(seatBus);
+        registerRoutes(metrics);
+    }
+
+    /** Server over the services wired by AppConfig. */
+    public static ApiServer fromAppConfig() {
+        return new ApiServer(AppConfig.getAuthService(), AppConfig.getClassService(), AppConfig.getBookingService(),
+                AppConfig.getProgressService(), AppConfig.getSeatAvailabilityBus(), AppConfig.getMetricsRegistry());
+    }
+
+    /** Binds and starts serving; port 0 picks a free port (see getPort). */
+    public synchronized void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), Integer.getInteger("gym.api.backlog", 1024));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", router);
+        server.start();
+        log.info("API server started", "port", getPort());
+    }
+
+    public synchronized int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            seatEvents.closeAll();
+            server.stop(1);
+            executor.close();
+            server = null;
+            log.info("API server stopped");
+        }
+    }
+
+    private void registerRoutes(MetricsRegistry metrics) {
+        router.add("POST", "/api/login", Access.PUBLIC, this::login);
+        router.add("POST", "/api/logout", Access.USER, ex -> {
+            authService.logout(ex.session().getToken());
+            ex.send(200, json -> json.beginObject().field("loggedOut", true).endObject());
+        });
+
+        router.add("GET", "/api/classes", Access.USER,
+                ex -> ex.sendList(classService.getAllClasses(), ApiServer::writeClass));
+        router.add("GET", "/api/classes/{id}", Access.USER,
+                ex -> sendOne(ex, classService.getClassById(ex.pathInt(0)), ApiServer::writeClass));
+
+        router.add("GET", "/api/schedules", Access.USER, this::schedules);
+        router.add("GET", "/api/schedules/{id}", Access.USER,
+                ex -> sendOne(ex, classService.getScheduleById(ex.pathInt(0)), ApiServer::writeSchedule));
+        router.add("GET", "/api/schedules/{id}/bookings", Access.STAFF,
+                ex -> ex.sendList(bookingService.getScheduleBookings(ex.pathInt(0)), ApiServer::writeBooking));
+
+        router.add("GET", "/api/schedules/{id}/waitlist", Access.USER,
+                ex -> sendPosition(ex, ex.session().getUserId(), ex.pathInt(0), 200));
+        router.add("POST", "/api/schedules/{id}/waitlist", Access.USER,
+                ex -> joinWaitlist(ex, ex.session().getUserId(), WaitlistEntry.TIER_STANDARD));
+        router.add("POST", "/api/schedules/{id}/waitlist/priority", Access.STAFF,
+                ex -> joinWaitlist(ex, ApiExchange.integer(ex.body(), "userId"), WaitlistEntry.TIER_PRIORITY));
+        router.add("DELETE", "/api/schedules/{id}/waitlist", Access.USER, ex -> {
+            int scheduleId = ex.pathInt(0);
+            if (!bookingService.leaveWaitlist(ex.session().getUserId(), scheduleId)) {
+                throw new ApiException(404, "Not on the waitlist of schedule " + scheduleId);
+            }
+            ex.send(200, json -> json.beginObject().field("left", true).field("scheduleId", scheduleId).endObject());
+        });
+        router.add("GET", "/api/waitlist", Access.USER,
+                ex -> ex.sendList(bookingService.getUserWaitlist(ex.session().getUserId()), ApiServer::writeWaitlistEntry));
+
+        router.add("GET", "/api/bookings", Access.USER,
+                ex -> ex.sendList(bookingService.getUserBookings(ex.session().getUserId()), ApiServer::writeBooking));
+        router.add("POST", "/api/bookings", Access.USER, this::book);
+        router.add("DELETE", "/api/bookings/{id}", Access.USER, this::cancel);
+        router.add("POST", "/api/bookings/{id}/attended", Access.STAFF, ex -> {
+            boolean marked = bookingService.markAttended(ex.pathInt(0));
+            ex.send(marked ? 200 : 409, json -> json.beginObject().field("attended", marked).endObject());
+        });
+
+        router.add("GET", "/api/progress", Access.USER,
+                ex -> ex.sendList(progressService.getAllUserProgress(ex.session().getUserId()), ApiServer::writeProgress));
+
+        router.add("GET", "/api/seats/events", Access.USER, seatEvents);
+
+        router.add("GET", "/api/metrics", Access.ADMIN,
+                ex -> ex.sendText(200, "application/json; charset=utf-8", metrics.dumpJson()));
+    }
+
+    private void login(ApiExchange ex) throws IOException {
+        Map<String, Object> body = ex.body();
+        User user;
+        try {
+            user = authService.login(ApiExchange.string(body, "username"), ApiExchange.string(body, "password"),
+                    ex.remoteAddress());
+        } catch (TooManyRequestsException e) {
+            throw new ApiException(429, e.getMessage());
+        }
+        if (user == null) {
+            throw new ApiException(401, "Invalid username or password");
+        }
+        Session session = authService.startSession(user);
+        ex.send(200, json -> json.beginObject()
+                .field("token", session.getToken())
+                .field("userId", user.getUserId())
+                .field("username", user.getUsername())
+                .field("role", user.getRole())
+                .endObject());
+    }
+
+    private void schedules(ApiExchange ex) throws IOException {
+        String date = ex.query("date");
+        if (date == null) {
+            ex.sendList(classService.getAvailableSchedules(), ApiServer::writeSchedule);
+            return;
+        }
+        try {
+            ex.sendList(classService.getSchedulesByDate(LocalDate.parse(date)), ApiServer::writeSchedule);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, "Invalid date: " + date);
+        }
+    }
+
+    private void book(ApiExchange ex) throws IOException {
+        int scheduleId = ApiExchange.integer(ex.body(), "scheduleId");
+        boolean booked = bookingService.bookClass(ex.session().getUserId(), scheduleId, ex.header(IDEMPOTENCY_KEY));
+        if (!booked) {
+            throw new ApiException(409, "Could not book schedule " + scheduleId);
+        }
+        ex.send(201, json -> json.beginObject().field("booked", true).field("scheduleId", scheduleId).endObject());
+    }
+
+    private void cancel(ApiExchange ex) throws IOException {
+        int bookingId = ex.pathInt(0);
+        if (!bookingService.cancelBooking(bookingId, ex.session().getUserId(), ex.header(IDEMPOTENCY_KEY))) {
+            throw new ApiException(409, "Could not cancel booking " + bookingId);
+        }
+        ex.send(200, json -> json.beginObject().field("cancelled", true).field("bookingId", bookingId).endObject());
+    }
+
+    private void joinWaitlist(ApiExchange ex, int userId, int tier) throws IOException {
+        int scheduleId = ex.pathInt(0);
+        if (!bookingService.joinWaitlist(userId, scheduleId, tier)) {
+            throw new ApiException(409, "Could not join the waitlist of schedule " + scheduleId +
+                    " (not full, already booked or already waiting)");
+        }
+        sendPosition(ex, userId, scheduleId, 201);
+    }
+
+    private void sendPosition(ApiExchange ex, int userId, int scheduleId, int status) throws IOException {
+        int position = bookingService.getWaitlistPosition(userId, scheduleId);
+        ex.send(status, json -> json.beginObject()
+                .field("scheduleId", scheduleId)
+                .field("position", position)
+                .field("waiting", position > 0)
+                .endObject());
+    }
+
+    private static <T> void sendOne(ApiExchange ex, T item, ApiExchange.ItemWriter<T> writer) throws IOException {
+        if (item == null) {
+            throw new ApiException(404, "Not found");
+        }
+        ex.send(200, json -> writer.write(json, item));
+    }
+
+    // ---- JSON shapes of the domain objects ----
+
+    static void writeClass(JsonWriter json, GymClass c) throws IOException {
+        json.beginObject()
+                .field("classId", c.getClassId())
+                .field("className", c.getClassName())
+                .field("instructorName", c.getInstructorName())
+                .field("description", c.getDescription())
+                .field("capacity", c.getCapacity())
+                .field("durationMinutes", c.getDurationMinutes())
+                .field("classType", c.getClassType())
+                .endObject();
+    }
+
+    static void writeSchedule(JsonWriter json, ClassSchedule s) throws IOException {
+        json.beginObject()
+                .field("scheduleId", s.getScheduleId())
+                .field("classId", s.getClassId())
+                .field("date", String.valueOf(s.getScheduledDate()))
+                .field("startTime", String.valueOf(s.getStartTime()))
+                .field("endTime", String.valueOf(s.getEndTime()))
+                .field("availableSpots", s.getAvailableSpots())
+                .endObject();
+    }
+
+    static void writeBooking(JsonWriter json, Booking b) throws IOException {
+        json.beginObject()
+                .field("bookingId", b.getBookingId())
+                .field("userId", b.getUserId())
+                .field("scheduleId", b.getScheduleId())
+                .field("bookedAt", String.valueOf(b.getBookingDate()))
+                .field("status", b.getStatus())
+                .endObject();
+    }
+
+    static void writeWaitlistEntry(JsonWriter json, WaitlistEntry w) throws IOException {
+        json.beginObject()
+                .field("entryId", w.getEntryId())
+                .field("scheduleId", w.getScheduleId())
+                .field("tier", w.getTier())
+                .field("joinedAt", w.getJoinedMillis())
+                .field("status", w.getStatus())
+                .endObject();
+    }
+
+    static void writeProgress(JsonWriter json, FitnessProgress p) throws IOException {
+        json.beginObject()
+                .field("category", p.getCategory())
+                .field("totalPoints", p.getTotalPoints())
+                .field("level", p.getLevel())
+                .field("lastUpdated", String.valueOf(p.getLastUpdated()))
+                .endObject();
+    }
+
+    private static void setDefault(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 8080;
+        String db = null;
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) {
+                System.err.println("Ignoring argument: " + arg);
+                continue;
+            }
+            switch (kv[0]) {
+                case "port" -> port = Integer.parseInt(kv[1]);
+                case "db" -> db = kv[1];
+                default -> System.err.println("Unknown option: " + kv[0]);
+            }
+        }
+
+        // Same startup as the desktop app: schema, default users and demo data
+        AppConfig.configure(db == null ? AppConfig.createDatabaseManager() : new SqliteDatabaseManager("jdbc:sqlite:" + db));
+        new StartupPipeline().start().join();
+        ApiServer server = fromAppConfig();
+        server.start(port);
+        System.out.println("Gym API listening on http://localhost:" + server.getPort() + "/api/");
+
+        CountDownLatch shutdown = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            shutdown.countDown();
+        }, "gym-api-shutdown"));
+        shutdown.await();
+    }
+}
@@ -0,0 +1,138 @@
+package com.gym.http;
+
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.metrics.MetricsRegistry;
+import com.gym.service.AuthService;
+import com.gym.service.Session;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Dispatches API calls to handlers by method and path template
+ * ("/api/bookings/{id}"), checks the caller's session and role, maps
+ * exceptions to JSON errors and records per-route metrics as
+ * "HTTP GET /api/bookings/{id}" (rows = list size).
+ */
+class Router implements HttpHandler {
+    private static final Logger log = Log.get(Router.class);
+
+    /** Who may call a route: anyone, any logged-in user, trainers and admins, or admins only. */
+    enum Access { PUBLIC, USER, STAFF, ADMIN }
+
+    interface Handler {
+        void handle(ApiExchange exchange) throws Exception;
+    }
+
+    private record Route(String method, String template, Pattern pattern, Access access, Handler handler) { }
+
+    private final List<Route> routes = new ArrayList<>();
+    private final AuthService authService;
+    private final MetricsRegistry metrics;
+    private final LongAdder[] statusClasses = new LongAdder[6];   // index = status / 100
+
+    Router(AuthService authService, MetricsRegistry metrics) {
+        this.authService = authService;
+        this.metrics = metrics;
+        for (int i = 1; i < statusClasses.length; i++) {
+            LongAdder counter = new LongAdder();
+            statusClasses[i] = counter;
+            metrics.registerCounter("http.status." + i + "xx", counter::sum);
+        }
+    }
+
+    void add(String method, String template, Access access, Handler handler) {
+        String regex = template.replaceAll("\\{[^/]+}", "([^/]+)");
+        routes.add(new Route(method, template, Pattern.compile(regex), access, handler));
+    }
+
+    @Override
+    public void handle(HttpExchange http) throws IOException {
+        long start = System.nanoTime();
+        String path = http.getRequestURI().getPath();
+        String method = http.getRequestMethod();
+
+        Route route = null;
+        Matcher matcher = null;
+        boolean pathMatched = false;
+        for (Route r : routes) {
+            Matcher m = r.pattern().matcher(path);
+            if (m.matches()) {
+                pathMatched = true;
+                if (r.method().equals(method)) {
+                    route = r;
+                    matcher = m;
+                    break;
+                }
+            }
+        }
+
+        String[] params = new String[matcher == null ? 0 : matcher.groupCount()];
+        for (int i = 0; i < params.length; i++) {
+            params[i] = matcher.group(i + 1);
+        }
+        ApiExchange exchange = new ApiExchange(http, params);
+        try {
+            if (route == null) {
+                throw new ApiException(pathMatched ? 405 : 404, pathMatched ? "Method not allowed" : "Not found");
+            }
+            authorize(exchange, route.access());
+            route.handler().handle(exchange);
+            if (!exchange.responded()) {
+                throw new IllegalStateException("No response from " + route.template());
+            }
+        } catch (ApiException e) {
+            respondError(exchange, e.getStatus(), e.getMessage());
+        } catch (Exception e) {
+            log.error("API call failed", e, "method", method, "path", path);
+            respondError(exchange, 500, "Internal error");
+        } finally {
+            http.close();
+            int status = exchange.status();
+            statusClasses[Math.min(5, Math.max(1, status / 100))].increment();
+            String name = "HTTP " + method + " " + (route == null ? "(unmatched)" : route.template());
+            metrics.record(name, System.nanoTime() - start, exchange.rows(), status >= 500);
+        }
+    }
+
+    private void authorize(ApiExchange exchange, Access access) {
+        if (access == Access.PUBLIC) {
+            return;
+        }
+        String header = exchange.header("Authorization");
+        Session session = header != null && header.startsWith("Bearer ")
+                ? authService.getSession(header.substring(7).trim())
+                : null;
+        if (session == null) {
+            throw new ApiException(401, "Login required");
+        }
+        String role = session.getRole();
+        boolean allowed = switch (access) {
+            case STAFF -> "TRAINER".equalsIgnoreCase(role) || "ADMIN".equalsIgnoreCase(role);
+            case ADMIN -> "ADMIN".equalsIgnoreCase(role);
+            default -> true;
+        };
+        if (!allowed) {
+            throw new ApiException(403, "Not allowed for role " + role);
+        }
+        exchange.setSession(session);
+    }
+
+    private static void respondError(ApiExchange exchange, int status, String message) {
+        if (exchange.responded()) {
+            return;   // failed while streaming: headers are gone, closing the exchange cuts the response
+        }
+        try {
+            exchange.sendError(status, message);
+        } catch (IOException e) {
+            log.debug("Could not send error response", "status", status, "error", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.gym.http;
+
+import com.gym.service.SeatAvailabilityBus;
+import com.gym.service.SeatAvailabilityBus.SeatChange;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/seats/events: live seat counts as server-sent events, one
+ * "seats" event per change ({scheduleId, delta, availableSpots}, id =
+ * bus sequence). A client that reconnects with Last-Event-ID (or
+ * ?since=) first gets the changes it missed; if they are no longer
+ * buffered, or it fell too far behind while connected, it gets a "reset"
+ * event and should reload the schedules.
+ *
+ * Each stream holds one virtual thread blocked on its own queue, filled by
+ * the bus listener without blocking the booking that published.
+ */
+class SeatEventStream implements Router.Handler {
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final int MAX_PENDING = 1024;
+
+    // Queue marker: the client fell behind (or the server stops), see handle()
+    private static final SeatChange OVERFLOW = new SeatChange(-1, 0, 0, 0);
+    private static final SeatChange CLOSE = new SeatChange(-2, 0, 0, 0);
+
+    private final SeatAvailabilityBus bus;
+    private final Set<BlockingQueue<SeatChange>> open = ConcurrentHashMap.newKeySet();
+
+    SeatEventStream(SeatAvailabilityBus bus) {
+        this.bus = bus;
+    }
+
+    @Override
+    public void handle(ApiExchange ex) throws IOException, InterruptedException {
+        long lastSent = resumeFrom(ex);
+        BlockingQueue<SeatChange> queue = new LinkedBlockingQueue<>(MAX_PENDING);
+        open.add(queue);
+        SeatAvailabilityBus.Subscription subscription = bus.subscribe(change -> {
+            if (!queue.offer(change)) {
+                queue.clear();
+                queue.offer(OVERFLOW);
+            }
+        });
+        try {
+            ApiExchange.EventStream events = ex.startEvents();
+
+            // Subscribed first, so nothing published from here on can fall between replay and live events
+            List<SeatChange> missed = lastSent < 0 ? List.of() : bus.changesSince(lastSent);
+            if (missed == null) {
+                lastSent = reset(events);
+            } else {
+                for (SeatChange change : missed) {
+                    send(events, change);
+                    lastSent = change.sequence();
+                }
+            }
+            if (lastSent < 0) {
+                events.comment("sequence " + bus.lastSequence());
+            }
+
+            while (true) {
+                SeatChange change = queue.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                if (change == null) {
+                    events.comment("keep-alive");
+                } else if (change == CLOSE) {
+                    return;
+                } else if (change == OVERFLOW) {
+                    lastSent = reset(events);
+                } else if (change.sequence() > lastSent) {
+                    send(events, change);
+                    lastSent = change.sequence();
+                }
+            }
+        } catch (IOException e) {
+            // client went away; nothing to answer
+        } finally {
+            subscription.close();
+            open.remove(queue);
+        }
+    }
+
+    /** Ends every open stream (server shutdown). */
+    void closeAll() {
+        for (BlockingQueue<SeatChange> queue : open) {
+            queue.clear();
+            queue.offer(CLOSE);
+        }
+    }
+
+    private long reset(ApiExchange.EventStream events) throws IOException {
+        long sequence = bus.lastSequence();
+        events.event("reset", sequence, json -> json.beginObject().field("sequence", sequence).endObject());
+        return sequence;
+    }
+
+    private static void send(ApiExchange.EventStream events, SeatChange change) throws IOException {
+        events.event("seats", change.sequence(), json -> json.beginObject()
+                .field("scheduleId", change.scheduleId())
+                .field("delta", change.delta())
+                .field("availableSpots", change.availableSpots())
+                .endObject());
+    }
+
+    // Last-Event-ID header (browser reconnect) or ?since=; -1 = live changes only
+    private static long resumeFrom(ApiExchange ex) {
+        String value = ex.header("Last-Event-ID");
+        if (value == null) {
+            value = ex.query("since");
+        }
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid event id: " + value);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.gym.logging;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded ring buffer of log records drained by one background thread.
+ * Producers never block: when the buffer is full the record is dropped and
+ * counted, and the writer reports the number of dropped records.
+ * Output is one line per record: time, level, thread, logger, message, key=value fields.
+ */
+class AsyncLogWriter {
+    private static final DateTimeFormatter TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final int BATCH_SIZE = 512;
+
+    private final BlockingQueue<LogRecord> buffer;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private Writer fileWriter;
+    private long fileBytes;
+
+    AsyncLogWriter(int capacity, Path file, long maxBytes, int maxFiles) {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+
+        Thread thread = new Thread(this::run, "gym-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "gym-log-flush"));
+    }
+
+    void enqueue(LogRecord record) {
+        if (buffer.offer(record)) {
+            enqueued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    void flush() {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (written.get() < target && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private void run() {
+        List<LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder out = new StringBuilder();
+        StringBuilder err = new StringBuilder();
+        while (true) {
+            try {
+                LogRecord first = buffer.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, BATCH_SIZE - 1);
+
+                long lost = dropped.getAndSet(0);
+                if (lost > 0) {
+                    format(new LogRecord(System.currentTimeMillis(), Level.WARN, "Log", Thread.currentThread().getName(),
+                            "Log buffer full, records dropped", new Object[]{"count", lost}, null), out);
+                }
+                for (LogRecord record : batch) {
+                    format(record, record.level().ordinal() >= Level.WARN.ordinal() && file == null ? err : out);
+                }
+                write(out, err);
+                written.addAndGet(batch.size());
+                batch.clear();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // Never let a bad record kill the writer (or leave flush() waiting for it)
+                written.addAndGet(batch.size());
+                batch.clear();
+                out.setLength(0);
+                err.setLength(0);
+            }
+        }
+    }
+
+    private void format(LogRecord record, StringBuilder sb) {
+        sb.append(TIME.format(Instant.ofEpochMilli(record.timestampMillis())))
+                .append(' ').append(String.format("%-5s", record.level()))
+                .append(" [").append(record.thread()).append("] ")
+                .append(record.logger()).append(" - ").append(record.message());
+
+        Object[] fields = record.fields();
+        if (fields != null) {
+            for (int i = 0; i + 1 < fields.length; i += 2) {
+                sb.append(' ').append(fields[i]).append('=');
+                appendValue(sb, fields[i + 1]);
+            }
+        }
+        sb.append(System.lineSeparator());
+
+        if (record.error() != null) {
+            StringWriter trace = new StringWriter();
+            record.error().printStackTrace(new PrintWriter(trace));
+            sb.append(trace);
+        }
+    }
+
+    private static void appendValue(StringBuilder sb, Object value) {
+        String text = String.valueOf(value);
+        if (text.isEmpty() || text.indexOf(' ') >= 0 || text.indexOf('"') >= 0 || text.indexOf('=') >= 0) {
+            sb.append('"').append(text.replace("\"", "\\\"")).append('"');
+        } else {
+            sb.append(text);
+        }
+    }
+
+    private void write(StringBuilder out, StringBuilder err) {
+        if (file == null) {
+            print(System.out, out);
+            print(System.err, err);
+            return;
+        }
+        try {
+            if (fileWriter == null) {
+                open();
+            }
+            fileWriter.write(out.toString());
+            fileWriter.flush();
+            fileBytes += out.length();
+            if (fileBytes >= maxBytes) {
+                rotate();
+            }
+        } catch (IOException e) {
+            System.err.println("Log file write failed: " + e.getMessage());
+            System.err.print(out);
+        } finally {
+            out.setLength(0);
+        }
+    }
+
+    private static void print(PrintStream stream, StringBuilder text) {
+        if (!text.isEmpty()) {
+            stream.print(text);
+            stream.flush();
+            text.setLength(0);
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        fileWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = Files.size(file);
+    }
+
+    /** gym.log -> gym.log.1 -> gym.log.2 ... keeping maxFiles old files. */
+    private void rotate() throws IOException {
+        fileWriter.close();
+        fileWriter = null;
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path from = rotated(i);
+            if (Files.exists(from)) {
+                Files.move(from, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
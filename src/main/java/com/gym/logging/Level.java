@@ -0,0 +1,5 @@
+package com.gym.logging;
+
+public enum Level {
+    DEBUG, INFO, WARN, ERROR
+}
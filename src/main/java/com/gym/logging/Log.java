@@ -0,0 +1,58 @@
+package com.gym.logging;
+
+import java.nio.file.Path;
+
+/**
+ * Entry point of the logging facility. Configured with system properties:
+ *  - gym.log.level      DEBUG | INFO | WARN | ERROR (default INFO)
+ *  - gym.log.file       file to write (default: console, WARN/ERROR to stderr)
+ *  - gym.log.maxBytes   rotate the file past this size (default 10 MB)
+ *  - gym.log.maxFiles   rotated files kept: gym.log.1 .. gym.log.N (default 5)
+ *  - gym.log.buffer     ring buffer capacity in records (default 8192)
+ */
+public final class Log {
+    private static volatile Level level = parseLevel(System.getProperty("gym.log.level", "INFO"));
+    private static volatile AsyncLogWriter writer;
+
+    private Log() {
+    }
+
+    public static Logger get(Class<?> type) {
+        return new Logger(type.getSimpleName());
+    }
+
+    public static Level getLevel() { return level; }
+    public static void setLevel(Level newLevel) { level = newLevel; }
+
+    /** Blocks until everything logged so far has been written (tools, shutdown). */
+    public static void flush() {
+        writer().flush();
+    }
+
+    static AsyncLogWriter writer() {
+        AsyncLogWriter w = writer;
+        if (w == null) {
+            synchronized (Log.class) {
+                w = writer;
+                if (w == null) {
+                    String file = System.getProperty("gym.log.file");
+                    w = new AsyncLogWriter(
+                            Integer.getInteger("gym.log.buffer", 8192),
+                            file == null ? null : Path.of(file),
+                            Long.getLong("gym.log.maxBytes", 10L * 1024 * 1024),
+                            Integer.getInteger("gym.log.maxFiles", 5));
+                    writer = w;
+                }
+            }
+        }
+        return w;
+    }
+
+    private static Level parseLevel(String value) {
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+}
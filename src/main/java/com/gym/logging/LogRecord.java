@@ -0,0 +1,6 @@
+package com.gym.logging;
+
+/** One log call, captured as-is; the writer thread formats it. */
+record LogRecord(long timestampMillis, Level level, String logger, String thread,
+                 String message, Object[] fields, Throwable error) {
+}
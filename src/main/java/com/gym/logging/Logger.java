@@ -0,0 +1,41 @@
+package com.gym.logging;
+
+/**
+ * Named logger handed out by {@link Log#get(Class)}. Calls only enqueue a
+ * record (formatting and I/O happen on the writer thread), so logging never
+ * blocks a booking on stdout or disk.
+ *
+ * Fields are passed as alternating key/value pairs:
+ * <pre>log.info("Booking saved", "bookingId", id, "userId", userId);</pre>
+ */
+public class Logger {
+    private final String name;
+
+    Logger(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+
+    public boolean isEnabled(Level level) {
+        return level.ordinal() >= Log.getLevel().ordinal();
+    }
+
+    public void debug(String message, Object... fields) { log(Level.DEBUG, message, null, fields); }
+    public void info(String message, Object... fields) { log(Level.INFO, message, null, fields); }
+    public void warn(String message, Object... fields) { log(Level.WARN, message, null, fields); }
+    public void error(String message, Object... fields) { log(Level.ERROR, message, null, fields); }
+
+    public void error(String message, Throwable error, Object... fields) {
+        log(Level.ERROR, message, error, fields);
+    }
+
+    private void log(Level level, String message, Throwable error, Object[] fields) {
+        if (isEnabled(level)) {
+            Thread thread = Thread.currentThread();
+            String threadName = thread.getName().isEmpty() ? "virtual-" + thread.threadId() : thread.getName();
+            Log.writer().enqueue(new LogRecord(System.currentTimeMillis(), level, name,
+                    threadName, message, fields, error));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.gym.metrics;
+
+import com.gym.utils.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counters for one instrumented method (or one SQL statement). */
+public class MethodMetrics {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    void record(long nanos, long rowCount, boolean failed) {
+        latency.record(nanos);
+        totalNanos.add(nanos);
+        rows.add(rowCount);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public String getName() { return name; }
+    public long getCalls() { return latency.getCount(); }
+    public long getErrors() { return errors.sum(); }
+    public long getRows() { return rows.sum(); }
+    public long getTotalNanos() { return totalNanos.sum(); }
+    public LatencyHistogram getLatency() { return latency; }
+}
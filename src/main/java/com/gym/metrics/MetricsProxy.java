@@ -0,0 +1,83 @@
+package com.gym.metrics;
+
+import com.gym.utils.IntIntMap;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps any interface (repository, service, DatabaseManager) so every call is
+ * timed and recorded in a MetricsRegistry as "Interface.method".
+ *
+ * A call counts as an error if it throws, or if a SQL statement failed on the
+ * same thread while it ran (repositories catch SQLExceptions themselves).
+ * Rows: collection/map size, 1 for any other non-null result, 0 for null/void/false.
+ * With QueryDiagnostics on, the outermost call also opens a diagnostics scope.
+ */
+public class MetricsProxy implements InvocationHandler {
+    private final Object target;
+    private final String prefix;
+    private final MetricsRegistry registry;
+    // "Interface.method" per Method, built once instead of on every call
+    private final Map<Method, String> names = new ConcurrentHashMap<>();
+
+    private MetricsProxy(Object target, String prefix, MetricsRegistry registry) {
+        this.target = target;
+        this.prefix = prefix;
+        this.registry = registry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T wrap(Class<T> type, T target, MetricsRegistry registry) {
+        return (T) Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                new MetricsProxy(target, type.getSimpleName() + ".", registry));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(target, args);
+        }
+
+        String name = names.computeIfAbsent(method, m -> prefix + m.getName());
+        if (QueryDiagnostics.isEnabled()) {
+            QueryDiagnostics.Scope scope = QueryDiagnostics.openScope(name);
+            try {
+                return timed(name, method, args);
+            } finally {
+                scope.close();
+            }
+        }
+        return timed(name, method, args);
+    }
+
+    private Object timed(String name, Method method, Object[] args) throws Throwable {
+        MethodMetrics metrics = registry.get(name);
+        long sqlErrorsBefore = registry.sqlErrorsOnCurrentThread();
+        long start = System.nanoTime();
+        try {
+            Object result = method.invoke(target, args);
+            boolean sqlFailed = registry.sqlErrorsOnCurrentThread() != sqlErrorsBefore;
+            metrics.record(System.nanoTime() - start, rowsOf(result), sqlFailed);
+            return result;
+        } catch (InvocationTargetException e) {
+            metrics.record(System.nanoTime() - start, 0, true);
+            throw e.getCause();
+        }
+    }
+
+    private static long rowsOf(Object result) {
+        if (result == null || Boolean.FALSE.equals(result)) return 0;
+        if (result instanceof Collection<?> c) return c.size();
+        if (result instanceof Map<?, ?> m) return m.size();
+        if (result instanceof IntIntMap m) return m.size();
+        return 1;
+    }
+}
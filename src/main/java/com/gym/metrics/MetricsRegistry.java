@@ -0,0 +1,135 @@
+package com.gym.metrics;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Process-wide store of per-method metrics: call count, latency histogram,
+ * rows returned and errors. Names look like "BookingRepository.findByUserId",
+ * "DatabaseManager.getConnection" or "SQL SELECT ... FROM bookings ...".
+ * Components with their own counters (user cache, login throttle) register
+ * them with registerCounter so they appear in the same dumps.
+ */
+public class MetricsRegistry {
+    private static final String SQL_PREFIX = "SQL ";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_SQL_NAMES = 1024;   // beyond this (generated SQL), names are built per call
+
+    private final Map<String, MethodMetrics> metrics = new ConcurrentHashMap<>();
+    // SQL text -> metric name; statements are mostly constants, so normalize each once
+    private final Map<String, String> sqlNames = new ConcurrentHashMap<>();
+    // Counters owned by other components (caches, throttles), read when dumping
+    private final Map<String, LongSupplier> counters = new ConcurrentSkipListMap<>();
+
+    // SQL errors seen on this thread; MetricsProxy compares before/after a call
+    private final ThreadLocal<long[]> sqlErrors = ThreadLocal.withInitial(() -> new long[1]);
+
+    public MethodMetrics get(String name) {
+        return metrics.computeIfAbsent(name, MethodMetrics::new);
+    }
+
+    public void record(String name, long nanos, long rows, boolean failed) {
+        get(name).record(nanos, rows, failed);
+    }
+
+    /** StatementListener callback: per-SQL timing, and error attribution to the running call. */
+    public void recordStatement(String sql, Object[] parameters, long nanos, SQLException error) {
+        if (error != null) {
+            sqlErrors.get()[0]++;
+        }
+        record(sqlName(sql), nanos, 0, error != null);
+    }
+
+    private String sqlName(String sql) {
+        String name = sqlNames.get(sql);
+        if (name == null) {
+            name = SQL_PREFIX + WHITESPACE.matcher(sql).replaceAll(" ").trim();
+            if (sqlNames.size() < MAX_SQL_NAMES) {
+                sqlNames.put(sql, name);
+            }
+        }
+        return name;
+    }
+
+    /** Adds a named counter to the dumps; the value is read from source each time. */
+    public void registerCounter(String name, LongSupplier source) {
+        counters.put(name, source);
+    }
+
+    /** Current value of every registered counter, by name. */
+    public Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, source) -> values.put(name, source.getAsLong()));
+        return values;
+    }
+
+    long sqlErrorsOnCurrentThread() {
+        return sqlErrors.get()[0];
+    }
+
+    /** All metrics, most total time first. */
+    public List<MethodMetrics> snapshot() {
+        List<MethodMetrics> list = new ArrayList<>(metrics.values());
+        list.sort(Comparator.comparingLong(MethodMetrics::getTotalNanos).reversed());
+        return list;
+    }
+
+    public void reset() {
+        metrics.clear();
+    }
+
+    public String dumpText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-60s %9s %7s %10s %10s %10s %10s %10s%n",
+                "name", "calls", "errors", "rows", "total ms", "p50 ms", "p99 ms", "max ms"));
+        for (MethodMetrics m : snapshot()) {
+            sb.append(String.format("%-60s %9d %7d %10d %10.1f %10.3f %10.3f %10.3f%n",
+                    abbreviate(m.getName(), 60), m.getCalls(), m.getErrors(), m.getRows(),
+                    m.getTotalNanos() / 1e6,
+                    m.getLatency().getPercentileNanos(50) / 1e6,
+                    m.getLatency().getPercentileNanos(99) / 1e6,
+                    m.getLatency().getMaxNanos() / 1e6));
+        }
+        Map<String, Long> values = counterValues();
+        if (!values.isEmpty()) {
+            sb.append(String.format("%n%-60s %9s%n", "counter", "value"));
+            values.forEach((name, value) -> sb.append(String.format("%-60s %9d%n", abbreviate(name, 60), value)));
+        }
+        return sb.toString();
+    }
+
+    public String dumpJson() {
+        // Counters first, as {"name": ..., "counter": value}, then the methods
+        List<String> entries = new ArrayList<>();
+        for (Map.Entry<String, Long> counter : counterValues().entrySet()) {
+            entries.add(String.format(Locale.ROOT, "  {\"name\": \"%s\", \"counter\": %d}",
+                    escape(counter.getKey()), counter.getValue()));
+        }
+        for (MethodMetrics m : snapshot()) {
+            entries.add(String.format(Locale.ROOT,
+                    "  {\"name\": \"%s\", \"calls\": %d, \"errors\": %d, \"rows\": %d, \"totalNanos\": %d, " +
+                            "\"p50Nanos\": %d, \"p90Nanos\": %d, \"p99Nanos\": %d, \"maxNanos\": %d}",
+                    escape(m.getName()), m.getCalls(), m.getErrors(), m.getRows(), m.getTotalNanos(),
+                    m.getLatency().getPercentileNanos(50), m.getLatency().getPercentileNanos(90),
+                    m.getLatency().getPercentileNanos(99), m.getLatency().getMaxNanos()));
+        }
+        return entries.isEmpty() ? "[\n]\n" : "[\n" + String.join(",\n", entries) + "\n]\n";
+    }
+
+    private static String abbreviate(String s, int max) {
+        return s.length() <= max ? s : s.substring(0, max - 3) + "...";
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
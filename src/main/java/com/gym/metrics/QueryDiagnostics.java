@@ -0,0 +1,227 @@
+package com.gym.metrics;
+
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.sqlite.StatementListener;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Slow-query log and N+1 detector, switchable at runtime (-Dgym.diagnostics=true
+ * or setEnabled). When off, the statement hook returns after one volatile read
+ * and no parameters or stack traces are captured.
+ *
+ * Queries are grouped into scopes: one outermost service/repository call
+ * (opened by MetricsProxy), one view load (SceneManager.switchTo), or one
+ * turn of the JavaFX event loop for anything running on the UI thread. When
+ * a scope closes, every SQL text executed at least repeatThreshold times in it
+ * is reported with the code that issued it.
+ *
+ * Reports go through the async logger (WARN). Bind parameters of statements
+ * on the users table (password hashes, emails) are logged as types only.
+ */
+public final class QueryDiagnostics {
+
+    /** A unit of work queries are grouped by; close it when the work is done. */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Logger log = Log.get(QueryDiagnostics.class);
+
+    private static final Scope NO_SCOPE = () -> { };
+    private static final Pattern USERS_TABLE = Pattern.compile("\\busers\\b", Pattern.CASE_INSENSITIVE);
+
+    private static volatile boolean enabled = Boolean.getBoolean("gym.diagnostics");
+    private static volatile long slowQueryNanos = Long.getLong("gym.diagnostics.slowMs", 50) * 1_000_000;
+    private static volatile int repeatThreshold = Integer.getInteger("gym.diagnostics.repeat", 5);
+
+    private static final ThreadLocal<ScopeState> currentScope = new ThreadLocal<>();
+    private static volatile Thread eventLoopThread;
+    private static volatile Consumer<Runnable> eventLoopScheduler;
+
+    private static final LongAdder slowQueries = new LongAdder();
+    private static final LongAdder repeatedQueryReports = new LongAdder();
+
+    private static final List<String> INFRASTRUCTURE_PACKAGES = List.of(
+            "com.gym.repository.", "com.gym.metrics.", "java.", "javax.", "jdk.", "sun.", "com.sun.", "org.sqlite.");
+
+    /** Register with SqliteDatabaseManager.addStatementListener once at startup. */
+    public static final StatementListener LISTENER = new StatementListener() {
+        @Override
+        public void statementExecuted(String sql, Object[] parameters, long nanos, SQLException error) {
+            if (enabled) {
+                onStatement(sql, parameters, nanos);
+            }
+        }
+
+        @Override
+        public boolean wantsParameters() {
+            return enabled;
+        }
+    };
+
+    private QueryDiagnostics() {
+    }
+
+    public static boolean isEnabled() { return enabled; }
+    public static void setEnabled(boolean on) { enabled = on; }
+    public static void setSlowQueryThresholdMs(long ms) { slowQueryNanos = ms * 1_000_000; }
+    public static void setRepeatThreshold(int count) { repeatThreshold = count; }
+    public static long getSlowQueryCount() { return slowQueries.sum(); }
+    public static long getRepeatedQueryReportCount() { return repeatedQueryReports.sum(); }
+
+    /**
+     * Declares the UI thread: queries on it with no open scope are grouped per
+     * event-loop turn, the scope being closed by a task posted with scheduler.
+     */
+    public static void bindEventLoop(Thread thread, Consumer<Runnable> scheduler) {
+        eventLoopThread = thread;
+        eventLoopScheduler = scheduler;
+    }
+
+    /** Opens a scope unless one is already open on this thread (the outermost scope wins). */
+    public static Scope openScope(String name) {
+        if (!enabled || currentScope.get() != null) {
+            return NO_SCOPE;
+        }
+        if (openEventLoopScope(name) != null) {
+            return NO_SCOPE;   // closed by the event loop, not by the caller
+        }
+        ScopeState scope = new ScopeState(name);
+        currentScope.set(scope);
+        return scope;
+    }
+
+    private static ScopeState openEventLoopScope(String name) {
+        Consumer<Runnable> scheduler = eventLoopScheduler;
+        if (scheduler == null || Thread.currentThread() != eventLoopThread) {
+            return null;
+        }
+        ScopeState scope = new ScopeState("UI event (" + name + ")");
+        currentScope.set(scope);
+        scheduler.accept(scope::close);
+        return scope;
+    }
+
+    private static void onStatement(String sql, Object[] parameters, long nanos) {
+        if (nanos >= slowQueryNanos) {
+            slowQueries.increment();
+            ScopeState scope = currentScope.get();
+            log.warn("Slow query", "ms", Math.round(nanos / 1e5) / 10.0, "sql", oneLine(sql),
+                    "params", describe(sql, parameters), "at", callSite(),
+                    "scope", scope == null ? "none" : scope.name);
+        }
+
+        ScopeState scope = currentScope.get();
+        if (scope == null) {
+            scope = openEventLoopScope(callSite());
+        }
+        if (scope != null) {
+            scope.count(sql);
+        }
+    }
+
+    /**
+     * First application frame below the repositories; if that is inside a
+     * service, also the frame that called the service (usually a controller).
+     */
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> {
+            String site = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String cls = frame.getClassName();
+                if (isInfrastructure(cls)) {
+                    continue;
+                }
+                String here = cls.substring(cls.lastIndexOf('.') + 1) + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+                if (site == null) {
+                    site = here;
+                    if (!cls.startsWith("com.gym.service.")) {
+                        return site;
+                    }
+                } else if (!cls.startsWith("com.gym.service.")) {
+                    return site + " <- " + here;
+                }
+            }
+            return site == null ? "unknown" : site;
+        });
+    }
+
+    private static boolean isInfrastructure(String className) {
+        if (className.contains("$Proxy")) {
+            return true;
+        }
+        for (String prefix : INFRASTRUCTURE_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Values as a string now (the array is reused by the statement); only their types for the users table
+    private static String describe(String sql, Object[] parameters) {
+        if (parameters == null) {
+            return "[]";
+        }
+        if (!USERS_TABLE.matcher(sql).find()) {
+            return Arrays.toString(parameters);
+        }
+        String[] types = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            types[i] = parameters[i] == null ? "null" : parameters[i].getClass().getSimpleName();
+        }
+        return Arrays.toString(types);
+    }
+
+    private static String oneLine(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+
+    private static class Repeat {
+        int count;
+        String callSite;
+    }
+
+    private static class ScopeState implements Scope {
+        final String name;
+        final Map<String, Repeat> statements = new HashMap<>();
+
+        ScopeState(String name) {
+            this.name = name;
+        }
+
+        void count(String sql) {
+            Repeat repeat = statements.computeIfAbsent(sql, k -> new Repeat());
+            repeat.count++;
+            if (repeat.count == 2) {
+                repeat.callSite = callSite();   // only pay for the stack walk once it repeats
+            }
+        }
+
+        @Override
+        public void close() {
+            if (currentScope.get() == this) {
+                currentScope.remove();
+            }
+            int threshold = repeatThreshold;
+            for (Map.Entry<String, Repeat> entry : statements.entrySet()) {
+                Repeat repeat = entry.getValue();
+                if (repeat.count >= threshold) {
+                    repeatedQueryReports.increment();
+                    log.warn("Repeated query", "sql", oneLine(entry.getKey()), "count", repeat.count,
+                            "scope", name, "at", repeat.callSite);
+                }
+            }
+        }
+    }
+}
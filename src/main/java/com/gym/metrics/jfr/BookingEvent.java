@@ -0,0 +1,36 @@
+package com.gym.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One bookClass / cancelBooking / markAttended call. */
+@Name("com.gym.Booking")
+@Label("Booking Operation")
+@Category({"Gym", "Service"})
+@Description("A member booking, cancellation or trainer attendance mark")
+@StackTrace(false)
+public class BookingEvent extends Event {
+
+    @Label("Action")
+    public String action;
+
+    @Label("User Id")
+    public int userId;
+
+    @Label("Schedule Id")
+    public int scheduleId;
+
+    @Label("Booking Id")
+    public int bookingId;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public BookingEvent(String action) {
+        this.action = action;
+    }
+}
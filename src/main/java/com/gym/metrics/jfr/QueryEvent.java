@@ -0,0 +1,24 @@
+package com.gym.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * One execute on a pooled prepared statement. The 1 ms default threshold keeps
+ * continuous recordings small; the stack trace shows the repository method.
+ */
+@Name("com.gym.Query")
+@Label("SQL Query")
+@Category({"Gym", "Database"})
+@Threshold("1 ms")
+public class QueryEvent extends Event {
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,29 @@
+package com.gym.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * SceneManager.switchTo, from the start of the FXML load until the first
+ * layout pass of the new scene has run (or until the load failed).
+ */
+@Name("com.gym.SceneSwitch")
+@Label("Scene Switch")
+@Category({"Gym", "UI"})
+@StackTrace(false)
+public class SceneSwitchEvent extends Event {
+
+    @Label("FXML")
+    public String fxml;
+
+    @Label("FXML Load Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long loadNanos;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,27 @@
+package com.gym.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One ProgressService.awardPointsForClass call. */
+@Name("com.gym.XpAward")
+@Label("XP Award")
+@Category({"Gym", "Service"})
+@StackTrace(false)
+public class XpAwardEvent extends Event {
+
+    @Label("User Id")
+    public int userId;
+
+    @Label("Class Type")
+    public String classType;
+
+    @Label("Categories Updated")
+    public int categories;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -1,7 +1,9 @@
 package com.gym.repository;
 
 import com.gym.domain.Booking;
+import com.gym.utils.IntIntMap;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingRepository {
     boolean save(Booking booking);
@@ -9,6 +11,13 @@ public interface BookingRepository {
     List<Booking> findByUserId(int userId);
     List<Booking> findByScheduleId(int scheduleId);
     List<Booking> findAll();
+
+    // Projections
+    int countByScheduleIdAndStatus(int scheduleId, String status);
+    boolean existsActiveBooking(int userId, int scheduleId);  // a CONFIRMED booking of this user for this schedule
+    Map<String, Integer> countByStatus();
+    IntIntMap countActiveByClassId();             // classId -> non-cancelled bookings
     boolean update(Booking booking);
+    boolean updateStatus(int bookingId, String expectedStatus, String newStatus); // false if status changed meanwhile
     boolean delete(int bookingId);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.gym.repository;
 
 import com.gym.domain.GymClass;
 import com.gym.domain.ClassSchedule;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ClassRepository {
@@ -12,9 +13,15 @@ public interface ClassRepository {
     boolean deleteClass(int classId);
 
     boolean saveSchedule(ClassSchedule schedule);
+    boolean saveSchedules(List<ClassSchedule> schedules);
     ClassSchedule findScheduleById(int scheduleId);
     List<ClassSchedule> findSchedulesByClassId(int classId);
+    List<ClassSchedule> findSchedulesByDate(LocalDate date);
+    List<ClassSchedule> findSchedulesBetween(LocalDate from, LocalDate to);   // both days inclusive
     List<ClassSchedule> findAllSchedules();
     boolean updateSchedule(ClassSchedule schedule);
+    // Atomic spot changes: safe when several members book the same schedule at once
+    boolean reserveSpot(int scheduleId);   // false if the schedule is full or missing
+    boolean releaseSpot(int scheduleId);
     boolean deleteSchedule(int scheduleId);
 }
\ No newline at end of file
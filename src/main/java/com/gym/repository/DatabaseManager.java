@@ -6,4 +6,21 @@ import java.sql.SQLException;
 public interface DatabaseManager {
     Connection getConnection() throws SQLException;
     void initializeDatabase();
+
+    /** Work done in one transaction: return true to commit, false to roll back. */
+    interface Transaction {
+        boolean run();
+    }
+
+    /**
+     * Runs work in one transaction. Meanwhile every getConnection() on this
+     * thread returns the transaction's connection, so repositories called by
+     * the work take part without knowing it. Commits if the work returns
+     * true; rolls back if it returns false, throws, or the commit fails.
+     * A nested call joins the outer transaction.
+     * Managers without transactions just run the work.
+     */
+    default boolean inTransaction(Transaction work) {
+        return work.run();
+    }
 }
@@ -0,0 +1,19 @@
+package com.gym.repository;
+
+import com.gym.domain.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxRepository {
+    boolean append(OutboxEvent event);                     // sets the event id
+    List<OutboxEvent> findPending(int limit);              // oldest first
+    boolean markDispatched(List<Long> eventIds);
+    boolean recordFailure(long eventId, String error, boolean giveUp); // giveUp: stop retrying it
+    long oldestPendingMillis();                            // created time of the oldest pending event, 0 if none
+    int countPending();
+
+    // Idempotency keys: one row per (handler, event) that has been handled
+    boolean markHandled(String handler, long eventId);     // false if it already was
+    boolean isHandled(String handler, long eventId);
+    int deleteDispatchedBefore(long millis);               // housekeeping, also drops their keys
+}
@@ -0,0 +1,9 @@
+package com.gym.repository;
+
+import com.gym.domain.RequestKey;
+
+public interface RequestKeyRepository {
+    boolean save(RequestKey requestKey);                   // false if the user already used this key
+    RequestKey find(int userId, String key);
+    int deleteBefore(long millis);                         // housekeeping
+}
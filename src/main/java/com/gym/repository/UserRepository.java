@@ -1,6 +1,8 @@
 package com.gym.repository;
 
 import com.gym.domain.User;
+import com.gym.utils.PasswordUtil;
+
 import java.util.List;
 
 public interface UserRepository {
@@ -12,8 +14,24 @@ public interface UserRepository {
     List<User> findAll();
 
     boolean update(User user);
+    boolean updatePassword(int userId, String passwordHash);
     boolean delete(int userId);
 
-    // Authentication
-    User validateLogin(String username, String password);
+    // Authentication: passwords are stored hashed (see PasswordUtil).
+    // Built on findByUsername/updatePassword, so decorators (e.g. a cache) apply to logins too.
+    default User validateLogin(String username, String password) {
+        User user = findByUsername(username);
+        if (user == null) {
+            PasswordUtil.verifyDummy(password);   // same cost as a wrong password for a real user
+            return null;
+        }
+        if (!PasswordUtil.verify(password, user.getPassword())) {
+            return null;
+        }
+        // Plaintext or old-cost hash: upgrade it now that we know the password
+        if (PasswordUtil.needsRehash(user.getPassword())) {
+            updatePassword(user.getUserId(), PasswordUtil.hash(password));
+        }
+        return user;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.gym.repository;
+
+import com.gym.domain.WaitlistEntry;
+
+import java.util.List;
+
+public interface WaitlistRepository {
+    boolean save(WaitlistEntry entry);                       // sets the entry id
+    List<WaitlistEntry> findWaiting(int scheduleId);         // by tier, then arrival
+    List<WaitlistEntry> findWaitingByUser(int userId);
+    boolean updateStatus(long entryId, String expectedStatus, String newStatus); // false if changed meanwhile
+}
@@ -0,0 +1,137 @@
+package com.gym.repository.cache;
+
+import com.gym.domain.User;
+import com.gym.repository.UserRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * UserRepository decorator with a bounded LRU cache of username -> user
+ * (including the stored password hash), so repeated logins and username
+ * lookups do not query the database. Every write through this repository
+ * invalidates the affected entries once the write is done (and a load that
+ * overlapped a write is not cached); writes that bypass it (another process,
+ * raw SQL) are not seen until the entry is evicted.
+ */
+public class CachingUserRepository implements UserRepository {
+
+    /** Hit / miss / invalidation counters. */
+    public static class Stats {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder invalidations = new LongAdder();
+
+        public long getHits() { return hits.sum(); }
+        public long getMisses() { return misses.sum(); }
+        public long getInvalidations() { return invalidations.sum(); }
+
+        @Override
+        public String toString() {
+            return "UserCache{hits=" + getHits() +
+                    ", misses=" + getMisses() +
+                    ", invalidations=" + getInvalidations() +
+                    '}';
+        }
+    }
+
+    private final UserRepository delegate;
+    private final Stats stats = new Stats();
+    private final Map<String, User> byUsername;
+    private long writes;   // bumped by every invalidation, guarded by byUsername
+
+    public CachingUserRepository(UserRepository delegate, int maxSize) {
+        this.delegate = delegate;
+        this.byUsername = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, User> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Stats getStats() { return stats; }
+
+    @Override
+    public User findByUsername(String username) {
+        long writesBefore;
+        synchronized (byUsername) {
+            User cached = byUsername.get(username);
+            if (cached != null) {
+                stats.hits.increment();
+                return cached;
+            }
+            writesBefore = writes;
+        }
+        stats.misses.increment();
+        // Unknown usernames are not cached: the login throttle limits how often they can be tried
+        User user = delegate.findByUsername(username);
+        if (user != null) {
+            synchronized (byUsername) {
+                if (writes == writesBefore) {   // a write during the load may have made it stale
+                    byUsername.put(username, user);
+                }
+            }
+        }
+        return user;
+    }
+
+    @Override
+    public boolean save(User user) {
+        boolean saved = delegate.save(user);
+        invalidate(user.getUsername());
+        return saved;
+    }
+
+    @Override
+    public boolean update(User user) {
+        boolean updated = delegate.update(user);
+        invalidate(user.getUserId());   // by id: the username itself may have changed
+        return updated;
+    }
+
+    @Override
+    public boolean updatePassword(int userId, String passwordHash) {
+        boolean updated = delegate.updatePassword(userId, passwordHash);
+        invalidate(userId);
+        return updated;
+    }
+
+    @Override
+    public boolean delete(int userId) {
+        boolean deleted = delegate.delete(userId);
+        invalidate(userId);
+        return deleted;
+    }
+
+    @Override
+    public User findById(int userId) {
+        return delegate.findById(userId);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    private void invalidate(String username) {
+        synchronized (byUsername) {
+            writes++;
+            if (byUsername.remove(username) != null) {
+                stats.invalidations.increment();
+            }
+        }
+    }
+
+    // Linear in the cache size, but user writes are rare admin operations
+    private void invalidate(int userId) {
+        synchronized (byUsername) {
+            writes++;
+            if (byUsername.values().removeIf(u -> u.getUserId() == userId)) {
+                stats.invalidations.increment();
+            }
+        }
+    }
+}
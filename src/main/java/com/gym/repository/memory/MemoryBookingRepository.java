@@ -0,0 +1,222 @@
+package com.gym.repository.memory;
+
+import com.gym.domain.Booking;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.BookingRepository;
+import com.gym.utils.IntIntMap;
+import com.gym.utils.IntObjectMap;
+import com.gym.utils.IntSet;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MemoryBookingRepository extends MemoryStore implements BookingRepository {
+    private static final Logger log = Log.get(MemoryBookingRepository.class);
+
+    private final MemoryClassRepository classes;
+    private final IntObjectMap<Booking> byId = new IntObjectMap<>();
+    private final IntObjectMap<IntSet> byUser = new IntObjectMap<>();
+    private final IntObjectMap<IntSet> bySchedule = new IntObjectMap<>();
+    private int lastId;
+
+    MemoryBookingRepository(MemoryDatabaseManager db, MemoryClassRepository classes) {
+        super(db);
+        this.classes = classes;
+    }
+
+    @Override
+    public boolean save(Booking booking) {
+        boolean saved = write(() -> {
+            // idx_bookings_one_active: one CONFIRMED booking per member and schedule
+            if (booking.isConfirmed() && activeBooking(booking.getUserId(), booking.getScheduleId())) {
+                return false;
+            }
+            Booking row = new Booking(++lastId, booking.getUserId(), booking.getScheduleId(),
+                    truncate(booking.getBookingDate()), booking.getStatus());
+            link(row);
+            onRollback(() -> unlink(row));
+            booking.setBookingId(row.getBookingId());
+            return true;
+        });
+        if (saved) {
+            log.debug("Booking saved", "bookingId", booking.getBookingId(), "userId", booking.getUserId(),
+                    "scheduleId", booking.getScheduleId());
+        } else {
+            log.error("Error saving booking", "error", "member already holds this schedule");
+        }
+        return saved;
+    }
+
+    @Override
+    public Booking findById(int bookingId) {
+        return read(() -> copy(byId.get(bookingId)));
+    }
+
+    @Override
+    public List<Booking> findByUserId(int userId) {
+        return read(() -> copyAll(byUser.get(userId)));
+    }
+
+    @Override
+    public List<Booking> findByScheduleId(int scheduleId) {
+        return read(() -> copyAll(bySchedule.get(scheduleId)));
+    }
+
+    @Override
+    public List<Booking> findAll() {
+        return read(() -> {
+            List<Booking> result = byId.values();
+            result.sort(Comparator.comparingInt(Booking::getBookingId));
+            result.replaceAll(MemoryBookingRepository::copy);
+            return result;
+        });
+    }
+
+    @Override
+    public int countByScheduleIdAndStatus(int scheduleId, String status) {
+        return read(() -> {
+            IntSet ids = bySchedule.get(scheduleId);
+            return ids == null ? 0 : ids.count(bookingId -> byId.get(bookingId).getStatus().equals(status));
+        });
+    }
+
+    @Override
+    public boolean existsActiveBooking(int userId, int scheduleId) {
+        return read(() -> activeBooking(userId, scheduleId));
+    }
+
+    @Override
+    public Map<String, Integer> countByStatus() {
+        return read(() -> {
+            Map<String, Integer> counts = new HashMap<>();
+            byId.forEach((bookingId, booking) -> counts.merge(booking.getStatus(), 1, Integer::sum));
+            return counts;
+        });
+    }
+
+    @Override
+    public IntIntMap countActiveByClassId() {
+        return read(() -> {
+            IntIntMap counts = new IntIntMap();
+            bySchedule.forEach((scheduleId, ids) -> {
+                int active = ids.count(bookingId -> !byId.get(bookingId).isCancelled());
+                int classId = classes.classIdOf(scheduleId);
+                if (active > 0 && classId > 0) {   // the join drops bookings of missing schedules
+                    counts.addTo(classId, active);
+                }
+            });
+            return counts;
+        });
+    }
+
+    @Override
+    public boolean update(Booking booking) {
+        return setStatus(booking.getBookingId(), null, booking.getStatus());
+    }
+
+    @Override
+    public boolean updateStatus(int bookingId, String expectedStatus, String newStatus) {
+        return setStatus(bookingId, expectedStatus, newStatus);
+    }
+
+    @Override
+    public boolean delete(int bookingId) {
+        return write(() -> {
+            Booking row = byId.get(bookingId);
+            if (row == null) {
+                return false;
+            }
+            unlink(row);
+            onRollback(() -> link(row));
+            log.debug("Booking deleted", "bookingId", bookingId);
+            return true;
+        });
+    }
+
+    int size() {
+        return read(byId::size);
+    }
+
+    // Import: keeps the row's id
+    void restore(Booking booking) {
+        write(() -> {
+            link(new Booking(booking.getBookingId(), booking.getUserId(), booking.getScheduleId(),
+                    truncate(booking.getBookingDate()), booking.getStatus()));
+            lastId = Math.max(lastId, booking.getBookingId());
+            return null;
+        });
+    }
+
+    // Only the status changes, as in the table's UPDATE; expectedStatus null means any
+    private boolean setStatus(int bookingId, String expectedStatus, String newStatus) {
+        return write(() -> {
+            Booking row = byId.get(bookingId);
+            if (row == null || (expectedStatus != null && !row.getStatus().equals(expectedStatus))) {
+                return false;
+            }
+            String oldStatus = row.getStatus();
+            if ("CONFIRMED".equals(newStatus) && !"CONFIRMED".equals(oldStatus)
+                    && activeBooking(row.getUserId(), row.getScheduleId())) {
+                return false;
+            }
+            row.setStatus(newStatus);
+            onRollback(() -> row.setStatus(oldStatus));
+            log.debug("Booking status updated", "bookingId", bookingId, "status", newStatus);
+            return true;
+        });
+    }
+
+    private boolean activeBooking(int userId, int scheduleId) {
+        IntSet ids = byUser.get(userId);
+        return ids != null && ids.anyMatch(bookingId -> {
+            Booking booking = byId.get(bookingId);
+            return booking.getScheduleId() == scheduleId && booking.isConfirmed();
+        });
+    }
+
+    private void link(Booking row) {
+        byId.put(row.getBookingId(), row);
+        byUser.computeIfAbsent(row.getUserId(), id -> new IntSet()).add(row.getBookingId());
+        bySchedule.computeIfAbsent(row.getScheduleId(), id -> new IntSet()).add(row.getBookingId());
+    }
+
+    private void unlink(Booking row) {
+        byId.remove(row.getBookingId());
+        unindex(byUser, row.getUserId(), row.getBookingId());
+        unindex(bySchedule, row.getScheduleId(), row.getBookingId());
+    }
+
+    private static void unindex(IntObjectMap<IntSet> index, int key, int bookingId) {
+        IntSet ids = index.get(key);
+        if (ids != null && ids.remove(bookingId) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private List<Booking> copyAll(IntSet bookingIds) {
+        if (bookingIds == null) {
+            return new ArrayList<>();
+        }
+        List<Booking> result = new ArrayList<>(bookingIds.size());
+        for (int bookingId : bookingIds.toSortedArray()) {
+            result.add(copy(byId.get(bookingId)));
+        }
+        return result;
+    }
+
+    // The table keeps epoch seconds
+    private static LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private static Booking copy(Booking booking) {
+        return booking == null ? null : new Booking(booking.getBookingId(), booking.getUserId(), booking.getScheduleId(),
+                booking.getBookingDate(), booking.getStatus());
+    }
+}
@@ -0,0 +1,302 @@
+package com.gym.repository.memory;
+
+import com.gym.domain.ClassSchedule;
+import com.gym.domain.GymClass;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.ClassRepository;
+import com.gym.utils.IntObjectMap;
+import com.gym.utils.IntSet;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class MemoryClassRepository extends MemoryStore implements ClassRepository {
+    private static final Logger log = Log.get(MemoryClassRepository.class);
+
+    // A day's timetable order, as idx_schedule_day
+    private static final Comparator<ClassSchedule> BY_START =
+            Comparator.comparing(ClassSchedule::getStartTime).thenComparingInt(ClassSchedule::getScheduleId);
+
+    private final IntObjectMap<GymClass> classes = new IntObjectMap<>();
+    private final IntObjectMap<ClassSchedule> schedules = new IntObjectMap<>();
+    private final IntObjectMap<IntSet> schedulesByClass = new IntObjectMap<>();
+    private final NavigableMap<LocalDate, IntSet> schedulesByDate = new TreeMap<>();
+    private int lastClassId;
+    private int lastScheduleId;
+
+    MemoryClassRepository(MemoryDatabaseManager db) {
+        super(db);
+    }
+
+    @Override
+    public boolean saveClass(GymClass gymClass) {
+        return write(() -> {
+            GymClass row = copy(gymClass);
+            row.setClassId(++lastClassId);
+            classes.put(row.getClassId(), row);
+            onRollback(() -> classes.remove(row.getClassId()));
+            gymClass.setClassId(row.getClassId());
+            log.debug("Class saved", "classId", gymClass.getClassId(), "className", gymClass.getClassName());
+            return true;
+        });
+    }
+
+    @Override
+    public GymClass findClassById(int classId) {
+        return read(() -> copy(classes.get(classId)));
+    }
+
+    @Override
+    public List<GymClass> findAllClasses() {
+        return read(() -> {
+            List<GymClass> result = classes.values();
+            result.sort(Comparator.comparingInt(GymClass::getClassId));
+            result.replaceAll(MemoryClassRepository::copy);
+            return result;
+        });
+    }
+
+    @Override
+    public boolean updateClass(GymClass gymClass) {
+        return write(() -> {
+            GymClass row = copy(gymClass);
+            GymClass old = classes.put(row.getClassId(), row);
+            if (old == null) {
+                classes.remove(row.getClassId());
+                return false;
+            }
+            onRollback(() -> classes.put(old.getClassId(), old));
+            log.debug("Class updated", "classId", gymClass.getClassId());
+            return true;
+        });
+    }
+
+    @Override
+    public boolean deleteClass(int classId) {
+        // Like the table (no foreign key enforcement), the class's schedules stay
+        return write(() -> {
+            GymClass old = classes.remove(classId);
+            if (old == null) {
+                return false;
+            }
+            onRollback(() -> classes.put(classId, old));
+            log.debug("Class deleted", "classId", classId);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean saveSchedule(ClassSchedule schedule) {
+        return write(() -> {
+            insertNew(schedule);
+            log.debug("Schedule saved", "scheduleId", schedule.getScheduleId(), "classId", schedule.getClassId());
+            return true;
+        });
+    }
+
+    @Override
+    public boolean saveSchedules(List<ClassSchedule> schedules) {
+        if (schedules.isEmpty()) {
+            return true;
+        }
+        // One write: other threads see all of the batch or none of it
+        return write(() -> {
+            for (ClassSchedule schedule : schedules) {
+                insertNew(schedule);
+            }
+            log.debug("Schedules saved", "count", schedules.size());
+            return true;
+        });
+    }
+
+    @Override
+    public ClassSchedule findScheduleById(int scheduleId) {
+        return read(() -> copy(schedules.get(scheduleId)));
+    }
+
+    @Override
+    public List<ClassSchedule> findSchedulesByClassId(int classId) {
+        return read(() -> copyAll(schedulesByClass.get(classId)));
+    }
+
+    @Override
+    public List<ClassSchedule> findSchedulesByDate(LocalDate date) {
+        return read(() -> {
+            List<ClassSchedule> day = copyAll(schedulesByDate.get(date));
+            day.sort(BY_START);
+            return day;
+        });
+    }
+
+    @Override
+    public List<ClassSchedule> findSchedulesBetween(LocalDate from, LocalDate to) {
+        return read(() -> {
+            List<ClassSchedule> result = new ArrayList<>();
+            if (!to.isBefore(from)) {
+                for (IntSet ofDay : schedulesByDate.subMap(from, true, to, true).values()) {
+                    List<ClassSchedule> day = copyAll(ofDay);
+                    day.sort(BY_START);
+                    result.addAll(day);
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<ClassSchedule> findAllSchedules() {
+        return read(() -> {
+            List<ClassSchedule> result = schedules.values();
+            result.sort(Comparator.comparingInt(ClassSchedule::getScheduleId));
+            result.replaceAll(MemoryClassRepository::copy);
+            return result;
+        });
+    }
+
+    @Override
+    public boolean updateSchedule(ClassSchedule schedule) {
+        return write(() -> {
+            ClassSchedule old = schedules.get(schedule.getScheduleId());
+            if (old == null) {
+                return false;
+            }
+            // The class is not updated, as in the table's UPDATE
+            ClassSchedule row = new ClassSchedule(old.getScheduleId(), old.getClassId(), schedule.getScheduledDate(),
+                    schedule.getStartTime(), schedule.getEndTime(), schedule.getAvailableSpots());
+            unlink(old);
+            link(row);
+            onRollback(() -> {
+                unlink(row);
+                link(old);
+            });
+            log.debug("Schedule updated", "scheduleId", schedule.getScheduleId());
+            return true;
+        });
+    }
+
+    @Override
+    public boolean reserveSpot(int scheduleId) {
+        return write(() -> {
+            ClassSchedule row = schedules.get(scheduleId);
+            if (row == null || row.getAvailableSpots() <= 0) {
+                return false;
+            }
+            row.setAvailableSpots(row.getAvailableSpots() - 1);
+            onRollback(row::incrementSpots);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean releaseSpot(int scheduleId) {
+        return write(() -> {
+            ClassSchedule row = schedules.get(scheduleId);
+            if (row == null) {
+                return false;
+            }
+            row.incrementSpots();
+            onRollback(() -> row.setAvailableSpots(row.getAvailableSpots() - 1));
+            return true;
+        });
+    }
+
+    @Override
+    public boolean deleteSchedule(int scheduleId) {
+        return write(() -> {
+            ClassSchedule old = schedules.get(scheduleId);
+            if (old == null) {
+                return false;
+            }
+            unlink(old);
+            onRollback(() -> link(old));
+            log.debug("Schedule deleted", "scheduleId", scheduleId);
+            return true;
+        });
+    }
+
+    int scheduleCount() {
+        return read(schedules::size);
+    }
+
+    // Class of a schedule, for the booking store's per-class counts (0 if unknown)
+    int classIdOf(int scheduleId) {
+        return read(() -> {
+            ClassSchedule row = schedules.get(scheduleId);
+            return row == null ? 0 : row.getClassId();
+        });
+    }
+
+    // Import: keep the rows' ids
+    void restoreClass(GymClass gymClass) {
+        write(() -> {
+            classes.put(gymClass.getClassId(), copy(gymClass));
+            lastClassId = Math.max(lastClassId, gymClass.getClassId());
+            return null;
+        });
+    }
+
+    void restoreSchedule(ClassSchedule schedule) {
+        write(() -> {
+            link(copy(schedule));
+            lastScheduleId = Math.max(lastScheduleId, schedule.getScheduleId());
+            return null;
+        });
+    }
+
+    private void insertNew(ClassSchedule schedule) {
+        ClassSchedule row = copy(schedule);
+        row.setScheduleId(++lastScheduleId);
+        link(row);
+        onRollback(() -> unlink(row));
+        schedule.setScheduleId(row.getScheduleId());
+    }
+
+    private void link(ClassSchedule row) {
+        schedules.put(row.getScheduleId(), row);
+        schedulesByClass.computeIfAbsent(row.getClassId(), id -> new IntSet()).add(row.getScheduleId());
+        schedulesByDate.computeIfAbsent(row.getScheduledDate(), d -> new IntSet()).add(row.getScheduleId());
+    }
+
+    private void unlink(ClassSchedule row) {
+        schedules.remove(row.getScheduleId());
+        IntSet ofClass = schedulesByClass.get(row.getClassId());
+        if (ofClass != null && ofClass.remove(row.getScheduleId()) && ofClass.isEmpty()) {
+            schedulesByClass.remove(row.getClassId());
+        }
+        IntSet ofDay = schedulesByDate.get(row.getScheduledDate());
+        if (ofDay != null && ofDay.remove(row.getScheduleId()) && ofDay.isEmpty()) {
+            schedulesByDate.remove(row.getScheduledDate());
+        }
+    }
+
+    private List<ClassSchedule> copyAll(IntSet scheduleIds) {
+        if (scheduleIds == null) {
+            return new ArrayList<>();
+        }
+        List<ClassSchedule> result = new ArrayList<>(scheduleIds.size());
+        for (int scheduleId : scheduleIds.toSortedArray()) {
+            result.add(copy(schedules.get(scheduleId)));
+        }
+        return result;
+    }
+
+    private static GymClass copy(GymClass gymClass) {
+        if (gymClass == null) {
+            return null;
+        }
+        GymClass copy = new GymClass(gymClass.getClassName(), gymClass.getInstructorName(), gymClass.getDescription(),
+                gymClass.getCapacity(), gymClass.getDurationMinutes(), gymClass.getClassType());
+        copy.setClassId(gymClass.getClassId());
+        return copy;
+    }
+
+    private static ClassSchedule copy(ClassSchedule schedule) {
+        return schedule == null ? null : new ClassSchedule(schedule.getScheduleId(), schedule.getClassId(),
+                schedule.getScheduledDate(), schedule.getStartTime(), schedule.getEndTime(), schedule.getAvailableSpots());
+    }
+}
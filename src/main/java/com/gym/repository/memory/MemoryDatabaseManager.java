@@ -0,0 +1,156 @@
+package com.gym.repository.memory;
+
+import com.gym.domain.Booking;
+import com.gym.domain.ClassSchedule;
+import com.gym.domain.FitnessProgress;
+import com.gym.domain.GymClass;
+import com.gym.domain.User;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.BookingRepository;
+import com.gym.repository.ClassRepository;
+import com.gym.repository.DatabaseManager;
+import com.gym.repository.ProgressRepository;
+import com.gym.repository.UserRepository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory backend: every repository keeps its rows in primitive-keyed maps
+ * with secondary indexes, so load tests and tools can run without touching
+ * disk (and show how much of a request's time SQLite costs). Nothing is
+ * persisted. Select it with -Dgym.backend=memory (see AppConfig).
+ *
+ * Writes behave like SQLite's single writer: one write lock serializes
+ * transactions and the writes outside them, and a transaction keeps an undo
+ * log of its changes, replayed in reverse on rollback. Reads do not wait for
+ * writers; unlike SQLite's snapshots they may see a transaction's changes
+ * before it commits. Every query copies its rows under the store's read
+ * lock, so a list is a consistent snapshot of that store.
+ *
+ * There are no SQL connections: getConnection() throws.
+ */
+public final class MemoryDatabaseManager implements DatabaseManager {
+    private static final Logger log = Log.get(MemoryDatabaseManager.class);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ThreadLocal<Deque<Runnable>> undoLog = new ThreadLocal<>();
+
+    private final MemoryUserRepository userRepository;
+    private final MemoryClassRepository classRepository;
+    private final MemoryBookingRepository bookingRepository;
+    private final MemoryProgressRepository progressRepository;
+    private final MemoryOutboxRepository outboxRepository;
+    private final MemoryWaitlistRepository waitlistRepository;
+    private final MemoryRequestKeyRepository requestKeyRepository;
+
+    public MemoryDatabaseManager() {
+        userRepository = new MemoryUserRepository(this);
+        classRepository = new MemoryClassRepository(this);
+        bookingRepository = new MemoryBookingRepository(this, classRepository);
+        progressRepository = new MemoryProgressRepository(this);
+        outboxRepository = new MemoryOutboxRepository(this);
+        waitlistRepository = new MemoryWaitlistRepository(this);
+        requestKeyRepository = new MemoryRequestKeyRepository(this);
+    }
+
+    public MemoryUserRepository getUserRepository() { return userRepository; }
+    public MemoryClassRepository getClassRepository() { return classRepository; }
+    public MemoryBookingRepository getBookingRepository() { return bookingRepository; }
+    public MemoryProgressRepository getProgressRepository() { return progressRepository; }
+    public MemoryOutboxRepository getOutboxRepository() { return outboxRepository; }
+    public MemoryWaitlistRepository getWaitlistRepository() { return waitlistRepository; }
+    public MemoryRequestKeyRepository getRequestKeyRepository() { return requestKeyRepository; }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        throw new SQLException("The in-memory backend has no SQL connections");
+    }
+
+    @Override
+    public void initializeDatabase() {
+        log.info("Using the in-memory backend: nothing to create");
+    }
+
+    @Override
+    public boolean inTransaction(Transaction work) {
+        if (undoLog.get() != null) {
+            return work.run();   // nested: part of the outer transaction
+        }
+        writeLock.lock();
+        Deque<Runnable> undo = new ArrayDeque<>();
+        undoLog.set(undo);
+        boolean committed = false;
+        try {
+            committed = work.run();
+            return committed;
+        } finally {
+            undoLog.remove();
+            if (!committed) {
+                rollback(undo);
+            }
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Copies users, classes, schedules, bookings and progress from another
+     * backend, keeping their ids (e.g. a dataset generated into SQLite).
+     */
+    public void importFrom(UserRepository users, ClassRepository classes, BookingRepository bookings,
+                           ProgressRepository progress) {
+        write(() -> {
+            for (User user : users.findAll()) {
+                userRepository.restore(user);
+            }
+            for (GymClass gymClass : classes.findAllClasses()) {
+                classRepository.restoreClass(gymClass);
+            }
+            for (ClassSchedule schedule : classes.findAllSchedules()) {
+                classRepository.restoreSchedule(schedule);
+            }
+            for (Booking booking : bookings.findAll()) {
+                bookingRepository.restore(booking);
+            }
+            for (FitnessProgress row : progress.findAll()) {
+                progressRepository.restore(row);
+            }
+            return null;
+        });
+        log.info("Imported data into memory", "users", userRepository.size(), "schedules", classRepository.scheduleCount(),
+                "bookings", bookingRepository.size());
+    }
+
+    // Holds the write lock for one change (reentrant: inside a transaction the thread already has it)
+    <T> T write(Supplier<T> change) {
+        writeLock.lock();
+        try {
+            return change.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Outside a transaction a change is final, so there is nothing to record
+    void onRollback(Runnable undo) {
+        Deque<Runnable> log = undoLog.get();
+        if (log != null) {
+            log.push(undo);
+        }
+    }
+
+    private void rollback(Deque<Runnable> undo) {
+        while (!undo.isEmpty()) {
+            try {
+                undo.pop().run();
+            } catch (RuntimeException e) {
+                log.error("Error rolling back an in-memory change", e);
+            }
+        }
+    }
+}
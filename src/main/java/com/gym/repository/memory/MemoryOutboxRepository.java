@@ -0,0 +1,199 @@
+package com.gym.repository.memory;
+
+import com.gym.domain.OutboxEvent;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.OutboxRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public class MemoryOutboxRepository extends MemoryStore implements OutboxRepository {
+    private static final Logger log = Log.get(MemoryOutboxRepository.class);
+
+    // An outbox row: the event plus its delivery state
+    private static final class Row {
+        final OutboxEvent event;
+        int attempts;
+        long dispatchedMillis;   // 0 while pending
+
+        Row(OutboxEvent event) {
+            this.event = event;
+        }
+    }
+
+    private final TreeMap<Long, Row> events = new TreeMap<>();
+    private final TreeSet<Long> pending = new TreeSet<>();       // idx_outbox_pending
+    private final Set<String> handled = new HashSet<>();         // "handler:eventId"
+    private long lastId;
+
+    MemoryOutboxRepository(MemoryDatabaseManager db) {
+        super(db);
+    }
+
+    @Override
+    public boolean append(OutboxEvent event) {
+        return write(() -> {
+            long eventId = ++lastId;
+            Row row = new Row(new OutboxEvent(eventId, event.getEventType(), event.getBookingId(), event.getUserId(),
+                    event.getScheduleId(), event.getCreatedMillis(), 0));
+            events.put(eventId, row);
+            pending.add(eventId);
+            onRollback(() -> {
+                events.remove(eventId);
+                pending.remove(eventId);
+            });
+            event.setEventId(eventId);
+            return true;
+        });
+    }
+
+    @Override
+    public List<OutboxEvent> findPending(int limit) {
+        return read(() -> {
+            List<OutboxEvent> result = new ArrayList<>(Math.min(limit, pending.size()));
+            for (long eventId : pending) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(copy(events.get(eventId)));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public boolean markDispatched(List<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        return write(() -> {
+            for (long eventId : eventIds) {
+                Row row = events.get(eventId);
+                if (row != null) {
+                    long before = row.dispatchedMillis;
+                    dispatch(row, now);
+                    onRollback(() -> undispatch(row, before));
+                }
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public boolean recordFailure(long eventId, String error, boolean giveUp) {
+        // The error text only goes to the log here; an event given up on leaves the queue
+        long now = System.currentTimeMillis();
+        return write(() -> {
+            Row row = events.get(eventId);
+            if (row == null) {
+                return false;
+            }
+            long before = row.dispatchedMillis;
+            row.attempts++;
+            if (giveUp) {
+                dispatch(row, now);
+            } else {
+                undispatch(row, 0);
+            }
+            onRollback(() -> {
+                row.attempts--;
+                undispatch(row, before);
+            });
+            log.debug("Outbox event failed", "eventId", eventId, "attempts", row.attempts, "error", error);
+            return true;
+        });
+    }
+
+    @Override
+    public long oldestPendingMillis() {
+        return read(() -> {
+            long oldest = 0;
+            for (long eventId : pending) {
+                long created = events.get(eventId).event.getCreatedMillis();
+                oldest = oldest == 0 ? created : Math.min(oldest, created);
+            }
+            return oldest;
+        });
+    }
+
+    @Override
+    public int countPending() {
+        return read(pending::size);
+    }
+
+    @Override
+    public boolean markHandled(String handler, long eventId) {
+        String key = handler + ":" + eventId;
+        return write(() -> {
+            if (!handled.add(key)) {
+                return false;
+            }
+            onRollback(() -> handled.remove(key));
+            return true;
+        });
+    }
+
+    @Override
+    public boolean isHandled(String handler, long eventId) {
+        String key = handler + ":" + eventId;
+        return read(() -> handled.contains(key));
+    }
+
+    @Override
+    public int deleteDispatchedBefore(long millis) {
+        return write(() -> {
+            List<Row> deleted = new ArrayList<>();
+            for (Iterator<Row> it = events.values().iterator(); it.hasNext(); ) {
+                Row row = it.next();
+                if (row.dispatchedMillis != 0 && row.dispatchedMillis < millis) {
+                    it.remove();
+                    deleted.add(row);
+                }
+            }
+            if (!deleted.isEmpty()) {
+                Set<Long> ids = new HashSet<>();
+                deleted.forEach(row -> ids.add(row.event.getEventId()));
+                List<String> keys = new ArrayList<>();
+                handled.removeIf(key -> {
+                    boolean gone = ids.contains(Long.parseLong(key.substring(key.lastIndexOf(':') + 1)));
+                    if (gone) {
+                        keys.add(key);
+                    }
+                    return gone;
+                });
+                onRollback(() -> {
+                    deleted.forEach(row -> events.put(row.event.getEventId(), row));
+                    handled.addAll(keys);
+                });
+            }
+            return deleted.size();
+        });
+    }
+
+    private void dispatch(Row row, long now) {
+        row.dispatchedMillis = now;
+        pending.remove(row.event.getEventId());
+    }
+
+    private void undispatch(Row row, long dispatchedMillis) {
+        row.dispatchedMillis = dispatchedMillis;
+        if (dispatchedMillis == 0) {
+            pending.add(row.event.getEventId());
+        } else {
+            pending.remove(row.event.getEventId());
+        }
+    }
+
+    private static OutboxEvent copy(Row row) {
+        OutboxEvent event = row.event;
+        return new OutboxEvent(event.getEventId(), event.getEventType(), event.getBookingId(), event.getUserId(),
+                event.getScheduleId(), event.getCreatedMillis(), row.attempts);
+    }
+}
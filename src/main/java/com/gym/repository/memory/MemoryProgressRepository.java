@@ -0,0 +1,143 @@
+package com.gym.repository.memory;
+
+import com.gym.domain.FitnessProgress;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.ProgressRepository;
+import com.gym.utils.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MemoryProgressRepository extends MemoryStore implements ProgressRepository {
+    private static final Logger log = Log.get(MemoryProgressRepository.class);
+
+    // ORDER BY total_points DESC, ties in insertion order
+    private static final Comparator<FitnessProgress> BY_POINTS =
+            Comparator.comparingInt(FitnessProgress::getTotalPoints).reversed()
+                    .thenComparingInt(FitnessProgress::getProgressId);
+
+    private final IntObjectMap<FitnessProgress> byId = new IntObjectMap<>();
+    private final IntObjectMap<Map<String, FitnessProgress>> byUser = new IntObjectMap<>();   // UNIQUE(user_id, category)
+    private int lastId;
+
+    MemoryProgressRepository(MemoryDatabaseManager db) {
+        super(db);
+    }
+
+    @Override
+    public boolean save(FitnessProgress progress) {
+        boolean saved = write(() -> {
+            Map<String, FitnessProgress> ofUser = byUser.get(progress.getUserId());
+            if (ofUser != null && ofUser.containsKey(progress.getCategory())) {
+                return false;
+            }
+            FitnessProgress row = new FitnessProgress(++lastId, progress.getUserId(), progress.getCategory(),
+                    progress.getTotalPoints(), progress.getLastUpdated());
+            link(row);
+            onRollback(() -> unlink(row));
+            progress.setProgressId(row.getProgressId());
+            return true;
+        });
+        if (saved) {
+            log.debug("Progress saved", "userId", progress.getUserId(), "category", progress.getCategory());
+        } else {
+            log.error("Error saving progress", "error", "category already tracked for this user");
+        }
+        return saved;
+    }
+
+    @Override
+    public FitnessProgress findById(int progressId) {
+        return read(() -> copy(byId.get(progressId)));
+    }
+
+    @Override
+    public FitnessProgress findByUserIdAndCategory(int userId, String category) {
+        return read(() -> {
+            Map<String, FitnessProgress> ofUser = byUser.get(userId);
+            return ofUser == null ? null : copy(ofUser.get(category));
+        });
+    }
+
+    @Override
+    public List<FitnessProgress> findByUserId(int userId) {
+        return read(() -> {
+            Map<String, FitnessProgress> ofUser = byUser.get(userId);
+            return ofUser == null ? new ArrayList<>() : sortedCopies(new ArrayList<>(ofUser.values()));
+        });
+    }
+
+    @Override
+    public List<FitnessProgress> findAll() {
+        return read(() -> sortedCopies(byId.values()));
+    }
+
+    @Override
+    public boolean update(FitnessProgress progress) {
+        return write(() -> {
+            FitnessProgress old = byId.get(progress.getProgressId());
+            if (old == null) {
+                return false;
+            }
+            // Points and date only, as in the table's UPDATE
+            FitnessProgress row = new FitnessProgress(old.getProgressId(), old.getUserId(), old.getCategory(),
+                    progress.getTotalPoints(), progress.getLastUpdated());
+            link(row);
+            onRollback(() -> link(old));
+            log.debug("Progress updated", "progressId", progress.getProgressId());
+            return true;
+        });
+    }
+
+    @Override
+    public boolean delete(int progressId) {
+        return write(() -> {
+            FitnessProgress old = byId.get(progressId);
+            if (old == null) {
+                return false;
+            }
+            unlink(old);
+            onRollback(() -> link(old));
+            log.debug("Progress deleted", "progressId", progressId);
+            return true;
+        });
+    }
+
+    // Import: keeps the row's id
+    void restore(FitnessProgress progress) {
+        write(() -> {
+            link(copy(progress));
+            lastId = Math.max(lastId, progress.getProgressId());
+            return null;
+        });
+    }
+
+    // Adds or replaces the row (same id, user and category)
+    private void link(FitnessProgress row) {
+        byId.put(row.getProgressId(), row);
+        byUser.computeIfAbsent(row.getUserId(), id -> new HashMap<>()).put(row.getCategory(), row);
+    }
+
+    private void unlink(FitnessProgress row) {
+        byId.remove(row.getProgressId());
+        Map<String, FitnessProgress> ofUser = byUser.get(row.getUserId());
+        if (ofUser != null && ofUser.remove(row.getCategory()) != null && ofUser.isEmpty()) {
+            byUser.remove(row.getUserId());
+        }
+    }
+
+    private static List<FitnessProgress> sortedCopies(List<FitnessProgress> rows) {
+        rows.sort(BY_POINTS);
+        rows.replaceAll(MemoryProgressRepository::copy);
+        return rows;
+    }
+
+    private static FitnessProgress copy(FitnessProgress progress) {
+        return progress == null ? null : new FitnessProgress(progress.getProgressId(), progress.getUserId(),
+                progress.getCategory(), progress.getTotalPoints(), progress.getLastUpdated());
+    }
+}
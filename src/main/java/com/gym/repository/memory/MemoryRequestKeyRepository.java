@@ -0,0 +1,61 @@
+package com.gym.repository.memory;
+
+import com.gym.domain.RequestKey;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.RequestKeyRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MemoryRequestKeyRepository extends MemoryStore implements RequestKeyRepository {
+    private static final Logger log = Log.get(MemoryRequestKeyRepository.class);
+
+    private final Map<String, RequestKey> keys = new HashMap<>();   // "userId:key", the table's primary key
+
+    MemoryRequestKeyRepository(MemoryDatabaseManager db) {
+        super(db);
+    }
+
+    @Override
+    public boolean save(RequestKey requestKey) {
+        String id = requestKey.getUserId() + ":" + requestKey.getKey();
+        boolean saved = write(() -> {
+            if (keys.putIfAbsent(id, requestKey) != null) {
+                return false;
+            }
+            onRollback(() -> keys.remove(id));
+            return true;
+        });
+        if (!saved) {
+            log.warn("Error saving request key", "userId", requestKey.getUserId(), "error", "key already used");
+        }
+        return saved;
+    }
+
+    @Override
+    public RequestKey find(int userId, String key) {
+        return read(() -> keys.get(userId + ":" + key));   // immutable, no copy needed
+    }
+
+    @Override
+    public int deleteBefore(long millis) {
+        return write(() -> {
+            List<RequestKey> deleted = new ArrayList<>();
+            keys.values().removeIf(requestKey -> {
+                boolean expired = requestKey.getCreatedMillis() < millis;
+                if (expired) {
+                    deleted.add(requestKey);
+                }
+                return expired;
+            });
+            if (!deleted.isEmpty()) {
+                onRollback(() -> deleted.forEach(requestKey ->
+                        keys.put(requestKey.getUserId() + ":" + requestKey.getKey(), requestKey)));
+            }
+            return deleted.size();
+        });
+    }
+}
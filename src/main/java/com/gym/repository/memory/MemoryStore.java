@@ -0,0 +1,53 @@
+package com.gym.repository.memory;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Base of the in-memory repositories: one read/write lock per store for its
+ * maps and indexes, and writes that go through MemoryDatabaseManager.write,
+ * so they are serialized with transactions and can be undone on rollback.
+ * Rows are copied in and out, so callers never share the stored objects.
+ */
+abstract class MemoryStore {
+    protected final MemoryDatabaseManager db;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    MemoryStore(MemoryDatabaseManager db) {
+        this.db = db;
+    }
+
+    /** Runs a query under the read lock: results built here are a consistent snapshot of the store. */
+    protected <T> T read(Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Runs a change under the database write lock and this store's lock. */
+    protected <T> T write(Supplier<T> change) {
+        return db.write(() -> {
+            lock.writeLock().lock();
+            try {
+                return change.get();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /** Registers how to undo a change just made, should the enclosing transaction roll back. */
+    protected void onRollback(Runnable undo) {
+        db.onRollback(() -> {
+            lock.writeLock().lock();
+            try {
+                undo.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,165 @@
+package com.gym.repository.memory;
+
+import com.gym.domain.User;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.UserRepository;
+import com.gym.utils.IntObjectMap;
+import com.gym.utils.PasswordUtil;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MemoryUserRepository extends MemoryStore implements UserRepository {
+    private static final Logger log = Log.get(MemoryUserRepository.class);
+
+    // Same text as SQLite's CURRENT_TIMESTAMP
+    private static final DateTimeFormatter CREATED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final IntObjectMap<User> byId = new IntObjectMap<>();
+    private final Map<String, User> byUsername = new HashMap<>();   // UNIQUE(username)
+    private final Map<String, User> byEmail = new HashMap<>();      // UNIQUE(email)
+    private int lastId;
+
+    MemoryUserRepository(MemoryDatabaseManager db) {
+        super(db);
+    }
+
+    @Override
+    public boolean save(User user) {
+        // Hashing is the slow part: do it before taking the lock. The password is
+        // always as typed, even if it looks like a hash (importFrom uses restore)
+        String hash = PasswordUtil.hash(user.getPassword());
+        String createdAt = LocalDateTime.now(ZoneOffset.UTC).format(CREATED_AT);
+        boolean saved = write(() -> {
+            if (byUsername.containsKey(user.getUsername()) || byEmail.containsKey(user.getEmail())) {
+                return false;
+            }
+            User row = new User(++lastId, user.getUsername(), hash, user.getEmail(), user.getRole(), createdAt);
+            insert(row);
+            onRollback(() -> unlink(row));
+            user.setUserId(row.getUserId());
+            return true;
+        });
+        if (saved) {
+            log.debug("User saved", "userId", user.getUserId(), "username", user.getUsername());
+        } else {
+            log.error("Error saving user", "error", "username or email already taken");
+        }
+        return saved;
+    }
+
+    @Override
+    public User findById(int userId) {
+        return read(() -> copy(byId.get(userId)));
+    }
+
+    @Override
+    public User findByUsername(String username) {
+        return read(() -> copy(byUsername.get(username)));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return read(() -> {
+            List<User> users = byId.values();
+            users.sort(Comparator.comparingInt(User::getUserId));
+            users.replaceAll(MemoryUserRepository::copy);
+            return users;
+        });
+    }
+
+    @Override
+    public boolean update(User user) {
+        return write(() -> {
+            User old = byId.get(user.getUserId());
+            if (old == null || taken(byUsername, user.getUsername(), old) || taken(byEmail, user.getEmail(), old)) {
+                return false;
+            }
+            User row = new User(old.getUserId(), user.getUsername(), old.getPassword(), user.getEmail(), user.getRole(),
+                    old.getCreatedAt());
+            replace(old, row);
+            onRollback(() -> replace(row, old));
+            log.debug("User updated", "userId", user.getUserId(), "username", user.getUsername());
+            return true;
+        });
+    }
+
+    @Override
+    public boolean updatePassword(int userId, String passwordHash) {
+        boolean updated = write(() -> {
+            User old = byId.get(userId);
+            if (old == null) {
+                return false;
+            }
+            User row = new User(userId, old.getUsername(), passwordHash, old.getEmail(), old.getRole(), old.getCreatedAt());
+            replace(old, row);
+            onRollback(() -> replace(row, old));
+            return true;
+        });
+        if (updated) {
+            log.info("Password updated", "userId", userId);
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean delete(int userId) {
+        return write(() -> {
+            User row = byId.get(userId);
+            if (row == null) {
+                return false;
+            }
+            unlink(row);
+            onRollback(() -> insert(row));
+            log.debug("User deleted", "userId", userId);
+            return true;
+        });
+    }
+
+    int size() {
+        return read(byId::size);
+    }
+
+    // Import: keeps the row's id
+    void restore(User user) {
+        write(() -> {
+            insert(copy(user));
+            lastId = Math.max(lastId, user.getUserId());
+            return null;
+        });
+    }
+
+    private void insert(User row) {
+        byId.put(row.getUserId(), row);
+        byUsername.put(row.getUsername(), row);
+        byEmail.put(row.getEmail(), row);
+    }
+
+    private void unlink(User row) {
+        byId.remove(row.getUserId());
+        byUsername.remove(row.getUsername());
+        byEmail.remove(row.getEmail());
+    }
+
+    private void replace(User old, User row) {
+        unlink(old);
+        insert(row);
+    }
+
+    // Another user already has this unique value
+    private static boolean taken(Map<String, User> index, String value, User self) {
+        User owner = index.get(value);
+        return owner != null && owner != self;
+    }
+
+    private static User copy(User user) {
+        return user == null ? null : new User(user.getUserId(), user.getUsername(), user.getPassword(), user.getEmail(),
+                user.getRole(), user.getCreatedAt());
+    }
+}
@@ -0,0 +1,128 @@
+package com.gym.repository.memory;
+
+import com.gym.domain.WaitlistEntry;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.WaitlistRepository;
+import com.gym.utils.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+public class MemoryWaitlistRepository extends MemoryStore implements WaitlistRepository {
+    private static final Logger log = Log.get(MemoryWaitlistRepository.class);
+
+    // idx_waitlist_queue order: tier, then arrival
+    private static final Comparator<WaitlistEntry> QUEUE_ORDER =
+            Comparator.comparingInt(WaitlistEntry::getTier).thenComparingLong(WaitlistEntry::getEntryId);
+
+    private final Map<Long, WaitlistEntry> entries = new HashMap<>();
+    // Waiting entries only, as the table's partial indexes
+    private final IntObjectMap<TreeSet<WaitlistEntry>> waitingBySchedule = new IntObjectMap<>();
+    private final IntObjectMap<IntObjectMap<WaitlistEntry>> waitingByUser = new IntObjectMap<>();   // userId -> scheduleId -> entry
+    private long lastId;
+
+    MemoryWaitlistRepository(MemoryDatabaseManager db) {
+        super(db);
+    }
+
+    @Override
+    public boolean save(WaitlistEntry entry) {
+        boolean saved = write(() -> {
+            // idx_waitlist_member: one waiting entry per member and schedule
+            IntObjectMap<WaitlistEntry> ofUser = waitingByUser.get(entry.getUserId());
+            if (entry.isWaiting() && ofUser != null && ofUser.containsKey(entry.getScheduleId())) {
+                return false;
+            }
+            WaitlistEntry row = new WaitlistEntry(++lastId, entry.getScheduleId(), entry.getUserId(), entry.getTier(),
+                    entry.getJoinedMillis(), entry.getStatus());
+            entries.put(row.getEntryId(), row);
+            index(row);
+            onRollback(() -> {
+                unindex(row);
+                entries.remove(row.getEntryId());
+            });
+            entry.setEntryId(row.getEntryId());
+            return true;
+        });
+        if (!saved) {
+            log.error("Error saving waitlist entry", "userId", entry.getUserId(), "scheduleId", entry.getScheduleId(),
+                    "error", "already waiting");
+        }
+        return saved;
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaiting(int scheduleId) {
+        return read(() -> {
+            TreeSet<WaitlistEntry> queue = waitingBySchedule.get(scheduleId);
+            List<WaitlistEntry> result = new ArrayList<>();
+            if (queue != null) {
+                queue.forEach(entry -> result.add(copy(entry)));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaitingByUser(int userId) {
+        return read(() -> {
+            IntObjectMap<WaitlistEntry> ofUser = waitingByUser.get(userId);
+            List<WaitlistEntry> result = new ArrayList<>();
+            if (ofUser != null) {
+                ofUser.forEach((scheduleId, entry) -> result.add(copy(entry)));
+            }
+            result.sort(Comparator.comparingLong(WaitlistEntry::getJoinedMillis));
+            return result;
+        });
+    }
+
+    @Override
+    public boolean updateStatus(long entryId, String expectedStatus, String newStatus) {
+        return write(() -> {
+            WaitlistEntry row = entries.get(entryId);
+            if (row == null || !row.getStatus().equals(expectedStatus)) {
+                return false;
+            }
+            unindex(row);
+            row.setStatus(newStatus);
+            index(row);
+            onRollback(() -> {
+                unindex(row);
+                row.setStatus(expectedStatus);
+                index(row);
+            });
+            return true;
+        });
+    }
+
+    private void index(WaitlistEntry row) {
+        if (row.isWaiting()) {
+            waitingBySchedule.computeIfAbsent(row.getScheduleId(), id -> new TreeSet<>(QUEUE_ORDER)).add(row);
+            waitingByUser.computeIfAbsent(row.getUserId(), id -> new IntObjectMap<>()).put(row.getScheduleId(), row);
+        }
+    }
+
+    private void unindex(WaitlistEntry row) {
+        TreeSet<WaitlistEntry> queue = waitingBySchedule.get(row.getScheduleId());
+        if (queue != null && queue.remove(row) && queue.isEmpty()) {
+            waitingBySchedule.remove(row.getScheduleId());
+        }
+        IntObjectMap<WaitlistEntry> ofUser = waitingByUser.get(row.getUserId());
+        if (ofUser != null && ofUser.get(row.getScheduleId()) == row) {
+            ofUser.remove(row.getScheduleId());
+            if (ofUser.isEmpty()) {
+                waitingByUser.remove(row.getUserId());
+            }
+        }
+    }
+
+    private static WaitlistEntry copy(WaitlistEntry entry) {
+        return new WaitlistEntry(entry.getEntryId(), entry.getScheduleId(), entry.getUserId(), entry.getTier(),
+                entry.getJoinedMillis(), entry.getStatus());
+    }
+}
@@ -0,0 +1,278 @@
+package com.gym.repository.sqlite;
+
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.metrics.jfr.QueryEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A pooled physical connection plus its statement cache.
+ *
+ * Repositories get a {@link Connection} proxy from {@link #lease()}. On that proxy:
+ *  - prepareStatement(sql) is served from the cache, and closing the returned
+ *    statement only resets it (closes its ResultSet, clears parameters);
+ *  - close() hands the physical connection back to the pool instead of closing it
+ *    (on a {@link #join()} proxy, used inside a transaction, it does nothing, and
+ *    neither do setAutoCommit, commit and rollback: the transaction's owner decides).
+ * Executions on cached statements are reported to the manager's StatementListener, if any,
+ * and emitted as JFR QueryEvents.
+ * Everything else is forwarded to the real connection.
+ */
+class CachingConnection {
+    private static final Logger log = Log.get(CachingConnection.class);
+
+    interface ReturnHandler {
+        void release(CachingConnection connection);
+    }
+
+    private final Connection physical;
+    private final StatementCache cache;
+    private final ReturnHandler pool;
+    private final Supplier<StatementListener> listener;
+
+    // Cached statements currently handed out in this lease (same SQL twice -> uncached copy)
+    private final Set<PreparedStatement> inUse = new HashSet<>();
+    private boolean inTransaction;   // between begin() and commit(), or the rollback in reset()
+
+    CachingConnection(Connection physical, int cacheSize, StatementCache.Stats stats,
+                      ReturnHandler pool, Supplier<StatementListener> listener) {
+        this.physical = physical;
+        this.cache = new StatementCache(physical, cacheSize, stats);
+        this.pool = pool;
+        this.listener = listener;
+    }
+
+    Connection lease() {
+        return proxy(new LeaseHandler(true));
+    }
+
+    /** Another proxy for the transaction holding this connection; closing it keeps the lease. */
+    Connection join() {
+        return proxy(new LeaseHandler(false));
+    }
+
+    private static Connection proxy(InvocationHandler handler) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                handler);
+    }
+
+    /*
+     * Transactions are plain SQL on a connection left in autocommit mode. The
+     * driver's own transaction mode would not do: its commit() and rollback()
+     * begin the next transaction straight away, taking the write lock a second
+     * time, and a commit that then waits out busy_timeout fails after the data
+     * is already durable.
+     */
+
+    /** Takes the write lock up front, waiting on busy_timeout if another writer holds it. */
+    void begin() throws SQLException {
+        execute("BEGIN IMMEDIATE");
+        inTransaction = true;
+    }
+
+    /** If COMMIT fails the transaction is still open, and reset() rolls it back. */
+    void commit() throws SQLException {
+        execute("COMMIT");
+        inTransaction = false;
+    }
+
+    /** Rolls back what was not committed so the next borrower starts from a clean state. */
+    boolean reset() {
+        try {
+            if (inTransaction) {
+                inTransaction = false;
+                execute("ROLLBACK");
+            }
+            if (!physical.getAutoCommit()) {
+                // A repository's own JDBC transaction (e.g. saveSchedules) left open
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            log.error("Error resetting pooled connection", "error", e.getMessage());
+            return false;
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement stmt = physical.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    void closePhysical() {
+        cache.closeAll();
+        SqliteDatabaseManager.closeConnection(physical);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class LeaseHandler implements InvocationHandler {
+        private final boolean owner;   // false: joined a transaction, close() does not release
+        private boolean closed;
+
+        LeaseHandler(boolean owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (owner) {
+                            inUse.clear();
+                            pool.release(CachingConnection.this);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "setAutoCommit":
+                case "commit":
+                case "rollback":
+                    if (!owner && !closed) {
+                        return null;   // part of the enclosing transaction
+                    }
+                    break;
+                case "prepareStatement":
+                    if (args != null && args.length == 1 && !closed) {
+                        return cachedStatement((String) args[0]);
+                    }
+                    break;
+                case "unwrap":
+                    if (Connection.class.equals(args[0])) {
+                        return physical;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection already returned to the pool");
+            }
+            return CachingConnection.invoke(physical, method, args);
+        }
+
+        private PreparedStatement cachedStatement(String sql) throws SQLException {
+            PreparedStatement real = cache.get(sql);
+            if (!inUse.add(real)) {
+                // Same SQL already open in this lease: hand out a private, uncached one
+                return physical.prepareStatement(sql);
+            }
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementHandler(sql, real));
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final String sql;
+        private final PreparedStatement real;
+        private ResultSet lastResult;
+        private boolean closed;
+        private Object[] parameters;   // only filled while a listener wants them
+
+        StatementHandler(String sql, PreparedStatement real) {
+            this.sql = sql;
+            this.real = real;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        // Closing the ResultSet resets the SQLite statement so no read stays open
+                        if (lastResult != null && !lastResult.isClosed()) {
+                            lastResult.close();
+                        }
+                        real.clearParameters();
+                        parameters = null;
+                        inUse.remove(real);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "clearParameters":
+                    parameters = null;
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement already closed");
+            }
+            String name = method.getName();
+            StatementListener observer = listener.get();
+            if (observer != null && observer.wantsParameters()
+                    && name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                rememberParameter(index, args[1]);
+            }
+            Object result = name.startsWith("execute")
+                    ? execute(method, args, observer)
+                    : CachingConnection.invoke(real, method, args);
+            if (result instanceof ResultSet rs) {
+                lastResult = rs;
+            }
+            return result;
+        }
+
+        private Object execute(Method method, Object[] args, StatementListener observer) throws Throwable {
+            QueryEvent event = new QueryEvent();   // JFR; no-op unless a recording enables it
+            event.begin();
+            long start = System.nanoTime();
+            SQLException error = null;
+            Object result;
+            try {
+                result = CachingConnection.invoke(real, method, args);
+            } catch (SQLException e) {
+                error = e;
+                throw e;
+            } finally {
+                if (observer != null) {
+                    observer.statementExecuted(sql, parameters, System.nanoTime() - start, error);
+                }
+                event.sql = sql;
+                event.failed = error != null;
+                event.commit();
+            }
+            return result;
+        }
+
+        private void rememberParameter(int index, Object value) {
+            // Sized to the highest index seen, so listeners get exactly the bound values
+            if (parameters == null) {
+                parameters = new Object[index];
+            } else if (parameters.length < index) {
+                parameters = Arrays.copyOf(parameters, index);
+            }
+            parameters[index - 1] = value;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.gym.repository.sqlite;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Helpers for multi-row "INSERT ... VALUES (...), (...) RETURNING id" statements.
+ */
+final class SqlBatch {
+
+    // Keeps rows * columns well under SQLite's bound-parameter limit
+    static final int MAX_ROWS_PER_INSERT = 500;
+
+    private SqlBatch() { }
+
+    /** Builds "(?, ?), (?, ?), ..." for the given number of rows and columns. */
+    static String valuesClause(int rows, int columns) {
+        StringBuilder row = new StringBuilder("(");
+        for (int c = 0; c < columns; c++) {
+            row.append(c == 0 ? "?" : ", ?");
+        }
+        row.append(')');
+
+        StringBuilder sb = new StringBuilder(rows * (row.length() + 2));
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) sb.append(", ");
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Executes an INSERT ... RETURNING statement and returns the generated ids
+     * in insertion order. SQLite does not promise an order for RETURNING rows,
+     * but rowids are handed out in ascending order within one statement, so
+     * sorting them lines them up with the VALUES rows.
+     */
+    static int[] readKeys(PreparedStatement pstmt, int expected) throws SQLException {
+        int[] ids = new int[expected];
+        int n = 0;
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                if (n == expected) {
+                    throw new SQLException("More generated keys than inserted rows");
+                }
+                ids[n++] = rs.getInt(1);
+            }
+        }
+        if (n != expected) {
+            throw new SQLException("Expected " + expected + " generated keys but got " + n);
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+}
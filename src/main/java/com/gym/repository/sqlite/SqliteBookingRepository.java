@@ -1,16 +1,22 @@
 package com.gym.repository.sqlite;
 
 import com.gym.domain.Booking;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
 import com.gym.repository.BookingRepository;
 import com.gym.repository.DatabaseManager;
+import com.gym.utils.IntIntMap;
 
 import java.sql.*;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class SqliteBookingRepository implements BookingRepository {
+    private static final Logger log = Log.get(SqliteBookingRepository.class);
 
     private final DatabaseManager dbManager;
 
@@ -18,42 +24,38 @@ public class SqliteBookingRepository implements BookingRepository {
         this.dbManager = dbManager;
     }
 
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Column order used by extractBookingFromResultSet
+    private static final String BOOKING_COLUMNS = "booking_id, user_id, schedule_id, booked_at, status";
 
     @Override
     public boolean save(Booking booking) {
-        String sql = "INSERT INTO bookings (user_id, schedule_id, booking_date, status) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO bookings (user_id, schedule_id, booked_at, status) VALUES (?, ?, ?, ?) RETURNING booking_id";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, booking.getUserId());
             pstmt.setInt(2, booking.getScheduleId());
-            pstmt.setString(3, booking.getBookingDate().format(formatter));
+            pstmt.setLong(3, toEpochSecond(booking.getBookingDate()));
             pstmt.setString(4, booking.getStatus());
 
-            int rowsAffected = pstmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        booking.setBookingId(rs.getInt(1));
-                    }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    booking.setBookingId(rs.getInt(1));
+                    log.debug("Booking saved", "bookingId", booking.getBookingId(), "userId", booking.getUserId(), "scheduleId", booking.getScheduleId());
+                    return true;
                 }
-                System.out.println("Booking saved: ID " + booking.getBookingId());
-                return true;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error saving booking: " + e.getMessage());
+            log.error("Error saving booking", "error", e.getMessage());
         }
         return false;
     }
 
     @Override
     public Booking findById(int bookingId) {
-        String sql = "SELECT * FROM bookings WHERE booking_id = ?";
+        String sql = "SELECT " + BOOKING_COLUMNS + " FROM bookings WHERE booking_id = ?";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -66,7 +68,7 @@ public class SqliteBookingRepository implements BookingRepository {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error finding booking: " + e.getMessage());
+            log.error("Error finding booking", "error", e.getMessage());
         }
         return null;
     }
@@ -74,7 +76,7 @@ public class SqliteBookingRepository implements BookingRepository {
     @Override
     public List<Booking> findByUserId(int userId) {
         List<Booking> bookings = new ArrayList<>();
-        String sql = "SELECT * FROM bookings WHERE user_id = ?";
+        String sql = "SELECT " + BOOKING_COLUMNS + " FROM bookings WHERE user_id = ? ORDER BY booking_id";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -87,7 +89,7 @@ public class SqliteBookingRepository implements BookingRepository {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error finding bookings: " + e.getMessage());
+            log.error("Error finding bookings", "error", e.getMessage());
         }
         return bookings;
     }
@@ -95,7 +97,7 @@ public class SqliteBookingRepository implements BookingRepository {
     @Override
     public List<Booking> findByScheduleId(int scheduleId) {
         List<Booking> bookings = new ArrayList<>();
-        String sql = "SELECT * FROM bookings WHERE schedule_id = ?";
+        String sql = "SELECT " + BOOKING_COLUMNS + " FROM bookings WHERE schedule_id = ? ORDER BY booking_id";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -108,7 +110,7 @@ public class SqliteBookingRepository implements BookingRepository {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error finding bookings: " + e.getMessage());
+            log.error("Error finding bookings", "error", e.getMessage());
         }
         return bookings;
     }
@@ -116,22 +118,108 @@ public class SqliteBookingRepository implements BookingRepository {
     @Override
     public List<Booking> findAll() {
         List<Booking> bookings = new ArrayList<>();
-        String sql = "SELECT * FROM bookings";
+        String sql = "SELECT " + BOOKING_COLUMNS + " FROM bookings";
 
         try (Connection conn = dbManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 bookings.add(extractBookingFromResultSet(rs));
             }
 
         } catch (SQLException e) {
-            System.err.println("Error getting all bookings: " + e.getMessage());
+            log.error("Error getting all bookings", "error", e.getMessage());
         }
         return bookings;
     }
 
+    // Projections: answer count questions without materialising Booking rows
+
+    /** Served entirely from the (schedule_id, status) index. */
+    @Override
+    public int countByScheduleIdAndStatus(int scheduleId, String status) {
+        String sql = "SELECT COUNT(*) FROM bookings WHERE schedule_id = ? AND status = ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, scheduleId);
+            pstmt.setString(2, status);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            log.error("Error counting bookings", "error", e.getMessage());
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean existsActiveBooking(int userId, int scheduleId) {
+        // One probe of idx_bookings_user_schedule_status, however many bookings the member has
+        String sql = "SELECT 1 FROM bookings WHERE user_id = ? AND schedule_id = ? AND status = 'CONFIRMED' LIMIT 1";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, scheduleId);
+            return pstmt.executeQuery().next();
+
+        } catch (SQLException e) {
+            log.error("Error checking bookings", "userId", userId, "scheduleId", scheduleId, "error", e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public Map<String, Integer> countByStatus() {
+        Map<String, Integer> counts = new HashMap<>();
+        String sql = "SELECT status, COUNT(*) FROM bookings GROUP BY status";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getInt(2));
+            }
+
+        } catch (SQLException e) {
+            log.error("Error counting bookings by status", "error", e.getMessage());
+        }
+        return counts;
+    }
+
+    @Override
+    public IntIntMap countActiveByClassId() {
+        IntIntMap counts = new IntIntMap();
+        String sql = """
+            SELECT s.class_id, COUNT(*)
+            FROM bookings b
+            JOIN class_schedule s ON s.schedule_id = b.schedule_id
+            WHERE b.status <> 'CANCELLED'
+            GROUP BY s.class_id
+            """;
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                counts.put(rs.getInt(1), rs.getInt(2));
+            }
+
+        } catch (SQLException e) {
+            log.error("Error counting bookings by class", "error", e.getMessage());
+        }
+        return counts;
+    }
+
     @Override
     public boolean update(Booking booking) {
         String sql = "UPDATE bookings SET status = ? WHERE booking_id = ?";
@@ -144,12 +232,31 @@ public class SqliteBookingRepository implements BookingRepository {
 
             int rowsAffected = pstmt.executeUpdate();
             if (rowsAffected > 0) {
-                System.out.println("Booking updated");
+                log.debug("Booking updated", "bookingId", booking.getBookingId(), "status", booking.getStatus());
                 return true;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error updating booking: " + e.getMessage());
+            log.error("Error updating booking", "error", e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean updateStatus(int bookingId, String expectedStatus, String newStatus) {
+        String sql = "UPDATE bookings SET status = ? WHERE booking_id = ? AND status = ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, newStatus);
+            pstmt.setInt(2, bookingId);
+            pstmt.setString(3, expectedStatus);
+
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            log.error("Error updating booking status", "error", e.getMessage());
         }
         return false;
     }
@@ -165,28 +272,28 @@ public class SqliteBookingRepository implements BookingRepository {
             int rowsAffected = pstmt.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("Booking deleted");
+                log.debug("Booking deleted", "bookingId", bookingId);
                 return true;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error deleting booking: " + e.getMessage());
+            log.error("Error deleting booking", "error", e.getMessage());
         }
         return false;
     }
 
-    private Booking extractBookingFromResultSet(ResultSet rs) throws SQLException {
-        LocalDateTime bookingDate = LocalDateTime.parse(
-                rs.getString("booking_date"),
-                formatter
-        );
+    // booked_at holds the local date-time as seconds since 1970-01-01T00:00 (no zone)
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
 
+    private Booking extractBookingFromResultSet(ResultSet rs) throws SQLException {
         return new Booking(
-                rs.getInt("booking_id"),
-                rs.getInt("user_id"),
-                rs.getInt("schedule_id"),
-                bookingDate,
-                rs.getString("status")
+                rs.getInt(1),
+                rs.getInt(2),
+                rs.getInt(3),
+                LocalDateTime.ofEpochSecond(rs.getLong(4), 0, ZoneOffset.UTC),
+                rs.getString(5)
         );
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.gym.repository.sqlite;
 
-import com.gym.domain.GymClass;
 import com.gym.domain.ClassSchedule;
+import com.gym.domain.GymClass;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
 import com.gym.repository.ClassRepository;
 import com.gym.repository.DatabaseManager;
 
@@ -12,8 +14,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class SqliteClassRepository implements ClassRepository {
+    private static final Logger log = Log.get(SqliteClassRepository.class);
+
     private final DatabaseManager dbManager;
 
+    // Column order used by the extract* helpers
+    private static final String CLASS_COLUMNS =
+            "class_id, class_name, instructor_name, description, capacity, duration_minutes, class_type";
+    private static final String SCHEDULE_COLUMNS =
+            "schedule_id, class_id, scheduled_day, start_second, end_second, available_spots";
+
     public SqliteClassRepository(DatabaseManager dbManager) {
         this.dbManager = dbManager;
     }
@@ -21,7 +31,7 @@ public class SqliteClassRepository implements ClassRepository {
     //Gym Class
     @Override
     public boolean saveClass(GymClass gymClass) {
-        String sql = "INSERT INTO classes (class_name, instructor_name, description, capacity, duration_minutes, class_type) VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO classes (class_name, instructor_name, description, capacity, duration_minutes, class_type) VALUES (?, ?, ?, ?, ?, ?) RETURNING class_id";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -33,28 +43,23 @@ public class SqliteClassRepository implements ClassRepository {
             pstmt.setInt(5, gymClass.getDurationMinutes());
             pstmt.setString(6, gymClass.getClassType());
 
-            int rowsAffected = pstmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        gymClass.setClassId(rs.getInt(1));
-                    }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    gymClass.setClassId(rs.getInt(1));
+                    log.debug("Class saved", "classId", gymClass.getClassId(), "name", gymClass.getClassName());
+                    return true;
                 }
-                System.out.println("Class saved: " + gymClass.getClassName());
-                return true;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error saving class: " + e.getMessage());
+            log.error("Error saving class", "error", e.getMessage());
         }
         return false;
     }
 
     @Override
     public GymClass findClassById(int classId) {
-        String sql = "SELECT * FROM classes WHERE class_id = ?";
+        String sql = "SELECT " + CLASS_COLUMNS + " FROM classes WHERE class_id = ?";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -67,7 +72,7 @@ public class SqliteClassRepository implements ClassRepository {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error finding class: " + e.getMessage());
+            log.error("Error finding class", "error", e.getMessage());
         }
         return null;
     }
@@ -75,18 +80,18 @@ public class SqliteClassRepository implements ClassRepository {
     @Override
     public List<GymClass> findAllClasses() {
         List<GymClass> classes = new ArrayList<>();
-        String sql = "SELECT * FROM classes";
+        String sql = "SELECT " + CLASS_COLUMNS + " FROM classes";
 
         try (Connection conn = dbManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 classes.add(extractClassFromResultSet(rs));
             }
 
         } catch (SQLException e) {
-            System.err.println("Error getting all classes: " + e.getMessage());
+            log.error("Error getting all classes", "error", e.getMessage());
         }
         return classes;
     }
@@ -108,12 +113,12 @@ public class SqliteClassRepository implements ClassRepository {
 
             int rowsAffected = pstmt.executeUpdate();
             if (rowsAffected > 0) {
-                System.out.println("Class updated");
+                log.debug("Class updated", "classId", gymClass.getClassId());
                 return true;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error updating class: " + e.getMessage());
+            log.error("Error updating class", "error", e.getMessage());
         }
         return false;
     }
@@ -129,12 +134,12 @@ public class SqliteClassRepository implements ClassRepository {
             int rowsAffected = pstmt.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("Class deleted");
+                log.debug("Class deleted", "classId", classId);
                 return true;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error deleting class: " + e.getMessage());
+            log.error("Error deleting class", "error", e.getMessage());
         }
         return false;
     }
@@ -142,39 +147,83 @@ public class SqliteClassRepository implements ClassRepository {
     //Class Schedule
     @Override
     public boolean saveSchedule(ClassSchedule schedule) {
-        String sql = "INSERT INTO class_schedule (class_id, scheduled_date, start_time, end_time, available_spots) VALUES (?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO class_schedule (class_id, scheduled_day, start_second, end_second, available_spots) VALUES (?, ?, ?, ?, ?) RETURNING schedule_id";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, schedule.getClassId());
-            pstmt.setString(2, schedule.getScheduledDate().toString());
-            pstmt.setString(3, schedule.getStartTime().toString());
-            pstmt.setString(4, schedule.getEndTime().toString());
+            pstmt.setLong(2, schedule.getScheduledDate().toEpochDay());
+            pstmt.setInt(3, schedule.getStartTime().toSecondOfDay());
+            pstmt.setInt(4, schedule.getEndTime().toSecondOfDay());
             pstmt.setInt(5, schedule.getAvailableSpots());
 
-            int rowsAffected = pstmt.executeUpdate();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    schedule.setScheduleId(rs.getInt(1));
+                    log.debug("Schedule saved", "scheduleId", schedule.getScheduleId());
+                    return true;
+                }
+            }
 
-            if (rowsAffected > 0) {
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        schedule.setScheduleId(rs.getInt(1));
+        } catch (SQLException e) {
+            log.error("Error saving schedule", "error", e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Inserts all schedules inside a single transaction using multi-row
+     * INSERT ... RETURNING statements, so every generated id comes back in the
+     * same pass as the insert. Either every row is stored or none is.
+     */
+    @Override
+    public boolean saveSchedules(List<ClassSchedule> schedules) {
+        if (schedules.isEmpty()) {
+            return true;
+        }
+        final int columns = 5;
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (int from = 0; from < schedules.size(); from += SqlBatch.MAX_ROWS_PER_INSERT) {
+                    List<ClassSchedule> chunk = schedules.subList(from,
+                            Math.min(from + SqlBatch.MAX_ROWS_PER_INSERT, schedules.size()));
+                    String sql = "INSERT INTO class_schedule (class_id, scheduled_day, start_second, end_second, available_spots) VALUES "
+                            + SqlBatch.valuesClause(chunk.size(), columns) + " RETURNING schedule_id";
+
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                        int i = 1;
+                        for (ClassSchedule schedule : chunk) {
+                            pstmt.setInt(i++, schedule.getClassId());
+                            pstmt.setLong(i++, schedule.getScheduledDate().toEpochDay());
+                            pstmt.setInt(i++, schedule.getStartTime().toSecondOfDay());
+                            pstmt.setInt(i++, schedule.getEndTime().toSecondOfDay());
+                            pstmt.setInt(i++, schedule.getAvailableSpots());
+                        }
+                        int[] ids = SqlBatch.readKeys(pstmt, chunk.size());
+                        for (int k = 0; k < ids.length; k++) {
+                            chunk.get(k).setScheduleId(ids[k]);
+                        }
                     }
                 }
-                System.out.println("Schedule saved: ID " + schedule.getScheduleId());
+                conn.commit();
+                log.debug("Schedules saved", "count", schedules.size());
                 return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
-
         } catch (SQLException e) {
-            System.err.println("Error saving schedule: " + e.getMessage());
+            log.error("Error saving schedules", "error", e.getMessage());
         }
         return false;
     }
 
     @Override
     public ClassSchedule findScheduleById(int scheduleId) {
-        String sql = "SELECT * FROM class_schedule WHERE schedule_id = ?";
+        String sql = "SELECT " + SCHEDULE_COLUMNS + " FROM class_schedule WHERE schedule_id = ?";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -187,7 +236,7 @@ public class SqliteClassRepository implements ClassRepository {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error finding schedule: " + e.getMessage());
+            log.error("Error finding schedule", "error", e.getMessage());
         }
         return null;
     }
@@ -195,7 +244,7 @@ public class SqliteClassRepository implements ClassRepository {
     @Override
     public List<ClassSchedule> findSchedulesByClassId(int classId) {
         List<ClassSchedule> schedules = new ArrayList<>();
-        String sql = "SELECT * FROM class_schedule WHERE class_id = ?";
+        String sql = "SELECT " + SCHEDULE_COLUMNS + " FROM class_schedule WHERE class_id = ?";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -208,7 +257,51 @@ public class SqliteClassRepository implements ClassRepository {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error finding schedules: " + e.getMessage());
+            log.error("Error finding schedules", "error", e.getMessage());
+        }
+        return schedules;
+    }
+
+    @Override
+    public List<ClassSchedule> findSchedulesByDate(LocalDate date) {
+        List<ClassSchedule> schedules = new ArrayList<>();
+        String sql = "SELECT " + SCHEDULE_COLUMNS + " FROM class_schedule WHERE scheduled_day = ? ORDER BY start_second";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setLong(1, date.toEpochDay());
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                schedules.add(extractScheduleFromResultSet(rs));
+            }
+
+        } catch (SQLException e) {
+            log.error("Error finding schedules by date", "date", date, "error", e.getMessage());
+        }
+        return schedules;
+    }
+
+    @Override
+    public List<ClassSchedule> findSchedulesBetween(LocalDate from, LocalDate to) {
+        List<ClassSchedule> schedules = new ArrayList<>();
+        String sql = "SELECT " + SCHEDULE_COLUMNS + " FROM class_schedule WHERE scheduled_day BETWEEN ? AND ? "
+                + "ORDER BY scheduled_day, start_second";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setLong(1, from.toEpochDay());
+            pstmt.setLong(2, to.toEpochDay());
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                schedules.add(extractScheduleFromResultSet(rs));
+            }
+
+        } catch (SQLException e) {
+            log.error("Error finding schedules between dates", "from", from, "to", to, "error", e.getMessage());
         }
         return schedules;
     }
@@ -216,42 +309,68 @@ public class SqliteClassRepository implements ClassRepository {
     @Override
     public List<ClassSchedule> findAllSchedules() {
         List<ClassSchedule> schedules = new ArrayList<>();
-        String sql = "SELECT * FROM class_schedule";
+        String sql = "SELECT " + SCHEDULE_COLUMNS + " FROM class_schedule";
 
         try (Connection conn = dbManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 schedules.add(extractScheduleFromResultSet(rs));
             }
 
         } catch (SQLException e) {
-            System.err.println("Error getting all schedules: " + e.getMessage());
+            log.error("Error getting all schedules", "error", e.getMessage());
         }
         return schedules;
     }
     @Override
     public boolean updateSchedule(ClassSchedule schedule) {
-        String sql = "UPDATE class_schedule SET scheduled_date = ?, start_time = ?, end_time = ?, available_spots = ? WHERE schedule_id = ?";
+        String sql = "UPDATE class_schedule SET scheduled_day = ?, start_second = ?, end_second = ?, available_spots = ? WHERE schedule_id = ?";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, schedule.getScheduledDate().toString());
-            pstmt.setString(2, schedule.getStartTime().toString());
-            pstmt.setString(3, schedule.getEndTime().toString());
+            pstmt.setLong(1, schedule.getScheduledDate().toEpochDay());
+            pstmt.setInt(2, schedule.getStartTime().toSecondOfDay());
+            pstmt.setInt(3, schedule.getEndTime().toSecondOfDay());
             pstmt.setInt(4, schedule.getAvailableSpots());
             pstmt.setInt(5, schedule.getScheduleId());
 
             int rowsAffected = pstmt.executeUpdate();
             if (rowsAffected > 0) {
-                System.out.println("Schedule updated");
+                log.debug("Schedule updated", "scheduleId", schedule.getScheduleId());
                 return true;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error updating schedule: " + e.getMessage());
+            log.error("Error updating schedule", "error", e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean reserveSpot(int scheduleId) {
+        // Check and decrement in one statement so concurrent bookings cannot oversell
+        return adjustSpots("UPDATE class_schedule SET available_spots = available_spots - 1 WHERE schedule_id = ? AND available_spots > 0",
+                scheduleId, "reserving spot");
+    }
+
+    @Override
+    public boolean releaseSpot(int scheduleId) {
+        return adjustSpots("UPDATE class_schedule SET available_spots = available_spots + 1 WHERE schedule_id = ?",
+                scheduleId, "releasing spot");
+    }
+
+    private boolean adjustSpots(String sql, int scheduleId, String action) {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, scheduleId);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            log.error("Error " + action, "scheduleId", scheduleId, "error", e.getMessage());
         }
         return false;
     }
@@ -267,12 +386,12 @@ public class SqliteClassRepository implements ClassRepository {
             int rowsAffected = pstmt.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("Schedule deleted");
+                log.debug("Schedule deleted", "scheduleId", scheduleId);
                 return true;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error deleting schedule: " + e.getMessage());
+            log.error("Error deleting schedule", "error", e.getMessage());
         }
         return false;
     }
@@ -281,25 +400,27 @@ public class SqliteClassRepository implements ClassRepository {
 
     private GymClass extractClassFromResultSet(ResultSet rs) throws SQLException {
         GymClass gymClass = new GymClass(
-                rs.getString("class_name"),
-                rs.getString("instructor_name"),
-                rs.getString("description"),
-                rs.getInt("capacity"),
-                rs.getInt("duration_minutes"),
-                rs.getString("class_type")
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getInt(5),
+                rs.getInt(6),
+                rs.getString(7)
         );
-        gymClass.setClassId(rs.getInt("class_id"));
+        gymClass.setClassId(rs.getInt(1));
         return gymClass;
     }
 
+    // Dates are epoch days and times seconds of day: no text parsing per row
+    // (LocalTime.ofSecondOfDay even returns shared instances for whole hours)
     private ClassSchedule extractScheduleFromResultSet(ResultSet rs) throws SQLException {
         return new ClassSchedule(
-                rs.getInt("schedule_id"),
-                rs.getInt("class_id"),
-                LocalDate.parse(rs.getString("scheduled_date")),
-                LocalTime.parse(rs.getString("start_time")),
-                LocalTime.parse(rs.getString("end_time")),
-                rs.getInt("available_spots")
+                rs.getInt(1),
+                rs.getInt(2),
+                LocalDate.ofEpochDay(rs.getLong(3)),
+                LocalTime.ofSecondOfDay(rs.getInt(4)),
+                LocalTime.ofSecondOfDay(rs.getInt(5)),
+                rs.getInt(6)
         );
     }
 }
\ No newline at end of file
@@ -1,32 +1,179 @@
 package com.gym.repository.sqlite;
 
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
 import com.gym.repository.DatabaseManager;
 
 import java.sql.*;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SqliteDatabaseManager implements DatabaseManager {
+    private static final Logger log = Log.get(SqliteDatabaseManager.class);
+
     private static final String DB_URL = "jdbc:sqlite:gym_database.db";
 
+    // Physical connections kept open between calls, each with its own statement cache
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+    private static final int STATEMENT_CACHE_SIZE = 64;
+    private static final int BUSY_TIMEOUT_MS = 5000;
+
+    private final ConcurrentLinkedDeque<CachingConnection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final StatementCache.Stats statementStats = new StatementCache.Stats();
+    private final String dbUrl;
+    private final List<StatementListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile StatementListener statementListener;   // listeners combined, null if none
+
+    // Connection of the transaction running on this thread (see inTransaction)
+    private final ThreadLocal<CachingConnection> transaction = new ThreadLocal<>();
+
+    public SqliteDatabaseManager() {
+        this(DB_URL);
+    }
+
+    // Lets benchmarks and tools point at another database file
+    public SqliteDatabaseManager(String dbUrl) {
+        this.dbUrl = dbUrl;
+    }
+
+    /**
+     * Borrows a pooled connection (or opens a new one if none is idle).
+     * Closing the returned connection gives it back to the pool, and
+     * prepareStatement(sql) on it reuses already-parsed statements.
+     */
     @Override
     public Connection getConnection() {
+        CachingConnection current = transaction.get();
+        if (current != null) {
+            return current.join();
+        }
+        CachingConnection conn = borrow();
+        return conn == null ? null : conn.lease();
+    }
+
+    /**
+     * Transactions start with BEGIN IMMEDIATE (see CachingConnection.begin), so
+     * the write lock is taken once, up front, and waits on busy_timeout instead
+     * of failing with SQLITE_BUSY halfway through when two writers meet. Returns
+     * true only once COMMIT has succeeded.
+     */
+    @Override
+    public boolean inTransaction(Transaction work) {
+        if (transaction.get() != null) {
+            return work.run();   // joins the outer transaction
+        }
+        CachingConnection conn = borrow();
+        if (conn == null) {
+            return false;
+        }
+        Connection lease = conn.lease();   // closing it at the end returns the connection to the pool
+        transaction.set(conn);
         try {
-            Connection conn = DriverManager.getConnection(DB_URL);
-            return conn;
+            conn.begin();
+            if (work.run()) {
+                conn.commit();
+                return true;
+            }
+            return false;
+        } catch (SQLException e) {
+            log.error("Transaction failed", "error", e.getMessage());
+            return false;
+        } finally {
+            transaction.remove();
+            closeConnection(lease);   // the pool rolls back whatever was not committed
+        }
+    }
+
+    private CachingConnection borrow() {
+        CachingConnection pooled = idle.pollFirst();
+        if (pooled != null) {
+            idleCount.decrementAndGet();
+            return pooled;
+        }
+        try {
+            Connection conn = DriverManager.getConnection(dbUrl);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            }
+            return new CachingConnection(conn, STATEMENT_CACHE_SIZE, statementStats, this::release,
+                    () -> statementListener);
         } catch (SQLException e) {
-            System.err.println("Connection failed: " + e.getMessage());
+            log.error("Connection failed", "error", e.getMessage());
             return null;
         }
     }
 
+    /** Observes every pooled statement execution (metrics, query diagnostics, ...). */
+    public void addStatementListener(StatementListener listener) {
+        listeners.add(listener);
+        statementListener = combine(listeners);
+    }
+
+    public void removeStatementListener(StatementListener listener) {
+        listeners.remove(listener);
+        statementListener = combine(listeners);
+    }
+
+    private static StatementListener combine(List<StatementListener> all) {
+        List<StatementListener> snapshot = List.copyOf(all);
+        if (snapshot.isEmpty()) return null;
+        if (snapshot.size() == 1) return snapshot.get(0);
+        return new StatementListener() {
+            @Override
+            public void statementExecuted(String sql, Object[] parameters, long nanos, SQLException error) {
+                for (StatementListener l : snapshot) {
+                    l.statementExecuted(sql, parameters, nanos, error);
+                }
+            }
+
+            @Override
+            public boolean wantsParameters() {
+                return snapshot.stream().anyMatch(StatementListener::wantsParameters);
+            }
+        };
+    }
+
+    public StatementCache.Stats getStatementCacheStats() {
+        return statementStats;
+    }
+
+    /** Closes every idle pooled connection (connections still in use close on return). */
+    public void shutdown() {
+        CachingConnection conn;
+        while ((conn = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            conn.closePhysical();
+        }
+    }
+
+    private void release(CachingConnection conn) {
+        if (conn.reset()) {
+            if (idleCount.incrementAndGet() <= MAX_IDLE_CONNECTIONS) {
+                idle.offerFirst(conn);
+                return;
+            }
+            idleCount.decrementAndGet();
+        }
+        conn.closePhysical();
+    }
+
     @Override
     public void initializeDatabase() {
-        System.out.println("Initializing database...\n");
+        log.info("Initializing database");
         createUsersTable();
         createClassesTable();
         createClassScheduleTable();
         createBookingsTable();
         createFitnessProgressTable();
-        System.out.println("\nAll tables have been created");
+        createOutboxTables();
+        createWaitlistTable();
+        createRequestKeysTable();
+        migrateTextDatesToEpochs();
+        createIndexes();
+        log.info("All tables have been created");
     }
 
     private void createUsersTable() {
@@ -64,9 +211,9 @@ public class SqliteDatabaseManager implements DatabaseManager {
             CREATE TABLE IF NOT EXISTS class_schedule (
                 schedule_id INTEGER PRIMARY KEY AUTOINCREMENT,
                 class_id INTEGER NOT NULL,
-                scheduled_date TEXT NOT NULL,
-                start_time TEXT NOT NULL,
-                end_time TEXT NOT NULL,
+                scheduled_day INTEGER NOT NULL,
+                start_second INTEGER NOT NULL,
+                end_second INTEGER NOT NULL,
                 available_spots INTEGER NOT NULL,
                 FOREIGN KEY (class_id) REFERENCES classes(class_id)
             )
@@ -80,7 +227,7 @@ public class SqliteDatabaseManager implements DatabaseManager {
                 booking_id INTEGER PRIMARY KEY AUTOINCREMENT,
                 user_id INTEGER NOT NULL,
                 schedule_id INTEGER NOT NULL,
-                booking_date TEXT DEFAULT CURRENT_TIMESTAMP,
+                booked_at INTEGER NOT NULL,
                 status TEXT DEFAULT 'CONFIRMED',
                 FOREIGN KEY (user_id) REFERENCES users(user_id),
                 FOREIGN KEY (schedule_id) REFERENCES class_schedule(schedule_id)
@@ -104,13 +251,223 @@ public class SqliteDatabaseManager implements DatabaseManager {
         executeUpdate(sql, "fitness_progress");
     }
 
+    // Booking events written with the booking change (see OutboxDispatcher), plus per-handler idempotency keys
+    private void createOutboxTables() {
+        String outbox = """
+            CREATE TABLE IF NOT EXISTS outbox (
+                event_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                event_type TEXT NOT NULL,
+                booking_id INTEGER NOT NULL,
+                user_id INTEGER NOT NULL,
+                schedule_id INTEGER NOT NULL,
+                created_at INTEGER NOT NULL,
+                dispatched_at INTEGER,
+                attempts INTEGER NOT NULL DEFAULT 0,
+                last_error TEXT
+            )
+            """;
+        executeUpdate(outbox, "outbox");
+
+        String handled = """
+            CREATE TABLE IF NOT EXISTS outbox_handled (
+                handler TEXT NOT NULL,
+                event_id INTEGER NOT NULL,
+                PRIMARY KEY (handler, event_id)
+            ) WITHOUT ROWID
+            """;
+        executeUpdate(handled, "outbox_handled");
+    }
+
+    private void createWaitlistTable() {
+        String sql = """
+            CREATE TABLE IF NOT EXISTS waitlist (
+                entry_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                schedule_id INTEGER NOT NULL,
+                user_id INTEGER NOT NULL,
+                tier INTEGER NOT NULL DEFAULT 1,
+                joined_at INTEGER NOT NULL,
+                status TEXT NOT NULL DEFAULT 'WAITING',
+                FOREIGN KEY (schedule_id) REFERENCES class_schedule(schedule_id),
+                FOREIGN KEY (user_id) REFERENCES users(user_id)
+            )
+            """;
+        executeUpdate(sql, "waitlist");
+    }
+
+    private void createRequestKeysTable() {
+        // Keyed lookups only; the primary key is the unique index that catches a concurrent duplicate
+        String sql = """
+            CREATE TABLE IF NOT EXISTS request_keys (
+                user_id INTEGER NOT NULL,
+                request_key TEXT NOT NULL,
+                operation TEXT NOT NULL,
+                target_id INTEGER NOT NULL,
+                created_at INTEGER NOT NULL,
+                PRIMARY KEY (user_id, request_key)
+            ) WITHOUT ROWID
+            """;
+        executeUpdate(sql, "request_keys");
+    }
+
+    /**
+     * Databases created before dates were stored as integers still have the
+     * TEXT columns (scheduled_date/start_time/end_time, booking_date). SQLite
+     * cannot change column types in place, so both tables are rebuilt and the
+     * values converted in SQL:
+     *  - scheduled_day = days since 1970-01-01
+     *  - start/end_second = seconds since midnight
+     *  - booked_at = local date-time as seconds since 1970-01-01T00:00
+     */
+    private void migrateTextDatesToEpochs() {
+        boolean schedules = hasColumn("class_schedule", "scheduled_date");
+        boolean bookings = hasColumn("bookings", "booking_date");
+        if (!schedules && !bookings) {
+            return;
+        }
+
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            try {
+                if (schedules) {
+                    stmt.execute("""
+                        CREATE TABLE class_schedule_new (
+                            schedule_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                            class_id INTEGER NOT NULL,
+                            scheduled_day INTEGER NOT NULL,
+                            start_second INTEGER NOT NULL,
+                            end_second INTEGER NOT NULL,
+                            available_spots INTEGER NOT NULL,
+                            FOREIGN KEY (class_id) REFERENCES classes(class_id)
+                        )
+                        """);
+                    stmt.execute("""
+                        INSERT INTO class_schedule_new
+                            (schedule_id, class_id, scheduled_day, start_second, end_second, available_spots)
+                        SELECT schedule_id, class_id,
+                               CAST(ROUND(julianday(scheduled_date) - 2440587.5) AS INTEGER),
+                               CAST(strftime('%s', '1970-01-01 ' || start_time) AS INTEGER),
+                               CAST(strftime('%s', '1970-01-01 ' || end_time) AS INTEGER),
+                               available_spots
+                        FROM class_schedule
+                        """);
+                    stmt.execute("DROP TABLE class_schedule");
+                    stmt.execute("ALTER TABLE class_schedule_new RENAME TO class_schedule");
+                }
+                if (bookings) {
+                    stmt.execute("""
+                        CREATE TABLE bookings_new (
+                            booking_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                            user_id INTEGER NOT NULL,
+                            schedule_id INTEGER NOT NULL,
+                            booked_at INTEGER NOT NULL,
+                            status TEXT DEFAULT 'CONFIRMED',
+                            FOREIGN KEY (user_id) REFERENCES users(user_id),
+                            FOREIGN KEY (schedule_id) REFERENCES class_schedule(schedule_id)
+                        )
+                        """);
+                    stmt.execute("""
+                        INSERT INTO bookings_new (booking_id, user_id, schedule_id, booked_at, status)
+                        SELECT booking_id, user_id, schedule_id,
+                               CAST(COALESCE(strftime('%s', booking_date), strftime('%s', 'now')) AS INTEGER),
+                               status
+                        FROM bookings
+                        """);
+                    stmt.execute("DROP TABLE bookings");
+                    stmt.execute("ALTER TABLE bookings_new RENAME TO bookings");
+                }
+                conn.commit();
+                log.info("Migrated date/time columns to epoch integers");
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            log.error("Error migrating date columns", "error", e.getMessage());
+        }
+    }
+
+    private boolean hasColumn(String table, String column) {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Error reading columns", "table", table, "error", e.getMessage());
+        }
+        return false;
+    }
+
+    private void createIndexes() {
+        // Lets per-schedule status counts be answered from the index alone
+        executeUpdate("CREATE INDEX IF NOT EXISTS idx_bookings_schedule_status ON bookings(schedule_id, status)",
+                "index idx_bookings_schedule_status");
+        // Answers "does this member hold this schedule?" from the index alone; its user_id prefix
+        // also serves the per-member lists, so the older single-column index is dropped (those lists
+        // ORDER BY booking_id: rows come out of this index in schedule order)
+        executeUpdate("CREATE INDEX IF NOT EXISTS idx_bookings_user_schedule_status ON bookings(user_id, schedule_id, status)",
+                "index idx_bookings_user_schedule_status");
+        executeUpdate("DROP INDEX IF EXISTS idx_bookings_user", "drop index idx_bookings_user");
+        createActiveBookingIndex();
+        executeUpdate("CREATE INDEX IF NOT EXISTS idx_schedule_class ON class_schedule(class_id)",
+                "index idx_schedule_class");
+        // A day's timetable, already in start order
+        executeUpdate("CREATE INDEX IF NOT EXISTS idx_schedule_day ON class_schedule(scheduled_day, start_second)",
+                "index idx_schedule_day");
+        // Only undelivered events are indexed, so the dispatcher's poll stays cheap however long the history
+        executeUpdate("CREATE INDEX IF NOT EXISTS idx_outbox_pending ON outbox(event_id) WHERE dispatched_at IS NULL",
+                "index idx_outbox_pending");
+        // Waiting entries only, in promotion order; promoted/left history is not indexed
+        executeUpdate("CREATE INDEX IF NOT EXISTS idx_waitlist_queue ON waitlist(schedule_id, tier, entry_id) " +
+                "WHERE status = 'WAITING'", "index idx_waitlist_queue");
+        // A member waits at most once per schedule
+        executeUpdate("CREATE UNIQUE INDEX IF NOT EXISTS idx_waitlist_member ON waitlist(user_id, schedule_id) " +
+                "WHERE status = 'WAITING'", "index idx_waitlist_member");
+        executeUpdate("CREATE INDEX IF NOT EXISTS idx_request_keys_created ON request_keys(created_at)",
+                "index idx_request_keys_created");
+    }
+
+    /**
+     * One CONFIRMED booking per member and schedule, enforced by the database,
+     * so two concurrent requests cannot both book (the second insert fails and
+     * its transaction rolls back). A database that already holds duplicates
+     * keeps working without the index: they are counted and logged instead.
+     */
+    private void createActiveBookingIndex() {
+        String exists = "SELECT 1 FROM sqlite_master WHERE type = 'index' AND name = 'idx_bookings_one_active'";
+        String duplicates = "SELECT COUNT(*) FROM (SELECT 1 FROM bookings WHERE status = 'CONFIRMED' " +
+                "GROUP BY user_id, schedule_id HAVING COUNT(*) > 1)";
+
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (stmt.executeQuery(exists).next()) {
+                return;
+            }
+            ResultSet rs = stmt.executeQuery(duplicates);
+            int pairs = rs.next() ? rs.getInt(1) : 0;
+            if (pairs > 0) {
+                log.warn("Unique active booking index not created: duplicate CONFIRMED bookings", "pairs", pairs);
+                return;
+            }
+            stmt.execute("CREATE UNIQUE INDEX idx_bookings_one_active ON bookings(user_id, schedule_id) " +
+                    "WHERE status = 'CONFIRMED'");
+            log.debug("Created table", "table", "index idx_bookings_one_active");
+        } catch (SQLException e) {
+            log.error("Error creating table", "table", "index idx_bookings_one_active", "error", e.getMessage());
+        }
+    }
+
     private void executeUpdate(String sql, String tableName) {
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
             stmt.execute(sql);
-            System.out.println("Created table: " + tableName);
+            log.debug("Created table", "table", tableName);
         } catch (SQLException e) {
-            System.err.println("Error creating " + tableName + ": " + e.getMessage());
+            log.error("Error creating table", "table", tableName, "error", e.getMessage());
         }
     }
     public static void closeConnection(Connection conn) {
@@ -119,7 +476,7 @@ public class SqliteDatabaseManager implements DatabaseManager {
                 conn.close();
             }
         } catch (SQLException e) {
-            System.err.println("Error closing connection: " + e.getMessage());
+            log.error("Error closing connection", "error", e.getMessage());
         }
     }
 }
\ No newline at end of file
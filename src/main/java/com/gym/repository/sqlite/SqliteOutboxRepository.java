@@ -0,0 +1,213 @@
+package com.gym.repository.sqlite;
+
+import com.gym.domain.OutboxEvent;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.DatabaseManager;
+import com.gym.repository.OutboxRepository;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SqliteOutboxRepository implements OutboxRepository {
+    private static final Logger log = Log.get(SqliteOutboxRepository.class);
+
+    // Longest error text kept per event
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final DatabaseManager dbManager;
+
+    public SqliteOutboxRepository(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    @Override
+    public boolean append(OutboxEvent event) {
+        String sql = "INSERT INTO outbox (event_type, booking_id, user_id, schedule_id, created_at) " +
+                "VALUES (?, ?, ?, ?, ?) RETURNING event_id";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, event.getEventType());
+            pstmt.setInt(2, event.getBookingId());
+            pstmt.setInt(3, event.getUserId());
+            pstmt.setInt(4, event.getScheduleId());
+            pstmt.setLong(5, event.getCreatedMillis());
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    event.setEventId(rs.getLong(1));
+                    return true;
+                }
+            }
+
+        } catch (SQLException e) {
+            log.error("Error appending outbox event", "eventType", event.getEventType(), "error", e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public List<OutboxEvent> findPending(int limit) {
+        List<OutboxEvent> events = new ArrayList<>();
+        String sql = "SELECT event_id, event_type, booking_id, user_id, schedule_id, created_at, attempts " +
+                "FROM outbox WHERE dispatched_at IS NULL ORDER BY event_id LIMIT ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                events.add(new OutboxEvent(
+                        rs.getLong("event_id"),
+                        rs.getString("event_type"),
+                        rs.getInt("booking_id"),
+                        rs.getInt("user_id"),
+                        rs.getInt("schedule_id"),
+                        rs.getLong("created_at"),
+                        rs.getInt("attempts")));
+            }
+
+        } catch (SQLException e) {
+            log.error("Error reading outbox", "error", e.getMessage());
+        }
+        return events;
+    }
+
+    @Override
+    public boolean markDispatched(List<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return true;
+        }
+        String sql = "UPDATE outbox SET dispatched_at = ? WHERE event_id = ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            long now = System.currentTimeMillis();
+            for (long eventId : eventIds) {
+                pstmt.setLong(1, now);
+                pstmt.setLong(2, eventId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            return true;
+
+        } catch (SQLException e) {
+            log.error("Error marking outbox events dispatched", "count", eventIds.size(), "error", e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean recordFailure(long eventId, String error, boolean giveUp) {
+        // An event given up on is marked dispatched so it leaves the queue; last_error keeps the reason
+        String sql = "UPDATE outbox SET attempts = attempts + 1, last_error = ?, " +
+                "dispatched_at = CASE WHEN ? THEN ? ELSE NULL END WHERE event_id = ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            String text = error == null ? "" : error;
+            pstmt.setString(1, text.length() > MAX_ERROR_LENGTH ? text.substring(0, MAX_ERROR_LENGTH) : text);
+            pstmt.setBoolean(2, giveUp);
+            pstmt.setLong(3, System.currentTimeMillis());
+            pstmt.setLong(4, eventId);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            log.error("Error recording outbox failure", "eventId", eventId, "error", e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public long oldestPendingMillis() {
+        String sql = "SELECT MIN(created_at) FROM outbox WHERE dispatched_at IS NULL";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getLong(1) : 0;
+
+        } catch (SQLException e) {
+            log.error("Error reading outbox lag", "error", e.getMessage());
+        }
+        return 0;
+    }
+
+    @Override
+    public int countPending() {
+        String sql = "SELECT COUNT(*) FROM outbox WHERE dispatched_at IS NULL";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException e) {
+            log.error("Error counting outbox events", "error", e.getMessage());
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean markHandled(String handler, long eventId) {
+        String sql = "INSERT OR IGNORE INTO outbox_handled (handler, event_id) VALUES (?, ?)";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, handler);
+            pstmt.setLong(2, eventId);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            log.error("Error recording handled event", "handler", handler, "eventId", eventId, "error", e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isHandled(String handler, long eventId) {
+        String sql = "SELECT 1 FROM outbox_handled WHERE handler = ? AND event_id = ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, handler);
+            pstmt.setLong(2, eventId);
+            return pstmt.executeQuery().next();
+
+        } catch (SQLException e) {
+            log.error("Error reading handled event", "handler", handler, "eventId", eventId, "error", e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public int deleteDispatchedBefore(long millis) {
+        String keys = "DELETE FROM outbox_handled WHERE event_id IN " +
+                "(SELECT event_id FROM outbox WHERE dispatched_at IS NOT NULL AND dispatched_at < ?)";
+        String events = "DELETE FROM outbox WHERE dispatched_at IS NOT NULL AND dispatched_at < ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement deleteKeys = conn.prepareStatement(keys);
+             PreparedStatement deleteEvents = conn.prepareStatement(events)) {
+
+            deleteKeys.setLong(1, millis);
+            deleteKeys.executeUpdate();
+            deleteEvents.setLong(1, millis);
+            return deleteEvents.executeUpdate();
+
+        } catch (SQLException e) {
+            log.error("Error purging outbox", "error", e.getMessage());
+        }
+        return 0;
+    }
+}
@@ -1,6 +1,8 @@
 package com.gym.repository.sqlite;
 
 import com.gym.domain.FitnessProgress;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
 import com.gym.repository.DatabaseManager;
 import com.gym.repository.ProgressRepository;
 
@@ -10,16 +12,20 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class SqliteProgressRepository implements ProgressRepository {
+    private static final Logger log = Log.get(SqliteProgressRepository.class);
 
     private final DatabaseManager dbManager;
 
+    // Column order used by extractProgressFromResultSet
+    private static final String PROGRESS_COLUMNS = "progress_id, user_id, category, total_points, last_updated";
+
     public SqliteProgressRepository(DatabaseManager dbManager) {
         this.dbManager = dbManager;
     }
 
     @Override
     public boolean save(FitnessProgress progress) {
-        String sql = "INSERT INTO fitness_progress (user_id, category, total_points, last_updated) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO fitness_progress (user_id, category, total_points, last_updated) VALUES (?, ?, ?, ?) RETURNING progress_id";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -29,26 +35,22 @@ public class SqliteProgressRepository implements ProgressRepository {
             pstmt.setInt(3, progress.getTotalPoints());
             pstmt.setString(4, progress.getLastUpdated().toString());
 
-            int rowsAffected = pstmt.executeUpdate();
-            if (rowsAffected > 0) {
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        progress.setProgressId(rs.getInt(1));
-                    }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    progress.setProgressId(rs.getInt(1));
+                    log.debug("Progress saved", "userId", progress.getUserId(), "category", progress.getCategory());
+                    return true;
                 }
-                System.out.println("Progress saved: " + progress.getCategory());
-                return true;
             }
         } catch (SQLException e) {
-            System.err.println("Error saving progress: " + e.getMessage());
+            log.error("Error saving progress", "error", e.getMessage());
         }
         return false;
     }
 
     @Override
     public FitnessProgress findById(int progressId) {
-        String sql = "SELECT * FROM fitness_progress WHERE progress_id = ?";
+        String sql = "SELECT " + PROGRESS_COLUMNS + " FROM fitness_progress WHERE progress_id = ?";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -61,13 +63,13 @@ public class SqliteProgressRepository implements ProgressRepository {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error finding progress: " + e.getMessage());
+            log.error("Error finding progress", "error", e.getMessage());
         }
         return null;
     }
     @Override
     public FitnessProgress findByUserIdAndCategory(int userId, String category) {
-        String sql = "SELECT * FROM fitness_progress WHERE user_id = ? AND category = ?";
+        String sql = "SELECT " + PROGRESS_COLUMNS + " FROM fitness_progress WHERE user_id = ? AND category = ?";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -79,14 +81,14 @@ public class SqliteProgressRepository implements ProgressRepository {
                 return extractProgressFromResultSet(rs);
             }
         } catch (SQLException e) {
-            System.err.println("Error finding progress: " + e.getMessage());
+            log.error("Error finding progress", "error", e.getMessage());
         }
         return null;
     }
     @Override
     public List<FitnessProgress> findByUserId(int userId) {
         List<FitnessProgress> progressList = new ArrayList<>();
-        String sql = "SELECT * FROM fitness_progress WHERE user_id = ? ORDER BY total_points DESC";
+        String sql = "SELECT " + PROGRESS_COLUMNS + " FROM fitness_progress WHERE user_id = ? ORDER BY total_points DESC";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -99,24 +101,24 @@ public class SqliteProgressRepository implements ProgressRepository {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error finding progress: " + e.getMessage());
+            log.error("Error finding progress", "error", e.getMessage());
         }
         return progressList;
     }
     @Override
     public List<FitnessProgress> findAll() {
         List<FitnessProgress> progressList = new ArrayList<>();
-        String sql = "SELECT * FROM fitness_progress ORDER BY total_points DESC";
+        String sql = "SELECT " + PROGRESS_COLUMNS + " FROM fitness_progress ORDER BY total_points DESC";
 
         try (Connection conn = dbManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 progressList.add(extractProgressFromResultSet(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error getting all progress: " + e.getMessage());
+            log.error("Error getting all progress", "error", e.getMessage());
         }
         return progressList;
     }
@@ -134,12 +136,12 @@ public class SqliteProgressRepository implements ProgressRepository {
 
             int rowsAffected = pstmt.executeUpdate();
             if (rowsAffected > 0) {
-                System.out.println("Progress updated");
+                log.debug("Progress updated", "progressId", progress.getProgressId());
                 return true;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error updating progress: " + e.getMessage());
+            log.error("Error updating progress", "error", e.getMessage());
         }
         return false;
     }
@@ -154,22 +156,22 @@ public class SqliteProgressRepository implements ProgressRepository {
             int rowsAffected = pstmt.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("Progress deleted");
+                log.debug("Progress deleted", "progressId", progressId);
                 return true;
             }
         } catch (SQLException e) {
-            System.err.println("Error deleting progress: " + e.getMessage());
+            log.error("Error deleting progress", "error", e.getMessage());
         }
         return false;
     }
 
     private FitnessProgress extractProgressFromResultSet(ResultSet rs) throws SQLException {
         return new FitnessProgress(
-                rs.getInt("progress_id"),
-                rs.getInt("user_id"),
-                rs.getString("category"),
-                rs.getInt("total_points"),
-                LocalDate.parse(rs.getString("last_updated"))
+                rs.getInt(1),
+                rs.getInt(2),
+                rs.getString(3),
+                rs.getInt(4),
+                LocalDate.parse(rs.getString(5))
         );
     }
 }
\ No newline at end of file
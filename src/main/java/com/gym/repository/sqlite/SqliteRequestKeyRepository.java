@@ -0,0 +1,77 @@
+package com.gym.repository.sqlite;
+
+import com.gym.domain.RequestKey;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.DatabaseManager;
+import com.gym.repository.RequestKeyRepository;
+
+import java.sql.*;
+
+public class SqliteRequestKeyRepository implements RequestKeyRepository {
+    private static final Logger log = Log.get(SqliteRequestKeyRepository.class);
+
+    private final DatabaseManager dbManager;
+
+    public SqliteRequestKeyRepository(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    @Override
+    public boolean save(RequestKey requestKey) {
+        String sql = "INSERT INTO request_keys (user_id, request_key, operation, target_id, created_at) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, requestKey.getUserId());
+            pstmt.setString(2, requestKey.getKey());
+            pstmt.setString(3, requestKey.getOperation());
+            pstmt.setInt(4, requestKey.getTargetId());
+            pstmt.setLong(5, requestKey.getCreatedMillis());
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            // Also the primary key: the same key was stored concurrently
+            log.warn("Error saving request key", "userId", requestKey.getUserId(), "error", e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public RequestKey find(int userId, String key) {
+        String sql = "SELECT operation, target_id, created_at FROM request_keys WHERE user_id = ? AND request_key = ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setString(2, key);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return new RequestKey(userId, key, rs.getString("operation"), rs.getInt("target_id"),
+                        rs.getLong("created_at"));
+            }
+
+        } catch (SQLException e) {
+            log.error("Error finding request key", "userId", userId, "error", e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public int deleteBefore(long millis) {
+        String sql = "DELETE FROM request_keys WHERE created_at < ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setLong(1, millis);
+            return pstmt.executeUpdate();
+
+        } catch (SQLException e) {
+            log.error("Error purging request keys", "error", e.getMessage());
+        }
+        return 0;
+    }
+}
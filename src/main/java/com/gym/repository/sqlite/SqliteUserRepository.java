@@ -1,55 +1,58 @@
 package com.gym.repository.sqlite;
-import com.gym.repository.DatabaseManager;
 
 import com.gym.domain.User;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.DatabaseManager;
 import com.gym.repository.UserRepository;
+import com.gym.utils.PasswordUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class SqliteUserRepository implements UserRepository {
+    private static final Logger log = Log.get(SqliteUserRepository.class);
 
     private final DatabaseManager dbManager;
 
+    // Column order used by extractUserFromResultSet
+    private static final String USER_COLUMNS = "user_id, username, password, email, role, created_at";
+
     public SqliteUserRepository(DatabaseManager dbManager) {
         this.dbManager = dbManager;
     }
 
     @Override
     public boolean save(User user) {
-        String sql = "INSERT INTO users (username, password, email, role) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO users (username, password, email, role) VALUES (?, ?, ?, ?) RETURNING user_id";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, user.getUsername());
-            pstmt.setString(2, user.getPassword());
+            // Always a password as typed: one that looks like a hash is hashed too
+            pstmt.setString(2, PasswordUtil.hash(user.getPassword()));
             pstmt.setString(3, user.getEmail());
             pstmt.setString(4, user.getRole());
 
-            int rowsAffected = pstmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        user.setUserId(rs.getInt(1));
-                    }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    user.setUserId(rs.getInt(1));
+                    log.debug("User saved", "userId", user.getUserId(), "username", user.getUsername());
+                    return true;
                 }
-                System.out.println("User saved: " + user.getUsername());
-                return true;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error saving user: " + e.getMessage());
+            log.error("Error saving user", "error", e.getMessage());
         }
         return false;
     }
 
     @Override
     public User findById(int userId) {
-        String sql = "SELECT * FROM users WHERE user_id = ?";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users WHERE user_id = ?";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -62,14 +65,14 @@ public class SqliteUserRepository implements UserRepository {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error finding user: " + e.getMessage());
+            log.error("Error finding user", "error", e.getMessage());
         }
         return null;
     }
 
     @Override
     public User findByUsername(String username) {
-        String sql = "SELECT * FROM users WHERE username = ?";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users WHERE username = ?";
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -82,7 +85,7 @@ public class SqliteUserRepository implements UserRepository {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error finding user: " + e.getMessage());
+            log.error("Error finding user", "error", e.getMessage());
         }
         return null;
     }
@@ -90,18 +93,18 @@ public class SqliteUserRepository implements UserRepository {
     @Override
     public List<User> findAll() {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users";
 
         try (Connection conn = dbManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 users.add(extractUserFromResultSet(rs));
             }
 
         } catch (SQLException e) {
-            System.err.println("Error getting all users: " + e.getMessage());
+            log.error("Error getting all users", "error", e.getMessage());
         }
         return users;
     }
@@ -119,12 +122,32 @@ public class SqliteUserRepository implements UserRepository {
 
             int rowsAffected = pstmt.executeUpdate();
             if (rowsAffected > 0) {
-                System.out.println("User updated: " + user.getUsername());
+                log.debug("User updated", "userId", user.getUserId(), "username", user.getUsername());
+                return true;
+            }
+
+        } catch (SQLException e) {
+            log.error("Error updating user", "error", e.getMessage());
+        }
+        return false;
+    }
+    @Override
+    public boolean updatePassword(int userId, String passwordHash) {
+        String sql = "UPDATE users SET password = ? WHERE user_id = ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, passwordHash);
+            pstmt.setInt(2, userId);
+
+            if (pstmt.executeUpdate() > 0) {
+                log.info("Password updated", "userId", userId);
                 return true;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error updating user: " + e.getMessage());
+            log.error("Error updating password", "error", e.getMessage());
         }
         return false;
     }
@@ -138,30 +161,22 @@ public class SqliteUserRepository implements UserRepository {
             int rowsAffected = pstmt.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("User deleted");
+                log.debug("User deleted", "userId", userId);
                 return true;
             }
         } catch (SQLException e) {
-            System.err.println("Error deleting user: " + e.getMessage());
+            log.error("Error deleting user", "error", e.getMessage());
         }
         return false;
     }
-    @Override
-    public User validateLogin(String username, String password) {
-        User user = findByUsername(username);
-        if (user != null && user.getPassword().equals(password)) {
-            return user;
-        }
-        return null;
-    }
     private User extractUserFromResultSet(ResultSet rs) throws SQLException {
         return new User(
-                rs.getInt("user_id"),
-                rs.getString("username"),
-                rs.getString("password"),
-                rs.getString("email"),
-                rs.getString("role"),
-                rs.getString("created_at")
+                rs.getInt(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getString(6)
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.gym.repository.sqlite;
+
+import com.gym.domain.WaitlistEntry;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.DatabaseManager;
+import com.gym.repository.WaitlistRepository;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SqliteWaitlistRepository implements WaitlistRepository {
+    private static final Logger log = Log.get(SqliteWaitlistRepository.class);
+
+    // Column order used by extractEntry
+    private static final String ENTRY_COLUMNS = "entry_id, schedule_id, user_id, tier, joined_at, status";
+
+    private final DatabaseManager dbManager;
+
+    public SqliteWaitlistRepository(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    @Override
+    public boolean save(WaitlistEntry entry) {
+        String sql = "INSERT INTO waitlist (schedule_id, user_id, tier, joined_at, status) VALUES (?, ?, ?, ?, ?) RETURNING entry_id";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, entry.getScheduleId());
+            pstmt.setInt(2, entry.getUserId());
+            pstmt.setInt(3, entry.getTier());
+            pstmt.setLong(4, entry.getJoinedMillis());
+            pstmt.setString(5, entry.getStatus());
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    entry.setEntryId(rs.getLong(1));
+                    return true;
+                }
+            }
+
+        } catch (SQLException e) {
+            // Also the unique index: the user is already waiting for this schedule
+            log.error("Error saving waitlist entry", "userId", entry.getUserId(), "scheduleId", entry.getScheduleId(),
+                    "error", e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaiting(int scheduleId) {
+        String sql = "SELECT " + ENTRY_COLUMNS + " FROM waitlist " +
+                "WHERE schedule_id = ? AND status = 'WAITING' ORDER BY tier, entry_id";
+        return query(sql, scheduleId, "Error reading waitlist");
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaitingByUser(int userId) {
+        String sql = "SELECT " + ENTRY_COLUMNS + " FROM waitlist " +
+                "WHERE user_id = ? AND status = 'WAITING' ORDER BY joined_at";
+        return query(sql, userId, "Error reading user waitlist entries");
+    }
+
+    @Override
+    public boolean updateStatus(long entryId, String expectedStatus, String newStatus) {
+        String sql = "UPDATE waitlist SET status = ? WHERE entry_id = ? AND status = ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, newStatus);
+            pstmt.setLong(2, entryId);
+            pstmt.setString(3, expectedStatus);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            log.error("Error updating waitlist entry", "entryId", entryId, "error", e.getMessage());
+        }
+        return false;
+    }
+
+    private List<WaitlistEntry> query(String sql, int id, String errorMessage) {
+        List<WaitlistEntry> entries = new ArrayList<>();
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                entries.add(extractEntry(rs));
+            }
+
+        } catch (SQLException e) {
+            log.error(errorMessage, "id", id, "error", e.getMessage());
+        }
+        return entries;
+    }
+
+    private WaitlistEntry extractEntry(ResultSet rs) throws SQLException {
+        return new WaitlistEntry(
+                rs.getLong("entry_id"),
+                rs.getInt("schedule_id"),
+                rs.getInt("user_id"),
+                rs.getInt("tier"),
+                rs.getLong("joined_at"),
+                rs.getString("status"));
+    }
+}
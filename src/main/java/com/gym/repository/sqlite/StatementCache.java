@@ -0,0 +1,89 @@
+package com.gym.repository.sqlite;
+
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of prepared statements for ONE physical connection,
+ * keyed by SQL text. A connection is only ever used by one thread at a time
+ * (see SqliteDatabaseManager), so the map itself needs no locking.
+ */
+public class StatementCache {
+    private static final Logger log = Log.get(StatementCache.class);
+
+    /** Hit / miss / eviction counters shared by every cache of one DatabaseManager. */
+    public static class Stats {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+
+        public long getHits() { return hits.sum(); }
+        public long getMisses() { return misses.sum(); }
+        public long getEvictions() { return evictions.sum(); }
+
+        @Override
+        public String toString() {
+            return "StatementCache{hits=" + getHits() +
+                    ", misses=" + getMisses() +
+                    ", evictions=" + getEvictions() +
+                    '}';
+        }
+    }
+
+    private final Connection physical;
+    private final Stats stats;
+    private final Map<String, PreparedStatement> statements;
+
+    StatementCache(Connection physical, int maxSize, Stats stats) {
+        this.physical = physical;
+        this.stats = stats;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    closeQuietly(eldest.getValue());
+                    stats.evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** Returns the cached statement for this SQL, preparing it on a miss. */
+    PreparedStatement get(String sql) throws SQLException {
+        PreparedStatement cached = statements.get(sql);
+        if (cached != null && !cached.isClosed()) {
+            stats.hits.increment();
+            return cached;
+        }
+        stats.misses.increment();
+        PreparedStatement fresh = physical.prepareStatement(sql);
+        statements.put(sql, fresh);
+        return fresh;
+    }
+
+    void closeAll() {
+        Iterator<PreparedStatement> it = statements.values().iterator();
+        while (it.hasNext()) {
+            closeQuietly(it.next());
+            it.remove();
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement pstmt) {
+        try {
+            pstmt.close();
+        } catch (SQLException e) {
+            log.error("Error closing cached statement", "error", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.gym.repository.sqlite;
+
+import java.sql.SQLException;
+
+/**
+ * Notified after every execute call on a pooled prepared statement.
+ * Runs on the calling thread, so implementations must be cheap.
+ */
+public interface StatementListener {
+
+    /** parameters holds the bound values (index 0 = parameter 1), or null if nobody asked for them. */
+    void statementExecuted(String sql, Object[] parameters, long nanos, SQLException error);
+
+    /** Whether bound parameters should be recorded; costs a little on every setXxx call. */
+    default boolean wantsParameters() {
+        return false;
+    }
+}
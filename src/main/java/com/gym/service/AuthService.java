@@ -2,9 +2,23 @@ package com.gym.service;
 
 import com.gym.domain.User;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
+    // null for wrong credentials; throws TooManyRequestsException when the attempt is throttled
     User login(String username, String password);
+    // source: client address for per-source throttling (null for the local kiosk UI)
+    User login(String username, String password, String source);
+    // Same as login, run on a small bounded pool (password hashing is slow);
+    // fails fast with TooManyRequestsException when the pool is full
+    CompletableFuture<User> loginAsync(String username, String password);
     boolean register(String username, String password, String email, String role);
-    void logout();
-    User getCurrentUser();
+    // Same as register on the same pool (the new password is hashed)
+    CompletableFuture<Boolean> registerAsync(String username, String password, String email, String role);
+
+    // Sessions: one per logged-in user (kiosk UI or remote client), identified by an opaque token
+    Session startSession(User user);
+    Session getSession(String token);   // null if unknown or expired
+    void logout(String token);
+    int endSessions(int userId);        // e.g. after deleting the account
 }
\ No newline at end of file
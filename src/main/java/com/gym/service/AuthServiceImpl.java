@@ -1,77 +1,157 @@
 package com.gym.service;
 
 import com.gym.domain.User;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
 import com.gym.repository.UserRepository;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class AuthServiceImpl implements AuthService {
+    private static final Logger log = Log.get(AuthServiceImpl.class);
+
+    // PBKDF2 is CPU-bound: a few threads and a short queue, so a check-in rush fails fast instead of piling up
+    private static final int HASH_THREADS = Integer.getInteger("gym.password.threads",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int HASH_QUEUE = Integer.getInteger("gym.password.queue", 64);
+
     private final UserRepository userRepository;
-    private User currentUser = null;
+    private final LoginThrottle throttle;
+    private final SessionRegistry sessions;
+    private final ThreadPoolExecutor hashExecutor;
 
     public AuthServiceImpl(UserRepository userRepository) {
+        this(userRepository, new LoginThrottle(), new SessionRegistry());
+    }
+
+    public AuthServiceImpl(UserRepository userRepository, LoginThrottle throttle, SessionRegistry sessions) {
         this.userRepository = userRepository;
+        this.throttle = throttle;
+        this.sessions = sessions;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashExecutor = new ThreadPoolExecutor(HASH_THREADS, HASH_THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(HASH_QUEUE), r -> {
+                    Thread t = new Thread(r, "gym-password-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.hashExecutor.allowCoreThreadTimeOut(true);
     }
 
     @Override
     public User login(String username, String password) {
+        return login(username, password, null);
+    }
+
+    @Override
+    public User login(String username, String password, String source) {
         if (username == null || username.isEmpty()) {
-            System.err.println("Username cannot be empty");
+            log.warn("Login rejected: username empty");
             return null;
         }
         if (password == null || password.isEmpty()) {
-            System.err.println("Password cannot be empty");
+            log.warn("Login rejected: password empty", "username", username);
             return null;
         }
+        // Checked before any query or hashing, so a login storm costs neither
+        if (!throttle.tryAcquire(username, source)) {
+            log.warn("Login rejected: too many attempts", "username", username, "source", source);
+            throw new TooManyRequestsException("Too many login attempts, try again later");
+        }
         User user = userRepository.validateLogin(username, password);
 
         if (user != null) {
-            currentUser = user;
-            System.out.println("Login successful: " + user.getUsername());
+            log.info("Login successful", "userId", user.getUserId(), "username", user.getUsername());
         } else {
-            System.err.println("Invalid username or password");
+            log.warn("Login failed: invalid username or password", "username", username);
         }
 
         return user;
     }
 
+    @Override
+    public CompletableFuture<User> loginAsync(String username, String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> login(username, password), hashExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Login rejected: too many logins in progress", "username", username, "queued", hashExecutor.getQueue().size());
+            return CompletableFuture.failedFuture(new TooManyRequestsException("Too many logins in progress"));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> registerAsync(String username, String password, String email, String role) {
+        try {
+            return CompletableFuture.supplyAsync(() -> register(username, password, email, role), hashExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Registration rejected: too many requests in progress", "username", username,
+                    "queued", hashExecutor.getQueue().size());
+            return CompletableFuture.failedFuture(new TooManyRequestsException("Too many registrations in progress"));
+        }
+    }
+
     @Override
     public boolean register(String username, String password, String email, String role) {
         if (username == null || username.length() < 3) {
-            System.err.println("Username must be at least 3 characters");
+            log.warn("Registration rejected: username must be at least 3 characters", "username", username);
             return false;
         }
         if (password == null || password.length() < 6) {
-            System.err.println("Password must be at least 6 characters");
+            log.warn("Registration rejected: password must be at least 6 characters", "username", username);
             return false;
         }
         if (email == null || !email.contains("@")) {
-            System.err.println("Invalid email format");
+            log.warn("Registration rejected: invalid email format", "username", username);
             return false;
         }
         if (!role.equals("ADMIN") && !role.equals("TRAINER") && !role.equals("MEMBER")) {
-            System.err.println("Invalid role. Must be ADMIN, TRAINER, or MEMBER");
+            log.warn("Registration rejected: role must be ADMIN, TRAINER or MEMBER", "username", username, "role", role);
             return false;
         }
         if (userRepository.findByUsername(username) != null) {
-            System.err.println("Username already taken");
+            log.warn("Registration rejected: username already taken", "username", username);
             return false;
         }
         User newUser = new User(username, password, email, role);
         boolean saved = userRepository.save(newUser);
 
         if (saved) {
-            System.out.println("Registration successful: " + username);
+            log.info("Registration successful", "userId", newUser.getUserId(), "username", username, "role", role);
         }
         return saved;
     }
     @Override
-    public void logout() {
-        if (currentUser != null) {
-            System.out.println("Logged out: " + currentUser.getUsername());
-            currentUser = null;
+    public Session startSession(User user) {
+        Session session = sessions.create(user);
+        log.info("Session started", "userId", user.getUserId(), "role", user.getRole(), "active", sessions.size());
+        return session;
+    }
+
+    @Override
+    public Session getSession(String token) {
+        return sessions.get(token);
+    }
+
+    @Override
+    public void logout(String token) {
+        Session session = sessions.get(token);
+        if (session != null && sessions.invalidate(token)) {
+            log.info("Logged out", "userId", session.getUserId(), "username", session.getUser().getUsername());
         }
     }
+
     @Override
-    public User getCurrentUser() {
-        return currentUser;
+    public int endSessions(int userId) {
+        int ended = sessions.invalidateUser(userId);
+        if (ended > 0) {
+            log.info("Sessions ended", "userId", userId, "count", ended);
+        }
+        return ended;
     }
 }
\ No newline at end of file
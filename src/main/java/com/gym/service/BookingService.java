@@ -2,18 +2,31 @@ package com.gym.service;
 
 import com.gym.domain.Booking;
 import com.gym.domain.ClassSchedule;
+import com.gym.domain.WaitlistEntry;
 import java.util.List;
 
 public interface BookingService {
     boolean bookClass(int userId, int scheduleId);
     boolean cancelBooking(int bookingId, int userId);
 
+    // With a client request key: a retry of the same request returns its first result instead of running again
+    boolean bookClass(int userId, int scheduleId, String requestKey);
+    boolean cancelBooking(int bookingId, int userId, String requestKey);
+
     Booking getBookingById(int bookingId);
     List<Booking> getUserBookings(int userId);
     List<Booking> getScheduleBookings(int scheduleId);
+    int countConfirmedBookings(int scheduleId);
 
     boolean isScheduleAvailable(int scheduleId);
     boolean hasUserBooked(int userId, int scheduleId);
 
     boolean markAttended(int bookingId);
+
+    // Waitlist of a full class; a cancellation books the next member in line
+    boolean joinWaitlist(int userId, int scheduleId);
+    boolean joinWaitlist(int userId, int scheduleId, int tier);
+    boolean leaveWaitlist(int userId, int scheduleId);
+    int getWaitlistPosition(int userId, int scheduleId);   // 1-based, 0 if not waiting
+    List<WaitlistEntry> getUserWaitlist(int userId);
 }
\ No newline at end of file
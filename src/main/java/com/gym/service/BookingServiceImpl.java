@@ -3,86 +3,373 @@ package com.gym.service;
 import com.gym.domain.Booking;
 import com.gym.domain.ClassSchedule;
 import com.gym.domain.GymClass;
+import com.gym.domain.OutboxEvent;
+import com.gym.domain.RequestKey;
+import com.gym.domain.WaitlistEntry;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.metrics.jfr.BookingEvent;
 import com.gym.repository.BookingRepository;
 import com.gym.repository.ClassRepository;
+import com.gym.repository.DatabaseManager;
 
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Booking rules. With an outbox (the app's wiring), each change and its
+ * booking event commit in one transaction, and side effects such as XP
+ * awards run later in OutboxDispatcher handlers. Without one (benchmarks,
+ * older callers), XP is awarded inline and no transaction is used. Built
+ * with builder(): see Builder for what is required and what is optional.
+ *
+ * With a waitlist, a cancellation hands its spot straight to the next member
+ * in line, in the cancelling transaction, and members may only join the
+ * list of a full class (so nobody waits while spots are free).
+ *
+ * Booking and cancelling also take an optional client request key: the key
+ * commits with the change, and a retry with the same key returns the first
+ * result without running again (see IdempotentRequests).
+ */
 public class BookingServiceImpl implements BookingService {
+    private static final Logger log = Log.get(BookingServiceImpl.class);
+
     private final BookingRepository bookingRepository;
     private final ClassRepository classRepository;
     private final ProgressService progressService;
+    private final SeatAvailabilityBus seatBus;
+    private final DatabaseManager transactions;   // null: no transactions, XP inline
+    private final OutboxDispatcher outbox;
+    private final Waitlist waitlist;               // null: no waitlist
+    private final IdempotentRequests requests;     // null: request keys are ignored
+
+    /** Starts wiring a service; the collaborators not set on the builder are left out. */
+    public static Builder builder(BookingRepository bookingRepository, ClassRepository classRepository,
+                                  ProgressService progressService) {
+        return new Builder(bookingRepository, classRepository, progressService);
+    }
 
-    public BookingServiceImpl(BookingRepository bookingRepository, ClassRepository classRepository, ProgressService progressService) {
+    private BookingServiceImpl(BookingRepository bookingRepository, ClassRepository classRepository,
+                               ProgressService progressService, SeatAvailabilityBus seatBus,
+                               DatabaseManager transactions, OutboxDispatcher outbox, Waitlist waitlist,
+                               IdempotentRequests requests) {
         this.bookingRepository = bookingRepository;
         this.classRepository = classRepository;
         this.progressService = progressService;
+        this.seatBus = seatBus;
+        this.transactions = transactions;
+        this.outbox = outbox;
+        this.waitlist = waitlist;
+        this.requests = requests;
+    }
+
+    /**
+     * Repositories and progress service are required; everything else is
+     * optional. The app sets all of it (see AppConfig).
+     */
+    public static final class Builder {
+        private final BookingRepository bookingRepository;
+        private final ClassRepository classRepository;
+        private final ProgressService progressService;
+        private SeatAvailabilityBus seatBus = new SeatAvailabilityBus();   // optional: a private bus by default
+        private DatabaseManager transactions;   // optional: without it no transactions, and XP inline
+        private OutboxDispatcher outbox;        // optional: needs transactions
+        private Waitlist waitlist;              // optional
+        private IdempotentRequests requests;    // optional: request keys are ignored without it
+
+        private Builder(BookingRepository bookingRepository, ClassRepository classRepository,
+                        ProgressService progressService) {
+            this.bookingRepository = bookingRepository;
+            this.classRepository = classRepository;
+            this.progressService = progressService;
+        }
+
+        public Builder seatBus(SeatAvailabilityBus seatBus) {
+            this.seatBus = seatBus;
+            return this;
+        }
+
+        public Builder transactions(DatabaseManager transactions) {
+            this.transactions = transactions;
+            return this;
+        }
+
+        public Builder outbox(OutboxDispatcher outbox) {
+            this.outbox = outbox;
+            return this;
+        }
+
+        public Builder waitlist(Waitlist waitlist) {
+            this.waitlist = waitlist;
+            return this;
+        }
+
+        public Builder requestKeys(IdempotentRequests requests) {
+            this.requests = requests;
+            return this;
+        }
+
+        public BookingServiceImpl build() {
+            if (outbox != null && transactions == null) {
+                throw new IllegalStateException("An outbox needs transactions: events commit with their change");
+            }
+            return new BookingServiceImpl(bookingRepository, classRepository, progressService, seatBus,
+                    transactions, outbox, waitlist, requests);
+        }
     }
+
     @Override
     public boolean bookClass(int userId, int scheduleId) {
+        return book(userId, scheduleId, null);
+    }
+
+    @Override
+    public boolean bookClass(int userId, int scheduleId, String requestKey) {
+        if (requestKey == null || requests == null) {
+            return bookClass(userId, scheduleId);
+        }
+        return requests.execute(userId, requestKey, RequestKey.BOOK, scheduleId, key -> book(userId, scheduleId, key));
+    }
+
+    private boolean book(int userId, int scheduleId, RequestKey key) {
+        BookingEvent event = new BookingEvent("BOOK");
+        event.begin();
+        event.userId = userId;
+        event.scheduleId = scheduleId;
+        event.succeeded = bookClass(userId, scheduleId, key, event);
+        event.commit();
+        return event.succeeded;
+    }
+
+    private boolean bookClass(int userId, int scheduleId, RequestKey key, BookingEvent event) {
         // 1. Validate schedule exists
         ClassSchedule schedule = classRepository.findScheduleById(scheduleId);
         if (schedule == null) {
-            System.err.println("Schedule not found");
-            return false;
-        }
-
-        if (schedule.getAvailableSpots() <= 0) {
-            System.err.println("Class is full");
+            log.warn("Booking rejected: schedule not found", "userId", userId, "scheduleId", scheduleId);
             return false;
         }
 
         if (hasUserBooked(userId, scheduleId)) {
-            System.err.println("You have already booked this class");
+            log.warn("Booking rejected: already booked", "userId", userId, "scheduleId", scheduleId);
             return false;
         }
 
         Booking booking = new Booking(userId, scheduleId, "CONFIRMED");
-        boolean bookingSaved = bookingRepository.save(booking);
-
-        if (!bookingSaved) {
-            System.err.println("Failed to create booking");
+        boolean booked = inTransaction(() -> {
+            // Take the spot first (atomically), so two members cannot both get the last one
+            if (!classRepository.reserveSpot(scheduleId)) {
+                log.warn("Booking rejected: class is full", "userId", userId, "scheduleId", scheduleId);
+                return false;
+            }
+            if (!bookingRepository.save(booking) || !enqueue(OutboxEvent.BOOKED, booking) || !saveKey(key)) {
+                log.error("Failed to create booking", "userId", userId, "scheduleId", scheduleId);
+                classRepository.releaseSpot(scheduleId);   // only needed without a transaction
+                return false;
+            }
+            // Booked directly (e.g. capacity was raised): no longer waiting
+            if (waitlist != null && waitlist.find(scheduleId, userId) != null) {
+                waitlist.remove(scheduleId, userId);
+            }
+            return true;
+        });
+        if (!booked) {
             return false;
         }
-        schedule.decrementSpots();
-        boolean scheduleUpdated = classRepository.updateSchedule(schedule);
-        if (!scheduleUpdated) {
-            System.err.println("Warning: Booking created but spots not decremented");
-        }
-        System.out.println("Class booked successfully!");
+        afterCommit();
+        event.bookingId = booking.getBookingId();
+        publishSeatChange(scheduleId, -1);
+        log.info("Class booked", "bookingId", booking.getBookingId(), "userId", userId, "scheduleId", scheduleId);
         return true;
     }
     @Override
     public boolean cancelBooking(int bookingId, int userId) {
+        return cancel(bookingId, userId, null);
+    }
+
+    @Override
+    public boolean cancelBooking(int bookingId, int userId, String requestKey) {
+        if (requestKey == null || requests == null) {
+            return cancelBooking(bookingId, userId);
+        }
+        return requests.execute(userId, requestKey, RequestKey.CANCEL, bookingId, key -> cancel(bookingId, userId, key));
+    }
+
+    private boolean cancel(int bookingId, int userId, RequestKey key) {
+        BookingEvent event = new BookingEvent("CANCEL");
+        event.begin();
+        event.userId = userId;
+        event.bookingId = bookingId;
+        event.succeeded = cancelBooking(bookingId, userId, key, event);
+        event.commit();
+        return event.succeeded;
+    }
+
+    private boolean cancelBooking(int bookingId, int userId, RequestKey key, BookingEvent event) {
         Booking booking = bookingRepository.findById(bookingId);
         if (booking == null) {
-            System.err.println("Booking not found");
+            log.warn("Cancel rejected: booking not found", "bookingId", bookingId);
             return false;
         }
+        event.scheduleId = booking.getScheduleId();
         if (booking.getUserId() != userId) {
-            System.err.println("You can only cancel your own bookings");
+            log.warn("Cancel rejected: not the booking owner", "bookingId", bookingId, "userId", userId);
             return false;
         }
         if (booking.isCancelled()) {
-            System.err.println("Booking is already cancelled");
+            log.warn("Cancel rejected: already cancelled", "bookingId", bookingId);
             return false;
         }
+        int scheduleId = booking.getScheduleId();
+        Booking[] promoted = new Booking[1];
+        boolean cancelled = inTransaction(() -> {
+            // Only the request that actually flips the status gives the spot back
+            if (!bookingRepository.updateStatus(bookingId, booking.getStatus(), "CANCELLED")) {
+                log.warn("Failed to cancel booking", "bookingId", bookingId, "status", booking.getStatus());
+                return false;
+            }
+            if (!saveKey(key)) {
+                return false;
+            }
+            WaitlistEntry next = nextInLine(scheduleId);
+            if (next == null) {
+                return classRepository.releaseSpot(scheduleId) && enqueue(OutboxEvent.CANCELLED, booking);
+            }
+            // The spot passes straight to the next member in line: available_spots stays as it is
+            promoted[0] = new Booking(next.getUserId(), scheduleId, "CONFIRMED");
+            return enqueue(OutboxEvent.CANCELLED, booking)
+                    && bookingRepository.save(promoted[0])
+                    && enqueue(OutboxEvent.BOOKED, promoted[0])
+                    && enqueue(OutboxEvent.WAITLIST_PROMOTED, promoted[0]);
+        });
+        if (!cancelled) {
+            if (waitlist != null) {
+                waitlist.discard(scheduleId);   // the mirror may hold changes that were rolled back
+            }
+            return false;
+        }
+        afterCommit();
         booking.cancel();
-        boolean bookingUpdated = bookingRepository.update(booking);
-        if (!bookingUpdated) {
-            System.err.println("Failed to cancel booking");
+        if (promoted[0] == null) {
+            publishSeatChange(scheduleId, +1);
+        } else {
+            log.info("Promoted from waitlist", "bookingId", promoted[0].getBookingId(),
+                    "userId", promoted[0].getUserId(), "scheduleId", scheduleId);
+        }
+        log.info("Booking cancelled", "bookingId", bookingId, "userId", userId, "scheduleId", scheduleId);
+        return true;
+    }
+
+    // Inside the cancelling transaction: the waiting member who gets the freed spot, or null
+    private WaitlistEntry nextInLine(int scheduleId) {
+        if (waitlist == null) {
+            return null;
+        }
+        WaitlistEntry next;
+        while ((next = waitlist.poll(scheduleId)) != null) {
+            // Someone who got a spot another way just leaves the list
+            boolean alreadyBooked = hasUserBooked(next.getUserId(), scheduleId);
+            if (waitlist.close(next, alreadyBooked ? WaitlistEntry.LEFT : WaitlistEntry.PROMOTED) && !alreadyBooked) {
+                return next;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean joinWaitlist(int userId, int scheduleId) {
+        return joinWaitlist(userId, scheduleId, WaitlistEntry.TIER_STANDARD);
+    }
+
+    @Override
+    public boolean joinWaitlist(int userId, int scheduleId, int tier) {
+        if (waitlist == null) {
+            return false;
+        }
+        if (tier < 0 || tier >= WaitlistEntry.TIERS) {
+            log.warn("Waitlist rejected: unknown tier", "userId", userId, "tier", tier);
+            return false;
+        }
+        if (classRepository.findScheduleById(scheduleId) == null) {
+            log.warn("Waitlist rejected: schedule not found", "userId", userId, "scheduleId", scheduleId);
             return false;
         }
+        if (hasUserBooked(userId, scheduleId) || waitlist.find(scheduleId, userId) != null) {
+            log.warn("Waitlist rejected: already booked or waiting", "userId", userId, "scheduleId", scheduleId);
+            return false;
+        }
+        WaitlistEntry entry = new WaitlistEntry(scheduleId, userId, tier);
+        boolean joined = inTransaction(() -> {
+            // Checked under the write lock, so a spot freed meanwhile is booked instead of waited for
+            ClassSchedule schedule = classRepository.findScheduleById(scheduleId);
+            if (schedule == null || schedule.hasAvailableSpots()) {
+                log.warn("Waitlist rejected: class has free spots", "userId", userId, "scheduleId", scheduleId);
+                return false;
+            }
+            return waitlist.add(entry);
+        });
+        if (!joined) {
+            if (entry.getEntryId() != 0) {
+                waitlist.discard(scheduleId);
+            }
+            return false;
+        }
+        log.info("Joined waitlist", "entryId", entry.getEntryId(), "userId", userId, "scheduleId", scheduleId,
+                "tier", tier, "position", waitlist.position(scheduleId, userId));
+        return true;
+    }
 
-        ClassSchedule schedule = classRepository.findScheduleById(booking.getScheduleId());
-        if (schedule != null) {
-            schedule.incrementSpots();
-            classRepository.updateSchedule(schedule);
+    @Override
+    public boolean leaveWaitlist(int userId, int scheduleId) {
+        if (waitlist == null || waitlist.find(scheduleId, userId) == null) {
+            return false;
         }
-        System.out.println("Booking cancelled successfully");
+        boolean left = inTransaction(() -> waitlist.remove(scheduleId, userId));
+        if (!left) {
+            waitlist.discard(scheduleId);
+            return false;
+        }
+        log.info("Left waitlist", "userId", userId, "scheduleId", scheduleId);
         return true;
     }
 
+    @Override
+    public int getWaitlistPosition(int userId, int scheduleId) {
+        return waitlist == null ? 0 : waitlist.position(scheduleId, userId);
+    }
+
+    @Override
+    public List<WaitlistEntry> getUserWaitlist(int userId) {
+        return waitlist == null ? Collections.emptyList() : waitlist.findByUser(userId);
+    }
+
+    private boolean inTransaction(DatabaseManager.Transaction work) {
+        return transactions == null ? work.run() : transactions.inTransaction(work);
+    }
+
+    // Stores the request key in the change's transaction (no key: nothing to store)
+    private boolean saveKey(RequestKey key) {
+        return key == null || requests.save(key);
+    }
+
+    private boolean enqueue(String eventType, Booking booking) {
+        return outbox == null || outbox.enqueue(
+                new OutboxEvent(eventType, booking.getBookingId(), booking.getUserId(), booking.getScheduleId()));
+    }
+
+    private void afterCommit() {
+        if (outbox != null) {
+            outbox.wakeUp();
+        }
+    }
+
+    // Tells the booking table / SSE clients about the new seat count of this schedule
+    private void publishSeatChange(int scheduleId, int delta) {
+        seatBus.publish(scheduleId, delta, () -> {
+            ClassSchedule schedule = classRepository.findScheduleById(scheduleId);
+            return schedule == null ? -1 : schedule.getAvailableSpots();
+        });
+    }
+
     @Override
     public Booking getBookingById(int bookingId) {
         return bookingRepository.findById(bookingId);
@@ -96,36 +383,58 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository.findByScheduleId(scheduleId);
     }
     @Override
+    public int countConfirmedBookings(int scheduleId) {
+        return bookingRepository.countByScheduleIdAndStatus(scheduleId, "CONFIRMED");
+    }
+    @Override
     public boolean isScheduleAvailable(int scheduleId) {
         ClassSchedule schedule = classRepository.findScheduleById(scheduleId);
         return schedule != null && schedule.hasAvailableSpots();
     }
     @Override
     public boolean hasUserBooked(int userId, int scheduleId) {
-        List<Booking> userBookings = bookingRepository.findByUserId(userId);
-        return userBookings.stream()
-                .anyMatch(b -> b.getScheduleId() == scheduleId && b.isConfirmed());
+        return bookingRepository.existsActiveBooking(userId, scheduleId);
     }
 
     @Override
     public boolean markAttended(int bookingId) {
+        BookingEvent event = new BookingEvent("ATTEND");
+        event.begin();
+        event.bookingId = bookingId;
+        event.succeeded = markAttended(bookingId, event);
+        event.commit();
+        return event.succeeded;
+    }
+
+    private boolean markAttended(int bookingId, BookingEvent event) {
         Booking booking = bookingRepository.findById(bookingId);
         if (booking == null) {
             return false;
         }
+        event.userId = booking.getUserId();
+        event.scheduleId = booking.getScheduleId();
 
-        // If already attended, do NOTHING (avoid double XP)
-        if (booking.isAttended()) {
+        // If already attended, do NOTHING (avoid double XP); cancelled bookings hold no spot
+        if (booking.isAttended() || booking.isCancelled()) {
             return false;
         }
 
-        // 1) Mark booking as attended and persist
-        booking.markAttended();
-        boolean updated = bookingRepository.update(booking);
-        if (!updated) {
-            System.err.println("Failed to update booking as ATTENDED");
+        // 1) Mark booking as attended; if another request changed it first, award nothing
+        boolean marked = inTransaction(() -> {
+            if (!bookingRepository.updateStatus(bookingId, booking.getStatus(), "ATTENDED")) {
+                log.warn("Failed to mark booking attended", "bookingId", bookingId, "status", booking.getStatus());
+                return false;
+            }
+            return enqueue(OutboxEvent.ATTENDED, booking);
+        });
+        if (!marked) {
             return false;
         }
+        booking.markAttended();
+        if (outbox != null) {
+            afterCommit();   // XP is awarded once by the outbox handler (XpAwardHandler)
+            return true;
+        }
 
         // 2) Resolve schedule and class type to know which XP to grant
         ClassSchedule schedule = classRepository.findScheduleById(booking.getScheduleId());
@@ -0,0 +1,38 @@
+package com.gym.service;
+
+import com.gym.domain.OutboxEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running booking counters fed by outbox events (shown with the metrics).
+ * In memory only: they start at zero with the process and may count an
+ * event twice if it is redelivered after a crash.
+ */
+public class BookingStatistics implements OutboxDispatcher.Handler {
+    private final LongAdder booked = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder attended = new LongAdder();
+
+    public long getBooked() { return booked.sum(); }
+    public long getCancelled() { return cancelled.sum(); }
+    public long getAttended() { return attended.sum(); }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        switch (event.getEventType()) {
+            case OutboxEvent.BOOKED -> booked.increment();
+            case OutboxEvent.CANCELLED -> cancelled.increment();
+            case OutboxEvent.ATTENDED -> attended.increment();
+            default -> { }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BookingStatistics{booked=" + getBooked() +
+                ", cancelled=" + getCancelled() +
+                ", attended=" + getAttended() +
+                '}';
+    }
+}
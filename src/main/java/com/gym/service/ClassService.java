@@ -2,6 +2,7 @@ package com.gym.service;
 
 import com.gym.domain.GymClass;
 import com.gym.domain.ClassSchedule;
+import com.gym.domain.RecurrenceRule;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -14,6 +15,7 @@ public interface ClassService {
     boolean deleteClass(int classId);
 
     boolean createSchedule(ClassSchedule schedule);
+    List<ClassSchedule> createRecurringSchedules(List<RecurrenceRule> rules);
     ClassSchedule getScheduleById(int scheduleId);
     List<ClassSchedule> getSchedulesByClassId(int classId);
     List<ClassSchedule> getAvailableSchedules(); // Only schedules with spots
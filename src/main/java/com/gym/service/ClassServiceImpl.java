@@ -1,14 +1,24 @@
 package com.gym.service;
 
-import com.gym.domain.GymClass;
 import com.gym.domain.ClassSchedule;
+import com.gym.domain.GymClass;
+import com.gym.domain.RecurrenceRule;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
 import com.gym.repository.ClassRepository;
+import com.gym.utils.IntObjectMap;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class ClassServiceImpl implements ClassService {
+    private static final Logger log = Log.get(ClassServiceImpl.class);
+
     private final ClassRepository classRepository;
 
     public ClassServiceImpl(ClassRepository classRepository) {
@@ -18,19 +28,19 @@ public class ClassServiceImpl implements ClassService {
     @Override
     public boolean createClass(GymClass gymClass) {
         if (gymClass.getClassName() == null || gymClass.getClassName().trim().isEmpty()) {
-            System.err.println("Class name cannot be empty");
+            log.warn("Class rejected: name cannot be empty");
             return false;
         }
         if (gymClass.getInstructorName() == null || gymClass.getInstructorName().trim().isEmpty()) {
-            System.err.println("Instructor name cannot be empty");
+            log.warn("Class rejected: instructor name cannot be empty", "name", gymClass.getClassName());
             return false;
         }
         if (gymClass.getCapacity() <= 0) {
-            System.err.println("Capacity must be positive");
+            log.warn("Class rejected: capacity must be positive", "name", gymClass.getClassName());
             return false;
         }
         if (gymClass.getDurationMinutes() <= 0) {
-            System.err.println("Duration must be positive");
+            log.warn("Class rejected: duration must be positive", "name", gymClass.getClassName());
             return false;
         }
         return classRepository.saveClass(gymClass);
@@ -60,7 +70,7 @@ public class ClassServiceImpl implements ClassService {
     @Override
     public boolean updateClass(GymClass gymClass) {
         if (gymClass.getClassId() <= 0) {
-            System.err.println("Invalid class ID");
+            log.warn("Rejected: invalid class ID", "classId", gymClass.getClassId());
             return false;
         }
         return classRepository.updateClass(gymClass);
@@ -68,7 +78,7 @@ public class ClassServiceImpl implements ClassService {
     @Override
     public boolean deleteClass(int classId) {
         if (classId <= 0) {
-            System.err.println("Invalid class ID");
+            log.warn("Rejected: invalid class ID", "classId", classId);
             return false;
         }
         return classRepository.deleteClass(classId);
@@ -76,43 +86,127 @@ public class ClassServiceImpl implements ClassService {
     @Override
     public boolean createSchedule(ClassSchedule schedule) {
         if (schedule.getClassId() <= 0) {
-            System.err.println("Invalid class ID");
+            log.warn("Schedule rejected: invalid class ID", "classId", schedule.getClassId());
             return false;
         }
         if (schedule.getScheduledDate() == null) {
-            System.err.println("Schedule date cannot be null");
+            log.warn("Schedule rejected: date cannot be null", "classId", schedule.getClassId());
             return false;
         }
         if (schedule.getScheduledDate().isBefore(LocalDate.now())) {
-            System.err.println("Cannot schedule class in the past");
+            log.warn("Schedule rejected: date in the past", "classId", schedule.getClassId(), "date", schedule.getScheduledDate());
             return false;
         }
         if (schedule.getStartTime() == null || schedule.getEndTime() == null) {
-            System.err.println("Start and end times cannot be null");
+            log.warn("Schedule rejected: start and end times cannot be null", "classId", schedule.getClassId());
             return false;
         }
         if (schedule.getEndTime().isBefore(schedule.getStartTime())) {
-            System.err.println("End time must be after start time");
+            log.warn("Schedule rejected: end time must be after start time", "classId", schedule.getClassId());
             return false;
         }
         if (schedule.getAvailableSpots() <= 0) {
-            System.err.println("Available spots must be positive");
+            log.warn("Schedule rejected: available spots must be positive", "classId", schedule.getClassId());
             return false;
         }
         GymClass gymClass = classRepository.findClassById(schedule.getClassId());
         if (gymClass == null) {
-            System.err.println("Class not found");
+            log.warn("Schedule rejected: class not found", "classId", schedule.getClassId());
             return false;
         }
 
         if (schedule.getAvailableSpots() > gymClass.getCapacity()) {
-            System.err.println("Available spots cannot exceed class capacity (" + gymClass.getCapacity() + ")");
+            log.warn("Schedule rejected: available spots exceed class capacity", "classId", schedule.getClassId(), "capacity", gymClass.getCapacity());
             return false;
         }
 
         return classRepository.saveSchedule(schedule);
     }
 
+    /**
+     * Expands every rule into concrete schedules and stores them in one batch.
+     * Occurrences in the past, or clashing with an existing schedule of the same
+     * class at the same date and start time, are skipped. Returns the created
+     * schedules (with ids), or an empty list if nothing could be stored.
+     */
+    @Override
+    public List<ClassSchedule> createRecurringSchedules(List<RecurrenceRule> rules) {
+        long startNanos = System.nanoTime();
+        LocalDate today = LocalDate.now();
+
+        // Load classes and existing slots once instead of once per occurrence
+        List<GymClass> classes = classRepository.findAllClasses();
+        IntObjectMap<GymClass> classById = new IntObjectMap<>(classes.size());
+        for (GymClass gc : classes) {
+            classById.put(gc.getClassId(), gc);
+        }
+        // Only the days the rules can produce, not the whole schedule history
+        LocalDate from = null;
+        LocalDate until = null;
+        for (RecurrenceRule rule : rules) {
+            if (rule.getTermStart() != null && rule.getTermEnd() != null) {
+                from = from == null || rule.getTermStart().isBefore(from) ? rule.getTermStart() : from;
+                until = until == null || rule.getTermEnd().isAfter(until) ? rule.getTermEnd() : until;
+            }
+        }
+        Set<SlotKey> takenSlots = new HashSet<>();
+        if (from != null) {
+            from = from.isBefore(today) ? today : from;
+            for (ClassSchedule existing : classRepository.findSchedulesBetween(from, until)) {
+                takenSlots.add(new SlotKey(existing.getClassId(), existing.getScheduledDate(), existing.getStartTime()));
+            }
+        }
+
+        List<ClassSchedule> toCreate = new ArrayList<>();
+        int conflicts = 0;
+        for (RecurrenceRule rule : rules) {
+            GymClass gymClass = classById.get(rule.getClassId());
+            if (gymClass == null) {
+                log.warn("Recurrence skipped: class not found", "rule", rule);
+                continue;
+            }
+            if (rule.getStartTime() == null) {
+                log.warn("Recurrence skipped: start time cannot be null", "rule", rule);
+                continue;
+            }
+            LocalTime end = rule.getStartTime().plusMinutes(gymClass.getDurationMinutes());
+            if (!end.isAfter(rule.getStartTime())) {
+                log.warn("Recurrence skipped: class would end after midnight", "rule", rule);
+                continue;
+            }
+
+            for (LocalDate date : rule.occurrences()) {
+                if (date.isBefore(today)) {
+                    continue;
+                }
+                if (!takenSlots.add(new SlotKey(gymClass.getClassId(), date, rule.getStartTime()))) {
+                    conflicts++;
+                    continue;
+                }
+                toCreate.add(new ClassSchedule(
+                        gymClass.getClassId(),
+                        date,
+                        rule.getStartTime(),
+                        end,
+                        gymClass.getCapacity()
+                ));
+            }
+        }
+
+        if (!classRepository.saveSchedules(toCreate)) {
+            log.error("Could not store recurring schedules", "count", toCreate.size());
+            return List.of();
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Recurring schedules created", "created", toCreate.size(), "conflictsSkipped", conflicts,
+                "elapsedMs", elapsedMs, "schedulesPerSecond", toCreate.size() * 1000L / elapsedMs);
+        return toCreate;
+    }
+
+    // Same class at the same date and start time counts as a conflict
+    private record SlotKey(int classId, LocalDate date, LocalTime start) { }
+
     @Override
     public ClassSchedule getScheduleById(int scheduleId) {
         return classRepository.findScheduleById(scheduleId);
@@ -145,15 +239,13 @@ public class ClassServiceImpl implements ClassService {
             return List.of();
         }
 
-        return classRepository.findAllSchedules().stream()
-                .filter(s -> s.getScheduledDate().equals(date))
-                .collect(Collectors.toList());
+        return classRepository.findSchedulesByDate(date);
     }
 
     @Override
     public boolean updateSchedule(ClassSchedule schedule) {
         if (schedule.getScheduleId() <= 0) {
-            System.err.println("Invalid schedule ID");
+            log.warn("Rejected: invalid schedule ID", "scheduleId", schedule.getScheduleId());
             return false;
         }
         return classRepository.updateSchedule(schedule);
@@ -161,7 +253,7 @@ public class ClassServiceImpl implements ClassService {
     @Override
     public boolean deleteSchedule(int scheduleId) {
         if (scheduleId <= 0) {
-            System.err.println("Invalid schedule ID");
+            log.warn("Rejected: invalid schedule ID", "scheduleId", scheduleId);
             return false;
         }
         return classRepository.deleteSchedule(scheduleId);
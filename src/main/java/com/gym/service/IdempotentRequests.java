@@ -0,0 +1,200 @@
+package com.gym.service;
+
+import com.gym.domain.RequestKey;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.RequestKeyRepository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a request at most once per client request key (per user). The key is
+ * stored by the request itself, in the transaction of the change it made
+ * (save), so "done" and "key stored" commit together; a retry of that
+ * request then gets its original result back without running again.
+ *
+ * Lookups go to a bounded LRU of recent keys first, then to the
+ * request_keys table (older keys, other processes). A duplicate that
+ * arrives while the first is still running waits for its result. Only
+ * successful requests are remembered: a rejected one (class full, not
+ * found, database error) runs again when retried. Keys expire from the
+ * cache after gym.requestKeys.ttlHours (default 24) and are purged from the
+ * table then; gym.requestKeys.cacheSize bounds the cache (default 10000).
+ */
+public class IdempotentRequests {
+    private static final Logger log = Log.get(IdempotentRequests.class);
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    public static final int MAX_KEY_LENGTH = 128;
+
+    /** The request to run on a new key; it saves the key in its transaction when it succeeds. */
+    public interface Request {
+        boolean run(RequestKey key);
+    }
+
+    /** Key lookup counters (shown with the metrics). */
+    public static class Stats {
+        final LongAdder executed = new LongAdder();
+        final LongAdder replayed = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder cacheMisses = new LongAdder();
+
+        public long getExecuted() { return executed.sum(); }
+        public long getReplayed() { return replayed.sum(); }
+        public long getConflicts() { return conflicts.sum(); }
+        public long getCacheMisses() { return cacheMisses.sum(); }
+
+        @Override
+        public String toString() {
+            return "IdempotentRequests{executed=" + getExecuted() +
+                    ", replayed=" + getReplayed() +
+                    ", conflicts=" + getConflicts() +
+                    ", cacheMisses=" + getCacheMisses() +
+                    '}';
+        }
+    }
+
+    // A request running under a key, so a concurrent duplicate can wait for it
+    private record InFlight(String operation, int targetId, CompletableFuture<Boolean> result) { }
+
+    private final RequestKeyRepository repository;
+    private final long ttlMillis;
+    private final Map<String, RequestKey> recent;   // "userId:key" -> key, LRU, guarded by itself
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurgeMillis = new AtomicLong(System.currentTimeMillis());
+    private final Stats stats = new Stats();
+
+    public IdempotentRequests(RequestKeyRepository repository) {
+        this(repository, Integer.getInteger("gym.requestKeys.cacheSize", 10_000),
+                TimeUnit.HOURS.toMillis(Long.getLong("gym.requestKeys.ttlHours", 24)));
+    }
+
+    public IdempotentRequests(RequestKeyRepository repository, int maxSize, long ttlMillis) {
+        this.repository = repository;
+        this.ttlMillis = ttlMillis;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RequestKey> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Stats getStats() { return stats; }
+
+    /**
+     * Runs the request unless this user already used the key: then returns
+     * the first result (false if the key was used for another request).
+     */
+    public boolean execute(int userId, String key, String operation, int targetId, Request request) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            log.warn("Request rejected: invalid request key", "userId", userId, "operation", operation);
+            return false;
+        }
+        String cacheKey = userId + ":" + key;
+        RequestKey known = recent(cacheKey);
+        if (known != null) {
+            return replay(known, operation, targetId);
+        }
+
+        InFlight mine = new InFlight(operation, targetId, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            // A double tap while the first request is still running: same answer, no second run
+            if (!running.operation().equals(operation) || running.targetId() != targetId) {
+                return conflict(userId, operation);
+            }
+            stats.replayed.increment();
+            return running.result().join();
+        }
+        try {
+            boolean result = run(userId, key, cacheKey, operation, targetId, request);
+            mine.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+            purgeIfDue();
+        }
+    }
+
+    /** Stores the key; call inside the transaction of the change the request made. */
+    public boolean save(RequestKey requestKey) {
+        return repository.save(requestKey);
+    }
+
+    private boolean run(int userId, String key, String cacheKey, String operation, int targetId, Request request) {
+        // Not in the cache: an older key, or one used through another process
+        stats.cacheMisses.increment();
+        RequestKey stored = repository.find(userId, key);
+        if (stored == null) {
+            RequestKey requestKey = new RequestKey(userId, key, operation, targetId);
+            if (request.run(requestKey)) {
+                stats.executed.increment();
+                remember(cacheKey, requestKey);
+                return true;
+            }
+            // Failed, or lost a race with another process whose request stored the key first
+            stored = repository.find(userId, key);
+            if (stored == null) {
+                return false;
+            }
+        }
+        remember(cacheKey, stored);
+        return replay(stored, operation, targetId);
+    }
+
+    private boolean replay(RequestKey known, String operation, int targetId) {
+        if (!known.matches(operation, targetId)) {
+            return conflict(known.getUserId(), operation);
+        }
+        stats.replayed.increment();
+        log.debug("Replayed request", "userId", known.getUserId(), "operation", operation, "targetId", targetId);
+        return true;
+    }
+
+    private boolean conflict(int userId, String operation) {
+        stats.conflicts.increment();
+        log.warn("Request rejected: request key already used for another request", "userId", userId,
+                "operation", operation);
+        return false;
+    }
+
+    private RequestKey recent(String cacheKey) {
+        synchronized (recent) {
+            RequestKey known = recent.get(cacheKey);
+            if (known != null && System.currentTimeMillis() - known.getCreatedMillis() > ttlMillis) {
+                recent.remove(cacheKey);
+                return null;
+            }
+            return known;
+        }
+    }
+
+    private void remember(String cacheKey, RequestKey requestKey) {
+        synchronized (recent) {
+            recent.put(cacheKey, requestKey);
+        }
+    }
+
+    // At most one caller every PURGE_INTERVAL_MILLIS drops expired keys from the table
+    private void purgeIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastPurgeMillis.get();
+        if (now - last < PURGE_INTERVAL_MILLIS || !lastPurgeMillis.compareAndSet(last, now)) {
+            return;
+        }
+        int purged = repository.deleteBefore(now - ttlMillis);
+        if (purged > 0) {
+            log.debug("Purged expired request keys", "count", purged);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.gym.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket limits on login attempts, checked before any database or
+ * password work. Every attempt takes one token from the bucket of its
+ * username and, when known, one from the bucket of its source (client
+ * address); an empty bucket rejects the attempt. Buckets refill continuously.
+ *
+ * Buckets live in a ConcurrentHashMap and are updated with compare-and-set,
+ * so concurrent logins never block each other. Buckets that have refilled
+ * completely are swept once the map grows past maxKeys.
+ *
+ * Defaults (system properties): gym.auth.userBurst=5, gym.auth.userPerMinute=5,
+ * gym.auth.sourceBurst=30, gym.auth.sourcePerMinute=60, gym.auth.throttleKeys=100000.
+ */
+public class LoginThrottle {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** Rejected-attempt counters. */
+    public static class Stats {
+        final LongAdder rejectedByUsername = new LongAdder();
+        final LongAdder rejectedBySource = new LongAdder();
+
+        public long getRejectedByUsername() { return rejectedByUsername.sum(); }
+        public long getRejectedBySource() { return rejectedBySource.sum(); }
+
+        @Override
+        public String toString() {
+            return "LoginThrottle{rejectedByUsername=" + getRejectedByUsername() +
+                    ", rejectedBySource=" + getRejectedBySource() +
+                    '}';
+        }
+    }
+
+    private final Limit perUsername;
+    private final Limit perSource;
+    private final int maxKeys;
+    private final Stats stats = new Stats();
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime() - SWEEP_INTERVAL_NANOS);
+
+    public LoginThrottle() {
+        this(Integer.getInteger("gym.auth.userBurst", 5), Integer.getInteger("gym.auth.userPerMinute", 5),
+                Integer.getInteger("gym.auth.sourceBurst", 30), Integer.getInteger("gym.auth.sourcePerMinute", 60),
+                Integer.getInteger("gym.auth.throttleKeys", 100_000));
+    }
+
+    public LoginThrottle(int userBurst, int userPerMinute, int sourceBurst, int sourcePerMinute, int maxKeys) {
+        this.perUsername = Limit.perMinute(userBurst, userPerMinute);
+        this.perSource = Limit.perMinute(sourceBurst, sourcePerMinute);
+        this.maxKeys = maxKeys;
+    }
+
+    public Stats getStats() { return stats; }
+
+    /** Takes a token for the username and (if not null) the source; false means reject the attempt. */
+    public boolean tryAcquire(String username, String source) {
+        long now = System.nanoTime();
+        if (source != null && !bucket("s:" + source, perSource).tryTake(now)) {
+            stats.rejectedBySource.increment();
+            return false;
+        }
+        if (!bucket("u:" + username, perUsername).tryTake(now)) {
+            stats.rejectedByUsername.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private Bucket bucket(String key, Limit limit) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                sweep();
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(limit));
+        }
+        return bucket;
+    }
+
+    // A full bucket behaves exactly like a new one, so it can be dropped.
+    // At most one sweep per second: under a flood of new usernames the map may overshoot maxKeys briefly.
+    private void sweep() {
+        long now = System.nanoTime();
+        long last = lastSweepNanos.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweepNanos.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.values().removeIf(b -> b.isFull(now));
+    }
+
+    private record Limit(int burst, double tokensPerNano) {
+        static Limit perMinute(int burst, int perMinute) {
+            return new Limit(burst, perMinute / (double) TimeUnit.MINUTES.toNanos(1));
+        }
+    }
+
+    private record State(double tokens, long updatedNanos) { }
+
+    private static class Bucket {
+        private final Limit limit;
+        private final AtomicReference<State> state;
+
+        Bucket(Limit limit) {
+            this.limit = limit;
+            this.state = new AtomicReference<>(new State(limit.burst(), System.nanoTime()));
+        }
+
+        boolean tryTake(long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = refilled(current, now);
+                if (tokens < 1) {
+                    return false;
+                }
+                long updated = Math.max(now, current.updatedNanos());   // another thread may have a later clock reading
+                if (state.compareAndSet(current, new State(tokens - 1, updated))) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return refilled(state.get(), now) >= limit.burst();
+        }
+
+        private double refilled(State s, long now) {
+            long elapsed = Math.max(0, now - s.updatedNanos());
+            return Math.min(limit.burst(), s.tokens() + elapsed * limit.tokensPerNano());
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.gym.service;
+
+import com.gym.domain.OutboxEvent;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.DatabaseManager;
+import com.gym.repository.OutboxRepository;
+import com.gym.utils.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers booking events from the outbox table to in-process handlers (XP
+ * awards, statistics...), so that work stays off the booking path but is
+ * never lost: events are written in the same transaction as the booking
+ * change (enqueue), and a background thread delivers them in batches, oldest
+ * first, after the transaction committed.
+ *
+ * Delivery is at-least-once with an idempotency key per (handler, event):
+ * each handler runs in a transaction that also records its key, so a handler
+ * whose database writes committed is never run again for that event, even
+ * if the process dies before the event is marked dispatched. Failed handlers
+ * are retried on later rounds; after maxAttempts the event is given up on
+ * (kept with its last error). Side effects outside the database (in-memory
+ * counters) can repeat after a crash.
+ *
+ * Defaults (system properties): gym.outbox.batchSize=100, gym.outbox.pollMillis=500,
+ * gym.outbox.maxAttempts=10, gym.outbox.retentionHours=24.
+ */
+public class OutboxDispatcher implements AutoCloseable {
+    private static final Logger log = Log.get(OutboxDispatcher.class);
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /** Handles one event. Throw to have it retried; database writes run in the key's transaction. */
+    public interface Handler {
+        void handle(OutboxEvent event);
+    }
+
+    private record Registration(String name, Set<String> eventTypes, Handler handler) { }
+
+    /** Delivery counters and lag (event created -> all handlers done). */
+    public static class Stats {
+        final LongAdder dispatched = new LongAdder();
+        final LongAdder handlerFailures = new LongAdder();
+        final LongAdder givenUp = new LongAdder();
+        final LatencyHistogram deliveryLag = new LatencyHistogram();
+
+        public long getDispatched() { return dispatched.sum(); }
+        public long getHandlerFailures() { return handlerFailures.sum(); }
+        public long getGivenUp() { return givenUp.sum(); }
+        public LatencyHistogram getDeliveryLag() { return deliveryLag; }
+
+        @Override
+        public String toString() {
+            return "OutboxDispatcher{dispatched=" + getDispatched() +
+                    ", handlerFailures=" + getHandlerFailures() +
+                    ", givenUp=" + getGivenUp() +
+                    ", lag=" + deliveryLag.summary() +
+                    '}';
+        }
+    }
+
+    private final OutboxRepository outbox;
+    private final DatabaseManager transactions;
+    private final int batchSize;
+    private final long pollMillis;
+    private final int maxAttempts;
+    private final long retentionMillis;
+    private final List<Registration> handlers = new CopyOnWriteArrayList<>();
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Stats stats = new Stats();
+
+    private volatile boolean running;
+    private Thread worker;
+    private long lastPurgeMillis;   // only touched by the worker
+
+    public OutboxDispatcher(OutboxRepository outbox, DatabaseManager transactions) {
+        this(outbox, transactions, Integer.getInteger("gym.outbox.batchSize", 100),
+                Long.getLong("gym.outbox.pollMillis", 500), Integer.getInteger("gym.outbox.maxAttempts", 10),
+                TimeUnit.HOURS.toMillis(Long.getLong("gym.outbox.retentionHours", 24)));
+    }
+
+    public OutboxDispatcher(OutboxRepository outbox, DatabaseManager transactions,
+                            int batchSize, long pollMillis, int maxAttempts, long retentionMillis) {
+        this.outbox = outbox;
+        this.transactions = transactions;
+        this.batchSize = batchSize;
+        this.pollMillis = pollMillis;
+        this.maxAttempts = maxAttempts;
+        this.retentionMillis = retentionMillis;
+    }
+
+    public Stats getStats() { return stats; }
+
+    /**
+     * Adds a handler for the given event types. The name is its idempotency
+     * key: keep it stable, renaming a handler makes it see old events again.
+     */
+    public void register(String name, Set<String> eventTypes, Handler handler) {
+        handlers.add(new Registration(name, Set.copyOf(eventTypes), handler));
+    }
+
+    /** Appends an event; call inside the transaction of the change it describes. */
+    public boolean enqueue(OutboxEvent event) {
+        return outbox.append(event);
+    }
+
+    /** Asks the worker to look at the outbox now (after a commit) instead of at the next poll. */
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    /** Milliseconds the oldest undelivered event has been waiting (0 if none). */
+    public long getLagMillis() {
+        long oldest = outbox.oldestPendingMillis();
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    public int getPendingCount() {
+        return outbox.countPending();
+    }
+
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "gym-outbox");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Stops the worker after its current batch; undelivered events stay in the outbox. */
+    @Override
+    public synchronized void close() {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        wakeUp();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                // A full batch means more may be waiting: go again without sleeping
+                if (dispatchBatch() < batchSize) {
+                    wakeUps.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+                    wakeUps.drainPermits();
+                }
+                purgeIfDue();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("Outbox dispatch failed", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /** Delivers one batch of pending events; returns how many were read. */
+    public int dispatchBatch() {
+        List<OutboxEvent> events = outbox.findPending(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Long> delivered = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            String error = deliver(event);
+            if (error == null) {
+                delivered.add(event.getEventId());
+                stats.deliveryLag.record(TimeUnit.MILLISECONDS.toNanos(
+                        Math.max(0, System.currentTimeMillis() - event.getCreatedMillis())));
+            } else {
+                boolean giveUp = event.getAttempts() + 1 >= maxAttempts;
+                outbox.recordFailure(event.getEventId(), error, giveUp);
+                if (giveUp) {
+                    stats.givenUp.increment();
+                    log.error("Outbox event given up", "eventId", event.getEventId(),
+                            "eventType", event.getEventType(), "attempts", event.getAttempts() + 1, "error", error);
+                }
+            }
+        }
+        // One transaction for the whole batch: a single commit instead of one per event
+        if (!delivered.isEmpty() && transactions.inTransaction(() -> outbox.markDispatched(delivered))) {
+            stats.dispatched.add(delivered.size());
+        }
+        return events.size();
+    }
+
+    // Runs every handler that has not handled this event yet; returns the first error, or null
+    private String deliver(OutboxEvent event) {
+        for (Registration registration : handlers) {
+            if (!registration.eventTypes().contains(event.getEventType())
+                    || outbox.isHandled(registration.name(), event.getEventId())) {
+                continue;
+            }
+            try {
+                boolean handled = transactions.inTransaction(() -> {
+                    registration.handler().handle(event);
+                    return outbox.markHandled(registration.name(), event.getEventId());
+                });
+                if (!handled) {
+                    throw new IllegalStateException("could not record the idempotency key");
+                }
+            } catch (RuntimeException e) {
+                stats.handlerFailures.increment();
+                log.warn("Outbox handler failed", "handler", registration.name(), "eventId", event.getEventId(),
+                        "eventType", event.getEventType(), "error", e.getMessage());
+                return registration.name() + ": " + e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    private void purgeIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurgeMillis < PURGE_INTERVAL_MILLIS) {
+            return;
+        }
+        lastPurgeMillis = now;
+        int purged = outbox.deleteDispatchedBefore(now - retentionMillis);
+        if (purged > 0) {
+            log.debug("Purged delivered outbox events", "count", purged);
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.gym.service;
 
 import com.gym.domain.FitnessProgress;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.metrics.jfr.XpAwardEvent;
 import com.gym.repository.ProgressRepository;
 
 import java.util.HashMap;
@@ -8,6 +11,8 @@ import java.util.List;
 import java.util.Map;
 
 public class ProgressServiceImpl implements ProgressService {
+    private static final Logger log = Log.get(ProgressServiceImpl.class);
+
     private final ProgressRepository progressRepository;
     private final Map<String, Map<String, Integer>> pointSystem;
 
@@ -73,13 +78,19 @@ public class ProgressServiceImpl implements ProgressService {
             }
         }
 
-        System.out.println("Initialized progress for user " + userId);
+        log.debug("Initialized progress", "userId", userId);
     }
 
     @Override
     public boolean awardPointsForClass(int userId, String classType) {
+        XpAwardEvent event = new XpAwardEvent();
+        event.begin();
+        event.userId = userId;
+        event.classType = classType;
+
         if (classType == null || !pointSystem.containsKey(classType)) {
-            System.err.println("Invalid class type: " + classType);
+            log.warn("XP not awarded: invalid class type", "userId", userId, "classType", classType);
+            event.commit();
             return false;
         }
 
@@ -101,10 +112,12 @@ public class ProgressServiceImpl implements ProgressService {
             progress.addPoints(points);
             progressRepository.update(progress);
 
-            System.out.println("Awarded " + points + " points to " + category +
-                    " for user " + userId + " (class type: " + classType + ")");
+            log.info("Awarded points", "userId", userId, "category", category, "points", points, "classType", classType);
+            event.categories++;
         }
 
+        event.succeeded = true;
+        event.commit();
         return true;
     }
 
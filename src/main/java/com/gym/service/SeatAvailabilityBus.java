@@ -0,0 +1,129 @@
+package com.gym.service;
+
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Pushes seat-count changes of class schedules to whoever shows them (the
+ * booking table, SSE clients), so they update the changed rows instead of
+ * re-querying every schedule. BookingService publishes one change per
+ * successful booking (-1) or cancellation (+1).
+ *
+ * Each change carries the delta and the schedule's seat count read right
+ * after it, plus a sequence number. Publishing is serialized, so a later
+ * sequence never carries an older count: listeners can simply overwrite
+ * their row. The last bufferSize changes are kept for clients that
+ * reconnect (changesSince); older gaps mean "reload everything".
+ *
+ * Listeners run on the publishing thread while the bus lock is held, in
+ * sequence order, and must not block (hand off to a queue or
+ * Platform.runLater).
+ */
+public class SeatAvailabilityBus {
+    private static final Logger log = Log.get(SeatAvailabilityBus.class);
+
+    /** One seat-count change of a schedule. availableSpots is -1 if it could not be read. */
+    public record SeatChange(long sequence, int scheduleId, int delta, int availableSpots) { }
+
+    public interface Listener {
+        void onSeatChange(SeatChange change);
+    }
+
+    /** Ends a subscription; closing twice is harmless. */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /** Published / listener-error counters. */
+    public static class Stats {
+        final LongAdder published = new LongAdder();
+        final LongAdder listenerErrors = new LongAdder();
+
+        public long getPublished() { return published.sum(); }
+        public long getListenerErrors() { return listenerErrors.sum(); }
+
+        @Override
+        public String toString() {
+            return "SeatAvailabilityBus{published=" + getPublished() +
+                    ", listenerErrors=" + getListenerErrors() +
+                    '}';
+        }
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final SeatChange[] recent;     // ring buffer, index = sequence % length
+    private final Stats stats = new Stats();
+    private long sequence;                 // guarded by this
+
+    public SeatAvailabilityBus() {
+        this(Integer.getInteger("gym.seats.replayBuffer", 1024));
+    }
+
+    public SeatAvailabilityBus(int bufferSize) {
+        this.recent = new SeatChange[Math.max(1, bufferSize)];
+    }
+
+    public Stats getStats() { return stats; }
+    public int getSubscriberCount() { return listeners.size(); }
+
+    public Subscription subscribe(Listener listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /** Sequence number of the latest change (0 before the first one). */
+    public synchronized long lastSequence() {
+        return sequence;
+    }
+
+    /**
+     * Changes after the given sequence, oldest first, or null if some of them
+     * are no longer buffered (the caller has to reload instead).
+     */
+    public synchronized List<SeatChange> changesSince(long after) {
+        if (after >= sequence) {
+            return List.of();
+        }
+        if (after < 0 || sequence - after > recent.length) {
+            return null;
+        }
+        List<SeatChange> changes = new ArrayList<>((int) (sequence - after));
+        for (long seq = after + 1; seq <= sequence; seq++) {
+            changes.add(recent[(int) (seq % recent.length)]);
+        }
+        return changes;
+    }
+
+    /**
+     * Publishes a change; availableSpots is read (usually one primary-key
+     * lookup) under the bus lock, after the caller's update has been written.
+     */
+    public synchronized void publish(int scheduleId, int delta, IntSupplier availableSpots) {
+        int spots;
+        try {
+            spots = availableSpots.getAsInt();
+        } catch (RuntimeException e) {
+            log.warn("Could not read seat count", "scheduleId", scheduleId, "error", e.getMessage());
+            spots = -1;
+        }
+        SeatChange change = new SeatChange(++sequence, scheduleId, delta, spots);
+        recent[(int) (change.sequence() % recent.length)] = change;
+        stats.published.increment();
+
+        for (Listener listener : listeners) {
+            try {
+                listener.onSeatChange(change);
+            } catch (RuntimeException e) {
+                stats.listenerErrors.increment();
+                log.warn("Seat listener failed", "scheduleId", scheduleId, "error", e.getMessage());
+            }
+        }
+    }
+}
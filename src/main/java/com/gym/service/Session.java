@@ -0,0 +1,39 @@
+package com.gym.service;
+
+import com.gym.domain.User;
+
+/**
+ * One logged-in user, identified by an opaque token. The user (with role) is
+ * cached for the session's lifetime, so request handling does not look it up
+ * again. Expiry slides: every access through SessionRegistry.get extends it.
+ */
+public class Session {
+    private final String token;
+    private final User user;
+    private final long createdMillis;
+    private volatile long lastAccessMillis;
+
+    Session(String token, User user, long nowMillis) {
+        this.token = token;
+        this.user = user;
+        this.createdMillis = nowMillis;
+        this.lastAccessMillis = nowMillis;
+    }
+
+    public String getToken() { return token; }
+    public User getUser() { return user; }
+    public int getUserId() { return user.getUserId(); }
+    public String getRole() { return user.getRole(); }
+    public long getCreatedMillis() { return createdMillis; }
+    public long getLastAccessMillis() { return lastAccessMillis; }
+
+    void touch(long nowMillis) {
+        lastAccessMillis = nowMillis;
+    }
+
+    @Override
+    public String toString() {
+        // Never log the token itself
+        return "Session{userId=" + getUserId() + ", role=" + getRole() + '}';
+    }
+}
@@ -0,0 +1,207 @@
+package com.gym.service;
+
+import com.gym.domain.User;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * All logged-in sessions of this process, for the JavaFX front end (through
+ * SessionManager) and headless entry points alike. Sessions are looked up by
+ * an opaque random token in a ConcurrentHashMap and expire after
+ * timeoutMillis without access.
+ *
+ * Expiry uses a timing wheel with one slot per second: a session's token is
+ * queued in the slot of its expected expiry, and a background tick visits
+ * each slot once. Accesses only update a timestamp; when the tick finds a
+ * session that was used since it was queued, it re-queues it for its new
+ * expiry instead of removing it. get() also checks the timestamp, so an
+ * expired session is never returned even between ticks.
+ *
+ * Timeout: -Dgym.session.timeoutMinutes (default 30).
+ *
+ * Time comes from a clock (System::currentTimeMillis outside tests); with
+ * a test clock there is no background tick, the test calls tick() itself.
+ */
+public class SessionRegistry {
+    private static final int TOKEN_BYTES = 32;
+    private static final long TICK_MILLIS = 1000;
+
+    /** Created / ended / expired counters. */
+    public static class Stats {
+        final LongAdder created = new LongAdder();
+        final LongAdder ended = new LongAdder();
+        final LongAdder expired = new LongAdder();
+
+        public long getCreated() { return created.sum(); }
+        public long getEnded() { return ended.sum(); }
+        public long getExpired() { return expired.sum(); }
+
+        @Override
+        public String toString() {
+            return "Sessions{created=" + getCreated() +
+                    ", ended=" + getEnded() +
+                    ", expired=" + getExpired() +
+                    '}';
+        }
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private final long timeoutMillis;
+    private final LongSupplier clock;
+    private final boolean background;          // false: tick() is driven by the caller
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final List<Queue<String>> wheel;
+    private final Stats stats = new Stats();
+
+    private ScheduledExecutorService ticker;   // started with the first session
+    private long lastTick;                     // only touched by tick(), one caller at a time
+
+    public SessionRegistry() {
+        this(TimeUnit.MINUTES.toMillis(Long.getLong("gym.session.timeoutMinutes", 30)));
+    }
+
+    public SessionRegistry(long timeoutMillis) {
+        this(timeoutMillis, System::currentTimeMillis, true);
+    }
+
+    /** A registry on a test clock, without the background tick. */
+    SessionRegistry(long timeoutMillis, LongSupplier clock) {
+        this(timeoutMillis, clock, false);
+    }
+
+    private SessionRegistry(long timeoutMillis, LongSupplier clock, boolean background) {
+        this.timeoutMillis = timeoutMillis;
+        this.clock = clock;
+        this.background = background;
+        // One more slot than the timeout spans, so a new expiry never lands in a slot still to be visited this turn
+        int slots = (int) (timeoutMillis / TICK_MILLIS) + 2;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+        this.lastTick = clock.getAsLong() / TICK_MILLIS;
+    }
+
+    public Stats getStats() { return stats; }
+    public int size() { return sessions.size(); }
+
+    public Session create(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        long now = clock.getAsLong();
+        Session session = new Session(token, user, now);
+        sessions.put(token, session);
+        schedule(token, now + timeoutMillis);
+        stats.created.increment();
+        startTicker();
+        return session;
+    }
+
+    /** The live session for a token (extending its expiry), or null if unknown or expired. */
+    public Session get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        if (now - session.getLastAccessMillis() >= timeoutMillis) {
+            if (sessions.remove(token, session)) {
+                stats.expired.increment();
+            }
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    public boolean invalidate(String token) {
+        if (token != null && sessions.remove(token) != null) {
+            stats.ended.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /** Ends every session of one user (e.g. after the account was deleted); returns how many. */
+    public int invalidateUser(int userId) {
+        int[] count = new int[1];
+        sessions.values().removeIf(s -> {
+            if (s.getUserId() == userId) {
+                count[0]++;
+                return true;
+            }
+            return false;
+        });
+        stats.ended.add(count[0]);
+        return count[0];
+    }
+
+    /** Stops the background tick; sessions are still checked on access. */
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    private synchronized void startTicker() {
+        if (background && ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "gym-session-expiry");
+                t.setDaemon(true);
+                return t;
+            });
+            ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void schedule(String token, long expiresMillis) {
+        wheel.get((int) ((expiresMillis / TICK_MILLIS) % wheel.size())).add(token);
+    }
+
+    // Visits every slot whose second has passed since the last tick (at most one full turn)
+    void tick() {
+        long now = clock.getAsLong();
+        long nowTick = now / TICK_MILLIS;
+        long from = Math.max(lastTick + 1, nowTick - wheel.size() + 1);
+        for (long t = from; t <= nowTick; t++) {
+            Queue<String> slot = wheel.get((int) (t % wheel.size()));
+            for (int n = slot.size(); n > 0; n--) {
+                String token = slot.poll();
+                if (token == null) {
+                    break;
+                }
+                Session session = sessions.get(token);
+                if (session == null) {
+                    continue;   // already ended
+                }
+                long expires = session.getLastAccessMillis() + timeoutMillis;
+                if (expires <= now) {
+                    if (sessions.remove(token, session)) {
+                        stats.expired.increment();
+                    }
+                } else {
+                    schedule(token, Math.max(expires, (nowTick + 1) * TICK_MILLIS));   // never the slot being visited
+                }
+            }
+        }
+        lastTick = nowTick;
+    }
+}
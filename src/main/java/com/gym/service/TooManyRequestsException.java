@@ -0,0 +1,10 @@
+package com.gym.service;
+
+/** A request refused by a rate limit or a full work queue; the caller may retry later. */
+public class TooManyRequestsException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
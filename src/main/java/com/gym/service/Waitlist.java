@@ -0,0 +1,201 @@
+package com.gym.service;
+
+import com.gym.domain.WaitlistEntry;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.WaitlistRepository;
+import com.gym.utils.IntObjectMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Waiting members per schedule: the waitlist table, mirrored in memory as one
+ * FIFO queue per tier, so joining is O(1) and finding who to promote needs no
+ * query. A schedule's queues are loaded from the table on first use.
+ *
+ * Changes go to the table and the mirror together, inside the caller's
+ * transaction; writers are serialized by SQLite's write lock, so the mirror
+ * sees them in commit order. The table stays the source of truth: status
+ * updates are conditional (WAITING -> ...), so an entry the mirror still holds
+ * after a rolled-back transaction is skipped, and callers discard() a
+ * schedule's queues when its transaction failed, to reload them.
+ */
+public class Waitlist {
+    private static final Logger log = Log.get(Waitlist.class);
+
+    /** Mirror counters (shown with the metrics). */
+    public static class Stats {
+        final LongAdder joined = new LongAdder();
+        final LongAdder promoted = new LongAdder();
+        final LongAdder left = new LongAdder();
+        final LongAdder loads = new LongAdder();
+
+        public long getJoined() { return joined.sum(); }
+        public long getPromoted() { return promoted.sum(); }
+        public long getLeft() { return left.sum(); }
+        public long getLoads() { return loads.sum(); }
+
+        @Override
+        public String toString() {
+            return "Waitlist{joined=" + getJoined() +
+                    ", promoted=" + getPromoted() +
+                    ", left=" + getLeft() +
+                    ", loads=" + getLoads() +
+                    '}';
+        }
+    }
+
+    // The waiting entries of one schedule: a FIFO per tier plus an index by member
+    private static final class ScheduleQueue {
+        private final List<ArrayDeque<WaitlistEntry>> tiers = new ArrayList<>(WaitlistEntry.TIERS);
+        private final IntObjectMap<WaitlistEntry> byUser = new IntObjectMap<>();
+
+        ScheduleQueue() {
+            for (int i = 0; i < WaitlistEntry.TIERS; i++) {
+                tiers.add(new ArrayDeque<>());
+            }
+        }
+
+        synchronized boolean add(WaitlistEntry entry) {
+            if (byUser.putIfAbsent(entry.getUserId(), entry) != null) {
+                return false;
+            }
+            tiers.get(entry.getTier()).addLast(entry);
+            return true;
+        }
+
+        synchronized WaitlistEntry poll() {
+            for (ArrayDeque<WaitlistEntry> tier : tiers) {
+                WaitlistEntry head = tier.pollFirst();
+                if (head != null) {
+                    byUser.remove(head.getUserId());
+                    return head;
+                }
+            }
+            return null;
+        }
+
+        synchronized WaitlistEntry remove(int userId) {
+            WaitlistEntry entry = byUser.remove(userId);
+            if (entry != null) {
+                tiers.get(entry.getTier()).remove(entry);
+            }
+            return entry;
+        }
+
+        synchronized WaitlistEntry get(int userId) {
+            return byUser.get(userId);
+        }
+
+        // 1-based place in line: everyone in better tiers, then those who joined this tier earlier
+        synchronized int position(int userId) {
+            WaitlistEntry entry = byUser.get(userId);
+            if (entry == null) {
+                return 0;
+            }
+            int ahead = 0;
+            for (int tier = 0; tier < entry.getTier(); tier++) {
+                ahead += tiers.get(tier).size();
+            }
+            for (WaitlistEntry other : tiers.get(entry.getTier())) {
+                if (other == entry) {
+                    break;
+                }
+                ahead++;
+            }
+            return ahead + 1;
+        }
+
+        synchronized int size() {
+            return byUser.size();
+        }
+    }
+
+    private final WaitlistRepository repository;
+    private final Map<Integer, ScheduleQueue> queues = new ConcurrentHashMap<>();
+    private final Stats stats = new Stats();
+
+    public Waitlist(WaitlistRepository repository) {
+        this.repository = repository;
+    }
+
+    public Stats getStats() { return stats; }
+
+    /** Persists a new WAITING entry and queues it; false if it could not be saved (already waiting). */
+    public boolean add(WaitlistEntry entry) {
+        if (!repository.save(entry)) {
+            return false;
+        }
+        queue(entry.getScheduleId()).add(entry);
+        stats.joined.increment();
+        return true;
+    }
+
+    /** Takes the next entry in line (best tier, then earliest) off the mirror, or null. Call close() on it. */
+    public WaitlistEntry poll(int scheduleId) {
+        return queue(scheduleId).poll();
+    }
+
+    /**
+     * Ends a polled entry's wait with the given status (PROMOTED or LEFT).
+     * False if the table no longer had it waiting: a stale mirror entry, to skip.
+     */
+    public boolean close(WaitlistEntry entry, String status) {
+        if (!repository.updateStatus(entry.getEntryId(), WaitlistEntry.WAITING, status)) {
+            log.debug("Skipped stale waitlist entry", "entryId", entry.getEntryId(), "scheduleId", entry.getScheduleId());
+            return false;
+        }
+        entry.setStatus(status);
+        (WaitlistEntry.PROMOTED.equals(status) ? stats.promoted : stats.left).increment();
+        return true;
+    }
+
+    /** Takes a member off a schedule's list (status LEFT); false if they were not waiting. */
+    public boolean remove(int scheduleId, int userId) {
+        WaitlistEntry entry = queue(scheduleId).remove(userId);
+        return entry != null && close(entry, WaitlistEntry.LEFT);
+    }
+
+    public WaitlistEntry find(int scheduleId, int userId) {
+        return queue(scheduleId).get(userId);
+    }
+
+    /** The member's 1-based place in line, 0 if they are not waiting. */
+    public int position(int scheduleId, int userId) {
+        return queue(scheduleId).position(userId);
+    }
+
+    public int size(int scheduleId) {
+        return queue(scheduleId).size();
+    }
+
+    /** The member's waiting entries, from the table. */
+    public List<WaitlistEntry> findByUser(int userId) {
+        return repository.findWaitingByUser(userId);
+    }
+
+    /** Drops a schedule's mirror (after a failed transaction); it is reloaded on next use. */
+    public void discard(int scheduleId) {
+        queues.remove(scheduleId);
+    }
+
+    private ScheduleQueue queue(int scheduleId) {
+        ScheduleQueue queue = queues.get(scheduleId);
+        if (queue != null) {
+            return queue;
+        }
+        // Load outside the map's lock; if another thread won the race, its copy is the one used
+        ScheduleQueue loaded = new ScheduleQueue();
+        for (WaitlistEntry entry : repository.findWaiting(scheduleId)) {
+            loaded.add(entry);
+        }
+        stats.loads.increment();
+        queue = queues.putIfAbsent(scheduleId, loaded);
+        return queue == null ? loaded : queue;
+    }
+}
@@ -0,0 +1,28 @@
+package com.gym.service;
+
+import com.gym.domain.OutboxEvent;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tells members they got a spot from the waitlist (WAITLIST_PROMOTED events).
+ * The app has no mail or push channel yet, so the notice is the log line and
+ * the booking itself, which shows up in the member's bookings; a real
+ * channel plugs in here, after the booking committed.
+ */
+public class WaitlistNotifier implements OutboxDispatcher.Handler {
+    private static final Logger log = Log.get(WaitlistNotifier.class);
+
+    private final LongAdder notified = new LongAdder();
+
+    public long getNotified() { return notified.sum(); }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        log.info("Waitlist spot confirmed", "userId", event.getUserId(), "scheduleId", event.getScheduleId(),
+                "bookingId", event.getBookingId());
+        notified.increment();
+    }
+}
@@ -0,0 +1,41 @@
+package com.gym.service;
+
+import com.gym.domain.ClassSchedule;
+import com.gym.domain.GymClass;
+import com.gym.domain.OutboxEvent;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
+import com.gym.repository.ClassRepository;
+
+/**
+ * Awards XP for an ATTENDED booking event. Runs in the outbox dispatcher's
+ * transaction together with its idempotency key, so every attendance is
+ * awarded exactly once.
+ */
+public class XpAwardHandler implements OutboxDispatcher.Handler {
+    private static final Logger log = Log.get(XpAwardHandler.class);
+
+    private final ClassRepository classRepository;
+    private final ProgressService progressService;
+
+    public XpAwardHandler(ClassRepository classRepository, ProgressService progressService) {
+        this.classRepository = classRepository;
+        this.progressService = progressService;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        // Resolve schedule and class type to know which XP to grant; without them there is nothing to award
+        ClassSchedule schedule = classRepository.findScheduleById(event.getScheduleId());
+        if (schedule == null) {
+            log.warn("XP not awarded: schedule not found", "bookingId", event.getBookingId(), "scheduleId", event.getScheduleId());
+            return;
+        }
+        GymClass gymClass = classRepository.findClassById(schedule.getClassId());
+        if (gymClass == null) {
+            log.warn("XP not awarded: class not found", "bookingId", event.getBookingId(), "classId", schedule.getClassId());
+            return;
+        }
+        progressService.awardPointsForClass(event.getUserId(), gymClass.getClassType());
+    }
+}
@@ -1,8 +1,6 @@
 package com.gym.ui.controllers;
 
-import com.gym.AppConfig;
 import com.gym.domain.User;
-import com.gym.service.AuthService;
 import com.gym.utils.SessionManager;
 import com.gym.utils.SceneManager;
 import javafx.fxml.FXML;
@@ -13,8 +11,6 @@ public class AdminDashboardController {
     @FXML
     private Label welcomeLabel;
 
-    private final AuthService authService = AppConfig.getAuthService();
-
     @FXML
     public void initialize() {
         User current = SessionManager.getCurrentUser();
@@ -51,7 +47,6 @@ public class AdminDashboardController {
 
     @FXML
     private void onLogoutClicked() {
-        authService.logout();
         SessionManager.clear();
         SceneManager.switchTo("/views/login.fxml", "Gym Login");
     }
@@ -3,8 +3,10 @@ package com.gym.ui.controllers;
 import com.gym.AppConfig;
 import com.gym.domain.ClassSchedule;
 import com.gym.domain.GymClass;
+import com.gym.domain.RecurrenceRule;
 import com.gym.service.ClassService;
 import com.gym.utils.SceneManager;
+import com.gym.utils.IntObjectMap;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -15,9 +17,8 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.HashMap;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
 
 public class AdminSchedulesController {
 
@@ -53,6 +54,9 @@ public class AdminSchedulesController {
     @FXML
     private DatePicker scheduleDatePicker;
 
+    @FXML
+    private DatePicker repeatUntilPicker;
+
     @FXML
     private TextField startTimeField;
 
@@ -66,7 +70,7 @@ public class AdminSchedulesController {
     private final DateTimeFormatter timeFmt = DateTimeFormatter.ofPattern("HH:mm");
 
     // For quick lookup of class name / instructor / capacity by id
-    private final Map<Integer, GymClass> classById = new HashMap<>();
+    private final IntObjectMap<GymClass> classById = new IntObjectMap<>();
 
     @FXML
     public void initialize() {
@@ -262,6 +266,33 @@ public class AdminSchedulesController {
             return;
         }
 
+        // Weekly repetition: let the service expand and batch-insert every occurrence
+        LocalDate repeatUntil = repeatUntilPicker.getValue();
+        if (repeatUntil != null) {
+            if (repeatUntil.isBefore(date)) {
+                showAlert("Validation error", "Repeat end date must be on or after the first date.");
+                return;
+            }
+            RecurrenceRule rule = new RecurrenceRule(
+                    selectedClass.getClassId(),
+                    EnumSet.of(date.getDayOfWeek()),
+                    start,
+                    date,
+                    repeatUntil
+            );
+            List<ClassSchedule> created = classService.createRecurringSchedules(List.of(rule));
+            if (created.isEmpty()) {
+                showAlert("Error", "No schedules were created (all dates taken or in the past).");
+                return;
+            }
+            showAlert("Schedules created", created.size() + " weekly schedules created.");
+
+            dateFilterPicker.setValue(date);
+            loadSchedulesForDate(date);
+            clearForm();
+            return;
+        }
+
         // Do not allow the SAME class (same trainer / classId) at the same date & time
         // but allow same class name with different trainer (different classId).
         List<ClassSchedule> daySchedules = classService.getSchedulesByDate(date);
@@ -334,6 +365,7 @@ public class AdminSchedulesController {
         classComboBox.getSelectionModel().clearSelection();
         startTimeField.clear();
         endTimeField.clear();
+        repeatUntilPicker.setValue(null);
         // keep scheduleDatePicker as is
         capacityLabel.setText("Capacity / initial spots: -");
     }
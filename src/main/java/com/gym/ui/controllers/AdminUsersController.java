@@ -5,6 +5,7 @@ import com.gym.domain.User;
 import com.gym.repository.UserRepository;
 import com.gym.service.AuthService;
 import com.gym.utils.SceneManager;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -49,6 +50,7 @@ public class AdminUsersController {
 
     private final AuthService authService = AppConfig.getAuthService();
     private final UserRepository userRepository = AppConfig.getUserRepository();
+    private boolean addInProgress;
 
     @FXML
     public void initialize() {
@@ -102,16 +104,28 @@ public class AdminUsersController {
             return;
         }
 
-        boolean ok = authService.register(username, password, email, role);
-        if (!ok) {
-            // There can be other reasons (duplicate username/email, etc.)
-            showAlert("Error", "Could not create user. " +
-                    "Check that the username and email are not already in use and that the data is valid.");
+        if (addInProgress) {
             return;
         }
 
-        clearForm();
-        loadUsers();
+        // The password is hashed off the FX thread; the result comes back through runLater
+        addInProgress = true;
+        authService.registerAsync(username, password, email, role).whenComplete((ok, error) -> Platform.runLater(() -> {
+            addInProgress = false;
+            if (error != null) {
+                showAlert("Error", "Could not create user right now, please try again.");
+                return;
+            }
+            if (!ok) {
+                // There can be other reasons (duplicate username/email, etc.)
+                showAlert("Error", "Could not create user. " +
+                        "Check that the username and email are not already in use and that the data is valid.");
+                return;
+            }
+
+            clearForm();
+            loadUsers();
+        }));
     }
 
     @FXML
@@ -140,6 +154,7 @@ public class AdminUsersController {
             showAlert("Error", "Could not delete user.");
             return;
         }
+        authService.endSessions(selected.getUserId());   // a deleted user must not stay logged in elsewhere
 
         loadUsers();
     }
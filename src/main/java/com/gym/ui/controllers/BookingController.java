@@ -5,8 +5,11 @@ import com.gym.domain.ClassSchedule;
 import com.gym.domain.GymClass;
 import com.gym.service.BookingService;
 import com.gym.service.ClassService;
+import com.gym.service.SeatAvailabilityBus;
 import com.gym.utils.SessionManager;
 import com.gym.utils.SceneManager;
+import com.gym.utils.IntObjectMap;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -15,8 +18,7 @@ import javafx.scene.control.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.UUID;
 
 
 public class BookingController {
@@ -60,10 +62,14 @@ public class BookingController {
     private Label selectionLabel;
 
     private ClassSchedule selectedSchedule;
+    private String requestKey;          // idempotency key of the booking request for the selected row
 
     /* all schedules for the selected date, before search filter */
     private List<ClassSchedule> allSchedulesForDate = List.of();
-    private final Map<Integer, GymClass> classCache = new HashMap<>();
+    private final IntObjectMap<GymClass> classCache = new IntObjectMap<>();
+
+    /* live seat counts pushed by the booking service while this view is shown */
+    private SeatAvailabilityBus.Subscription seatUpdates;
 
     @FXML
     private void initialize() {
@@ -141,6 +147,10 @@ public class BookingController {
         // when you click a row
         scheduleTable.getSelectionModel().selectedItemProperty().addListener((obs, oldV, newV) -> {
             selectedSchedule = newV;
+            // A new booking request per class; seat updates of the same row keep it, so a double tap on Confirm resends it
+            if (newV == null || oldV == null || newV.getScheduleId() != oldV.getScheduleId()) {
+                requestKey = UUID.randomUUID().toString();
+            }
             if (newV != null) {
                 selectionLabel.setText("Selected: " + formatSchedule(newV));
             } else {
@@ -153,6 +163,49 @@ public class BookingController {
 
         // initial load
         loadSchedulesForSelectedDate();
+        subscribeToSeatChanges();
+    }
+
+    private void subscribeToSeatChanges() {
+        seatUpdates = AppConfig.getSeatAvailabilityBus().subscribe(
+                change -> Platform.runLater(() -> applySeatChange(change)));
+
+        // stop listening once SceneManager replaces this view's scene
+        scheduleTable.sceneProperty().addListener((obs, oldScene, scene) -> {
+            if (scene != null) {
+                scene.windowProperty().addListener((o, oldWindow, window) -> {
+                    if (window == null) {
+                        seatUpdates.close();
+                    }
+                });
+            }
+        });
+    }
+
+    /** Updates only the row of the changed schedule instead of reloading the table. */
+    private void applySeatChange(SeatAvailabilityBus.SeatChange change) {
+        if (change.availableSpots() < 0) {
+            return;
+        }
+        // rows hold the same objects as allSchedulesForDate, so filtered-out rows are updated too
+        for (ClassSchedule s : allSchedulesForDate) {
+            if (s.getScheduleId() == change.scheduleId()) {
+                s.setAvailableSpots(change.availableSpots());
+                break;
+            }
+        }
+        List<ClassSchedule> rows = scheduleTable.getItems();
+        for (int i = 0; i < rows.size(); i++) {
+            ClassSchedule s = rows.get(i);
+            if (s.getScheduleId() == change.scheduleId()) {
+                boolean selected = scheduleTable.getSelectionModel().getSelectedIndex() == i;
+                rows.set(i, s);   // replace -> only this row is redrawn
+                if (selected) {
+                    scheduleTable.getSelectionModel().select(i);
+                }
+                break;
+            }
+        }
     }
 
     private String focusEmoji(String classType) {
@@ -253,33 +306,46 @@ public class BookingController {
             return;
         }
 
-        // check if there are still spots (race condition safe-ish)
-        if (!selectedSchedule.hasAvailableSpots()) {
-            selectionLabel.setText("This class is now full.");
-            loadSchedulesForSelectedDate();
-            return;
-        }
-
         var currentUser = SessionManager.getCurrentUser();
         if (currentUser == null) {
             selectionLabel.setText("You must be logged in to book.");
             return;
         }
 
+        // spots are kept live by seat change events; the service still re-checks atomically
+        if (!selectedSchedule.hasAvailableSpots()) {
+            joinWaitlist(currentUser.getUserId(), selectedSchedule.getScheduleId());
+            return;
+        }
+
         boolean ok = bookingService.bookClass(
                 currentUser.getUserId(),
-                selectedSchedule.getScheduleId()
+                selectedSchedule.getScheduleId(),
+                requestKey
         );
 
         if (ok) {
             selectionLabel.setText("Class booked! See it in 'My bookings'.");
-            // refresh spots
-            loadSchedulesForSelectedDate();
+            // the row's spots update through the seat change event, no reload needed
         } else {
             selectionLabel.setText("Could not book this class (maybe already booked?).");
         }
     }
 
+    // A full class: wait in line; a cancellation books the member automatically
+    private void joinWaitlist(int userId, int scheduleId) {
+        int position = bookingService.getWaitlistPosition(userId, scheduleId);
+        if (position == 0 && bookingService.joinWaitlist(userId, scheduleId)) {
+            position = bookingService.getWaitlistPosition(userId, scheduleId);
+        }
+        if (position > 0) {
+            selectionLabel.setText("This class is full. You are #" + position +
+                    " on the waitlist and will be booked automatically if a spot frees up.");
+        } else {
+            selectionLabel.setText("This class is full (or you are already booked).");
+        }
+    }
+
     @FXML
     private void onBackClicked() {
         SceneManager.switchTo("/views/member-dashboard.fxml", "Member dashboard");
@@ -2,28 +2,37 @@ package com.gym.ui.controllers;
 
 import com.gym.AppConfig;
 import com.gym.domain.User;
+import com.gym.logging.Log;
+import com.gym.logging.Logger;
 import com.gym.service.AuthService;
+import com.gym.service.TooManyRequestsException;
 import com.gym.utils.SceneManager;
 import com.gym.utils.SessionManager;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 
+import java.util.concurrent.CompletionException;
+
 public class LoginController {
+    private static final Logger log = Log.get(LoginController.class);
 
     @FXML private TextField usernameField;
     @FXML private PasswordField passwordField;
     @FXML private Label errorLabel;
 
     private AuthService authService;
+    private boolean waitingForStartup;
+    private boolean loginInProgress;
 
     @FXML
     private void initialize() {
         // This gets executed once FXML loads
         this.authService = AppConfig.getAuthService();
         if (this.authService == null) {
-            System.err.println("ERROR: AuthService is null. Did AppMain call AppConfig.init()?");
+            System.err.println("ERROR: AuthService is null. Did AppMain call AppConfig.configure()?");
         }
         passwordField.setOnAction(e -> onLoginClicked());
     }
@@ -44,13 +53,49 @@ public class LoginController {
             return;
         }
 
-        User logged = authService.login(username, password);
-        if (logged == null) {
-            errorLabel.setText("Invalid username or password");
+        // Schema and default users are created in the background (StartupPipeline)
+        if (!AppConfig.isReady()) {
+            if (AppConfig.readiness().isCompletedExceptionally()) {
+                errorLabel.setText("Startup failed, see the log for details");
+                return;
+            }
+            errorLabel.setText("Still starting up...");
+            if (!waitingForStartup) {
+                waitingForStartup = true;   // one retry, however often the button is clicked
+                AppConfig.readiness().whenComplete((ignored, error) -> Platform.runLater(() -> {
+                    waitingForStartup = false;
+                    onLoginClicked();
+                }));
+            }
+            return;
+        }
+
+        if (loginInProgress) {
             return;
         }
 
-        SessionManager.setCurrentUser(logged);
+        // Password hashing runs off the FX thread; the result comes back through runLater
+        loginInProgress = true;
+        errorLabel.setText("Signing in...");
+        authService.loginAsync(username, password).whenComplete((logged, error) -> Platform.runLater(() -> {
+            loginInProgress = false;
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof TooManyRequestsException) {
+                errorLabel.setText("Too many sign-in attempts, please wait a moment and try again");
+            } else if (cause != null) {
+                log.error("Login failed", cause, "username", username);
+                errorLabel.setText("Could not sign in right now, please try again");
+            } else if (logged == null) {
+                errorLabel.setText("Invalid username or password");
+            } else {
+                errorLabel.setText("");
+                openDashboard(logged);
+            }
+        }));
+    }
+
+    private void openDashboard(User logged) {
+        SessionManager.start(logged);
 
         String role = logged.getRole(); // make sure this is "ADMIN" / "MEMBER" etc.
 
@@ -5,7 +5,6 @@ import com.gym.domain.Booking;
 import com.gym.domain.ClassSchedule;
 import com.gym.domain.GymClass;
 import com.gym.domain.User;
-import com.gym.service.AuthService;
 import com.gym.service.BookingService;
 import com.gym.service.ClassService;
 import com.gym.utils.SceneManager;
@@ -24,7 +23,6 @@ public class MemberDashboardController {
     @FXML
     private Label nextClassLabel;
 
-    private final AuthService authService = AppConfig.getAuthService();
     private final BookingService bookingService = AppConfig.getBookingService();
     private final ClassService classService = AppConfig.getClassService();
 
@@ -126,7 +124,6 @@ public class MemberDashboardController {
 
     @FXML
     private void onLogoutClicked() {
-        authService.logout();
         SessionManager.clear();
         SceneManager.switchTo("/views/login.fxml", "Gym Login");
     }
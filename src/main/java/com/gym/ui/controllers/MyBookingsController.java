@@ -164,7 +164,9 @@ public class MyBookingsController {
                         return;
                     }
 
-                    boolean ok = bookingService.cancelBooking(row.bookingId(), current.getUserId());
+                    // Keyed by booking: a double tap cancels once and reports success both times
+                    boolean ok = bookingService.cancelBooking(row.bookingId(), current.getUserId(),
+                            "cancel-" + row.bookingId());
                     if (ok) {
                         messageLabel.setText("Booking cancelled.");
                         loadBookings();
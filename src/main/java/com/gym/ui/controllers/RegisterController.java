@@ -3,6 +3,7 @@ package com.gym.ui.controllers;
 import com.gym.AppConfig;
 import com.gym.service.AuthService;
 import com.gym.utils.SceneManager;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
@@ -15,6 +16,7 @@ public class RegisterController {
     @FXML private Label errorLabel;
 
     private final AuthService authService = AppConfig.getAuthService();
+    private boolean registrationInProgress;
 
     @FXML
     private void onRegisterClicked() {
@@ -34,16 +36,25 @@ public class RegisterController {
             return;
         }
 
-        // Call your existing registration method
-        boolean ok = authService.register(username, password, email, "MEMBER");
-
-        if (ok) {
-            errorLabel.setStyle("-fx-text-fill: green;");
-            errorLabel.setText("Registration successful! Please log in.");
-        } else {
-            errorLabel.setStyle("-fx-text-fill: red;");
-            errorLabel.setText("Registration failed. Check input.");
+        if (registrationInProgress) {
+            return;
         }
+
+        // The password is hashed off the FX thread; the result comes back through runLater
+        registrationInProgress = true;
+        errorLabel.setStyle("-fx-text-fill: red;");
+        errorLabel.setText("Registering...");
+        authService.registerAsync(username, password, email, "MEMBER").whenComplete((ok, error) -> Platform.runLater(() -> {
+            registrationInProgress = false;
+            if (error != null) {
+                errorLabel.setText("Registration is not possible right now, please try again.");
+            } else if (ok) {
+                errorLabel.setStyle("-fx-text-fill: green;");
+                errorLabel.setText("Registration successful! Please log in.");
+            } else {
+                errorLabel.setText("Registration failed. Check input.");
+            }
+        }));
     }
 
     @FXML
@@ -4,8 +4,6 @@ import com.gym.AppConfig;
 import com.gym.domain.ClassSchedule;
 import com.gym.domain.GymClass;
 import com.gym.domain.User;
-import com.gym.domain.Booking;
-import com.gym.service.AuthService;
 import com.gym.service.BookingService;
 import com.gym.service.ClassService;
 import com.gym.utils.SessionManager;
@@ -47,7 +45,6 @@ public class TrainerDashboardController {
     @FXML
     private TableColumn<ScheduleRow, Number> capacityColumn;
 
-    private AuthService authService;
     private ClassService classService;
     private BookingService bookingService;
 
@@ -56,7 +53,6 @@ public class TrainerDashboardController {
 
     @FXML
     private void initialize() {
-        authService = AppConfig.getAuthService();
         classService = AppConfig.getClassService();
         bookingService = AppConfig.getBookingService();
 
@@ -92,10 +88,7 @@ public class TrainerDashboardController {
                     ? gymClass.getClassType()
                     : "UNKNOWN";
 
-            int booked = (int) bookingService.getScheduleBookings(s.getScheduleId())
-                    .stream()
-                    .filter(Booking::isConfirmed)   // <– only confirmed
-                    .count();
+            int booked = bookingService.countConfirmedBookings(s.getScheduleId()); // only confirmed
 
             // Fallback: booked + availableSpots (in case gymClass is null).
             int capacity;
@@ -121,9 +114,6 @@ public class TrainerDashboardController {
 
     @FXML
     private void onLogoutClicked() {
-        if (authService != null) {
-            authService.logout();
-        }
         SessionManager.clear();
         SceneManager.switchTo("/views/login.fxml", "Gym Login");
     }
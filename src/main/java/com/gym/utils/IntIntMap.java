@@ -0,0 +1,175 @@
+package com.gym.utils;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from int keys to int values, for counts and id lookups: keys and
+ * values live in two int[] (open addressing, linear probing, as
+ * IntObjectMap), so neither is boxed and adding to a count allocates
+ * nothing.
+ *
+ * Not thread-safe.
+ */
+public class IntIntMap {
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** Receives each mapping of forEach. */
+    public interface Entry {
+        void accept(int key, int value);
+    }
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public IntIntMap() {
+        this(16);
+    }
+
+    public IntIntMap(int expectedSize) {
+        allocate(IntObjectMap.capacityFor(expectedSize));
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    /** The value of key, or 0 if it has none. */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    public void put(int key, int value) {
+        int slot = slotFor(key);   // first: it may rehash, replacing the values array
+        values[slot] = value;
+    }
+
+    /** Adds delta to the value of key (0 if absent); returns the new value. */
+    public int addTo(int key, int delta) {
+        int slot = slotFor(key);
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    /** Removes the mapping; false if there was none. */
+    public boolean remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        shiftBack(slot);
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    public void forEach(Entry action) {
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /** The keys, in no particular order (a copy). */
+    public int[] keys() {
+        int[] result = new int[size];
+        int i = 0;
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) {
+                result[i++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    // Slot of key, inserted with value 0 if it was absent
+    private int slotFor(int key) {
+        int slot = IntObjectMap.hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size + 1 > resizeAt) {
+            rehash(keys.length * 2);
+            return slotFor(key);
+        }
+        keys[slot] = key;
+        values[slot] = 0;
+        used[slot] = true;
+        size++;
+        return slot;
+    }
+
+    private int find(int key) {
+        int slot = IntObjectMap.hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion, as in IntObjectMap
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (!used[slot]) {
+                break;
+            }
+            int home = IntObjectMap.hash(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        used[gap] = false;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = IntObjectMap.hash(oldKeys[i]) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+}
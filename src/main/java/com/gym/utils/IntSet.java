@@ -0,0 +1,167 @@
+package com.gym.utils;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Set of ints (ids) in one int[] with open addressing, as IntObjectMap: no
+ * Integer per member and no node per entry.
+ *
+ * Not thread-safe.
+ */
+public class IntSet {
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private int[] keys;
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public IntSet() {
+        this(16);
+    }
+
+    public IntSet(int expectedSize) {
+        allocate(IntObjectMap.capacityFor(expectedSize));
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int value) {
+        return find(value) >= 0;
+    }
+
+    /** Adds value; false if it was already there. */
+    public boolean add(int value) {
+        int slot = IntObjectMap.hash(value) & mask;
+        while (used[slot]) {
+            if (keys[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        used[slot] = true;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /** Removes value; false if it was not there. */
+    public boolean remove(int value) {
+        int slot = find(value);
+        if (slot < 0) {
+            return false;
+        }
+        shiftBack(slot);
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) {
+                action.accept(keys[slot]);
+            }
+        }
+    }
+
+    /** Number of members that match. */
+    public int count(IntPredicate filter) {
+        int count = 0;
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot] && filter.test(keys[slot])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean anyMatch(IntPredicate filter) {
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot] && filter.test(keys[slot])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The members, in no particular order (a copy). */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int i = 0;
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) {
+                result[i++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    /** The members in ascending order (a copy). */
+    public int[] toSortedArray() {
+        int[] result = toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int find(int value) {
+        int slot = IntObjectMap.hash(value) & mask;
+        while (used[slot]) {
+            if (keys[slot] == value) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion, as in IntObjectMap
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (!used[slot]) {
+                break;
+            }
+            int home = IntObjectMap.hash(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                gap = slot;
+            }
+        }
+        used[gap] = false;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = IntObjectMap.hash(oldKeys[i]) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+}
@@ -1,5 +1,124 @@
 package com.gym.utils;
 
-public class PasswordUtil {
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
 
-}
\ No newline at end of file
+/**
+ * Password hashing with PBKDF2 (HMAC-SHA256) from the JDK.
+ *
+ * Stored format: pbkdf2$&lt;iterations&gt;$&lt;salt, base64&gt;$&lt;hash, base64&gt;, with a
+ * random 16-byte salt per password. The iteration count is read from
+ * -Dgym.password.iterations (calibrate it with PasswordHashBenchmark in
+ * benchmarks/); hashes made with another count still verify, and
+ * needsRehash() tells the caller to store a fresh one. Values without the
+ * pbkdf2$ prefix are legacy plaintext passwords, accepted once so they can be
+ * upgraded on the next successful login.
+ *
+ * Hashing is deliberately slow: never call it on the JavaFX thread.
+ */
+public final class PasswordUtil {
+
+    public static final int DEFAULT_ITERATIONS = 210_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2$";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static volatile int iterations = Integer.getInteger("gym.password.iterations", DEFAULT_ITERATIONS);
+    private static volatile String dummyHash;   // see verifyDummy
+
+    private PasswordUtil() {
+    }
+
+    public static int getIterations() { return iterations; }
+
+    public static void setIterations(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("iterations must be positive: " + count);
+        }
+        iterations = count;
+    }
+
+    /** Hashes with a new random salt and the current iteration count. */
+    public static String hash(String password) {
+        return hash(password, iterations);
+    }
+
+    public static String hash(String password, int iterationCount) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] key = derive(password, salt, iterationCount);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterationCount + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(key);
+    }
+
+    /** Checks a password against a stored value, comparing in constant time. */
+    public static boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int iterationCount = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(derive(password, salt, iterationCount), expected);
+        } catch (IllegalArgumentException e) {
+            return false;   // corrupt value (bad number or base64)
+        }
+    }
+
+    /**
+     * Costs as much as verify() against a real hash. Logins
+     * for unknown usernames call it, so response time does not reveal
+     * which usernames exist.
+     */
+    public static void verifyDummy(String password) {
+        String dummy = dummyHash;
+        if (dummy == null || needsRehash(dummy)) {
+            dummy = hash("dummy-password");   // once per iteration count
+            dummyHash = dummy;
+        }
+        verify(password == null ? "" : password, dummy);
+    }
+
+    /** True if the stored value is plaintext or was hashed with other parameters. */
+    public static boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        int second = stored.indexOf('$', PREFIX.length());
+        return second < 0 || !stored.substring(PREFIX.length(), second).equals(Integer.toString(iterations));
+    }
+
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterationCount) {
+        char[] chars = password.toCharArray();
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, iterationCount, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.gym.utils;
 
+import com.gym.metrics.QueryDiagnostics;
+import com.gym.metrics.jfr.SceneSwitchEvent;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -19,13 +22,23 @@ public class SceneManager {
         // Minimum so it doesn’t get too tiny
         primaryStage.setMinWidth(900);
         primaryStage.setMinHeight(600);
+
+        // Query diagnostics group UI-thread queries per event (see QueryDiagnostics)
+        QueryDiagnostics.bindEventLoop(Thread.currentThread(), Platform::runLater);
     }
 
 
     public static void switchTo(String fxmlPath, String title) {
+        SceneSwitchEvent event = new SceneSwitchEvent();
+        event.begin();
+        event.fxml = fxmlPath;
+
+        QueryDiagnostics.Scope scope = QueryDiagnostics.openScope("view " + fxmlPath);
         try {
+            long loadStart = System.nanoTime();
             FXMLLoader loader = new FXMLLoader(SceneManager.class.getResource(fxmlPath));
             Parent root = loader.load();
+            event.loadNanos = System.nanoTime() - loadStart;
             Scene scene = new Scene(root);
 
             // ⬇️ ADD THIS: load global CSS for every scene
@@ -36,9 +49,23 @@ public class SceneManager {
             primaryStage.setTitle(title);
             primaryStage.setScene(scene);
             primaryStage.show();
+
+            // The JFR event ends once the new scene has been laid out for the first time
+            event.succeeded = true;
+            if (event.isEnabled()) {
+                Runnable[] firstLayout = new Runnable[1];
+                firstLayout[0] = () -> {
+                    scene.removePostLayoutPulseListener(firstLayout[0]);
+                    event.commit();
+                };
+                scene.addPostLayoutPulseListener(firstLayout[0]);
+            }
         } catch (Exception e) {
+            event.commit();
             e.printStackTrace();
             System.err.println("Could not load view: " + fxmlPath + " - " + e.getMessage());
+        } finally {
+            scope.close();
         }
     }
 
@@ -1,19 +1,43 @@
 package com.gym.utils;
 
+import com.gym.AppConfig;
 import com.gym.domain.User;
+import com.gym.service.Session;
 
+/**
+ * The session of this JavaFX front end. Sessions themselves live in the
+ * process-wide SessionRegistry (behind AuthService); this only remembers the
+ * token of the user logged in on this screen, so other entry points (HTTP
+ * clients, other kiosks) can have sessions of their own at the same time.
+ * getCurrentUser() returns null once the session has expired.
+ */
 public class SessionManager {
-    private static User currentUser;
+    private static volatile String token;
 
-    public static void setCurrentUser(User user) {
-        currentUser = user;
+    /** Opens a session for the user who just logged in on this screen. */
+    public static void start(User user) {
+        clear();
+        if (user != null) {
+            token = AppConfig.getAuthService().startSession(user).getToken();
+        }
+    }
+
+    public static Session getCurrentSession() {
+        String current = token;
+        return current == null ? null : AppConfig.getAuthService().getSession(current);
     }
 
     public static User getCurrentUser() {
-        return currentUser;
+        Session session = getCurrentSession();
+        return session == null ? null : session.getUser();
     }
 
+    /** Logs this screen's user out (ends the session in the registry). */
     public static void clear() {
-        currentUser = null;
+        String current = token;
+        token = null;
+        if (current != null) {
+            AppConfig.getAuthService().logout(current);
+        }
     }
 }
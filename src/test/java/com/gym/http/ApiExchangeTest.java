@@ -0,0 +1,123 @@
+package com.gym.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiExchangeTest {
+    private final AtomicReference<ApiExchange> seen = new AtomicReference<>();
+    private Router.Handler handler;
+    private TestServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // The exchange as a Router would build it, with one path parameter
+        server = new TestServer(http -> {
+            ApiExchange exchange = new ApiExchange(http, new String[]{"5"});
+            seen.set(exchange);
+            try {
+                handler.handle(exchange);
+            } catch (ApiException e) {
+                exchange.sendError(e.getStatus(), e.getMessage());
+            } catch (Exception e) {
+                exchange.sendError(500, e.toString());
+            } finally {
+                http.close();
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void queryParametersAreDecoded() throws Exception {
+        handler = ex -> ex.send(200, json -> json.beginObject()
+                .field("day", ex.query("day"))
+                .field("q", ex.query("q"))
+                .field("flag", ex.query("flag"))
+                .field("missing", String.valueOf(ex.query("missing")))
+                .endObject());
+
+        Map<String, Object> body = Json.parseObject(server.get("/x?day=2026-03-02&q=a%20b%26c&flag").body());
+
+        assertEquals("2026-03-02", body.get("day"));
+        assertEquals("a b&c", body.get("q"));
+        assertEquals("", body.get("flag"));
+        assertEquals("null", body.get("missing"));
+    }
+
+    @Test
+    void bodyFieldsAreReadAndChecked() throws Exception {
+        handler = ex -> {
+            Map<String, Object> body = ex.body();
+            ex.send(201, json -> json.beginObject()
+                    .field("name", ApiExchange.string(body, "name"))
+                    .field("id", ApiExchange.integer(body, "id"))
+                    .endObject());
+        };
+
+        HttpResponse<String> ok = server.send("POST", "/x", "{\"name\": \"Ana\", \"id\": 3}", null);
+        assertEquals(201, ok.statusCode());
+        assertEquals(Map.of("name", "Ana", "id", 3L), Json.parseObject(ok.body()));
+        assertEquals(1, seen.get().rows());
+        assertEquals(201, seen.get().status());
+
+        assertEquals(400, server.send("POST", "/x", "{\"id\": 3}", null).statusCode());
+        assertEquals(400, server.send("POST", "/x", "{\"name\": \"Ana\", \"id\": 3000000000}", null).statusCode());
+        assertEquals(400, server.send("POST", "/x", "{\"name\": \"Ana\", \"id\": \"3\"}", null).statusCode());
+        assertEquals(400, server.send("POST", "/x", "{\"name\": ", null).statusCode());
+        assertEquals(400, server.send("POST", "/x", "[".repeat(1000), null).statusCode());
+    }
+
+    @Test
+    void oversizedBodyIsRejected() throws Exception {
+        handler = ex -> ex.body();
+
+        HttpResponse<String> response = server.send("POST", "/x", "{\"a\": \"" + "x".repeat(64 * 1024) + "\"}", null);
+
+        assertEquals(413, response.statusCode());
+    }
+
+    @Test
+    void pathParameterMustBeANumber() {
+        ApiExchange exchange = new ApiExchange(null, new String[]{"12", "abc"});
+
+        assertEquals(12, exchange.pathInt(0));
+        ApiException e = assertThrows(ApiException.class, () -> exchange.pathInt(1));
+        assertEquals(400, e.getStatus());
+    }
+
+    @Test
+    void listsAreStreamedAsOneArray() throws Exception {
+        handler = ex -> ex.sendList(List.of("a", "b", "c"), (json, item) -> json.beginObject().field("v", item).endObject());
+
+        HttpResponse<String> response = server.get("/x");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+        assertEquals(List.of(Map.of("v", "a"), Map.of("v", "b"), Map.of("v", "c")), Json.parse(response.body()));
+        assertEquals(3, seen.get().rows());
+    }
+
+    @Test
+    void textResponsesKeepTheirContentType() throws Exception {
+        handler = ex -> ex.sendText(200, "text/plain; charset=utf-8", "calls 3\n");
+
+        HttpResponse<String> response = server.get("/x");
+
+        assertEquals("calls 3\n", response.body());
+        assertEquals("text/plain; charset=utf-8", response.headers().firstValue("Content-Type").orElse(""));
+    }
+}
@@ -0,0 +1,77 @@
+package com.gym.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonTest {
+
+    @Test
+    void parsesEveryValueType() {
+        Map<String, Object> body = Json.parseObject(
+                " {\"name\": \"Ana\", \"id\": 42, \"ratio\": -1.5e2, \"ok\": true, \"no\": false, \"none\": null," +
+                        " \"list\": [1, \"two\", {}], \"nested\": {\"a\": []}} ");
+
+        assertEquals("Ana", body.get("name"));
+        assertEquals(42L, body.get("id"));
+        assertEquals(-150.0, body.get("ratio"));
+        assertEquals(Boolean.TRUE, body.get("ok"));
+        assertEquals(Boolean.FALSE, body.get("no"));
+        assertTrue(body.containsKey("none"));
+        assertNull(body.get("none"));
+        assertEquals(List.of(1L, "two", Map.of()), body.get("list"));
+        assertEquals(Map.of("a", List.of()), body.get("nested"));
+        assertEquals(List.of("name", "id", "ratio", "ok", "no", "none", "list", "nested"),
+                List.copyOf(body.keySet()), "fields keep their order");
+    }
+
+    @Test
+    void decodesEscapes() {
+        assertEquals("a\"b\\c/d\n\t\u00e9", Json.parse("\"a\\\"b\\\\c\\/d\\n\\t\\u00e9\""));
+    }
+
+    @Test
+    void emptyBodyIsAnEmptyObject() {
+        assertEquals(Map.of(), Json.parseObject(""));
+        assertEquals(Map.of(), Json.parseObject("  "));
+        assertEquals(Map.of(), Json.parseObject(null));
+    }
+
+    @Test
+    void malformedInputIsRejected() {
+        for (String text : List.of("{", "[1,", "{\"a\" 1}", "{a: 1}", "\"open", "tru", "1 2", "[1]]", "-", "\"\\x\"", "")) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(text), text);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("[1]"), "not an object");
+    }
+
+    @Test
+    void nestingUpToTheLimitIsAccepted() {
+        Object value = Json.parse("[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH));
+
+        for (int level = 1; level < Json.MAX_DEPTH; level++) {
+            value = ((List<?>) value).get(0);
+        }
+        assertEquals(List.of(), value);
+    }
+
+    @Test
+    void deeperNestingIsRejectedNotAStackOverflow() {
+        String tooDeep = "{\"a\":".repeat(Json.MAX_DEPTH + 1) + "1" + "}".repeat(Json.MAX_DEPTH + 1);
+        assertThrows(IllegalArgumentException.class, () -> Json.parse(tooDeep));
+
+        // A whole request body of '[': rejected after MAX_DEPTH levels
+        char[] brackets = new char[64 * 1024];
+        Arrays.fill(brackets, '[');
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> Json.parseObject(new String(brackets)));
+        assertTrue(e.getMessage().contains("nested"), e.getMessage());
+    }
+}
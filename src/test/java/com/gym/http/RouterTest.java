@@ -0,0 +1,119 @@
+package com.gym.http;
+
+import com.gym.domain.User;
+import com.gym.http.Router.Access;
+import com.gym.metrics.MetricsRegistry;
+import com.gym.repository.memory.MemoryDatabaseManager;
+import com.gym.service.AuthServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RouterTest {
+    private MetricsRegistry metrics;
+    private AuthServiceImpl auth;
+    private Router router;
+    private TestServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        metrics = new MetricsRegistry();
+        auth = new AuthServiceImpl(new MemoryDatabaseManager().getUserRepository());
+        router = new Router(auth, metrics);
+        server = new TestServer(router);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private String tokenFor(String role) {
+        User user = new User(7, "ana", "x", "ana@gym.test", role, null);
+        return auth.startSession(user).getToken();
+    }
+
+    private static Map<String, Object> json(HttpResponse<String> response) {
+        return Json.parseObject(response.body());
+    }
+
+    @Test
+    void pathParametersReachTheHandler() throws Exception {
+        router.add("GET", "/api/classes/{id}", Access.PUBLIC,
+                ex -> ex.send(200, json -> json.beginObject().field("id", ex.pathInt(0)).endObject()));
+
+        HttpResponse<String> response = server.get("/api/classes/12");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(12L, json(response).get("id"));
+        assertEquals(1, metrics.get("HTTP GET /api/classes/{id}").getCalls());
+    }
+
+    @Test
+    void unknownPathIs404AndWrongMethodIs405() throws Exception {
+        router.add("GET", "/api/classes", Access.PUBLIC, ex -> ex.sendError(200, "unused"));
+
+        assertEquals(404, server.get("/api/nothing").statusCode());
+        HttpResponse<String> wrongMethod = server.send("DELETE", "/api/classes", null, null);
+        assertEquals(405, wrongMethod.statusCode());
+        assertEquals("Method not allowed", json(wrongMethod).get("error"));
+        assertEquals(2, metrics.counterValues().get("http.status.4xx"));
+    }
+
+    @Test
+    void accessIsCheckedBeforeTheHandlerRuns() throws Exception {
+        router.add("GET", "/api/admin", Access.ADMIN, ex -> ex.sendError(200, "ok"));
+        router.add("GET", "/api/staff", Access.STAFF, ex -> ex.sendError(200, "ok"));
+
+        assertEquals(401, server.get("/api/admin").statusCode());
+        assertEquals(401, server.send("GET", "/api/admin", null, "not-a-session").statusCode());
+        assertEquals(403, server.send("GET", "/api/admin", null, tokenFor("MEMBER")).statusCode());
+        assertEquals(403, server.send("GET", "/api/staff", null, tokenFor("MEMBER")).statusCode());
+        assertEquals(200, server.send("GET", "/api/staff", null, tokenFor("TRAINER")).statusCode());
+        assertEquals(200, server.send("GET", "/api/admin", null, tokenFor("ADMIN")).statusCode());
+    }
+
+    @Test
+    void apiExceptionsKeepTheirStatus() throws Exception {
+        router.add("GET", "/api/classes/{id}", Access.PUBLIC, ex -> ex.pathInt(0));
+        router.add("GET", "/api/slow", Access.PUBLIC, ex -> {
+            throw new ApiException(429, "Too many attempts");
+        });
+
+        HttpResponse<String> notANumber = server.get("/api/classes/abc");
+        assertEquals(400, notANumber.statusCode());
+        assertEquals("Not a number: abc", json(notANumber).get("error"));
+        assertEquals(429, server.get("/api/slow").statusCode());
+    }
+
+    @Test
+    void deeplyNestedBodyIsABadRequest() throws Exception {
+        router.add("POST", "/api/login", Access.PUBLIC,
+                ex -> ex.send(200, json -> json.beginObject().field("fields", ex.body().size()).endObject()));
+
+        HttpResponse<String> response = server.send("POST", "/api/login", "[".repeat(64 * 1024), null);
+
+        assertEquals(400, response.statusCode());
+        assertEquals(200, server.send("POST", "/api/login", "{\"username\": \"ana\"}", null).statusCode());
+    }
+
+    @Test
+    void unexpectedFailuresAre500() throws Exception {
+        router.add("GET", "/api/broken", Access.PUBLIC, ex -> {
+            throw new IllegalStateException("bug");
+        });
+        router.add("GET", "/api/silent", Access.PUBLIC, ex -> { });
+
+        HttpResponse<String> broken = server.get("/api/broken");
+        assertEquals(500, broken.statusCode());
+        assertEquals("Internal error", json(broken).get("error"));
+        assertEquals(500, server.get("/api/silent").statusCode());
+        assertEquals(1, metrics.get("HTTP GET /api/broken").getErrors());
+        assertEquals(2, metrics.counterValues().get("http.status.5xx"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.gym.metrics;
+
+import com.gym.http.Json;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsRegistryTest {
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    private List<?> dump() {
+        return (List<?>) Json.parse(registry.dumpJson());
+    }
+
+    private static Object field(Object entry, String name) {
+        return ((Map<?, ?>) entry).get(name);
+    }
+
+    @Test
+    void emptyRegistryDumpsAnEmptyArray() {
+        assertEquals(List.of(), dump());
+    }
+
+    @Test
+    void countersWithoutMethodsAreSeparated() {
+        registry.registerCounter("a", () -> 1);
+        registry.registerCounter("b", () -> 2);
+
+        assertEquals(List.of(Map.of("name", "a", "counter", 1L), Map.of("name", "b", "counter", 2L)), dump());
+    }
+
+    @Test
+    void methodsWithoutCountersAreSeparated() {
+        registry.record("slow", 2_000_000, 0, false);
+        registry.record("fast", 1_000, 3, true);
+
+        List<?> entries = dump();
+        assertEquals(2, entries.size());
+        assertEquals("slow", field(entries.get(0), "name"));   // most total time first
+        assertEquals("fast", field(entries.get(1), "name"));
+        assertEquals(1L, field(entries.get(1), "errors"));
+        assertEquals(3L, field(entries.get(1), "rows"));
+    }
+
+    @Test
+    void countersComeBeforeMethods() {
+        registry.registerCounter("cache.hits", () -> 5);
+        registry.record("BookingRepository.findByUserId", 1_000, 1, false);
+        registry.record("SQL SELECT \"quoted\" FROM users", 1_000, 1, false);
+
+        List<?> entries = dump();
+        assertEquals(3, entries.size());
+        assertEquals("cache.hits", field(entries.get(0), "name"));
+        assertEquals(5L, field(entries.get(0), "counter"));
+        assertEquals(1L, field(entries.get(1), "calls"));
+        assertEquals(1L, field(entries.get(2), "calls"));
+    }
+
+    @Test
+    void statementNamesCollapseWhitespace() {
+        registry.recordStatement("SELECT *\n  FROM   users\tWHERE id = ?", null, 1_000, null);
+        registry.recordStatement("SELECT * FROM users WHERE id = ?", null, 1_000, null);
+
+        assertEquals(2, registry.get("SQL SELECT * FROM users WHERE id = ?").getCalls());
+    }
+}
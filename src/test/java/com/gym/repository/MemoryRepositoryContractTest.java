@@ -0,0 +1,28 @@
+package com.gym.repository;
+
+import com.gym.repository.memory.MemoryDatabaseManager;
+
+import java.nio.file.Path;
+
+class MemoryRepositoryContractTest extends RepositoryContractTest {
+    private MemoryDatabaseManager memory;
+
+    @Override
+    protected DatabaseManager openDatabase(Path dir) {
+        memory = new MemoryDatabaseManager();
+        memory.initializeDatabase();
+        return memory;
+    }
+
+    @Override
+    protected void closeDatabase() {
+        // nothing persisted, nothing to close
+    }
+
+    @Override protected UserRepository userRepository() { return memory.getUserRepository(); }
+    @Override protected ClassRepository classRepository() { return memory.getClassRepository(); }
+    @Override protected BookingRepository bookingRepository() { return memory.getBookingRepository(); }
+    @Override protected ProgressRepository progressRepository() { return memory.getProgressRepository(); }
+    @Override protected WaitlistRepository waitlistRepository() { return memory.getWaitlistRepository(); }
+    @Override protected RequestKeyRepository requestKeyRepository() { return memory.getRequestKeyRepository(); }
+}
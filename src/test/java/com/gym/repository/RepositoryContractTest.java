@@ -0,0 +1,508 @@
+package com.gym.repository;
+
+import com.gym.domain.Booking;
+import com.gym.domain.ClassSchedule;
+import com.gym.domain.FitnessProgress;
+import com.gym.domain.GymClass;
+import com.gym.domain.RequestKey;
+import com.gym.domain.User;
+import com.gym.domain.WaitlistEntry;
+import com.gym.utils.PasswordUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * What every backend's repositories must do alike, so the in-memory backend
+ * stays a stand-in for SQLite: each subclass binds these tests to one
+ * DatabaseManager and its repositories.
+ */
+public abstract class RepositoryContractTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @TempDir
+    Path dir;
+
+    protected DatabaseManager db;
+    protected UserRepository users;
+    protected ClassRepository classes;
+    protected BookingRepository bookings;
+    protected ProgressRepository progress;
+    protected WaitlistRepository waitlist;
+    protected RequestKeyRepository requestKeys;
+
+    /** Opens an empty database under dir, with its tables created. */
+    protected abstract DatabaseManager openDatabase(Path dir);
+
+    protected abstract void closeDatabase();
+
+    protected abstract UserRepository userRepository();
+    protected abstract ClassRepository classRepository();
+    protected abstract BookingRepository bookingRepository();
+    protected abstract ProgressRepository progressRepository();
+    protected abstract WaitlistRepository waitlistRepository();
+    protected abstract RequestKeyRepository requestKeyRepository();
+
+    @BeforeEach
+    void open() {
+        db = openDatabase(dir);
+        users = userRepository();
+        classes = classRepository();
+        bookings = bookingRepository();
+        progress = progressRepository();
+        waitlist = waitlistRepository();
+        requestKeys = requestKeyRepository();
+    }
+
+    @AfterEach
+    void close() {
+        closeDatabase();
+    }
+
+    // Users
+
+    @Test
+    void savedUserIsFoundByIdAndUsername() {
+        User ana = member("ana");
+
+        User byId = users.findById(ana.getUserId());
+        assertEquals("ana", byId.getUsername());
+        assertEquals("ana@gym.test", byId.getEmail());
+        assertEquals("MEMBER", byId.getRole());
+        assertTrue(PasswordUtil.verify("secret", byId.getPassword()), "stored hashed, not as given");
+        assertEquals(ana.getUserId(), users.findByUsername("ana").getUserId());
+        assertNull(users.findById(ana.getUserId() + 100));
+        assertNull(users.findByUsername("nobody"));
+    }
+
+    @Test
+    void passwordThatLooksLikeAHashIsStillHashed() {
+        String lookalike = PasswordUtil.hash("other");
+        User ana = new User("ana", lookalike, "ana@gym.test", "MEMBER");
+        assertTrue(users.save(ana));
+
+        String stored = users.findById(ana.getUserId()).getPassword();
+        assertNotEquals(lookalike, stored);
+        assertTrue(PasswordUtil.verify(lookalike, stored));
+        assertFalse(PasswordUtil.verify("other", stored));
+    }
+
+    @Test
+    void usernameAndEmailAreUnique() {
+        User ana = member("ana");
+
+        assertFalse(users.save(new User("ana", "secret", "other@gym.test", "MEMBER")));
+        assertFalse(users.save(new User("other", "secret", "ana@gym.test", "MEMBER")));
+        assertEquals(1, users.findAll().size());
+
+        User ben = member("ben");
+        ben.setUsername("ana");
+        assertFalse(users.update(ben), "update cannot take another user's username");
+        assertEquals("ben", users.findById(ben.getUserId()).getUsername());
+        assertEquals("ana", users.findById(ana.getUserId()).getUsername());
+    }
+
+    @Test
+    void userUpdateKeepsPasswordAndPasswordUpdateKeepsTheRest() {
+        User ana = member("ana");
+        String hash = users.findById(ana.getUserId()).getPassword();
+
+        User renamed = new User(ana.getUserId(), "ana.m", "ignored", "ana.m@gym.test", "TRAINER", null);
+        assertTrue(users.update(renamed));
+        User row = users.findById(ana.getUserId());
+        assertEquals("ana.m", row.getUsername());
+        assertEquals("TRAINER", row.getRole());
+        assertEquals(hash, row.getPassword());
+        assertNull(users.findByUsername("ana"));
+
+        String newHash = PasswordUtil.hash("changed");
+        assertTrue(users.updatePassword(ana.getUserId(), newHash));
+        assertEquals(newHash, users.findById(ana.getUserId()).getPassword());
+        assertEquals("ana.m@gym.test", users.findById(ana.getUserId()).getEmail());
+        assertFalse(users.updatePassword(ana.getUserId() + 100, newHash));
+    }
+
+    @Test
+    void deletedUserFreesTheirUsername() {
+        User ana = member("ana");
+
+        assertTrue(users.delete(ana.getUserId()));
+        assertFalse(users.delete(ana.getUserId()));
+        assertNull(users.findById(ana.getUserId()));
+        assertTrue(users.save(new User("ana", "secret", "ana@gym.test", "MEMBER")));
+    }
+
+    // Classes and schedules
+
+    @Test
+    void classesAreSavedUpdatedAndDeleted() {
+        GymClass spin = gymClass("Spin");
+        assertTrue(spin.getClassId() > 0);
+
+        spin.setClassName("Spin 45");
+        spin.setInstructorName("Ben");
+        assertTrue(classes.updateClass(spin));
+        GymClass row = classes.findClassById(spin.getClassId());
+        assertEquals("Spin 45", row.getClassName());
+        assertEquals("Ben", row.getInstructorName());
+        assertEquals(20, row.getCapacity());
+        assertEquals(1, classes.findAllClasses().size());
+
+        assertTrue(classes.deleteClass(spin.getClassId()));
+        assertNull(classes.findClassById(spin.getClassId()));
+        assertFalse(classes.deleteClass(spin.getClassId()));
+    }
+
+    @Test
+    void schedulesAreFoundByClassAndDay() {
+        GymClass spin = gymClass("Spin");
+        GymClass yoga = gymClass("Yoga");
+        ClassSchedule late = schedule(spin, DAY, 18, 5);
+        ClassSchedule early = schedule(yoga, DAY, 7, 5);
+        ClassSchedule nextDay = schedule(spin, DAY.plusDays(1), 9, 5);
+
+        ClassSchedule row = classes.findScheduleById(late.getScheduleId());
+        assertEquals(spin.getClassId(), row.getClassId());
+        assertEquals(DAY, row.getScheduledDate());
+        assertEquals(LocalTime.of(18, 0), row.getStartTime());
+        assertEquals(LocalTime.of(19, 0), row.getEndTime());
+        assertEquals(5, row.getAvailableSpots());
+
+        assertEquals(List.of(early.getScheduleId(), late.getScheduleId()), scheduleIds(classes.findSchedulesByDate(DAY)));
+        assertEquals(List.of(late.getScheduleId(), nextDay.getScheduleId()),
+                scheduleIds(classes.findSchedulesByClassId(spin.getClassId())).stream().sorted().toList());
+        assertTrue(classes.findSchedulesByDate(DAY.minusDays(1)).isEmpty());
+        assertEquals(3, classes.findAllSchedules().size());
+    }
+
+    @Test
+    void schedulesBetweenIncludeBothEnds() {
+        GymClass spin = gymClass("Spin");
+        schedule(spin, DAY.minusDays(1), 9, 5);
+        ClassSchedule first = schedule(spin, DAY, 9, 5);
+        ClassSchedule last = schedule(spin, DAY.plusDays(2), 9, 5);
+        schedule(spin, DAY.plusDays(3), 9, 5);
+
+        List<ClassSchedule> range = classes.findSchedulesBetween(DAY, DAY.plusDays(2));
+
+        assertEquals(List.of(first.getScheduleId(), last.getScheduleId()), scheduleIds(range));
+        assertTrue(classes.findSchedulesBetween(DAY.plusDays(10), DAY.plusDays(20)).isEmpty());
+    }
+
+    @Test
+    void schedulesSavedInABatchGetIds() {
+        GymClass spin = gymClass("Spin");
+        List<ClassSchedule> batch = List.of(
+                new ClassSchedule(spin.getClassId(), DAY, LocalTime.of(9, 0), LocalTime.of(10, 0), 5),
+                new ClassSchedule(spin.getClassId(), DAY.plusDays(7), LocalTime.of(9, 0), LocalTime.of(10, 0), 5));
+
+        assertTrue(classes.saveSchedules(batch));
+
+        for (ClassSchedule schedule : batch) {
+            assertTrue(schedule.getScheduleId() > 0);
+            assertNotNull(classes.findScheduleById(schedule.getScheduleId()));
+        }
+    }
+
+    @Test
+    void reserveSpotStopsAtZeroAndReleaseGivesItBack() {
+        ClassSchedule schedule = schedule(gymClass("Spin"), DAY, 9, 2);
+
+        assertTrue(classes.reserveSpot(schedule.getScheduleId()));
+        assertTrue(classes.reserveSpot(schedule.getScheduleId()));
+        assertFalse(classes.reserveSpot(schedule.getScheduleId()), "full");
+        assertEquals(0, classes.findScheduleById(schedule.getScheduleId()).getAvailableSpots());
+
+        assertTrue(classes.releaseSpot(schedule.getScheduleId()));
+        assertEquals(1, classes.findScheduleById(schedule.getScheduleId()).getAvailableSpots());
+        assertFalse(classes.reserveSpot(schedule.getScheduleId() + 100), "missing");
+    }
+
+    @Test
+    void updatedScheduleMovesToItsNewDay() {
+        ClassSchedule schedule = schedule(gymClass("Spin"), DAY, 9, 5);
+
+        assertTrue(classes.updateSchedule(new ClassSchedule(schedule.getScheduleId(), schedule.getClassId(),
+                DAY.plusDays(1), LocalTime.of(9, 0), LocalTime.of(10, 0), 5)));
+
+        assertTrue(classes.findSchedulesByDate(DAY).isEmpty());
+        assertEquals(List.of(schedule.getScheduleId()), scheduleIds(classes.findSchedulesByDate(DAY.plusDays(1))));
+
+        assertTrue(classes.deleteSchedule(schedule.getScheduleId()));
+        assertNull(classes.findScheduleById(schedule.getScheduleId()));
+        assertTrue(classes.findSchedulesByDate(DAY.plusDays(1)).isEmpty());
+    }
+
+    // Bookings
+
+    @Test
+    void memberHasOneConfirmedBookingPerSchedule() {
+        User ana = member("ana");
+        ClassSchedule schedule = schedule(gymClass("Spin"), DAY, 9, 5);
+
+        Booking first = new Booking(ana.getUserId(), schedule.getScheduleId(), "CONFIRMED");
+        assertTrue(bookings.save(first));
+        assertTrue(bookings.existsActiveBooking(ana.getUserId(), schedule.getScheduleId()));
+        assertFalse(bookings.save(new Booking(ana.getUserId(), schedule.getScheduleId(), "CONFIRMED")));
+
+        // Once cancelled, the member may book again
+        assertTrue(bookings.updateStatus(first.getBookingId(), "CONFIRMED", "CANCELLED"));
+        assertFalse(bookings.existsActiveBooking(ana.getUserId(), schedule.getScheduleId()));
+        assertTrue(bookings.save(new Booking(ana.getUserId(), schedule.getScheduleId(), "CONFIRMED")));
+
+        // ...but the cancelled one cannot be confirmed next to it
+        assertFalse(bookings.updateStatus(first.getBookingId(), "CANCELLED", "CONFIRMED"));
+        assertEquals("CANCELLED", bookings.findById(first.getBookingId()).getStatus());
+    }
+
+    @Test
+    void updateStatusChecksTheExpectedStatus() {
+        User ana = member("ana");
+        ClassSchedule schedule = schedule(gymClass("Spin"), DAY, 9, 5);
+        Booking booking = new Booking(ana.getUserId(), schedule.getScheduleId(), "CONFIRMED");
+        assertTrue(bookings.save(booking));
+
+        assertFalse(bookings.updateStatus(booking.getBookingId(), "CANCELLED", "ATTENDED"));
+        assertTrue(bookings.updateStatus(booking.getBookingId(), "CONFIRMED", "ATTENDED"));
+        assertEquals("ATTENDED", bookings.findById(booking.getBookingId()).getStatus());
+        assertFalse(bookings.updateStatus(booking.getBookingId() + 100, "ATTENDED", "CANCELLED"));
+    }
+
+    @Test
+    void bookingsAreListedInBookingOrderAndCounted() {
+        User ana = member("ana");
+        User ben = member("ben");
+        GymClass spin = gymClass("Spin");
+        GymClass yoga = gymClass("Yoga");
+        ClassSchedule later = schedule(spin, DAY.plusDays(1), 9, 5);
+        ClassSchedule earlier = schedule(yoga, DAY, 9, 5);
+
+        Booking a = booking(ana, later, "CONFIRMED");
+        Booking b = booking(ana, earlier, "CANCELLED");
+        Booking c = booking(ben, earlier, "CONFIRMED");
+
+        assertEquals(List.of(a.getBookingId(), b.getBookingId()), bookingIds(bookings.findByUserId(ana.getUserId())));
+        assertEquals(List.of(b.getBookingId(), c.getBookingId()), bookingIds(bookings.findByScheduleId(earlier.getScheduleId())));
+        assertEquals(3, bookings.findAll().size());
+
+        assertEquals(1, bookings.countByScheduleIdAndStatus(earlier.getScheduleId(), "CONFIRMED"));
+        assertEquals(1, bookings.countByScheduleIdAndStatus(earlier.getScheduleId(), "CANCELLED"));
+        assertEquals(2, bookings.countByStatus().get("CONFIRMED"));
+        assertEquals(1, bookings.countByStatus().get("CANCELLED"));
+        // Cancelled bookings do not count towards a class
+        assertEquals(1, bookings.countActiveByClassId().get(spin.getClassId()));
+        assertEquals(1, bookings.countActiveByClassId().get(yoga.getClassId()));
+
+        assertTrue(bookings.delete(b.getBookingId()));
+        assertNull(bookings.findById(b.getBookingId()));
+        assertEquals(List.of(a.getBookingId()), bookingIds(bookings.findByUserId(ana.getUserId())));
+    }
+
+    // Progress
+
+    @Test
+    void progressHasOneRowPerCategory() {
+        User ana = member("ana");
+        FitnessProgress cardio = new FitnessProgress(ana.getUserId(), "CARDIO", 10);
+        assertTrue(progress.save(cardio));
+        assertFalse(progress.save(new FitnessProgress(ana.getUserId(), "CARDIO", 5)));
+        assertTrue(progress.save(new FitnessProgress(ana.getUserId(), "STRENGTH", 5)));
+
+        cardio.addPoints(15);
+        assertTrue(progress.update(cardio));
+        assertEquals(25, progress.findByUserIdAndCategory(ana.getUserId(), "CARDIO").getTotalPoints());
+        assertEquals(2, progress.findByUserId(ana.getUserId()).size());
+        assertNull(progress.findByUserIdAndCategory(ana.getUserId(), "FLEXIBILITY"));
+
+        assertTrue(progress.delete(cardio.getProgressId()));
+        assertNull(progress.findById(cardio.getProgressId()));
+        assertEquals(1, progress.findAll().size());
+    }
+
+    // Waitlist
+
+    @Test
+    void waitlistIsOrderedByTierThenArrival() {
+        ClassSchedule schedule = schedule(gymClass("Spin"), DAY, 9, 1);
+        User ana = member("ana");
+        User ben = member("ben");
+        User cleo = member("cleo");
+
+        WaitlistEntry first = waiting(ana, schedule, WaitlistEntry.TIER_STANDARD);
+        WaitlistEntry second = waiting(ben, schedule, WaitlistEntry.TIER_STANDARD);
+        WaitlistEntry priority = waiting(cleo, schedule, WaitlistEntry.TIER_PRIORITY);
+
+        assertEquals(List.of(priority.getEntryId(), first.getEntryId(), second.getEntryId()),
+                entryIds(waitlist.findWaiting(schedule.getScheduleId())));
+        assertEquals(List.of(first.getEntryId()), entryIds(waitlist.findWaitingByUser(ana.getUserId())));
+    }
+
+    @Test
+    void memberWaitsOnceAndLeavingClosesTheEntry() {
+        ClassSchedule schedule = schedule(gymClass("Spin"), DAY, 9, 1);
+        User ana = member("ana");
+        WaitlistEntry entry = waiting(ana, schedule, WaitlistEntry.TIER_STANDARD);
+
+        assertFalse(waitlist.save(new WaitlistEntry(schedule.getScheduleId(), ana.getUserId(), WaitlistEntry.TIER_PRIORITY)));
+
+        assertFalse(waitlist.updateStatus(entry.getEntryId(), WaitlistEntry.PROMOTED, WaitlistEntry.LEFT));
+        assertTrue(waitlist.updateStatus(entry.getEntryId(), WaitlistEntry.WAITING, WaitlistEntry.LEFT));
+        assertTrue(waitlist.findWaiting(schedule.getScheduleId()).isEmpty());
+        assertTrue(waitlist.findWaitingByUser(ana.getUserId()).isEmpty());
+
+        // Having left, the member may join again
+        WaitlistEntry again = waiting(ana, schedule, WaitlistEntry.TIER_STANDARD);
+        assertTrue(again.getEntryId() > entry.getEntryId());
+    }
+
+    // Request keys
+
+    @Test
+    void requestKeyIsStoredOncePerUser() {
+        RequestKey key = new RequestKey(1, "k1", RequestKey.BOOK, 10, 1_000);
+        assertTrue(requestKeys.save(key));
+        assertFalse(requestKeys.save(new RequestKey(1, "k1", RequestKey.CANCEL, 11, 2_000)));
+        assertTrue(requestKeys.save(new RequestKey(2, "k1", RequestKey.CANCEL, 11, 2_000)));
+
+        RequestKey row = requestKeys.find(1, "k1");
+        assertEquals(RequestKey.BOOK, row.getOperation());
+        assertEquals(10, row.getTargetId());
+        assertEquals(1_000, row.getCreatedMillis());
+        assertNull(requestKeys.find(1, "k2"));
+    }
+
+    @Test
+    void requestKeysAreDeletedByAge() {
+        assertTrue(requestKeys.save(new RequestKey(1, "old", RequestKey.BOOK, 10, 1_000)));
+        assertTrue(requestKeys.save(new RequestKey(1, "new", RequestKey.BOOK, 11, 5_000)));
+
+        assertEquals(1, requestKeys.deleteBefore(5_000));
+
+        assertNull(requestKeys.find(1, "old"));
+        assertNotNull(requestKeys.find(1, "new"));
+        assertEquals(0, requestKeys.deleteBefore(5_000));
+    }
+
+    // Transactions
+
+    @Test
+    void transactionCommitsWhenWorkReturnsTrue() {
+        User ana = member("ana");
+        ClassSchedule schedule = schedule(gymClass("Spin"), DAY, 9, 1);
+
+        assertTrue(db.inTransaction(() -> classes.reserveSpot(schedule.getScheduleId())
+                && bookings.save(new Booking(ana.getUserId(), schedule.getScheduleId(), "CONFIRMED"))));
+
+        assertTrue(bookings.existsActiveBooking(ana.getUserId(), schedule.getScheduleId()));
+        assertEquals(0, classes.findScheduleById(schedule.getScheduleId()).getAvailableSpots());
+    }
+
+    @Test
+    void transactionRollsBackEveryChangeWhenWorkReturnsFalse() {
+        User ana = member("ana");
+        ClassSchedule schedule = schedule(gymClass("Spin"), DAY, 9, 1);
+        Booking existing = booking(ana, schedule, "CONFIRMED");
+
+        assertFalse(db.inTransaction(() -> {
+            assertTrue(bookings.updateStatus(existing.getBookingId(), "CONFIRMED", "CANCELLED"));
+            assertTrue(classes.reserveSpot(schedule.getScheduleId()));
+            assertTrue(users.save(new User("ben", "secret", "ben@gym.test", "MEMBER")));
+            assertTrue(progress.save(new FitnessProgress(ana.getUserId(), "CARDIO", 10)));
+            assertTrue(waitlist.save(new WaitlistEntry(schedule.getScheduleId(), ana.getUserId(), WaitlistEntry.TIER_STANDARD)));
+            assertTrue(requestKeys.save(new RequestKey(ana.getUserId(), "k1", RequestKey.BOOK, 1)));
+            return false;
+        }));
+
+        assertEquals("CONFIRMED", bookings.findById(existing.getBookingId()).getStatus());
+        assertEquals(1, classes.findScheduleById(schedule.getScheduleId()).getAvailableSpots());
+        assertNull(users.findByUsername("ben"));
+        assertNull(progress.findByUserIdAndCategory(ana.getUserId(), "CARDIO"));
+        assertTrue(waitlist.findWaiting(schedule.getScheduleId()).isEmpty());
+        assertNull(requestKeys.find(ana.getUserId(), "k1"));
+        // The rolled-back username is free again
+        assertTrue(users.save(new User("ben", "secret", "ben@gym.test", "MEMBER")));
+    }
+
+    @Test
+    void transactionRollsBackWhenWorkThrows() {
+        ClassSchedule schedule = schedule(gymClass("Spin"), DAY, 9, 1);
+
+        assertThrows(IllegalStateException.class, () -> db.inTransaction(() -> {
+            classes.reserveSpot(schedule.getScheduleId());
+            throw new IllegalStateException("failed half way");
+        }));
+
+        assertEquals(1, classes.findScheduleById(schedule.getScheduleId()).getAvailableSpots());
+    }
+
+    @Test
+    void nestedTransactionJoinsTheOuterOne() {
+        ClassSchedule schedule = schedule(gymClass("Spin"), DAY, 9, 2);
+
+        assertFalse(db.inTransaction(() -> {
+            assertTrue(db.inTransaction(() -> classes.reserveSpot(schedule.getScheduleId())));
+            return false;
+        }));
+
+        assertEquals(2, classes.findScheduleById(schedule.getScheduleId()).getAvailableSpots());
+    }
+
+    // Helpers
+
+    private User member(String username) {
+        User user = new User(username, "secret", username + "@gym.test", "MEMBER");
+        assertTrue(users.save(user));
+        return user;
+    }
+
+    private GymClass gymClass(String name) {
+        GymClass gymClass = new GymClass(name, "Ana", name + " class", 20, 60, "CARDIO");
+        assertTrue(classes.saveClass(gymClass));
+        return gymClass;
+    }
+
+    private ClassSchedule schedule(GymClass gymClass, LocalDate day, int hour, int spots) {
+        ClassSchedule schedule = new ClassSchedule(gymClass.getClassId(), day, LocalTime.of(hour, 0),
+                LocalTime.of(hour + 1, 0), spots);
+        assertTrue(classes.saveSchedule(schedule));
+        return schedule;
+    }
+
+    private Booking booking(User user, ClassSchedule schedule, String status) {
+        Booking booking = new Booking(user.getUserId(), schedule.getScheduleId(), status);
+        assertTrue(bookings.save(booking));
+        return booking;
+    }
+
+    private WaitlistEntry waiting(User user, ClassSchedule schedule, int tier) {
+        WaitlistEntry entry = new WaitlistEntry(schedule.getScheduleId(), user.getUserId(), tier);
+        assertTrue(waitlist.save(entry));
+        return entry;
+    }
+
+    private static List<Integer> scheduleIds(List<ClassSchedule> schedules) {
+        return schedules.stream().map(ClassSchedule::getScheduleId).toList();
+    }
+
+    private static List<Integer> bookingIds(List<Booking> rows) {
+        return rows.stream().map(Booking::getBookingId).toList();
+    }
+
+    private static List<Long> entryIds(List<WaitlistEntry> entries) {
+        return entries.stream().map(WaitlistEntry::getEntryId).toList();
+    }
+}
@@ -0,0 +1,34 @@
+package com.gym.repository;
+
+import com.gym.repository.sqlite.SqliteBookingRepository;
+import com.gym.repository.sqlite.SqliteClassRepository;
+import com.gym.repository.sqlite.SqliteDatabaseManager;
+import com.gym.repository.sqlite.SqliteProgressRepository;
+import com.gym.repository.sqlite.SqliteRequestKeyRepository;
+import com.gym.repository.sqlite.SqliteUserRepository;
+import com.gym.repository.sqlite.SqliteWaitlistRepository;
+
+import java.nio.file.Path;
+
+class SqliteRepositoryContractTest extends RepositoryContractTest {
+    private SqliteDatabaseManager sqlite;
+
+    @Override
+    protected DatabaseManager openDatabase(Path dir) {
+        sqlite = new SqliteDatabaseManager("jdbc:sqlite:" + dir.resolve("gym.db"));
+        sqlite.initializeDatabase();
+        return sqlite;
+    }
+
+    @Override
+    protected void closeDatabase() {
+        sqlite.shutdown();
+    }
+
+    @Override protected UserRepository userRepository() { return new SqliteUserRepository(sqlite); }
+    @Override protected ClassRepository classRepository() { return new SqliteClassRepository(sqlite); }
+    @Override protected BookingRepository bookingRepository() { return new SqliteBookingRepository(sqlite); }
+    @Override protected ProgressRepository progressRepository() { return new SqliteProgressRepository(sqlite); }
+    @Override protected WaitlistRepository waitlistRepository() { return new SqliteWaitlistRepository(sqlite); }
+    @Override protected RequestKeyRepository requestKeyRepository() { return new SqliteRequestKeyRepository(sqlite); }
+}
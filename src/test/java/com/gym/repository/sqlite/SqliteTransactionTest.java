@@ -0,0 +1,138 @@
+package com.gym.repository.sqlite;
+
+import com.gym.domain.Booking;
+import com.gym.domain.ClassSchedule;
+import com.gym.domain.GymClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteTransactionTest {
+    private static final int SPOTS = 10;
+
+    @TempDir
+    Path dir;
+
+    private SqliteDatabaseManager db;
+    private SqliteClassRepository classes;
+    private SqliteBookingRepository bookings;
+    private int scheduleId;
+
+    @BeforeEach
+    void setUp() {
+        db = new SqliteDatabaseManager(url());
+        db.initializeDatabase();
+        classes = new SqliteClassRepository(db);
+        bookings = new SqliteBookingRepository(db);
+
+        GymClass spin = new GymClass("Spin", "Ana", "Indoor cycling", SPOTS, 45, "CARDIO");
+        assertTrue(classes.saveClass(spin));
+        ClassSchedule schedule = new ClassSchedule(spin.getClassId(), LocalDate.of(2026, 3, 2),
+                LocalTime.of(9, 0), LocalTime.of(9, 45), SPOTS);
+        assertTrue(classes.saveSchedule(schedule));
+        scheduleId = schedule.getScheduleId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    private String url() {
+        return "jdbc:sqlite:" + dir.resolve("gym.db");
+    }
+
+    // What BookingServiceImpl.bookClass does in its transaction
+    private boolean book(int userId) {
+        return db.inTransaction(() -> classes.reserveSpot(scheduleId)
+                && bookings.save(new Booking(userId, scheduleId, "CONFIRMED")));
+    }
+
+    @Test
+    void committedTransactionLeavesNoLockBehind() throws SQLException {
+        assertTrue(book(1));
+        assertFalse(db.inTransaction(() -> classes.reserveSpot(scheduleId) && false));
+
+        // The pooled connection is idle again: another writer gets the lock without waiting
+        try (Connection other = DriverManager.getConnection(url());
+             Statement stmt = other.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = 0");
+            stmt.execute("BEGIN IMMEDIATE");
+            stmt.execute("ROLLBACK");
+        }
+        assertEquals(SPOTS - 1, classes.findScheduleById(scheduleId).getAvailableSpots());
+    }
+
+    @Test
+    void concurrentWritersReportExactlyWhatWasCommitted() throws Exception {
+        int writers = 2;
+        int attempts = 25;   // more than the spots, so some bookings must fail
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int firstUser = w * attempts + 1;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int booked = 0;
+                    for (int user = firstUser; user < firstUser + attempts; user++) {
+                        if (book(user)) {
+                            booked++;
+                        }
+                    }
+                    return booked;
+                }));
+            }
+            start.countDown();
+
+            int reported = 0;
+            for (Future<Integer> result : results) {
+                reported += result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertEquals(SPOTS, reported);
+            assertEquals(SPOTS, bookings.findByScheduleId(scheduleId).size());
+            assertEquals(0, classes.findScheduleById(scheduleId).getAvailableSpots());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void repositoryCommitInsideTransactionIsLeftToTheOwner() throws SQLException {
+        assertFalse(db.inTransaction(() -> {
+            try (Connection conn = db.getConnection()) {
+                conn.setAutoCommit(false);
+                assertTrue(classes.reserveSpot(scheduleId));
+                conn.commit();   // joined lease: does not end the outer transaction
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return false;
+        }));
+
+        assertEquals(SPOTS, classes.findScheduleById(scheduleId).getAvailableSpots());
+    }
+}
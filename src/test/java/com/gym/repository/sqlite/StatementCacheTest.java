@@ -0,0 +1,167 @@
+package com.gym.repository.sqlite;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private Connection physical;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        physical = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("cache.db"));
+        try (Statement stmt = physical.createStatement()) {
+            stmt.execute("CREATE TABLE items (id INTEGER PRIMARY KEY, name TEXT)");
+            stmt.execute("INSERT INTO items (id, name) VALUES (1, 'one'), (2, 'two')");
+        }
+    }
+
+    @AfterEach
+    void closeDatabase() throws SQLException {
+        physical.close();
+    }
+
+    @Test
+    void sameSqlIsPreparedOnce() throws SQLException {
+        StatementCache.Stats stats = new StatementCache.Stats();
+        StatementCache cache = new StatementCache(physical, 4, stats);
+
+        PreparedStatement first = cache.get("SELECT name FROM items WHERE id = ?");
+        PreparedStatement second = cache.get("SELECT name FROM items WHERE id = ?");
+
+        assertSame(first, second);
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getHits());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndClosesIt() throws SQLException {
+        StatementCache.Stats stats = new StatementCache.Stats();
+        StatementCache cache = new StatementCache(physical, 2, stats);
+
+        PreparedStatement a = cache.get("SELECT 1");
+        PreparedStatement b = cache.get("SELECT 2");
+        cache.get("SELECT 1");   // a is now the most recently used
+        cache.get("SELECT 3");   // over the limit: b goes
+
+        assertTrue(b.isClosed());
+        assertFalse(a.isClosed());
+        assertEquals(1, stats.getEvictions());
+        assertSame(a, cache.get("SELECT 1"));
+        assertNotSame(b, cache.get("SELECT 2"));
+        assertEquals(4, stats.getMisses());
+    }
+
+    @Test
+    void closedStatementIsPreparedAgain() throws SQLException {
+        StatementCache.Stats stats = new StatementCache.Stats();
+        StatementCache cache = new StatementCache(physical, 4, stats);
+
+        PreparedStatement stale = cache.get("SELECT 1");
+        stale.close();
+        PreparedStatement fresh = cache.get("SELECT 1");
+
+        assertNotSame(stale, fresh);
+        assertFalse(fresh.isClosed());
+        assertEquals(2, stats.getMisses());
+        assertEquals(0, stats.getHits());
+    }
+
+    @Test
+    void closeAllClosesEveryStatement() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4, new StatementCache.Stats());
+        PreparedStatement a = cache.get("SELECT 1");
+        PreparedStatement b = cache.get("SELECT 2");
+
+        cache.closeAll();
+
+        assertTrue(a.isClosed());
+        assertTrue(b.isClosed());
+    }
+
+    @Test
+    void closingLeasedStatementOnlyResetsIt() throws SQLException {
+        SqliteDatabaseManager db = new SqliteDatabaseManager("jdbc:sqlite:" + dir.resolve("cache.db"));
+        try {
+            String sql = "SELECT name FROM items WHERE id = ?";
+            ResultSet open;
+            try (Connection conn = db.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, 1);
+                open = pstmt.executeQuery();
+                assertTrue(open.next());
+                assertEquals("one", open.getString(1));
+                pstmt.close();
+                assertTrue(pstmt.isClosed());
+                assertThrows(SQLException.class, pstmt::executeQuery);
+            }
+            assertTrue(open.isClosed(), "closing the statement closes its result set");
+
+            // The pooled connection comes back with the same parsed statement, parameters cleared
+            try (Connection conn = db.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, 2);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals("two", rs.getString(1));
+                }
+            }
+            assertEquals(1, db.getStatementCacheStats().getMisses());
+            assertEquals(1, db.getStatementCacheStats().getHits());
+        } finally {
+            db.shutdown();
+        }
+    }
+
+    @Test
+    void sameSqlTwiceInOneLeaseGetsSeparateStatements() throws SQLException {
+        SqliteDatabaseManager db = new SqliteDatabaseManager("jdbc:sqlite:" + dir.resolve("cache.db"));
+        try (Connection conn = db.getConnection();
+             PreparedStatement outer = conn.prepareStatement("SELECT name FROM items WHERE id = ?");
+             PreparedStatement inner = conn.prepareStatement("SELECT name FROM items WHERE id = ?")) {
+            outer.setInt(1, 1);
+            inner.setInt(1, 2);
+            try (ResultSet a = outer.executeQuery(); ResultSet b = inner.executeQuery()) {
+                assertTrue(a.next());
+                assertTrue(b.next());
+                assertEquals("one", a.getString(1));
+                assertEquals("two", b.getString(1));
+            }
+        } finally {
+            db.shutdown();
+        }
+    }
+
+    @Test
+    void closedLeaseRejectsFurtherUse() throws SQLException {
+        SqliteDatabaseManager db = new SqliteDatabaseManager("jdbc:sqlite:" + dir.resolve("cache.db"));
+        try {
+            Connection conn = db.getConnection();
+            conn.close();
+            assertTrue(conn.isClosed());
+            assertThrows(SQLException.class, conn::createStatement);
+        } finally {
+            db.shutdown();
+        }
+    }
+}
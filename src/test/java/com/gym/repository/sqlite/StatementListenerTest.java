@@ -0,0 +1,50 @@
+package com.gym.repository.sqlite;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementListenerTest {
+
+    @TempDir
+    Path dir;
+
+    private SqliteDatabaseManager db;
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        db = new SqliteDatabaseManager("jdbc:sqlite:" + dir.resolve("gym.db"));
+        db.initializeDatabase();
+        db.addStatementListener((sql, parameters, nanos, error) -> executed.add(sql));
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void fullScansAreObservedLikeEveryOtherQuery() {
+        new SqliteUserRepository(db).findAll();
+        new SqliteBookingRepository(db).findAll();
+        new SqliteClassRepository(db).findAllClasses();
+        new SqliteClassRepository(db).findAllSchedules();
+        new SqliteProgressRepository(db).findAll();
+
+        assertEquals(5, executed.size(), executed.toString());
+        assertTrue(executed.get(0).endsWith("FROM users"));
+        assertTrue(executed.get(1).endsWith("FROM bookings"));
+        assertTrue(executed.get(2).endsWith("FROM classes"));
+        assertTrue(executed.get(3).endsWith("FROM class_schedule"));
+        assertTrue(executed.get(4).contains("FROM fitness_progress"));
+    }
+}
@@ -0,0 +1,187 @@
+package com.gym.service;
+
+import com.gym.domain.RequestKey;
+import com.gym.repository.sqlite.SqliteDatabaseManager;
+import com.gym.repository.sqlite.SqliteRequestKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotentRequestsTest {
+
+    @TempDir
+    Path dir;
+
+    private SqliteDatabaseManager db;
+    private SqliteRequestKeyRepository repository;
+    private IdempotentRequests requests;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        db = new SqliteDatabaseManager("jdbc:sqlite:" + dir.resolve("keys.db"));
+        db.initializeDatabase();
+        repository = new SqliteRequestKeyRepository(db);
+        requests = new IdempotentRequests(repository, 100, TimeUnit.HOURS.toMillis(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    // A request that succeeds and stores its key, as BookingServiceImpl does in its transaction
+    private boolean succeeding(IdempotentRequests target, RequestKey key) {
+        runs.incrementAndGet();
+        return target.save(key);
+    }
+
+    @Test
+    void retryReturnsFirstResultWithoutRunningAgain() {
+        assertTrue(requests.execute(1, "k1", RequestKey.BOOK, 10, key -> succeeding(requests, key)));
+        assertTrue(requests.execute(1, "k1", RequestKey.BOOK, 10, key -> succeeding(requests, key)));
+
+        assertEquals(1, runs.get());
+        assertEquals(1, requests.getStats().getExecuted());
+        assertEquals(1, requests.getStats().getReplayed());
+    }
+
+    @Test
+    void keyStoredByAnotherInstanceIsReplayedFromTheTable() {
+        assertTrue(requests.execute(1, "k1", RequestKey.BOOK, 10, key -> succeeding(requests, key)));
+
+        IdempotentRequests otherProcess = new IdempotentRequests(repository, 100, TimeUnit.HOURS.toMillis(1));
+        assertTrue(otherProcess.execute(1, "k1", RequestKey.BOOK, 10, key -> succeeding(otherProcess, key)));
+
+        assertEquals(1, runs.get());
+        assertEquals(1, otherProcess.getStats().getCacheMisses());
+        assertEquals(1, otherProcess.getStats().getReplayed());
+    }
+
+    @Test
+    void reusingKeyForAnotherRequestIsRejected() {
+        assertTrue(requests.execute(1, "k1", RequestKey.BOOK, 10, key -> succeeding(requests, key)));
+
+        assertFalse(requests.execute(1, "k1", RequestKey.BOOK, 11, key -> succeeding(requests, key)));
+        assertFalse(requests.execute(1, "k1", RequestKey.CANCEL, 10, key -> succeeding(requests, key)));
+
+        assertEquals(1, runs.get());
+        assertEquals(2, requests.getStats().getConflicts());
+    }
+
+    @Test
+    void keysAreScopedPerUser() {
+        assertTrue(requests.execute(1, "k1", RequestKey.BOOK, 10, key -> succeeding(requests, key)));
+        assertTrue(requests.execute(2, "k1", RequestKey.BOOK, 11, key -> succeeding(requests, key)));
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void failedRequestCanBeRetried() {
+        assertFalse(requests.execute(1, "k1", RequestKey.BOOK, 10, key -> {
+            runs.incrementAndGet();
+            return false;   // e.g. class full: nothing committed, key not stored
+        }));
+        assertTrue(requests.execute(1, "k1", RequestKey.BOOK, 10, key -> succeeding(requests, key)));
+
+        assertEquals(2, runs.get());
+        assertEquals(1, requests.getStats().getExecuted());
+    }
+
+    @Test
+    void requestThatThrowsCanBeRetried() {
+        assertThrows(IllegalStateException.class, () -> requests.execute(1, "k1", RequestKey.BOOK, 10, key -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(requests.execute(1, "k1", RequestKey.BOOK, 10, key -> succeeding(requests, key)));
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void invalidKeysAreRejected() {
+        assertFalse(requests.execute(1, " ", RequestKey.BOOK, 10, key -> succeeding(requests, key)));
+        assertFalse(requests.execute(1, "x".repeat(IdempotentRequests.MAX_KEY_LENGTH + 1), RequestKey.BOOK, 10,
+                key -> succeeding(requests, key)));
+
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() ->
+                requests.execute(1, "k1", RequestKey.BOOK, 10, key -> {
+                    started.countDown();
+                    await(release);
+                    return succeeding(requests, key);
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        AtomicReference<Boolean> duplicateResult = new AtomicReference<>();
+        Thread duplicate = new Thread(() ->
+                duplicateResult.set(requests.execute(1, "k1", RequestKey.BOOK, 10, key -> succeeding(requests, key))));
+        duplicate.start();
+        waitUntilParked(duplicate);   // blocked on the first request's result
+
+        // A different request under the same key does not wait: it is rejected at once
+        assertFalse(requests.execute(1, "k1", RequestKey.CANCEL, 10, key -> succeeding(requests, key)));
+
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        duplicate.join(5000);
+        assertEquals(Boolean.TRUE, duplicateResult.get());
+        assertEquals(1, runs.get());
+        assertEquals(1, requests.getStats().getReplayed());
+    }
+
+    @Test
+    void expiredKeyIsReadFromTheTableUntilPurged() throws InterruptedException {
+        IdempotentRequests shortLived = new IdempotentRequests(repository, 100, 1);
+        assertTrue(shortLived.execute(1, "k1", RequestKey.BOOK, 10, key -> succeeding(shortLived, key)));
+        Thread.sleep(5);
+
+        // Gone from the cache, still in the table: replayed, not run again
+        assertTrue(shortLived.execute(1, "k1", RequestKey.BOOK, 10, key -> succeeding(shortLived, key)));
+        assertEquals(1, runs.get());
+        assertEquals(2, shortLived.getStats().getCacheMisses());
+
+        // Once the table drops it too (the periodic purge), the key is new again
+        Thread.sleep(5);
+        assertTrue(repository.deleteBefore(System.currentTimeMillis()) > 0);
+        assertTrue(shortLived.execute(1, "k1", RequestKey.BOOK, 11, key -> succeeding(shortLived, key)));
+        assertEquals(2, runs.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntilParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+}
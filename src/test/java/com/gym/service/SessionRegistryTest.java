@@ -0,0 +1,108 @@
+package com.gym.service;
+
+import com.gym.domain.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionRegistryTest {
+    // 10 s timeout: a wheel of 12 one-second slots
+    private static final long TIMEOUT = 10_000;
+    private static final long START = 1_000_000_000;
+
+    private final AtomicLong now = new AtomicLong(START);
+    private final SessionRegistry registry = new SessionRegistry(TIMEOUT, now::get);
+
+    private static User user(int id) {
+        return new User(id, "user" + id, "x", "user" + id + "@gym.test", "MEMBER", null);
+    }
+
+    private void at(long millisAfterStart) {
+        now.set(START + millisAfterStart);
+        registry.tick();
+    }
+
+    @Test
+    void tickExpiresAnUnusedSessionAtItsTimeout() {
+        Session session = registry.create(user(7));
+
+        at(TIMEOUT - 1);
+        assertEquals(1, registry.size());
+
+        at(TIMEOUT);
+        assertEquals(0, registry.size());
+        assertEquals(1, registry.getStats().getExpired());
+        assertNull(registry.get(session.getToken()));
+    }
+
+    @Test
+    void getNeverReturnsAnExpiredSessionBetweenTicks() {
+        Session session = registry.create(user(7));
+
+        now.set(START + TIMEOUT - 1);
+        assertNotNull(registry.get(session.getToken()));
+        now.set(START + 2 * TIMEOUT - 1);
+        assertNull(registry.get(session.getToken()));
+        assertEquals(1, registry.getStats().getExpired());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void accessSlidesTheExpiry() {
+        Session session = registry.create(user(7));
+
+        now.set(START + 6_000);
+        assertNotNull(registry.get(session.getToken()));
+
+        at(TIMEOUT);              // its original slot: re-queued, not removed
+        assertEquals(1, registry.size());
+        at(6_000 + TIMEOUT - 1);
+        assertEquals(1, registry.size());
+        at(6_000 + TIMEOUT);
+        assertEquals(0, registry.size());
+        assertEquals(1, registry.getStats().getExpired());
+    }
+
+    @Test
+    void invalidatedSessionsAreGoneAndNotCountedAsExpired() {
+        Session ana = registry.create(user(7));
+        registry.create(user(7));
+        Session ben = registry.create(user(8));
+
+        assertTrue(registry.invalidate(ana.getToken()));
+        assertFalse(registry.invalidate(ana.getToken()));
+        assertNull(registry.get(ana.getToken()));
+        assertEquals(1, registry.invalidateUser(7));
+        assertEquals(2, registry.getStats().getEnded());
+
+        at(TIMEOUT);
+        assertEquals(0, registry.size());
+        assertEquals(1, registry.getStats().getExpired(), "only ben's session was still live");
+        assertNull(registry.get(ben.getToken()));
+    }
+
+    @Test
+    void catchUpLongerThanOneTurnExpiresOldSessionsAndKeepsLiveOnes() {
+        Session old = registry.create(user(7));
+
+        // No tick for five turns of the wheel, then a session created just before the late one
+        now.set(START + 60_000);
+        Session fresh = registry.create(user(8));
+        registry.tick();
+
+        assertEquals(1, registry.size());
+        assertNull(registry.get(old.getToken()));
+        assertNotNull(registry.get(fresh.getToken()));
+        assertEquals(1, registry.getStats().getExpired());
+
+        at(60_000 + TIMEOUT);
+        assertEquals(0, registry.size());
+        assertEquals(2, registry.getStats().getExpired());
+    }
+}
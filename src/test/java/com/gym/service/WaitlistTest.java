@@ -0,0 +1,159 @@
+package com.gym.service;
+
+import com.gym.domain.Booking;
+import com.gym.domain.ClassSchedule;
+import com.gym.domain.GymClass;
+import com.gym.domain.WaitlistEntry;
+import com.gym.repository.sqlite.SqliteBookingRepository;
+import com.gym.repository.sqlite.SqliteClassRepository;
+import com.gym.repository.sqlite.SqliteDatabaseManager;
+import com.gym.repository.sqlite.SqliteProgressRepository;
+import com.gym.repository.sqlite.SqliteWaitlistRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaitlistTest {
+
+    @TempDir
+    Path dir;
+
+    private SqliteDatabaseManager db;
+    private SqliteClassRepository classes;
+    private SqliteBookingRepository bookings;
+    private SqliteWaitlistRepository waitlistRepository;
+    private Waitlist waitlist;
+    private BookingServiceImpl service;
+    private int scheduleId;
+
+    @BeforeEach
+    void setUp() {
+        db = new SqliteDatabaseManager("jdbc:sqlite:" + dir.resolve("gym.db"));
+        db.initializeDatabase();
+        classes = new SqliteClassRepository(db);
+        bookings = new SqliteBookingRepository(db);
+        waitlistRepository = new SqliteWaitlistRepository(db);
+        waitlist = new Waitlist(waitlistRepository);
+        service = BookingServiceImpl.builder(bookings, classes, new ProgressServiceImpl(new SqliteProgressRepository(db)))
+                .transactions(db)
+                .waitlist(waitlist)
+                .build();
+
+        // One spot, so a single booking fills the class
+        GymClass spin = new GymClass("Spin", "Ana", "Indoor cycling", 1, 45, "CARDIO");
+        assertTrue(classes.saveClass(spin));
+        ClassSchedule schedule = new ClassSchedule(spin.getClassId(), LocalDate.now().plusDays(1),
+                LocalTime.of(9, 0), LocalTime.of(9, 45), 1);
+        assertTrue(classes.saveSchedule(schedule));
+        scheduleId = schedule.getScheduleId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void cancellationPromotesNextInLine() {
+        assertTrue(service.bookClass(1, scheduleId));
+        assertTrue(service.joinWaitlist(2, scheduleId));
+        assertTrue(service.joinWaitlist(3, scheduleId));
+        assertEquals(2, service.getWaitlistPosition(3, scheduleId));
+
+        assertTrue(service.cancelBooking(bookingOf(1), 1));
+
+        assertTrue(service.hasUserBooked(2, scheduleId));
+        assertFalse(service.hasUserBooked(3, scheduleId));
+        assertEquals(0, service.getWaitlistPosition(2, scheduleId));
+        assertEquals(1, service.getWaitlistPosition(3, scheduleId));
+        assertTrue(waitlistRepository.findWaitingByUser(2).isEmpty());
+        // The freed spot went straight to the promoted member
+        assertEquals(0, classes.findScheduleById(scheduleId).getAvailableSpots());
+        assertEquals(1, waitlist.getStats().getPromoted());
+    }
+
+    @Test
+    void priorityTierGoesBeforeEarlierStandardEntries() {
+        assertTrue(service.bookClass(1, scheduleId));
+        assertTrue(service.joinWaitlist(2, scheduleId, WaitlistEntry.TIER_STANDARD));
+        assertTrue(service.joinWaitlist(3, scheduleId, WaitlistEntry.TIER_PRIORITY));
+        assertEquals(1, service.getWaitlistPosition(3, scheduleId));
+        assertEquals(2, service.getWaitlistPosition(2, scheduleId));
+
+        assertTrue(service.cancelBooking(bookingOf(1), 1));
+
+        assertTrue(service.hasUserBooked(3, scheduleId));
+        assertFalse(service.hasUserBooked(2, scheduleId));
+    }
+
+    @Test
+    void cancellationWithoutWaitersFreesTheSpot() {
+        assertTrue(service.bookClass(1, scheduleId));
+
+        assertTrue(service.cancelBooking(bookingOf(1), 1));
+
+        assertEquals(1, classes.findScheduleById(scheduleId).getAvailableSpots());
+    }
+
+    @Test
+    void joiningIsRejectedWhileSpotsAreFree() {
+        assertFalse(service.joinWaitlist(2, scheduleId));
+        assertEquals(0, service.getWaitlistPosition(2, scheduleId));
+    }
+
+    @Test
+    void memberWhoBookedAnotherWayIsSkipped() {
+        assertTrue(service.bookClass(1, scheduleId));
+        assertTrue(service.joinWaitlist(2, scheduleId));
+        assertTrue(service.joinWaitlist(3, scheduleId));
+        assertTrue(bookings.save(new Booking(2, scheduleId, "CONFIRMED")));   // e.g. booked at the desk
+
+        assertTrue(service.cancelBooking(bookingOf(1), 1));
+
+        assertTrue(service.hasUserBooked(3, scheduleId));
+        assertEquals(1, bookings.findByUserId(2).size());
+        assertTrue(waitlistRepository.findWaitingByUser(2).isEmpty());
+        assertEquals(1, waitlist.getStats().getLeft());
+    }
+
+    @Test
+    void entryClosedElsewhereIsSkipped() {
+        assertTrue(service.bookClass(1, scheduleId));
+        assertTrue(service.joinWaitlist(2, scheduleId));
+        assertTrue(service.joinWaitlist(3, scheduleId));
+        // Another process took member 2 off the list; this process's mirror still has them
+        WaitlistEntry stale = waitlistRepository.findWaitingByUser(2).get(0);
+        assertTrue(waitlistRepository.updateStatus(stale.getEntryId(), WaitlistEntry.WAITING, WaitlistEntry.LEFT));
+
+        assertTrue(service.cancelBooking(bookingOf(1), 1));
+
+        assertFalse(service.hasUserBooked(2, scheduleId));
+        assertTrue(service.hasUserBooked(3, scheduleId));
+    }
+
+    @Test
+    void leavingTakesMemberOffTheList() {
+        assertTrue(service.bookClass(1, scheduleId));
+        assertTrue(service.joinWaitlist(2, scheduleId));
+
+        assertTrue(service.leaveWaitlist(2, scheduleId));
+        assertFalse(service.leaveWaitlist(2, scheduleId));
+
+        assertTrue(service.cancelBooking(bookingOf(1), 1));
+        assertFalse(service.hasUserBooked(2, scheduleId));
+        assertEquals(1, classes.findScheduleById(scheduleId).getAvailableSpots());
+    }
+
+    private int bookingOf(int userId) {
+        return bookings.findByUserId(userId).get(0).getBookingId();
+    }
+}
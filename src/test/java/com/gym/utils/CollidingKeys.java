@@ -0,0 +1,20 @@
+package com.gym.utils;
+
+/** Finds keys that hash to a chosen slot, to build probe runs on purpose. */
+final class CollidingKeys {
+    private CollidingKeys() {
+    }
+
+    /** count keys, negative ones included, whose home slot in a table of mask + 1 slots is home. */
+    static int[] withHome(int home, int mask, int count) {
+        int[] found = new int[count];
+        int n = 0;
+        for (int i = 0; n < count; i++) {
+            int key = (i & 1) == 0 ? i >> 1 : -(i >> 1) - 1;   // 0, -1, 1, -2, ...
+            if ((IntObjectMap.hash(key) & mask) == home) {
+                found[n++] = key;
+            }
+        }
+        return found;
+    }
+}
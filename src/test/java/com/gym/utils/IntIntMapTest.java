@@ -0,0 +1,158 @@
+package com.gym.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntIntMapTest {
+    // A default map has 32 slots
+    private static final int MASK = IntObjectMap.capacityFor(16) - 1;
+
+    @Test
+    void collidingKeysWrapAroundTheEndOfTheTable() {
+        int[] last = CollidingKeys.withHome(MASK, MASK, 3);    // slots 31, 0, 1
+        int[] first = CollidingKeys.withHome(0, MASK, 2);      // pushed on to 2, 3
+        IntIntMap map = new IntIntMap();
+        for (int key : last) {
+            map.put(key, 100 + key);
+        }
+        for (int key : first) {
+            map.put(key, 200 + key);
+        }
+
+        assertTrue(map.remove(last[0]));
+        assertFalse(map.containsKey(last[0]));
+        assertEquals(100 + last[1], map.get(last[1]));
+        assertEquals(100 + last[2], map.get(last[2]));
+        assertEquals(200 + first[0], map.get(first[0]));
+        assertEquals(200 + first[1], map.get(first[1]));
+
+        assertTrue(map.remove(first[0]));
+        assertTrue(map.remove(last[2]));
+        assertEquals(100 + last[1], map.get(last[1]));
+        assertEquals(200 + first[1], map.get(first[1]));
+        assertEquals(2, map.size());
+
+        assertEquals(5, map.addTo(last[0], 5));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void zeroAndNegativeKeysAreOrdinaryKeys() {
+        IntIntMap map = new IntIntMap();
+        assertFalse(map.containsKey(0));
+
+        map.put(0, 1);
+        map.put(-1, 2);
+        map.put(Integer.MIN_VALUE, 3);
+        map.addTo(Integer.MAX_VALUE, 4);
+
+        assertEquals(1, map.get(0));
+        assertEquals(2, map.get(-1));
+        assertEquals(3, map.get(Integer.MIN_VALUE));
+        assertEquals(4, map.get(Integer.MAX_VALUE));
+        assertTrue(map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void zeroValueIsStoredNotAbsent() {
+        IntIntMap map = new IntIntMap();
+        map.put(5, 0);
+        assertTrue(map.containsKey(5));
+        assertEquals(0, map.getOrDefault(5, -1));
+        assertEquals(-1, map.getOrDefault(6, -1));
+        assertEquals(0, map.get(6));
+
+        assertEquals(0, map.addTo(7, 0));
+        assertTrue(map.containsKey(7));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void addToCountsFromZero() {
+        IntIntMap counts = new IntIntMap();
+        for (int i = 0; i < 10; i++) {
+            counts.addTo(i % 3, 1);
+        }
+        assertEquals(4, counts.get(0));
+        assertEquals(3, counts.get(1));
+        assertEquals(3, counts.get(2));
+        assertEquals(-1, counts.addTo(3, -1));
+        assertEquals(4, counts.size());
+    }
+
+    @Test
+    void growingKeepsEveryMapping() {
+        IntIntMap map = new IntIntMap(1);
+        for (int key = -5000; key < 5000; key++) {
+            map.addTo(key, key * 2);   // addTo inserts too, and may be what triggers the rehash
+        }
+
+        assertEquals(10_000, map.size());
+        for (int key = -5000; key < 5000; key++) {
+            assertEquals(key * 2, map.get(key));
+        }
+        assertFalse(map.containsKey(5000));
+    }
+
+    @Test
+    void forEachAndKeysSkipRemovedMappings() {
+        IntIntMap map = new IntIntMap();
+        for (int key = 0; key < 100; key++) {
+            map.put(key, key + 1000);
+        }
+        for (int key = 0; key < 100; key += 3) {
+            map.remove(key);
+        }
+
+        Map<Integer, Integer> seen = new HashMap<>();
+        map.forEach((key, value) -> assertNull(seen.put(key, value)));
+        assertEquals(66, seen.size());
+        for (int key = 0; key < 100; key++) {
+            assertEquals(key % 3 == 0 ? null : key + 1000, seen.get(key));
+        }
+        int[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(seen.keySet().stream().mapToInt(Integer::intValue).sorted().toArray(), keys);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.keys().length);
+        assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    void behavesAsHashMapUnderRandomChurn() {
+        Random random = new Random(42);
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.remove(key) != null, map.remove(key));
+                case 1 -> {
+                    expected.put(key, i);
+                    map.put(key, i);
+                }
+                default -> assertEquals((int) expected.merge(key, 1, Integer::sum), map.addTo(key, 1));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (int key = -1000; key < 1000; key++) {
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            assertEquals(expected.getOrDefault(key, 0), map.get(key));
+        }
+    }
+}
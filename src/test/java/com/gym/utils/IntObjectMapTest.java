@@ -0,0 +1,156 @@
+package com.gym.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntObjectMapTest {
+    // A default map has 32 slots
+    private static final int MASK = IntObjectMap.capacityFor(16) - 1;
+
+    @Test
+    void collidingKeysWrapAroundTheEndOfTheTable() {
+        int[] last = CollidingKeys.withHome(MASK, MASK, 3);    // slots 31, 0, 1
+        int[] first = CollidingKeys.withHome(0, MASK, 2);      // pushed on to 2, 3
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int key : last) {
+            map.put(key, "last " + key);
+        }
+        for (int key : first) {
+            map.put(key, "first " + key);
+        }
+
+        // Removing the head of the run must pull the wrapped entries back, not cut them off
+        assertEquals("last " + last[0], map.remove(last[0]));
+        assertNull(map.get(last[0]));
+        assertEquals("last " + last[1], map.get(last[1]));
+        assertEquals("last " + last[2], map.get(last[2]));
+        assertEquals("first " + first[0], map.get(first[0]));
+        assertEquals("first " + first[1], map.get(first[1]));
+
+        assertEquals("first " + first[0], map.remove(first[0]));
+        assertEquals("last " + last[2], map.remove(last[2]));
+        assertEquals("last " + last[1], map.get(last[1]));
+        assertEquals("first " + first[1], map.get(first[1]));
+        assertEquals(2, map.size());
+
+        // Re-inserting lands in the freed slots and is found again
+        map.put(last[0], "again");
+        assertEquals("again", map.get(last[0]));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void zeroAndNegativeKeysAreOrdinaryKeys() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertFalse(map.containsKey(0));
+        assertNull(map.get(0));
+
+        map.put(0, "zero");
+        map.put(-1, "minus one");
+        map.put(Integer.MIN_VALUE, "min");
+        map.put(Integer.MAX_VALUE, "max");
+
+        assertEquals("zero", map.get(0));
+        assertEquals("minus one", map.get(-1));
+        assertEquals("min", map.get(Integer.MIN_VALUE));
+        assertEquals("max", map.get(Integer.MAX_VALUE));
+        assertNull(map.get(1));
+        assertEquals("zero", map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void putReplacesAndReturnsThePreviousValue() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertNull(map.put(7, "a"));
+        assertEquals("a", map.put(7, "b"));
+        assertEquals("b", map.putIfAbsent(7, "c"));
+        assertEquals("b", map.get(7));
+        assertEquals(1, map.size());
+        assertNull(map.remove(8));
+        assertThrows(NullPointerException.class, () -> map.put(9, null));
+    }
+
+    @Test
+    void computeIfAbsentDoesNotStoreNull() {
+        IntObjectMap<List<Integer>> map = new IntObjectMap<>();
+        map.computeIfAbsent(1, key -> new ArrayList<>()).add(10);
+        map.computeIfAbsent(1, key -> new ArrayList<>()).add(11);
+        assertNull(map.computeIfAbsent(2, key -> null));
+
+        assertEquals(List.of(10, 11), map.get(1));
+        assertFalse(map.containsKey(2));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void growingKeepsEveryMapping() {
+        IntObjectMap<Integer> map = new IntObjectMap<>(1);
+        for (int key = -5000; key < 5000; key++) {
+            map.put(key, key * 2);
+        }
+
+        assertEquals(10_000, map.size());
+        for (int key = -5000; key < 5000; key++) {
+            assertEquals(key * 2, map.get(key));
+        }
+        assertNull(map.get(5000));
+    }
+
+    @Test
+    void forEachAndValuesSkipRemovedMappings() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int key = 0; key < 100; key++) {
+            map.put(key, "v" + key);
+        }
+        for (int key = 0; key < 100; key += 3) {
+            map.remove(key);
+        }
+
+        Map<Integer, String> seen = new HashMap<>();
+        map.forEach((key, value) -> assertNull(seen.put(key, value)));
+        assertEquals(66, seen.size());
+        for (int key = 0; key < 100; key++) {
+            assertEquals(key % 3 == 0 ? null : "v" + key, seen.get(key));
+        }
+        assertEquals(66, map.values().size());
+        assertTrue(map.values().containsAll(seen.values()));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertTrue(map.values().isEmpty());
+        assertNull(map.get(1));
+    }
+
+    @Test
+    void behavesAsHashMapUnderRandomChurn() {
+        Random random = new Random(42);
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (int key = -1000; key < 1000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+}
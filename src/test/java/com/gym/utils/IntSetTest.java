@@ -0,0 +1,124 @@
+package com.gym.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntSetTest {
+    // A default set has 32 slots
+    private static final int MASK = IntObjectMap.capacityFor(16) - 1;
+
+    @Test
+    void collidingValuesWrapAroundTheEndOfTheTable() {
+        int[] last = CollidingKeys.withHome(MASK, MASK, 3);    // slots 31, 0, 1
+        int[] first = CollidingKeys.withHome(0, MASK, 2);      // pushed on to 2, 3
+        IntSet set = new IntSet();
+        for (int value : last) {
+            assertTrue(set.add(value));
+        }
+        for (int value : first) {
+            assertTrue(set.add(value));
+        }
+        assertFalse(set.add(last[2]));
+
+        assertTrue(set.remove(last[0]));
+        assertFalse(set.contains(last[0]));
+        assertTrue(set.contains(last[1]));
+        assertTrue(set.contains(last[2]));
+        assertTrue(set.contains(first[0]));
+        assertTrue(set.contains(first[1]));
+
+        assertTrue(set.remove(first[0]));
+        assertTrue(set.remove(last[2]));
+        assertFalse(set.remove(last[2]));
+        assertArrayEquals(sorted(last[1], first[1]), set.toSortedArray());
+    }
+
+    @Test
+    void zeroAndNegativeValuesAreOrdinaryMembers() {
+        IntSet set = new IntSet();
+        assertFalse(set.contains(0));
+
+        assertTrue(set.add(0));
+        assertTrue(set.add(-1));
+        assertTrue(set.add(Integer.MIN_VALUE));
+        assertTrue(set.add(Integer.MAX_VALUE));
+        assertFalse(set.add(0));
+
+        assertArrayEquals(new int[] {Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE}, set.toSortedArray());
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void growingKeepsEveryMember() {
+        IntSet set = new IntSet(1);
+        for (int value = -5000; value < 5000; value++) {
+            assertTrue(set.add(value));
+        }
+
+        assertEquals(10_000, set.size());
+        for (int value = -5000; value < 5000; value++) {
+            assertTrue(set.contains(value));
+        }
+        assertFalse(set.contains(5000));
+    }
+
+    @Test
+    void iterationSkipsRemovedMembers() {
+        IntSet set = new IntSet();
+        for (int value = 0; value < 100; value++) {
+            set.add(value);
+        }
+        for (int value = 0; value < 100; value += 3) {
+            set.remove(value);
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        set.forEach(value -> assertTrue(seen.add(value)));
+        assertEquals(66, seen.size());
+        assertFalse(seen.contains(0));
+        assertTrue(seen.contains(1));
+        assertEquals(66, set.toArray().length);
+        assertEquals(33, set.count(value -> value % 2 == 0));
+        assertTrue(set.anyMatch(value -> value == 98));
+        assertFalse(set.anyMatch(value -> value == 99));
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.toArray().length);
+        assertFalse(set.contains(1));
+    }
+
+    @Test
+    void behavesAsHashSetUnderRandomChurn() {
+        Random random = new Random(42);
+        IntSet set = new IntSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).sorted().toArray(), set.toSortedArray());
+    }
+
+    private static int[] sorted(int... values) {
+        Arrays.sort(values);
+        return values;
+    }
+}
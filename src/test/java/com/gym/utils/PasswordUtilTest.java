@@ -0,0 +1,69 @@
+package com.gym.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordUtilTest {
+    // Cheap hashes where the count does not matter; the global count is left alone
+    private static final int FEW = 1_000;
+
+    @Test
+    void hashVerifiesOnlyItsOwnPassword() {
+        String stored = PasswordUtil.hash("secret", FEW);
+
+        assertTrue(stored.startsWith("pbkdf2$" + FEW + "$"));
+        assertTrue(PasswordUtil.verify("secret", stored));
+        assertFalse(PasswordUtil.verify("Secret", stored));
+        assertFalse(PasswordUtil.verify("", stored));
+        assertFalse(PasswordUtil.verify(null, stored));
+        assertNotEquals(stored, PasswordUtil.hash("secret", FEW), "new salt each time");
+    }
+
+    @Test
+    void legacyPlaintextVerifiesAndNeedsRehash() {
+        assertFalse(PasswordUtil.isHashed("secret"));
+        assertTrue(PasswordUtil.verify("secret", "secret"));
+        assertFalse(PasswordUtil.verify("secret2", "secret"));
+        assertFalse(PasswordUtil.verify("secret", null));
+        assertTrue(PasswordUtil.needsRehash("secret"));
+    }
+
+    @Test
+    void needsRehashOnlyForAnotherIterationCount() {
+        int current = PasswordUtil.getIterations();
+        String old = PasswordUtil.hash("secret", current + 1);
+
+        assertFalse(PasswordUtil.needsRehash(PasswordUtil.hash("secret")));
+        assertTrue(PasswordUtil.needsRehash(old));
+        assertTrue(PasswordUtil.verify("secret", old), "old hashes still verify");
+    }
+
+    @Test
+    void corruptStoredValuesNeverVerify() {
+        String good = PasswordUtil.hash("secret", FEW);
+        String[] parts = good.split("\\$");
+        String[] corrupt = {
+                "pbkdf2$",
+                "pbkdf2$" + FEW + "$" + parts[2],                       // no hash
+                good + "$extra",
+                "pbkdf2$many$" + parts[2] + "$" + parts[3],             // bad count
+                "pbkdf2$0$" + parts[2] + "$" + parts[3],                // count the JDK rejects
+                "pbkdf2$" + FEW + "$not*base64$" + parts[3],
+                "pbkdf2$" + FEW + "$" + parts[2] + "$" + parts[3].substring(1),   // truncated hash
+        };
+        for (String stored : corrupt) {
+            assertFalse(PasswordUtil.verify("secret", stored), stored);
+            assertTrue(PasswordUtil.needsRehash(stored), stored);
+        }
+        assertTrue(PasswordUtil.verify("secret", good));
+    }
+
+    @Test
+    void iterationCountMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> PasswordUtil.setIterations(0));
+    }
+}